@@ -0,0 +1,77 @@
+package io.github.abudanov.springframework.ai.yandex;
+
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionRequest;
+import io.github.abudanov.springframework.ai.yandex.test.YandexStubServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the client side of a chat call: option resolution, request mapping and a full
+ * {@link YandexChatModel#call(Prompt)} against a {@link YandexStubServer}. Lives in the
+ * model package to reach the package-private request mapping the calls go through.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class YandexChatModelBenchmark {
+
+	private YandexStubServer server;
+
+	private YandexChatModel chatModel;
+
+	private Prompt prompt;
+
+	@Setup
+	public void setUp() throws IOException {
+		this.server = new YandexStubServer();
+		this.chatModel = new YandexChatModel(this.server.createApi(), "b1g0000000000000000",
+				YandexChatOptions.builder().withModel(YandexApi.ChatModel.YANDEXGPT_LITE).build());
+		this.prompt = new Prompt(
+				List.of(new SystemMessage("You are a concise assistant."),
+						new UserMessage("Explain in one sentence what Spring AI is.")),
+				YandexChatOptions.builder().withTemperature(0.3).withMaxTokens(200).build());
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.server.close();
+	}
+
+	@Benchmark
+	public YandexChatOptions buildRequestOptions() {
+		return this.chatModel.buildRequestOptions(this.prompt.getOptions());
+	}
+
+	@Benchmark
+	public CompletionRequest toRequest() {
+		return this.chatModel.toRequest(this.prompt, this.chatModel.buildRequestOptions(this.prompt.getOptions()),
+				false);
+	}
+
+	@Benchmark
+	public ChatResponse call() {
+		return this.chatModel.call(this.prompt);
+	}
+
+}
@@ -0,0 +1,76 @@
+package io.github.abudanov.springframework.ai.yandex;
+
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi;
+import io.github.abudanov.springframework.ai.yandex.test.YandexStubServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the client side of an embedding call: option resolution, request mapping and
+ * a full {@link YandexEmbeddingModel#call(EmbeddingRequest)} against a
+ * {@link YandexStubServer}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class YandexEmbeddingModelBenchmark {
+
+	@Param({ "1", "16" })
+	int texts;
+
+	private YandexStubServer server;
+
+	private YandexEmbeddingModel embeddingModel;
+
+	private EmbeddingRequest request;
+
+	@Setup
+	public void setUp() throws IOException {
+		var model = YandexApi.EmbeddingModel.TEXT_SEARCH_DOC;
+		this.server = new YandexStubServer();
+		this.embeddingModel = new YandexEmbeddingModel(this.server.createApi(), "b1g0000000000000000",
+				new YandexEmbeddingOptions(model));
+		var instructions = new ArrayList<String>(this.texts);
+		for (int i = 0; i < this.texts; i++) {
+			instructions.add("Chunk " + i + " of a document about retrieval augmented generation.");
+		}
+		this.request = new EmbeddingRequest(instructions, new YandexEmbeddingOptions(model));
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.server.close();
+	}
+
+	@Benchmark
+	public List<YandexApi.TextEmbeddingRequest> toRequest() {
+		return this.embeddingModel.toRequest(this.request,
+				this.embeddingModel.buildRequestOptions(this.request.getOptions()));
+	}
+
+	@Benchmark
+	public EmbeddingResponse call() {
+		return this.embeddingModel.call(this.request);
+	}
+
+}
@@ -0,0 +1,81 @@
+package io.github.abudanov.springframework.ai.yandex.benchmarks;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionMessage;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionOptions;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionRequest;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionResult;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionStatus;
+import io.github.abudanov.springframework.ai.yandex.api.YandexJsonCodec;
+import io.github.abudanov.springframework.ai.yandex.test.YandexStubResponses;
+import io.github.abudanov.springframework.ai.yandex.test.YandexStubServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares (de)serialization of the completion records through a generic
+ * {@link ObjectMapper} with the {@link YandexJsonCodec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompletionCodecBenchmark {
+
+	private final ObjectMapper objectMapper = new ObjectMapper()
+		.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+	private final CompletionRequest request = new CompletionRequest(
+			YandexApi.ChatModel.YANDEXGPT_LITE.getModelUri("b1g0000000000000000"),
+			new CompletionOptions(false, 0.3, 200),
+			List.of(new CompletionMessage(YandexApi.Role.SYSTEM, "You are a concise assistant."),
+					new CompletionMessage(YandexApi.Role.USER, "Explain in one sentence what Spring AI is.")));
+
+	private byte[] response;
+
+	@Setup
+	public void setUp() throws IOException {
+		var words = YandexStubResponses.completionWords(this.request, YandexStubServer.DEFAULT_COMPLETION_TOKENS);
+		var completion = YandexStubResponses.completion(this.request, words, words.length,
+				CompletionStatus.ALTERNATIVE_STATUS_FINAL);
+		this.response = YandexJsonCodec.write(new CompletionResult(completion));
+	}
+
+	@Benchmark
+	public CompletionResult decodeGeneric() throws IOException {
+		return this.objectMapper.readValue(new ByteArrayInputStream(this.response), CompletionResult.class);
+	}
+
+	@Benchmark
+	public CompletionResult decodeCodec() throws IOException {
+		return YandexJsonCodec.read(new ByteArrayInputStream(this.response), CompletionResult.class);
+	}
+
+	@Benchmark
+	public byte[] encodeGeneric() throws IOException {
+		return this.objectMapper.writeValueAsBytes(this.request);
+	}
+
+	@Benchmark
+	public byte[] encodeCodec() throws IOException {
+		return YandexJsonCodec.write(this.request);
+	}
+
+}
@@ -0,0 +1,96 @@
+package io.github.abudanov.springframework.ai.yandex.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.abudanov.springframework.ai.yandex.EmbeddingUtils;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.TextEmbeddingRequest;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.TextEmbeddingResponse;
+import io.github.abudanov.springframework.ai.yandex.api.YandexJsonCodec;
+import io.github.abudanov.springframework.ai.yandex.test.YandexStubResponses;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding of a text embedding response through a generic {@link ObjectMapper}
+ * into {@code double[]} followed by {@link EmbeddingUtils#doubleToFloatPrimitive} with
+ * the {@link YandexJsonCodec}. Run with {@code -prof gc} to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmbeddingCodecBenchmark {
+
+	@Param({ "256" })
+	int dimensions;
+
+	private final ObjectMapper objectMapper = new ObjectMapper()
+		.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+	private final TextEmbeddingRequest request = new TextEmbeddingRequest(
+			YandexApi.EmbeddingModel.TEXT_SEARCH_DOC.getModelUri("b1g0000000000000000"),
+			"The quick brown fox jumps over the lazy dog");
+
+	private byte[] response;
+
+	private double[] doubles;
+
+	@Setup
+	public void setUp() throws IOException {
+		this.response = YandexJsonCodec.write(YandexStubResponses.embedding(this.request, this.dimensions));
+		this.doubles = this.objectMapper.readValue(this.response, GenericTextEmbeddingResponse.class).embedding();
+	}
+
+	@Benchmark
+	public float[] decodeGeneric() throws IOException {
+		var decoded = this.objectMapper.readValue(new ByteArrayInputStream(this.response),
+				GenericTextEmbeddingResponse.class);
+		return EmbeddingUtils.doubleToFloatPrimitive(decoded.embedding());
+	}
+
+	@Benchmark
+	public float[] decodeCodec() throws IOException {
+		return YandexJsonCodec.read(new ByteArrayInputStream(this.response), TextEmbeddingResponse.class).embedding();
+	}
+
+	@Benchmark
+	public float[] doubleToFloatPrimitive() {
+		return EmbeddingUtils.doubleToFloatPrimitive(this.doubles);
+	}
+
+	@Benchmark
+	public byte[] encodeGeneric() throws IOException {
+		return this.objectMapper.writeValueAsBytes(this.request);
+	}
+
+	@Benchmark
+	public byte[] encodeCodec() throws IOException {
+		return YandexJsonCodec.write(this.request);
+	}
+
+	/**
+	 * Shape of {@link TextEmbeddingResponse} before the dedicated codec was introduced.
+	 */
+	public record GenericTextEmbeddingResponse(@JsonProperty("embedding") double[] embedding,
+			@JsonProperty("numTokens") long numTokens, @JsonProperty("modelVersion") String modelVersion) {
+
+	}
+
+}
@@ -0,0 +1,34 @@
+package io.github.abudanov.springframework.ai.yandex.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar. Accepts the regular JMH command line and always
+ * adds the GC profiler, so every run reports the allocation rate per operation next to
+ * the throughput; results are also written to {@code jmh-result.json}.
+ * <p>
+ * Run with {@code mvn -Pbenchmarks package} and
+ * {@code java -jar spring-ai-yandex-benchmarks/target/benchmarks.jar [regexp...]}.
+ */
+public final class YandexBenchmarks {
+
+	private YandexBenchmarks() {
+	}
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		var commandLine = new CommandLineOptions(args);
+		var options = new OptionsBuilder().parent(commandLine)
+			.addProfiler(GCProfiler.class)
+			.resultFormat(ResultFormatType.JSON)
+			.result("jmh-result.json")
+			.build();
+		new Runner(options).run();
+	}
+
+}
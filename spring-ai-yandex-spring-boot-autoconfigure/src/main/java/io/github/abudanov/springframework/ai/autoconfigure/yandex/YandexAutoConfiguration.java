@@ -1,57 +1,185 @@
 package io.github.abudanov.springframework.ai.autoconfigure.yandex;
 
+import io.github.abudanov.springframework.ai.yandex.ChatHistoryTrimmer;
 import io.github.abudanov.springframework.ai.yandex.YandexChatModel;
 import io.github.abudanov.springframework.ai.yandex.YandexEmbeddingModel;
+import io.github.abudanov.springframework.ai.yandex.YandexExecutors;
+import io.github.abudanov.springframework.ai.yandex.api.ReactiveYandexApi;
 import io.github.abudanov.springframework.ai.yandex.api.YandexApi;
+import io.github.abudanov.springframework.ai.yandex.api.YandexHttpTransport;
+import io.github.abudanov.springframework.ai.yandex.auth.IamToken;
+import io.github.abudanov.springframework.ai.yandex.auth.YandexCredential;
+import io.github.abudanov.springframework.ai.yandex.auth.YandexCredentialPool;
+import io.github.abudanov.springframework.ai.yandex.auth.YandexIamTokenClient;
+import io.github.abudanov.springframework.ai.yandex.auth.YandexIamTokenProvider;
+import io.github.abudanov.springframework.ai.yandex.auth.YandexServiceAccountKey;
+import io.github.abudanov.springframework.ai.yandex.cache.ChatResponseCache;
+import io.github.abudanov.springframework.ai.yandex.cache.EmbeddingCache;
+import io.github.abudanov.springframework.ai.yandex.metrics.MicrometerYandexMetricsRecorder;
+import io.github.abudanov.springframework.ai.yandex.metrics.YandexMetricsRecorder;
+import io.github.abudanov.springframework.ai.yandex.ratelimit.RateLimitMode;
+import io.github.abudanov.springframework.ai.yandex.ratelimit.YandexRateLimiter;
+import io.github.abudanov.springframework.ai.yandex.retry.RetryBudget;
+import io.github.abudanov.springframework.ai.yandex.retry.YandexCircuitBreaker;
+import io.github.abudanov.springframework.ai.yandex.retry.YandexHedgingPolicy;
+import io.github.abudanov.springframework.ai.yandex.retry.YandexReactiveRetry;
+import io.github.abudanov.springframework.ai.yandex.retry.YandexResponseErrorHandler;
+import io.github.abudanov.springframework.ai.yandex.retry.YandexRetryUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.ai.autoconfigure.retry.SpringAiRetryAutoConfiguration;
 import org.springframework.ai.chat.observation.ChatModelObservationConvention;
 import org.springframework.ai.embedding.observation.EmbeddingModelObservationConvention;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.web.client.RestClientAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.Nullable;
 import org.springframework.retry.support.RetryTemplate;
+import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
 import org.springframework.web.client.ResponseErrorHandler;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
 
-@AutoConfiguration(after = { RestClientAutoConfiguration.class, SpringAiRetryAutoConfiguration.class })
+@AutoConfiguration(after = { RestClientAutoConfiguration.class, SpringAiRetryAutoConfiguration.class },
+		afterName = { "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration",
+				"org.springframework.boot.autoconfigure.web.reactive.function.client.WebClientAutoConfiguration" })
 @ConditionalOnClass(YandexApi.class)
 @EnableConfigurationProperties({ YandexConnectionProperties.class, YandexChatProperties.class,
-		YandexEmbeddingProperties.class })
+		YandexEmbeddingProperties.class, YandexRetryProperties.class, YandexHttpProperties.class })
 @ImportAutoConfiguration(classes = { RestClientAutoConfiguration.class, SpringAiRetryAutoConfiguration.class })
 public class YandexAutoConfiguration {
 
+	private static final Logger logger = LoggerFactory.getLogger(YandexAutoConfiguration.class);
+
+	/**
+	 * The name of a {@link RetryTemplate} bean of the application used by the Yandex
+	 * models instead of the Yandex retry policy.
+	 */
+	public static final String YANDEX_RETRY_TEMPLATE_BEAN_NAME = "yandexRetryTemplate";
+
+	/**
+	 * The name of a {@link ResponseErrorHandler} bean of the application used by the
+	 * Yandex models instead of the {@link YandexResponseErrorHandler}.
+	 */
+	public static final String YANDEX_ERROR_HANDLER_BEAN_NAME = "yandexResponseErrorHandler";
+
 	private static final String FOLDER_ID_HEADER = "x-folder-id";
 
+	@Bean
+	@ConditionalOnMissingBean
+	public YandexHttpTransport yandexHttpTransport(YandexHttpProperties httpProperties) {
+		ExecutorService executor = null;
+		if (httpProperties.isVirtualThreads()) {
+			if (YandexExecutors.isVirtualThreadSupported()) {
+				executor = YandexExecutors.newTaskExecutor("yandex-", true);
+			}
+			else {
+				logger.info("Virtual threads are not supported by the runtime, using platform threads");
+			}
+		}
+		return new YandexHttpTransport(httpProperties.getMaxConnections(), httpProperties.getConnectTimeout(),
+				httpProperties.getReadTimeout(), httpProperties.getAcquireTimeout(), httpProperties.getVersion(),
+				executor);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = YandexConnectionProperties.CONFIG_PREFIX + ".iam", name = "enabled",
+			havingValue = "true")
+	public YandexIamTokenProvider yandexIamTokenProvider(YandexConnectionProperties connectionProperties,
+			YandexHttpTransport httpTransport, RestClient.Builder restClientBuilder) throws IOException {
+		var iam = connectionProperties.getIam();
+		var tokenClient = new YandexIamTokenClient(iam.getTokenUrl(), httpTransport.apply(restClientBuilder));
+		Supplier<IamToken> tokenSource;
+		if (iam.getServiceAccountKeyFile() != null) {
+			YandexServiceAccountKey key;
+			try (var inputStream = iam.getServiceAccountKeyFile().getInputStream()) {
+				key = YandexServiceAccountKey.read(inputStream);
+			}
+			tokenSource = () -> tokenClient.createToken(key);
+		}
+		else {
+			var oauthToken = iam.getOauthToken();
+			Assert.hasText(oauthToken, "A service account key file or an OAuth token must be set to use IAM tokens");
+			tokenSource = () -> tokenClient.createToken(oauthToken);
+		}
+		return new YandexIamTokenProvider(tokenSource, iam.getRefreshInterval(), iam.getRefreshJitter());
+	}
+
 	@Bean
 	@ConditionalOnMissingBean
 	@ConditionalOnProperty(prefix = YandexChatProperties.CONFIG_PREFIX, name = "enabled", havingValue = "true",
 			matchIfMissing = true)
 	public YandexChatModel yandexChatModel(YandexConnectionProperties connectionProperties,
 			YandexChatProperties completionProperties, YandexEmbeddingProperties embeddingProperties,
+			YandexRetryProperties retryProperties, YandexHttpTransport httpTransport,
 			RestClient.Builder restClientBuilder, RetryTemplate retryTemplate,
 			ResponseErrorHandler responseErrorHandler, ObjectProvider<ObservationRegistry> observationRegistry,
-			ObjectProvider<ChatModelObservationConvention> observationConvention) {
+			ObjectProvider<ChatModelObservationConvention> observationConvention,
+			ObjectProvider<YandexMetricsRecorder> metricsRecorder,
+			ObjectProvider<YandexReactiveApiFactory> reactiveApiFactory,
+			ObjectProvider<YandexIamTokenProvider> iamTokenProvider,
+			@Qualifier(YANDEX_RETRY_TEMPLATE_BEAN_NAME) ObjectProvider<RetryTemplate> yandexRetryTemplate,
+			@Qualifier(YANDEX_ERROR_HANDLER_BEAN_NAME) ObjectProvider<ResponseErrorHandler> yandexErrorHandler) {
 		var properties = ResolvedConnectionProperties.of(connectionProperties, completionProperties);
+		var resilience = Resilience.of(retryProperties, retryTemplate, responseErrorHandler,
+				yandexRetryTemplate.getIfAvailable(), yandexErrorHandler.getIfAvailable());
 		var yandexApi = new YandexApi(properties.baseUrl(), properties.apiKey(), properties.headers(),
-				restClientBuilder, completionProperties.getCompletionPath(), embeddingProperties.getEmbeddingPath(),
-				responseErrorHandler);
+				httpTransport.apply(restClientBuilder), completionProperties.getCompletionPath(),
+				embeddingProperties.getEmbeddingPath(), completionProperties.getCompletionAsyncPath(),
+				completionProperties.getOperationPath(), resilience.responseErrorHandler());
+		yandexApi.setRateLimiter(properties.rateLimiter());
+		yandexApi.setCredentialPool(properties.credentialPool());
+		iamTokenProvider.ifAvailable(yandexApi::setIamTokenProvider);
+		yandexApi.setTokenizePath(completionProperties.getTokenizePath());
+		yandexApi.setTokenizeCompletionPath(completionProperties.getTokenizeCompletionPath());
 		var registry = observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP);
 		var yandexChatModel = new YandexChatModel(yandexApi, properties.folderId(), completionProperties.getOptions(),
-				retryTemplate, registry);
+				resilience.retryTemplate(), registry);
+		if (httpTransport.getExecutor() != null) {
+			yandexChatModel.setTaskExecutor(httpTransport.getExecutor());
+		}
 		observationConvention.ifAvailable(yandexChatModel::setObservationConvention);
+		metricsRecorder.ifUnique(yandexChatModel::setMetricsRecorder);
+		reactiveApiFactory.ifAvailable(factory -> yandexChatModel.setReactiveApi(factory.create(properties.baseUrl(),
+				properties.apiKey(), properties.headers(), properties.rateLimiter(), properties.credentialPool())));
+		yandexChatModel.setReactiveRetry(resilience.reactiveRetry());
+		var cache = completionProperties.getCache();
+		if (cache.isEnabled()) {
+			yandexChatModel.setResponseCache(new ChatResponseCache(cache.getMaximumSize().toBytes(),
+					cache.getTimeToLive(), cache.getEvictionPolicy()));
+		}
+		var history = completionProperties.getHistory();
+		if (history.isTrimEnabled()) {
+			yandexChatModel.setHistoryTrimmer(
+					new ChatHistoryTrimmer(history.getCompletionReserve(), history.getMessageOverhead()));
+		}
+		var hedging = completionProperties.getHedging();
+		if (hedging.isEnabled()) {
+			yandexChatModel.setHedgingPolicy(new YandexHedgingPolicy(hedging.getPercentile(), hedging.getMinDelay(),
+					hedging.getBudgetRatio(), hedging.getWindowSize(), hedging.getMinSamples()));
+		}
 		return yandexChatModel;
 	}
 
@@ -61,38 +189,234 @@ public class YandexAutoConfiguration {
 			matchIfMissing = true)
 	public YandexEmbeddingModel yandexEmbeddingModel(YandexConnectionProperties connectionProperties,
 			YandexChatProperties completionProperties, YandexEmbeddingProperties embeddingProperties,
+			YandexRetryProperties retryProperties, YandexHttpTransport httpTransport,
 			RestClient.Builder restClientBuilder, RetryTemplate retryTemplate,
 			ResponseErrorHandler responseErrorHandler, ObjectProvider<ObservationRegistry> observationRegistry,
-			ObjectProvider<EmbeddingModelObservationConvention> observationConvention) {
+			ObjectProvider<EmbeddingModelObservationConvention> observationConvention,
+			ObjectProvider<YandexMetricsRecorder> metricsRecorder,
+			ObjectProvider<YandexReactiveApiFactory> reactiveApiFactory,
+			ObjectProvider<YandexIamTokenProvider> iamTokenProvider,
+			@Qualifier(YANDEX_RETRY_TEMPLATE_BEAN_NAME) ObjectProvider<RetryTemplate> yandexRetryTemplate,
+			@Qualifier(YANDEX_ERROR_HANDLER_BEAN_NAME) ObjectProvider<ResponseErrorHandler> yandexErrorHandler) {
 		var properties = ResolvedConnectionProperties.of(connectionProperties, embeddingProperties);
+		var resilience = Resilience.of(retryProperties, retryTemplate, responseErrorHandler,
+				yandexRetryTemplate.getIfAvailable(), yandexErrorHandler.getIfAvailable());
 		var yandexApi = new YandexApi(properties.baseUrl(), properties.apiKey(), properties.headers(),
-				restClientBuilder, completionProperties.getCompletionPath(), embeddingProperties.getEmbeddingPath(),
-				responseErrorHandler);
+				httpTransport.apply(restClientBuilder), completionProperties.getCompletionPath(),
+				embeddingProperties.getEmbeddingPath(), completionProperties.getCompletionAsyncPath(),
+				completionProperties.getOperationPath(), resilience.responseErrorHandler());
+		yandexApi.setRateLimiter(properties.rateLimiter());
+		yandexApi.setCredentialPool(properties.credentialPool());
+		iamTokenProvider.ifAvailable(yandexApi::setIamTokenProvider);
+		yandexApi.setTokenizePath(completionProperties.getTokenizePath());
+		yandexApi.setTokenizeCompletionPath(completionProperties.getTokenizeCompletionPath());
 		ObservationRegistry registry = observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP);
 		var yandexEmbeddingModel = new YandexEmbeddingModel(yandexApi, properties.folderId(),
-				embeddingProperties.getOptions(), retryTemplate, registry);
+				embeddingProperties.getOptions(), resilience.retryTemplate(), registry);
+		if (httpTransport.getExecutor() != null) {
+			yandexEmbeddingModel.setTaskExecutor(httpTransport.getExecutor());
+		}
 		observationConvention.ifAvailable(yandexEmbeddingModel::setObservationConvention);
+		metricsRecorder.ifUnique(yandexEmbeddingModel::setMetricsRecorder);
+		reactiveApiFactory.ifAvailable(factory -> yandexEmbeddingModel.setReactiveApi(
+				factory.create(properties.baseUrl(), properties.apiKey(), properties.headers(),
+						properties.rateLimiter(), properties.credentialPool())));
+		yandexEmbeddingModel.setReactiveRetry(resilience.reactiveRetry());
+		var cache = embeddingProperties.getCache();
+		if (cache.isEnabled()) {
+			yandexEmbeddingModel.setEmbeddingCache(new EmbeddingCache(cache.getMaximumSize().toBytes(),
+					cache.getTimeToLive(), cache.getEvictionPolicy()));
+		}
 		return yandexEmbeddingModel;
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(MeterRegistry.class)
+	static class YandexHttpMetricsConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean(name = "yandexHttpTransportMeterBinder")
+		MeterBinder yandexHttpTransportMeterBinder(YandexHttpTransport httpTransport) {
+			return new YandexHttpTransportMeterBinder(httpTransport);
+		}
+
+		@Bean
+		@ConditionalOnMissingBean(name = "yandexCacheMeterBinders")
+		MeterBinder yandexCacheMeterBinders(ObjectProvider<YandexChatModel> chatModel,
+				ObjectProvider<YandexEmbeddingModel> embeddingModel) {
+			return registry -> {
+				chatModel.ifUnique(model -> {
+					var cache = model.getResponseCache();
+					if (cache != null) {
+						new YandexCacheMeterBinder("chat", cache::stats).bindTo(registry);
+					}
+				});
+				embeddingModel.ifUnique(model -> {
+					var cache = model.getEmbeddingCache();
+					if (cache != null) {
+						new YandexCacheMeterBinder("embedding", cache::stats).bindTo(registry);
+					}
+				});
+			};
+		}
+
+		@Bean
+		@ConditionalOnMissingBean(name = "yandexRateLimiterMeterBinders")
+		MeterBinder yandexRateLimiterMeterBinders(ObjectProvider<YandexChatModel> chatModel,
+				ObjectProvider<YandexEmbeddingModel> embeddingModel) {
+			return registry -> {
+				chatModel.ifUnique(model -> {
+					var rateLimiter = model.getRateLimiter();
+					if (rateLimiter != null) {
+						new YandexRateLimiterMeterBinder("chat", rateLimiter).bindTo(registry);
+					}
+				});
+				embeddingModel.ifUnique(model -> {
+					var rateLimiter = model.getRateLimiter();
+					if (rateLimiter != null) {
+						new YandexRateLimiterMeterBinder("embedding", rateLimiter).bindTo(registry);
+					}
+				});
+			};
+		}
+
+		@Bean
+		@ConditionalOnMissingBean
+		@ConditionalOnBean(MeterRegistry.class)
+		YandexMetricsRecorder yandexMetricsRecorder(MeterRegistry meterRegistry) {
+			return new MicrometerYandexMetricsRecorder(meterRegistry);
+		}
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(WebClient.class)
+	@ConditionalOnProperty(prefix = YandexHttpProperties.CONFIG_PREFIX, name = "reactive-enabled", havingValue = "true",
+			matchIfMissing = true)
+	static class YandexReactiveConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		YandexReactiveApiFactory yandexReactiveApiFactory(ObjectProvider<WebClient.Builder> webClientBuilder,
+				YandexChatProperties completionProperties, YandexEmbeddingProperties embeddingProperties,
+				YandexHttpProperties httpProperties, ObjectProvider<YandexIamTokenProvider> iamTokenProvider) {
+			return (baseUrl, apiKey, headers, rateLimiter, credentialPool) -> {
+				var reactiveApi = new ReactiveYandexApi(baseUrl, apiKey, headers,
+						webClientBuilder.getIfAvailable(WebClient::builder), completionProperties.getCompletionPath(),
+						embeddingProperties.getEmbeddingPath(), completionProperties.getCompletionAsyncPath(),
+						completionProperties.getOperationPath());
+				reactiveApi.setTokenizePath(completionProperties.getTokenizePath());
+				reactiveApi.setTimeout(httpProperties.getReadTimeout());
+				reactiveApi.setRateLimiter(rateLimiter);
+				reactiveApi.setCredentialPool(credentialPool);
+				iamTokenProvider.ifAvailable(reactiveApi::setIamTokenProvider);
+				return reactiveApi;
+			};
+		}
+
+	}
+
 	private record ResolvedConnectionProperties(String baseUrl, String folderId, String apiKey,
-			MultiValueMap<String, String> headers) {
+			MultiValueMap<String, String> headers, YandexRateLimiter rateLimiter, YandexCredentialPool credentialPool) {
 
 		static ResolvedConnectionProperties of(YandexConnectionProperties connectionProperties,
 				YandexCommonProperties modelProperties) {
 
 			var baseUrl = StringUtils.hasText(modelProperties.getBaseUrl()) ? modelProperties.getBaseUrl()
 					: connectionProperties.getBaseUrl();
+			var credentialPool = credentialPool(connectionProperties.getPool());
+			var primary = (credentialPool != null) ? credentialPool.primary() : null;
 			var folderId = StringUtils.hasText(modelProperties.getFolderId()) ? modelProperties.getFolderId()
-					: connectionProperties.getFolderId();
-			var apiKey = StringUtils.hasText(modelProperties.getApiKey()) ? modelProperties.getApiKey()
-					: connectionProperties.getApiKey();
+					: StringUtils.hasText(connectionProperties.getFolderId()) ? connectionProperties.getFolderId()
+							: (primary != null) ? primary.folderId() : null;
+			String apiKey = null;
+			if (!connectionProperties.getIam().isEnabled()) {
+				apiKey = StringUtils.hasText(modelProperties.getApiKey()) ? modelProperties.getApiKey()
+						: StringUtils.hasText(connectionProperties.getApiKey()) ? connectionProperties.getApiKey()
+								: (primary != null) ? primary.apiKey() : null;
+			}
 			var headers = new HashMap<String, List<String>>();
 			if (StringUtils.hasText(folderId)) {
 				headers.put(FOLDER_ID_HEADER, List.of(folderId));
 			}
 			return new ResolvedConnectionProperties(baseUrl, folderId, apiKey,
-					CollectionUtils.toMultiValueMap(headers));
+					CollectionUtils.toMultiValueMap(headers),
+					rateLimiter(connectionProperties.getRateLimit(), modelProperties.getRateLimit()), credentialPool);
+		}
+
+		private static YandexCredentialPool credentialPool(YandexConnectionProperties.Pool pool) {
+			if (pool.getCredentials().isEmpty()) {
+				return null;
+			}
+			var credentials = pool.getCredentials()
+				.stream()
+				.map(credential -> new YandexCredential(credential.getFolderId(), credential.getApiKey(),
+						credential.getWeight()))
+				.toList();
+			return new YandexCredentialPool(credentials, pool.getEjectionDuration());
+		}
+
+		private static YandexRateLimiter rateLimiter(YandexCommonProperties.RateLimit connectionRateLimit,
+				YandexCommonProperties.RateLimit modelRateLimit) {
+			boolean enabled = resolve(modelRateLimit.getEnabled(), connectionRateLimit.getEnabled(), false);
+			if (!enabled) {
+				return null;
+			}
+			double requestsPerSecond = resolve(modelRateLimit.getRequestsPerSecond(),
+					connectionRateLimit.getRequestsPerSecond(), YandexRateLimiter.DEFAULT_REQUESTS_PER_SECOND);
+			int burst = resolve(modelRateLimit.getBurst(), connectionRateLimit.getBurst(),
+					(int) Math.max(1, Math.ceil(requestsPerSecond)));
+			var mode = resolve(modelRateLimit.getMode(), connectionRateLimit.getMode(), RateLimitMode.BLOCKING);
+			var timeout = resolve(modelRateLimit.getTimeout(), connectionRateLimit.getTimeout(),
+					YandexRateLimiter.DEFAULT_TIMEOUT);
+			return new YandexRateLimiter(requestsPerSecond, burst, mode, timeout);
+		}
+
+		private static <T> T resolve(T modelValue, T connectionValue, T defaultValue) {
+			return (modelValue != null) ? modelValue : (connectionValue != null) ? connectionValue : defaultValue;
+		}
+	}
+
+	/**
+	 * The retry template, reactive retry and error handler of a model: the Yandex-specific
+	 * ones, each model with its own retry budget and circuit breaker shared by the blocking
+	 * and reactive calls, or the Spring AI ones and a default reactive retry when the
+	 * Yandex retry policy is disabled. The {@code yandexRetryTemplate} and
+	 * {@code yandexResponseErrorHandler} beans of the application, if any, are always
+	 * used.
+	 */
+	private record Resilience(RetryTemplate retryTemplate, YandexReactiveRetry reactiveRetry,
+			ResponseErrorHandler responseErrorHandler) {
+
+		static Resilience of(YandexRetryProperties retryProperties, RetryTemplate retryTemplate,
+				ResponseErrorHandler responseErrorHandler, @Nullable RetryTemplate yandexRetryTemplate,
+				@Nullable ResponseErrorHandler yandexResponseErrorHandler) {
+			if (!retryProperties.isEnabled()) {
+				logger.info("The Yandex retry policy is disabled, using the {} retry template",
+						(yandexRetryTemplate != null) ? YANDEX_RETRY_TEMPLATE_BEAN_NAME : "Spring AI");
+				return new Resilience((yandexRetryTemplate != null) ? yandexRetryTemplate : retryTemplate,
+						YandexRetryUtils.reactiveRetry(),
+						(yandexResponseErrorHandler != null) ? yandexResponseErrorHandler : responseErrorHandler);
+			}
+			var errorHandler = (yandexResponseErrorHandler != null) ? yandexResponseErrorHandler
+					: new YandexResponseErrorHandler();
+			if (yandexRetryTemplate != null) {
+				logger.info("Using the {} bean instead of the Yandex retry policy", YANDEX_RETRY_TEMPLATE_BEAN_NAME);
+				return new Resilience(yandexRetryTemplate, YandexRetryUtils.reactiveRetry(), errorHandler);
+			}
+			var budget = retryProperties.getBudget();
+			var retryBudget = new RetryBudget(budget.getRatio(), budget.getMinRetriesPerSecond());
+			var breaker = retryProperties.getCircuitBreaker();
+			var circuitBreaker = breaker.isEnabled() ? new YandexCircuitBreaker(breaker.getFailureRateThreshold(),
+					breaker.getSlidingWindowSize(), breaker.getMinimumCalls(), breaker.getOpenDuration(),
+					breaker.getHalfOpenCalls()) : null;
+			var policyRetryTemplate = YandexRetryUtils.retryTemplate(retryProperties.getMaxAttempts(),
+					retryProperties.getInitialInterval(), retryProperties.getMaxInterval(),
+					retryProperties.getMaxRetryAfter(), retryBudget, circuitBreaker);
+			var reactiveRetry = YandexRetryUtils.reactiveRetry(retryProperties.getMaxAttempts(),
+					retryProperties.getInitialInterval(), retryProperties.getMaxInterval(),
+					retryProperties.getMaxRetryAfter(), retryBudget, circuitBreaker);
+			return new Resilience(policyRetryTemplate, reactiveRetry, errorHandler);
 		}
 	}
 
@@ -0,0 +1,61 @@
+package io.github.abudanov.springframework.ai.autoconfigure.yandex;
+
+import io.github.abudanov.springframework.ai.yandex.cache.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.function.Supplier;
+
+/**
+ * Exposes the statistics of a Yandex cache: hits, misses, evictions, size and hit ratio.
+ */
+class YandexCacheMeterBinder implements MeterBinder {
+
+	private final String cacheName;
+
+	private final Supplier<CacheStats> stats;
+
+	/**
+	 * Creates a binder.
+	 * @param cacheName the value of the {@code cache} tag
+	 * @param stats supplies the current statistics of the cache
+	 */
+	YandexCacheMeterBinder(String cacheName, Supplier<CacheStats> stats) {
+		this.cacheName = cacheName;
+		this.stats = stats;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("yandex.cache.requests", this.stats, stats -> stats.get().hitCount())
+			.description("Number of Yandex cache lookups")
+			.tag("cache", this.cacheName)
+			.tag("result", "hit")
+			.register(registry);
+		FunctionCounter.builder("yandex.cache.requests", this.stats, stats -> stats.get().missCount())
+			.description("Number of Yandex cache lookups")
+			.tag("cache", this.cacheName)
+			.tag("result", "miss")
+			.register(registry);
+		FunctionCounter.builder("yandex.cache.evictions", this.stats, stats -> stats.get().evictionCount())
+			.description("Number of entries evicted from a Yandex cache")
+			.tag("cache", this.cacheName)
+			.register(registry);
+		Gauge.builder("yandex.cache.size", this.stats, stats -> stats.get().size())
+			.description("Number of entries in a Yandex cache")
+			.tag("cache", this.cacheName)
+			.register(registry);
+		Gauge.builder("yandex.cache.weight", this.stats, stats -> stats.get().weight())
+			.description("Estimated size of the entries in a Yandex cache")
+			.tag("cache", this.cacheName)
+			.baseUnit("bytes")
+			.register(registry);
+		Gauge.builder("yandex.cache.hit.ratio", this.stats, stats -> stats.get().hitRatio())
+			.description("Share of Yandex cache lookups that found an entry")
+			.tag("cache", this.cacheName)
+			.register(registry);
+	}
+
+}
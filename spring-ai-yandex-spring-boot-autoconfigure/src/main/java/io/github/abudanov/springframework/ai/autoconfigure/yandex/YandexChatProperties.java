@@ -1,9 +1,16 @@
 package io.github.abudanov.springframework.ai.autoconfigure.yandex;
 
+import io.github.abudanov.springframework.ai.yandex.ChatHistoryTrimmer;
 import io.github.abudanov.springframework.ai.yandex.YandexChatOptions;
 import io.github.abudanov.springframework.ai.yandex.api.YandexApi;
+import io.github.abudanov.springframework.ai.yandex.cache.ChatResponseCache;
+import io.github.abudanov.springframework.ai.yandex.cache.EvictionPolicy;
+import io.github.abudanov.springframework.ai.yandex.retry.YandexHedgingPolicy;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
 
 @ConfigurationProperties(prefix = YandexChatProperties.CONFIG_PREFIX)
 public class YandexChatProperties extends YandexCommonProperties {
@@ -26,6 +33,20 @@ public class YandexChatProperties extends YandexCommonProperties {
 
 	private String completionPath = DEFAULT_COMPLETION_PATH;
 
+	private String completionAsyncPath = YandexApi.DEFAULT_COMPLETION_ASYNC_PATH;
+
+	private String operationPath = YandexApi.DEFAULT_OPERATION_PATH;
+
+	private String tokenizePath = YandexApi.DEFAULT_TOKENIZE_PATH;
+
+	private String tokenizeCompletionPath = YandexApi.DEFAULT_TOKENIZE_COMPLETION_PATH;
+
+	private final Cache cache = new Cache();
+
+	private final History history = new History();
+
+	private final Hedging hedging = new Hedging();
+
 	public boolean isEnabled() {
 		return enabled;
 	}
@@ -50,4 +71,232 @@ public class YandexChatProperties extends YandexCommonProperties {
 		this.completionPath = completionPath;
 	}
 
+	public String getCompletionAsyncPath() {
+		return completionAsyncPath;
+	}
+
+	public void setCompletionAsyncPath(String completionAsyncPath) {
+		this.completionAsyncPath = completionAsyncPath;
+	}
+
+	public String getOperationPath() {
+		return operationPath;
+	}
+
+	public void setOperationPath(String operationPath) {
+		this.operationPath = operationPath;
+	}
+
+	public String getTokenizePath() {
+		return tokenizePath;
+	}
+
+	public void setTokenizePath(String tokenizePath) {
+		this.tokenizePath = tokenizePath;
+	}
+
+	public String getTokenizeCompletionPath() {
+		return tokenizeCompletionPath;
+	}
+
+	public void setTokenizeCompletionPath(String tokenizeCompletionPath) {
+		this.tokenizeCompletionPath = tokenizeCompletionPath;
+	}
+
+	public Cache getCache() {
+		return cache;
+	}
+
+	public History getHistory() {
+		return history;
+	}
+
+	public Hedging getHedging() {
+		return hedging;
+	}
+
+	public static class Cache {
+
+		/**
+		 * Whether to cache completions in memory. Only requests at temperature 0 use the
+		 * cache unless the use-cache option is set.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Maximum total size of the cached completions.
+		 */
+		private DataSize maximumSize = DataSize.ofBytes(ChatResponseCache.DEFAULT_MAXIMUM_WEIGHT);
+
+		/**
+		 * Time a completion is kept after it was cached.
+		 */
+		private Duration timeToLive = ChatResponseCache.DEFAULT_TIME_TO_LIVE;
+
+		/**
+		 * Order in which completions are evicted once the cache is full.
+		 */
+		private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public DataSize getMaximumSize() {
+			return maximumSize;
+		}
+
+		public void setMaximumSize(DataSize maximumSize) {
+			this.maximumSize = maximumSize;
+		}
+
+		public Duration getTimeToLive() {
+			return timeToLive;
+		}
+
+		public void setTimeToLive(Duration timeToLive) {
+			this.timeToLive = timeToLive;
+		}
+
+		public EvictionPolicy getEvictionPolicy() {
+			return evictionPolicy;
+		}
+
+		public void setEvictionPolicy(EvictionPolicy evictionPolicy) {
+			this.evictionPolicy = evictionPolicy;
+		}
+
+	}
+
+	public static class History {
+
+		/**
+		 * Whether to drop the oldest turns of conversations that do not fit in the
+		 * context of the model. System messages are always kept.
+		 */
+		private boolean trimEnabled = false;
+
+		/**
+		 * Tokens kept for the completion when the request does not set max-tokens.
+		 */
+		private int completionReserve = ChatHistoryTrimmer.DEFAULT_COMPLETION_RESERVE;
+
+		/**
+		 * Tokens counted per message for the special tokens separating the messages.
+		 */
+		private int messageOverhead = ChatHistoryTrimmer.DEFAULT_MESSAGE_OVERHEAD;
+
+		public boolean isTrimEnabled() {
+			return trimEnabled;
+		}
+
+		public void setTrimEnabled(boolean trimEnabled) {
+			this.trimEnabled = trimEnabled;
+		}
+
+		public int getCompletionReserve() {
+			return completionReserve;
+		}
+
+		public void setCompletionReserve(int completionReserve) {
+			this.completionReserve = completionReserve;
+		}
+
+		public int getMessageOverhead() {
+			return messageOverhead;
+		}
+
+		public void setMessageOverhead(int messageOverhead) {
+			this.messageOverhead = messageOverhead;
+		}
+
+	}
+
+	public static class Hedging {
+
+		/**
+		 * Whether to send a duplicate of the blocking chat calls slower than the
+		 * percentile of the recent latencies, and use the first response.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Percentile of the recent latencies after which a call is hedged.
+		 */
+		private double percentile = YandexHedgingPolicy.DEFAULT_PERCENTILE;
+
+		/**
+		 * Minimum time to wait before hedging a call.
+		 */
+		private Duration minDelay = YandexHedgingPolicy.DEFAULT_MIN_DELAY;
+
+		/**
+		 * Maximum share of the calls that may be hedged.
+		 */
+		private double budgetRatio = YandexHedgingPolicy.DEFAULT_BUDGET_RATIO;
+
+		/**
+		 * Number of recent latencies the percentile is computed on.
+		 */
+		private int windowSize = YandexHedgingPolicy.DEFAULT_WINDOW_SIZE;
+
+		/**
+		 * Number of latencies observed before any call is hedged.
+		 */
+		private int minSamples = YandexHedgingPolicy.DEFAULT_MIN_SAMPLES;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public double getPercentile() {
+			return percentile;
+		}
+
+		public void setPercentile(double percentile) {
+			this.percentile = percentile;
+		}
+
+		public Duration getMinDelay() {
+			return minDelay;
+		}
+
+		public void setMinDelay(Duration minDelay) {
+			this.minDelay = minDelay;
+		}
+
+		public double getBudgetRatio() {
+			return budgetRatio;
+		}
+
+		public void setBudgetRatio(double budgetRatio) {
+			this.budgetRatio = budgetRatio;
+		}
+
+		public int getWindowSize() {
+			return windowSize;
+		}
+
+		public void setWindowSize(int windowSize) {
+			this.windowSize = windowSize;
+		}
+
+		public int getMinSamples() {
+			return minSamples;
+		}
+
+		public void setMinSamples(int minSamples) {
+			this.minSamples = minSamples;
+		}
+
+	}
+
 }
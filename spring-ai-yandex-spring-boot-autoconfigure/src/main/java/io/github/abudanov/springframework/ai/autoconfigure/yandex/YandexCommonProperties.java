@@ -1,5 +1,9 @@
 package io.github.abudanov.springframework.ai.autoconfigure.yandex;
 
+import io.github.abudanov.springframework.ai.yandex.ratelimit.RateLimitMode;
+
+import java.time.Duration;
+
 class YandexCommonProperties {
 
 	private String baseUrl;
@@ -8,6 +12,8 @@ class YandexCommonProperties {
 
 	private String apiKey;
 
+	private final RateLimit rateLimit = new RateLimit();
+
 	public String getFolderId() {
 		return folderId;
 	}
@@ -32,4 +38,81 @@ class YandexCommonProperties {
 		this.apiKey = apiKey;
 	}
 
+	public RateLimit getRateLimit() {
+		return rateLimit;
+	}
+
+	/**
+	 * Client-side rate limit. Unset values of a model fall back to the connection ones.
+	 */
+	public static class RateLimit {
+
+		/**
+		 * Whether to limit the rate of requests per folder and model.
+		 */
+		private Boolean enabled;
+
+		/**
+		 * Sustained number of requests per second.
+		 */
+		private Double requestsPerSecond;
+
+		/**
+		 * Number of requests that can be sent at once, defaults to the requests per
+		 * second.
+		 */
+		private Integer burst;
+
+		/**
+		 * How a request waits for a permit.
+		 */
+		private RateLimitMode mode;
+
+		/**
+		 * Maximum wait for a permit in the timed mode.
+		 */
+		private Duration timeout;
+
+		public Boolean getEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(Boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Double getRequestsPerSecond() {
+			return requestsPerSecond;
+		}
+
+		public void setRequestsPerSecond(Double requestsPerSecond) {
+			this.requestsPerSecond = requestsPerSecond;
+		}
+
+		public Integer getBurst() {
+			return burst;
+		}
+
+		public void setBurst(Integer burst) {
+			this.burst = burst;
+		}
+
+		public RateLimitMode getMode() {
+			return mode;
+		}
+
+		public void setMode(RateLimitMode mode) {
+			this.mode = mode;
+		}
+
+		public Duration getTimeout() {
+			return timeout;
+		}
+
+		public void setTimeout(Duration timeout) {
+			this.timeout = timeout;
+		}
+
+	}
+
 }
@@ -1,6 +1,14 @@
 package io.github.abudanov.springframework.ai.autoconfigure.yandex;
 
+import io.github.abudanov.springframework.ai.yandex.auth.YandexCredentialPool;
+import io.github.abudanov.springframework.ai.yandex.auth.YandexIamTokenClient;
+import io.github.abudanov.springframework.ai.yandex.auth.YandexIamTokenProvider;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 @ConfigurationProperties(prefix = YandexConnectionProperties.CONFIG_PREFIX)
 public class YandexConnectionProperties extends YandexCommonProperties {
@@ -9,8 +17,187 @@ public class YandexConnectionProperties extends YandexCommonProperties {
 
 	public static final String DEFAULT_BASE_URL = "https://llm.api.cloud.yandex.net/foundationModels";
 
+	private final Pool pool = new Pool();
+
+	private final Iam iam = new Iam();
+
 	public YandexConnectionProperties() {
 		super.setBaseUrl(DEFAULT_BASE_URL);
 	}
 
+	public Pool getPool() {
+		return pool;
+	}
+
+	public Iam getIam() {
+		return iam;
+	}
+
+	/**
+	 * Authorization with short-lived IAM tokens instead of API keys. The token is shared
+	 * by the chat and embedding models and refreshed in the background.
+	 */
+	public static class Iam {
+
+		/**
+		 * Whether to authorize requests with an IAM token. API keys of the connection and
+		 * of the models are then ignored.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Authorized key file of the service account to get IAM tokens for.
+		 */
+		private Resource serviceAccountKeyFile;
+
+		/**
+		 * OAuth token of a Yandex account to get IAM tokens for, when no service account
+		 * key file is set.
+		 */
+		private String oauthToken;
+
+		/**
+		 * URL of the IAM token endpoint.
+		 */
+		private String tokenUrl = YandexIamTokenClient.DEFAULT_TOKEN_URL;
+
+		/**
+		 * Maximum age of the IAM token before it is refreshed.
+		 */
+		private Duration refreshInterval = YandexIamTokenProvider.DEFAULT_REFRESH_INTERVAL;
+
+		/**
+		 * Maximum share the refresh delays are randomly shortened by, so that instances do
+		 * not refresh their tokens at the same time.
+		 */
+		private double refreshJitter = YandexIamTokenProvider.DEFAULT_JITTER;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Resource getServiceAccountKeyFile() {
+			return serviceAccountKeyFile;
+		}
+
+		public void setServiceAccountKeyFile(Resource serviceAccountKeyFile) {
+			this.serviceAccountKeyFile = serviceAccountKeyFile;
+		}
+
+		public String getOauthToken() {
+			return oauthToken;
+		}
+
+		public void setOauthToken(String oauthToken) {
+			this.oauthToken = oauthToken;
+		}
+
+		public String getTokenUrl() {
+			return tokenUrl;
+		}
+
+		public void setTokenUrl(String tokenUrl) {
+			this.tokenUrl = tokenUrl;
+		}
+
+		public Duration getRefreshInterval() {
+			return refreshInterval;
+		}
+
+		public void setRefreshInterval(Duration refreshInterval) {
+			this.refreshInterval = refreshInterval;
+		}
+
+		public double getRefreshJitter() {
+			return refreshJitter;
+		}
+
+		public void setRefreshJitter(double refreshJitter) {
+			this.refreshJitter = refreshJitter;
+		}
+
+	}
+
+	/**
+	 * Credentials of several folders the completion and embedding requests are spread
+	 * over. The first one is used when no folder ID or API key is set.
+	 */
+	public static class Pool {
+
+		/**
+		 * Folder IDs and API keys to spread the requests over.
+		 */
+		private List<Credential> credentials = new ArrayList<>();
+
+		/**
+		 * Minimum time a credential is not used for after it was throttled.
+		 */
+		private Duration ejectionDuration = YandexCredentialPool.DEFAULT_EJECTION_DURATION;
+
+		public List<Credential> getCredentials() {
+			return credentials;
+		}
+
+		public void setCredentials(List<Credential> credentials) {
+			this.credentials = credentials;
+		}
+
+		public Duration getEjectionDuration() {
+			return ejectionDuration;
+		}
+
+		public void setEjectionDuration(Duration ejectionDuration) {
+			this.ejectionDuration = ejectionDuration;
+		}
+
+	}
+
+	public static class Credential {
+
+		/**
+		 * ID of the folder the requests are billed and limited to.
+		 */
+		private String folderId;
+
+		/**
+		 * API key of a service account with access to the folder, or none to use the IAM
+		 * token.
+		 */
+		private String apiKey;
+
+		/**
+		 * Share of the requests sent with this credential relative to the other ones.
+		 */
+		private int weight = 1;
+
+		public String getFolderId() {
+			return folderId;
+		}
+
+		public void setFolderId(String folderId) {
+			this.folderId = folderId;
+		}
+
+		public String getApiKey() {
+			return apiKey;
+		}
+
+		public void setApiKey(String apiKey) {
+			this.apiKey = apiKey;
+		}
+
+		public int getWeight() {
+			return weight;
+		}
+
+		public void setWeight(int weight) {
+			this.weight = weight;
+		}
+
+	}
+
 }
@@ -2,8 +2,13 @@ package io.github.abudanov.springframework.ai.autoconfigure.yandex;
 
 import io.github.abudanov.springframework.ai.yandex.YandexEmbeddingOptions;
 import io.github.abudanov.springframework.ai.yandex.api.YandexApi;
+import io.github.abudanov.springframework.ai.yandex.cache.EmbeddingCache;
+import io.github.abudanov.springframework.ai.yandex.cache.EvictionPolicy;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
 
 @ConfigurationProperties(prefix = YandexEmbeddingProperties.CONFIG_PREFIX)
 public class YandexEmbeddingProperties extends YandexCommonProperties {
@@ -19,6 +24,8 @@ public class YandexEmbeddingProperties extends YandexCommonProperties {
 	@NestedConfigurationProperty
 	private YandexEmbeddingOptions options = new YandexEmbeddingOptions(DEFAULT_EMBEDDINGS_MODEL);
 
+	private final Cache cache = new Cache();
+
 	public String getEmbeddingPath() {
 		return embeddingPath;
 	}
@@ -35,4 +42,64 @@ public class YandexEmbeddingProperties extends YandexCommonProperties {
 		this.options = options;
 	}
 
+	public Cache getCache() {
+		return cache;
+	}
+
+	public static class Cache {
+
+		/**
+		 * Whether to cache embeddings in memory.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Maximum total size of the cached vectors.
+		 */
+		private DataSize maximumSize = DataSize.ofBytes(EmbeddingCache.DEFAULT_MAXIMUM_WEIGHT);
+
+		/**
+		 * Time an embedding is kept after it was cached.
+		 */
+		private Duration timeToLive = EmbeddingCache.DEFAULT_TIME_TO_LIVE;
+
+		/**
+		 * Order in which embeddings are evicted once the cache is full.
+		 */
+		private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public DataSize getMaximumSize() {
+			return maximumSize;
+		}
+
+		public void setMaximumSize(DataSize maximumSize) {
+			this.maximumSize = maximumSize;
+		}
+
+		public Duration getTimeToLive() {
+			return timeToLive;
+		}
+
+		public void setTimeToLive(Duration timeToLive) {
+			this.timeToLive = timeToLive;
+		}
+
+		public EvictionPolicy getEvictionPolicy() {
+			return evictionPolicy;
+		}
+
+		public void setEvictionPolicy(EvictionPolicy evictionPolicy) {
+			this.evictionPolicy = evictionPolicy;
+		}
+
+	}
+
 }
@@ -0,0 +1,108 @@
+package io.github.abudanov.springframework.ai.autoconfigure.yandex;
+
+import io.github.abudanov.springframework.ai.yandex.api.YandexHttpTransport;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = YandexHttpProperties.CONFIG_PREFIX)
+public class YandexHttpProperties {
+
+	public static final String CONFIG_PREFIX = "spring.ai.yandex.http";
+
+	/**
+	 * Maximum number of requests in flight across all Yandex clients.
+	 */
+	private int maxConnections = YandexHttpTransport.DEFAULT_MAX_CONNECTIONS;
+
+	/**
+	 * Timeout of establishing a connection.
+	 */
+	private Duration connectTimeout = YandexHttpTransport.DEFAULT_CONNECT_TIMEOUT;
+
+	/**
+	 * Timeout of receiving a response.
+	 */
+	private Duration readTimeout = YandexHttpTransport.DEFAULT_READ_TIMEOUT;
+
+	/**
+	 * Maximum wait for a connection when all of them are in use.
+	 */
+	private Duration acquireTimeout = YandexHttpTransport.DEFAULT_ACQUIRE_TIMEOUT;
+
+	/**
+	 * Preferred HTTP version.
+	 */
+	private HttpClient.Version version = HttpClient.Version.HTTP_2;
+
+	/**
+	 * Whether to create the WebClient-based clients of the reactive calls when WebFlux is
+	 * on the classpath.
+	 */
+	private boolean reactiveEnabled = true;
+
+	/**
+	 * Whether to run the blocking calls on virtual threads: the asynchronous calls of the
+	 * models, the concurrent embedding calls and the tasks of the HTTP client. Ignored on
+	 * runtimes without virtual threads.
+	 */
+	private boolean virtualThreads = false;
+
+	public int getMaxConnections() {
+		return maxConnections;
+	}
+
+	public void setMaxConnections(int maxConnections) {
+		this.maxConnections = maxConnections;
+	}
+
+	public Duration getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	public void setConnectTimeout(Duration connectTimeout) {
+		this.connectTimeout = connectTimeout;
+	}
+
+	public Duration getReadTimeout() {
+		return readTimeout;
+	}
+
+	public void setReadTimeout(Duration readTimeout) {
+		this.readTimeout = readTimeout;
+	}
+
+	public Duration getAcquireTimeout() {
+		return acquireTimeout;
+	}
+
+	public void setAcquireTimeout(Duration acquireTimeout) {
+		this.acquireTimeout = acquireTimeout;
+	}
+
+	public HttpClient.Version getVersion() {
+		return version;
+	}
+
+	public void setVersion(HttpClient.Version version) {
+		this.version = version;
+	}
+
+	public boolean isReactiveEnabled() {
+		return reactiveEnabled;
+	}
+
+	public void setReactiveEnabled(boolean reactiveEnabled) {
+		this.reactiveEnabled = reactiveEnabled;
+	}
+
+	public boolean isVirtualThreads() {
+		return virtualThreads;
+	}
+
+	public void setVirtualThreads(boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+	}
+
+}
@@ -0,0 +1,41 @@
+package io.github.abudanov.springframework.ai.autoconfigure.yandex;
+
+import io.github.abudanov.springframework.ai.yandex.api.YandexHttpTransport;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Exposes the utilisation of the shared {@link YandexHttpTransport}.
+ */
+class YandexHttpTransportMeterBinder implements MeterBinder {
+
+	private final YandexHttpTransport transport;
+
+	YandexHttpTransportMeterBinder(YandexHttpTransport transport) {
+		this.transport = transport;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("yandex.http.connections.max", this.transport, YandexHttpTransport::getMaxConnections)
+			.description("Maximum number of Yandex API requests in flight")
+			.register(registry);
+		Gauge.builder("yandex.http.connections.active", this.transport, YandexHttpTransport::getActiveConnections)
+			.description("Number of Yandex API requests in flight")
+			.register(registry);
+		Gauge.builder("yandex.http.connections.pending", this.transport, YandexHttpTransport::getPendingRequests)
+			.description("Number of Yandex API requests waiting for a connection")
+			.register(registry);
+		FunctionCounter.builder("yandex.http.requests", this.transport, YandexHttpTransport::getRequestCount)
+			.description("Number of Yandex API requests sent")
+			.register(registry);
+		FunctionCounter
+			.builder("yandex.http.connections.acquire.timeouts", this.transport,
+					YandexHttpTransport::getAcquireTimeoutCount)
+			.description("Number of Yandex API requests that gave up waiting for a connection")
+			.register(registry);
+	}
+
+}
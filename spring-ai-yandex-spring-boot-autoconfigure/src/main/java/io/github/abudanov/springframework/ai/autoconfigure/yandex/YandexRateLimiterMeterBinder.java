@@ -0,0 +1,64 @@
+package io.github.abudanov.springframework.ai.autoconfigure.yandex;
+
+import io.github.abudanov.springframework.ai.yandex.ratelimit.TokenBucket;
+import io.github.abudanov.springframework.ai.yandex.ratelimit.YandexRateLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes the buckets of a {@link YandexRateLimiter}: available permits, acquired and
+ * rejected permits and the time spent waiting, tagged with the model URI of the bucket.
+ * Buckets created after binding are registered as they appear.
+ */
+class YandexRateLimiterMeterBinder implements MeterBinder {
+
+	private final String client;
+
+	private final YandexRateLimiter rateLimiter;
+
+	/**
+	 * Creates a binder.
+	 * @param client the value of the {@code client} tag
+	 * @param rateLimiter the rate limiter
+	 */
+	YandexRateLimiterMeterBinder(String client, YandexRateLimiter rateLimiter) {
+		this.client = client;
+		this.rateLimiter = rateLimiter;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.rateLimiter.addBucketListener(bucket -> bindTo(registry, bucket));
+	}
+
+	private void bindTo(MeterRegistry registry, TokenBucket bucket) {
+		var tags = Tags.of("client", this.client, "key", bucket.getKey());
+		Gauge.builder("yandex.ratelimit.permits.available", bucket, TokenBucket::getAvailablePermits)
+			.description("Number of Yandex API requests that can be sent right now without waiting")
+			.tags(tags)
+			.register(registry);
+		FunctionCounter.builder("yandex.ratelimit.permits", bucket, TokenBucket::getAcquiredCount)
+			.description("Number of Yandex API rate limit permits requested")
+			.tags(tags)
+			.tag("result", "acquired")
+			.register(registry);
+		FunctionCounter.builder("yandex.ratelimit.permits", bucket, TokenBucket::getRejectedCount)
+			.description("Number of Yandex API rate limit permits requested")
+			.tags(tags)
+			.tag("result", "rejected")
+			.register(registry);
+		FunctionTimer
+			.builder("yandex.ratelimit.wait", bucket, TokenBucket::getWaitCount,
+					b -> b.getTotalWaitTime().toNanos(), TimeUnit.NANOSECONDS)
+			.description("Time Yandex API requests waited for a rate limit permit")
+			.tags(tags)
+			.register(registry);
+	}
+
+}
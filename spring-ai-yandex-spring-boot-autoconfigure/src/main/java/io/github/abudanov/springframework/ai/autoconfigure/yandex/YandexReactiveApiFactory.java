@@ -0,0 +1,18 @@
+package io.github.abudanov.springframework.ai.autoconfigure.yandex;
+
+import io.github.abudanov.springframework.ai.yandex.api.ReactiveYandexApi;
+import io.github.abudanov.springframework.ai.yandex.auth.YandexCredentialPool;
+import io.github.abudanov.springframework.ai.yandex.ratelimit.YandexRateLimiter;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Creates the {@link ReactiveYandexApi} of a model. Only available when WebFlux is on the
+ * classpath, so that the model beans do not depend on it.
+ */
+@FunctionalInterface
+interface YandexReactiveApiFactory {
+
+	ReactiveYandexApi create(String baseUrl, String apiKey, MultiValueMap<String, String> headers,
+			YandexRateLimiter rateLimiter, YandexCredentialPool credentialPool);
+
+}
@@ -0,0 +1,204 @@
+package io.github.abudanov.springframework.ai.autoconfigure.yandex;
+
+import io.github.abudanov.springframework.ai.yandex.retry.YandexRetryUtils;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = YandexRetryProperties.CONFIG_PREFIX)
+public class YandexRetryProperties {
+
+	public static final String CONFIG_PREFIX = "spring.ai.yandex.retry";
+
+	/**
+	 * Whether to use the Yandex-specific retry policy instead of the Spring AI retry
+	 * template. Ignored when the application defines a RetryTemplate bean named
+	 * 'yandexRetryTemplate', which the Yandex models then use.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Maximum number of attempts, the first one included.
+	 */
+	private int maxAttempts = YandexRetryUtils.DEFAULT_MAX_ATTEMPTS;
+
+	/**
+	 * Minimum delay between two attempts.
+	 */
+	private Duration initialInterval = YandexRetryUtils.DEFAULT_INITIAL_INTERVAL;
+
+	/**
+	 * Maximum jittered delay between two attempts.
+	 */
+	private Duration maxInterval = YandexRetryUtils.DEFAULT_MAX_INTERVAL;
+
+	/**
+	 * Maximum delay honoured from a Retry-After header.
+	 */
+	private Duration maxRetryAfter = YandexRetryUtils.DEFAULT_MAX_RETRY_AFTER;
+
+	private final Budget budget = new Budget();
+
+	private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	public void setMaxAttempts(int maxAttempts) {
+		this.maxAttempts = maxAttempts;
+	}
+
+	public Duration getInitialInterval() {
+		return initialInterval;
+	}
+
+	public void setInitialInterval(Duration initialInterval) {
+		this.initialInterval = initialInterval;
+	}
+
+	public Duration getMaxInterval() {
+		return maxInterval;
+	}
+
+	public void setMaxInterval(Duration maxInterval) {
+		this.maxInterval = maxInterval;
+	}
+
+	public Duration getMaxRetryAfter() {
+		return maxRetryAfter;
+	}
+
+	public void setMaxRetryAfter(Duration maxRetryAfter) {
+		this.maxRetryAfter = maxRetryAfter;
+	}
+
+	public Budget getBudget() {
+		return budget;
+	}
+
+	public CircuitBreaker getCircuitBreaker() {
+		return circuitBreaker;
+	}
+
+	public static class Budget {
+
+		/**
+		 * Share of the requests that may be retried.
+		 */
+		private double ratio = YandexRetryUtils.DEFAULT_RETRY_BUDGET_RATIO;
+
+		/**
+		 * Retries per second allowed regardless of the ratio.
+		 */
+		private double minRetriesPerSecond = YandexRetryUtils.DEFAULT_MIN_RETRIES_PER_SECOND;
+
+		public double getRatio() {
+			return ratio;
+		}
+
+		public void setRatio(double ratio) {
+			this.ratio = ratio;
+		}
+
+		public double getMinRetriesPerSecond() {
+			return minRetriesPerSecond;
+		}
+
+		public void setMinRetriesPerSecond(double minRetriesPerSecond) {
+			this.minRetriesPerSecond = minRetriesPerSecond;
+		}
+
+	}
+
+	public static class CircuitBreaker {
+
+		/**
+		 * Whether to stop calling the API while it is unhealthy.
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * Failure rate, between 0 and 1, that opens the circuit breaker.
+		 */
+		private double failureRateThreshold = 0.5;
+
+		/**
+		 * Number of recent calls the failure rate is computed on.
+		 */
+		private int slidingWindowSize = 50;
+
+		/**
+		 * Number of calls recorded before the failure rate is taken into account.
+		 */
+		private int minimumCalls = 20;
+
+		/**
+		 * Time the circuit breaker stays open.
+		 */
+		private Duration openDuration = Duration.ofSeconds(30);
+
+		/**
+		 * Number of trial calls let through once the open duration has passed.
+		 */
+		private int halfOpenCalls = 5;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public double getFailureRateThreshold() {
+			return failureRateThreshold;
+		}
+
+		public void setFailureRateThreshold(double failureRateThreshold) {
+			this.failureRateThreshold = failureRateThreshold;
+		}
+
+		public int getSlidingWindowSize() {
+			return slidingWindowSize;
+		}
+
+		public void setSlidingWindowSize(int slidingWindowSize) {
+			this.slidingWindowSize = slidingWindowSize;
+		}
+
+		public int getMinimumCalls() {
+			return minimumCalls;
+		}
+
+		public void setMinimumCalls(int minimumCalls) {
+			this.minimumCalls = minimumCalls;
+		}
+
+		public Duration getOpenDuration() {
+			return openDuration;
+		}
+
+		public void setOpenDuration(Duration openDuration) {
+			this.openDuration = openDuration;
+		}
+
+		public int getHalfOpenCalls() {
+			return halfOpenCalls;
+		}
+
+		public void setHalfOpenCalls(int halfOpenCalls) {
+			this.halfOpenCalls = halfOpenCalls;
+		}
+
+	}
+
+}
@@ -0,0 +1,54 @@
+package io.github.abudanov.springframework.ai.yandex.test;
+
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Source of the simulated latencies of {@link YandexStubServer}.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+	/**
+	 * Returns the next latency.
+	 * @return the latency in nanoseconds
+	 */
+	long nextNanos();
+
+	static LatencyDistribution none() {
+		return () -> 0;
+	}
+
+	static LatencyDistribution fixed(Duration latency) {
+		Assert.isTrue(!latency.isNegative(), "Latency must not be negative");
+		long nanos = latency.toNanos();
+		return () -> nanos;
+	}
+
+	static LatencyDistribution uniform(Duration min, Duration max) {
+		Assert.isTrue(!min.isNegative(), "Min latency must not be negative");
+		Assert.isTrue(min.compareTo(max) <= 0, "Min latency must not exceed max latency");
+		long minNanos = min.toNanos();
+		long maxNanos = max.toNanos();
+		return () -> (minNanos == maxNanos) ? minNanos : ThreadLocalRandom.current().nextLong(minNanos, maxNanos + 1);
+	}
+
+	/**
+	 * Log-normal latencies, the usual shape of service response times: most calls close
+	 * to the median and a long right tail.
+	 * @param median the median latency
+	 * @param p99 the 99th percentile latency, not below the median
+	 * @return the distribution
+	 */
+	static LatencyDistribution logNormal(Duration median, Duration p99) {
+		Assert.isTrue(median.toNanos() > 0, "Median latency must be positive");
+		Assert.isTrue(p99.compareTo(median) >= 0, "P99 latency must not be below the median");
+		double mu = Math.log(median.toNanos());
+		// z-score of the 99th percentile of the standard normal distribution
+		double sigma = (Math.log(p99.toNanos()) - mu) / 2.326348;
+		return () -> (long) Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian());
+	}
+
+}
@@ -0,0 +1,158 @@
+package io.github.abudanov.springframework.ai.yandex.test;
+
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionMessage;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionRequest;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionResponse;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionStatus;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.Role;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.TextEmbeddingRequest;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.TextEmbeddingResponse;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.TokenizeResponse;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.TokenizeResponse.Token;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.Usage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic responses of {@link YandexStubServer}: the same request always gets the
+ * same completion text and the same embedding, so that caches and comparisons behave as
+ * they would against the real API. Tokens are approximated as whitespace-separated
+ * words.
+ */
+public final class YandexStubResponses {
+
+	public static final String MODEL_VERSION = "stub";
+
+	private static final String[] WORDS = { "the", "model", "answers", "with", "a", "deterministic", "text", "that",
+			"depends", "only", "on", "request", "so", "repeated", "calls", "return", "same", "tokens", "and", "usage",
+			"for", "load", "testing", "of", "clients", "caches", "retries", "streaming", "embeddings", "operations",
+			"latency", "throughput" };
+
+	private YandexStubResponses() {
+	}
+
+	/**
+	 * Generates the words of the completion of a request.
+	 * @param request the completion request
+	 * @param tokens the number of tokens to generate before {@code maxTokens} applies
+	 * @return the generated words
+	 */
+	public static String[] completionWords(CompletionRequest request, int tokens) {
+		var maxTokens = (request.completionOptions() != null) ? request.completionOptions().maxTokens() : null;
+		int count = (maxTokens != null) ? Math.min(tokens, maxTokens) : tokens;
+		var random = new SplittableRandom(seed(request.modelUri(), lastText(request.messages())));
+		var words = new String[Math.max(count, 0)];
+		for (int i = 0; i < words.length; i++) {
+			words[i] = WORDS[random.nextInt(WORDS.length)];
+		}
+		return words;
+	}
+
+	/**
+	 * Builds the completion response carrying the first {@code length} generated words.
+	 * @param request the completion request
+	 * @param words the generated words
+	 * @param length the number of words to include
+	 * @param status the status of the alternative
+	 * @return the completion response
+	 */
+	public static CompletionResponse completion(CompletionRequest request, String[] words, int length,
+			CompletionStatus status) {
+		var text = String.join(" ", List.of(words).subList(0, length));
+		long inputTokens = 0;
+		for (var message : request.messages()) {
+			inputTokens += countTokens(message.text());
+		}
+		var alternative = new CompletionResponse.Alternative(new CompletionMessage(Role.ASSISTANT, text), status);
+		return new CompletionResponse(List.of(alternative), new Usage(inputTokens, (long) length, inputTokens + length),
+				MODEL_VERSION);
+	}
+
+	/**
+	 * Generates a unit-length embedding of the text.
+	 * @param request the embedding request
+	 * @param dimensions the number of dimensions
+	 * @return the embedding response
+	 */
+	public static TextEmbeddingResponse embedding(TextEmbeddingRequest request, int dimensions) {
+		var random = new SplittableRandom(seed(request.modelUri(), request.text()));
+		var embedding = new float[dimensions];
+		double squares = 0;
+		for (int i = 0; i < dimensions; i++) {
+			// sum of uniforms, a cheap bell-shaped component
+			embedding[i] = (float) (random.nextDouble() + random.nextDouble() + random.nextDouble() - 1.5);
+			squares += embedding[i] * embedding[i];
+		}
+		float norm = (float) Math.sqrt(squares);
+		for (int i = 0; i < dimensions; i++) {
+			embedding[i] /= norm;
+		}
+		return new TextEmbeddingResponse(embedding, countTokens(request.text()), MODEL_VERSION);
+	}
+
+	public static int countTokens(String text) {
+		if (text == null || text.isBlank()) {
+			return 0;
+		}
+		return text.strip().split("\\s+").length;
+	}
+
+	/**
+	 * Tokenizes a text into its whitespace-separated words, consistently with
+	 * {@link #countTokens(String)}.
+	 * @param text the text
+	 * @return the tokens
+	 */
+	public static TokenizeResponse tokenize(String text) {
+		var tokens = new ArrayList<Token>();
+		addTokens(tokens, text);
+		return new TokenizeResponse(tokens, MODEL_VERSION);
+	}
+
+	/**
+	 * Tokenizes a completion request: a special token opening each message followed by
+	 * the words of its text.
+	 * @param request the completion request
+	 * @return the tokens
+	 */
+	public static TokenizeResponse tokenizeCompletion(CompletionRequest request) {
+		var tokens = new ArrayList<Token>();
+		if (request.messages() != null) {
+			for (var message : request.messages()) {
+				var role = (message.role() != null) ? message.role().name().toLowerCase() : "";
+				tokens.add(new Token(0, "[" + role + "]", true));
+				addTokens(tokens, message.text());
+			}
+		}
+		return new TokenizeResponse(tokens, MODEL_VERSION);
+	}
+
+	private static void addTokens(List<Token> tokens, String text) {
+		if (countTokens(text) == 0) {
+			return;
+		}
+		for (var word : text.strip().split("\\s+")) {
+			tokens.add(new Token(word.hashCode() & 0xffffL, word, false));
+		}
+	}
+
+	private static String lastText(List<CompletionMessage> messages) {
+		return (messages == null || messages.isEmpty()) ? "" : messages.get(messages.size() - 1).text();
+	}
+
+	/**
+	 * 64-bit FNV-1a hash of the model and the text.
+	 */
+	private static long seed(String modelUri, String text) {
+		long hash = 0xcbf29ce484222325L;
+		for (byte b : (modelUri + '\n' + text).getBytes(StandardCharsets.UTF_8)) {
+			hash ^= b & 0xff;
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+}
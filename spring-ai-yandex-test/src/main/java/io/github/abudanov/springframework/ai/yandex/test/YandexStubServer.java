@@ -0,0 +1,670 @@
+package io.github.abudanov.springframework.ai.yandex.test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.abudanov.springframework.ai.yandex.api.ReactiveYandexApi;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionRequest;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionResponse;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionResult;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionStatus;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.Operation;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.OperationError;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.TextEmbeddingRequest;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.TokenizeRequest;
+import io.github.abudanov.springframework.ai.yandex.api.YandexJsonCodec;
+import io.github.abudanov.springframework.ai.yandex.auth.YandexIamTokenClient;
+import io.github.abudanov.springframework.ai.yandex.auth.YandexIamTokenClient.CreateTokenRequest;
+import io.github.abudanov.springframework.ai.yandex.auth.YandexIamTokenClient.CreateTokenResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.reactive.JdkClientHttpConnector;
+import org.springframework.util.Assert;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Embeddable stand-in of the Yandex Foundation Models API, for load and integration tests
+ * that must not spend quota. It serves the completion endpoint, plain and streaming, the
+ * deferred completion and operation endpoints, the text embedding endpoint and the
+ * tokenize endpoints on the loopback interface, with {@link YandexStubResponses
+ * deterministic responses}. It also serves an IAM token endpoint and can require the
+ * requests to carry a valid token it issued, see {@link #setIamTokenRequired(boolean)}.
+ * <p>
+ * Latencies, the share of {@code 429} and {@code 500} answers and the size of the
+ * generated completions are configurable at any time, also while a test is running.
+ * Point a client at it through {@link #getBaseUrl()} and {@link #getOperationPath()}, or
+ * use {@link #createApi()}.
+ */
+public class YandexStubServer implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(YandexStubServer.class);
+
+	public static final String COMPLETION_PATH = "/v1/completion";
+
+	public static final String COMPLETION_ASYNC_PATH = "/v1/completionAsync";
+
+	public static final String EMBEDDING_PATH = "/v1/textEmbedding";
+
+	public static final String TOKENIZE_PATH = YandexApi.DEFAULT_TOKENIZE_PATH;
+
+	public static final String TOKENIZE_COMPLETION_PATH = YandexApi.DEFAULT_TOKENIZE_COMPLETION_PATH;
+
+	private static final String BASE_PATH = "/foundationModels";
+
+	private static final String OPERATIONS_PATH = "/operations/";
+
+	public static final String IAM_TOKEN_PATH = "/iam/v1/tokens";
+
+	public static final int DEFAULT_COMPLETION_TOKENS = 32;
+
+	public static final int DEFAULT_STREAM_CHUNK_TOKENS = 4;
+
+	public static final int DEFAULT_EMBEDDING_DIMENSIONS = 256;
+
+	public static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+
+	public static final Duration DEFAULT_IAM_TOKEN_LIFETIME = Duration.ofHours(12);
+
+	public enum Endpoint {
+
+		COMPLETION, COMPLETION_STREAM, COMPLETION_ASYNC, OPERATION, TEXT_EMBEDDING, TOKENIZE, TOKENIZE_COMPLETION,
+		IAM_TOKEN
+
+	}
+
+	private final HttpServer server;
+
+	private final ExecutorService executor;
+
+	private final Map<String, PendingOperation> operations = new ConcurrentHashMap<>();
+
+	private final AtomicLong operationSequence = new AtomicLong();
+
+	private final Map<String, Long> iamTokens = new ConcurrentHashMap<>();
+
+	private final AtomicLong iamTokenSequence = new AtomicLong();
+
+	private final Map<Endpoint, LongAdder> requestCounts = new EnumMap<>(Endpoint.class);
+
+	private final LongAdder rateLimitedCount = new LongAdder();
+
+	private final LongAdder errorCount = new LongAdder();
+
+	private final LongAdder unauthorizedCount = new LongAdder();
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+
+	private volatile LatencyDistribution completionLatency = LatencyDistribution.none();
+
+	private volatile LatencyDistribution streamChunkInterval = LatencyDistribution.none();
+
+	private volatile LatencyDistribution operationLatency = LatencyDistribution.none();
+
+	private volatile LatencyDistribution embeddingLatency = LatencyDistribution.none();
+
+	private volatile LatencyDistribution iamTokenLatency = LatencyDistribution.none();
+
+	private volatile Duration iamTokenLifetime = DEFAULT_IAM_TOKEN_LIFETIME;
+
+	private volatile boolean iamTokenRequired;
+
+	private volatile double rateLimitRate;
+
+	private volatile double errorRate;
+
+	private volatile double operationErrorRate;
+
+	private volatile Duration retryAfter = DEFAULT_RETRY_AFTER;
+
+	private volatile int completionTokens = DEFAULT_COMPLETION_TOKENS;
+
+	private volatile int streamChunkTokens = DEFAULT_STREAM_CHUNK_TOKENS;
+
+	private volatile int embeddingDimensions = DEFAULT_EMBEDDING_DIMENSIONS;
+
+	/**
+	 * Starts a server on a free loopback port.
+	 * @throws IOException if the server cannot be bound
+	 */
+	public YandexStubServer() throws IOException {
+		this(0);
+	}
+
+	/**
+	 * Starts a server on a loopback port.
+	 * @param port the port, or {@code 0} for a free one
+	 * @throws IOException if the server cannot be bound
+	 */
+	public YandexStubServer(int port) throws IOException {
+		for (var endpoint : Endpoint.values()) {
+			this.requestCounts.put(endpoint, new LongAdder());
+		}
+		this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+		this.server.createContext(BASE_PATH + COMPLETION_PATH, this::completion);
+		this.server.createContext(BASE_PATH + COMPLETION_ASYNC_PATH, this::completionAsync);
+		this.server.createContext(BASE_PATH + EMBEDDING_PATH, this::textEmbedding);
+		this.server.createContext(BASE_PATH + TOKENIZE_PATH, this::tokenize);
+		this.server.createContext(BASE_PATH + TOKENIZE_COMPLETION_PATH, this::tokenizeCompletion);
+		this.server.createContext(OPERATIONS_PATH, this::operation);
+		this.server.createContext(IAM_TOKEN_PATH, this::iamToken);
+		this.executor = newExecutor();
+		this.server.setExecutor(this.executor);
+		this.server.start();
+	}
+
+	/**
+	 * Returns the base URL to configure the client with, the counterpart of
+	 * {@code https://llm.api.cloud.yandex.net/foundationModels}.
+	 * @return the base URL
+	 */
+	public String getBaseUrl() {
+		return "http://" + this.server.getAddress().getHostString() + ':' + getPort() + BASE_PATH;
+	}
+
+	/**
+	 * Returns the absolute operation URL template to configure the client with.
+	 * @return the operation URL with an {@code {operationId}} placeholder
+	 */
+	public String getOperationPath() {
+		return "http://" + this.server.getAddress().getHostString() + ':' + getPort() + OPERATIONS_PATH
+				+ "{operationId}";
+	}
+
+	/**
+	 * Returns the URL of the IAM token endpoint to configure the client with.
+	 * @return the IAM token URL
+	 */
+	public String getIamTokenUrl() {
+		return "http://" + this.server.getAddress().getHostString() + ':' + getPort() + IAM_TOKEN_PATH;
+	}
+
+	public int getPort() {
+		return this.server.getAddress().getPort();
+	}
+
+	/**
+	 * Creates an API client calling this server.
+	 * @return the API client
+	 */
+	public YandexApi createApi() {
+		return createApi(RestClient.builder(), new DefaultResponseErrorHandler());
+	}
+
+	/**
+	 * Creates an API client calling this server.
+	 * @param restClientBuilder the builder of the underlying client
+	 * @param responseErrorHandler the handler of error responses
+	 * @return the API client
+	 */
+	public YandexApi createApi(RestClient.Builder restClientBuilder, ResponseErrorHandler responseErrorHandler) {
+		return new YandexApi(getBaseUrl(), "stub", new LinkedMultiValueMap<>(), restClientBuilder, COMPLETION_PATH,
+				EMBEDDING_PATH, COMPLETION_ASYNC_PATH, getOperationPath(), responseErrorHandler);
+	}
+
+	/**
+	 * Creates a non-blocking API client calling this server over the JDK HTTP client.
+	 * @return the API client
+	 */
+	public ReactiveYandexApi createReactiveApi() {
+		return createReactiveApi(WebClient.builder().clientConnector(new JdkClientHttpConnector()));
+	}
+
+	/**
+	 * Creates a non-blocking API client calling this server.
+	 * @param webClientBuilder the builder of the underlying client
+	 * @return the API client
+	 */
+	public ReactiveYandexApi createReactiveApi(WebClient.Builder webClientBuilder) {
+		return new ReactiveYandexApi(getBaseUrl(), "stub", new LinkedMultiValueMap<>(), webClientBuilder,
+				COMPLETION_PATH, EMBEDDING_PATH, COMPLETION_ASYNC_PATH, getOperationPath());
+	}
+
+	/**
+	 * Creates an IAM token client calling this server.
+	 * @return the IAM token client
+	 */
+	public YandexIamTokenClient createIamTokenClient() {
+		return new YandexIamTokenClient(getIamTokenUrl(), RestClient.builder());
+	}
+
+	/**
+	 * Sets the latency of a completion, until the whole response for a plain completion
+	 * and until the first chunk for a streaming one.
+	 * @param completionLatency the latency distribution
+	 */
+	public void setCompletionLatency(LatencyDistribution completionLatency) {
+		Assert.notNull(completionLatency, "Completion latency must not be null");
+		this.completionLatency = completionLatency;
+	}
+
+	public void setStreamChunkInterval(LatencyDistribution streamChunkInterval) {
+		Assert.notNull(streamChunkInterval, "Stream chunk interval must not be null");
+		this.streamChunkInterval = streamChunkInterval;
+	}
+
+	/**
+	 * Sets the time a deferred completion takes until its operation is done.
+	 * @param operationLatency the latency distribution
+	 */
+	public void setOperationLatency(LatencyDistribution operationLatency) {
+		Assert.notNull(operationLatency, "Operation latency must not be null");
+		this.operationLatency = operationLatency;
+	}
+
+	public void setEmbeddingLatency(LatencyDistribution embeddingLatency) {
+		Assert.notNull(embeddingLatency, "Embedding latency must not be null");
+		this.embeddingLatency = embeddingLatency;
+	}
+
+	public void setIamTokenLatency(LatencyDistribution iamTokenLatency) {
+		Assert.notNull(iamTokenLatency, "IAM token latency must not be null");
+		this.iamTokenLatency = iamTokenLatency;
+	}
+
+	/**
+	 * Sets the lifetime of the issued IAM tokens, short ones exercising the refresh of
+	 * the clients.
+	 * @param iamTokenLifetime the lifetime
+	 */
+	public void setIamTokenLifetime(Duration iamTokenLifetime) {
+		Assert.isTrue(iamTokenLifetime != null && iamTokenLifetime.toMillis() > 0,
+				"IAM token lifetime must be positive");
+		this.iamTokenLifetime = iamTokenLifetime;
+	}
+
+	/**
+	 * Sets whether the model endpoints answer {@code 401 Unauthorized} unless the request
+	 * carries an unexpired IAM token issued by this server as a {@code Bearer} token.
+	 * @param iamTokenRequired whether an IAM token is required
+	 */
+	public void setIamTokenRequired(boolean iamTokenRequired) {
+		this.iamTokenRequired = iamTokenRequired;
+	}
+
+	/**
+	 * Sets the share of requests answered with {@code 429 Too Many Requests}.
+	 * @param rateLimitRate the share, between 0 and 1
+	 */
+	public void setRateLimitRate(double rateLimitRate) {
+		Assert.isTrue(rateLimitRate >= 0 && rateLimitRate <= 1, "Rate limit rate must be between 0 and 1");
+		this.rateLimitRate = rateLimitRate;
+	}
+
+	/**
+	 * Sets the share of requests answered with {@code 500 Internal Server Error}.
+	 * @param errorRate the share, between 0 and 1
+	 */
+	public void setErrorRate(double errorRate) {
+		Assert.isTrue(errorRate >= 0 && errorRate <= 1, "Error rate must be between 0 and 1");
+		this.errorRate = errorRate;
+	}
+
+	/**
+	 * Sets the share of deferred completions whose operation is done with an error
+	 * instead of a response.
+	 * @param operationErrorRate the share, between 0 and 1
+	 */
+	public void setOperationErrorRate(double operationErrorRate) {
+		Assert.isTrue(operationErrorRate >= 0 && operationErrorRate <= 1,
+				"Operation error rate must be between 0 and 1");
+		this.operationErrorRate = operationErrorRate;
+	}
+
+	/**
+	 * Sets the {@code Retry-After} of the {@code 429} answers, {@code null} to leave the
+	 * header out.
+	 * @param retryAfter the delay to advertise
+	 */
+	public void setRetryAfter(Duration retryAfter) {
+		this.retryAfter = retryAfter;
+	}
+
+	/**
+	 * Sets the number of tokens of a generated completion, capped by the
+	 * {@code maxTokens} of the request.
+	 * @param completionTokens the number of tokens
+	 */
+	public void setCompletionTokens(int completionTokens) {
+		Assert.isTrue(completionTokens >= 0, "Completion tokens must not be negative");
+		this.completionTokens = completionTokens;
+	}
+
+	public void setStreamChunkTokens(int streamChunkTokens) {
+		Assert.isTrue(streamChunkTokens > 0, "Stream chunk tokens must be positive");
+		this.streamChunkTokens = streamChunkTokens;
+	}
+
+	public void setEmbeddingDimensions(int embeddingDimensions) {
+		Assert.isTrue(embeddingDimensions > 0, "Embedding dimensions must be positive");
+		this.embeddingDimensions = embeddingDimensions;
+	}
+
+	public long getRequestCount(Endpoint endpoint) {
+		return this.requestCounts.get(endpoint).sum();
+	}
+
+	public long getRateLimitedCount() {
+		return this.rateLimitedCount.sum();
+	}
+
+	public long getErrorCount() {
+		return this.errorCount.sum();
+	}
+
+	public long getUnauthorizedCount() {
+		return this.unauthorizedCount.sum();
+	}
+
+	/**
+	 * Returns the largest number of requests handled at the same time since the start or
+	 * the last {@link #resetCounters()}.
+	 * @return the peak concurrency
+	 */
+	public int getMaxInFlight() {
+		return this.maxInFlight.get();
+	}
+
+	public void resetCounters() {
+		this.requestCounts.values().forEach(LongAdder::reset);
+		this.rateLimitedCount.reset();
+		this.errorCount.reset();
+		this.unauthorizedCount.reset();
+		this.maxInFlight.set(this.inFlight.get());
+	}
+
+	@Override
+	public void close() {
+		this.server.stop(0);
+		this.executor.shutdownNow();
+	}
+
+	private void completion(HttpExchange exchange) throws IOException {
+		handle(exchange, "POST", () -> {
+			var request = YandexJsonCodec.read(exchange.getRequestBody(), CompletionRequest.class);
+			var options = request.completionOptions();
+			boolean stream = options != null && Boolean.TRUE.equals(options.stream());
+			count(stream ? Endpoint.COMPLETION_STREAM : Endpoint.COMPLETION);
+			if (injectFault(exchange)) {
+				return;
+			}
+			var words = YandexStubResponses.completionWords(request, this.completionTokens);
+			var status = finalStatus(request, words);
+			pause(this.completionLatency);
+			if (!stream) {
+				var response = YandexStubResponses.completion(request, words, words.length, status);
+				sendJson(exchange, 200, YandexJsonCodec.write(new CompletionResult(response)));
+				return;
+			}
+			exchange.getResponseHeaders().set("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, 0);
+			OutputStream body = exchange.getResponseBody();
+			int chunk = this.streamChunkTokens;
+			for (int length = Math.min(chunk, words.length); length < words.length; length += chunk) {
+				var partial = YandexStubResponses.completion(request, words, length,
+						CompletionStatus.ALTERNATIVE_STATUS_PARTIAL);
+				writeLine(body, new CompletionResult(partial));
+				pause(this.streamChunkInterval);
+			}
+			writeLine(body, new CompletionResult(YandexStubResponses.completion(request, words, words.length, status)));
+		});
+	}
+
+	private void completionAsync(HttpExchange exchange) throws IOException {
+		handle(exchange, "POST", () -> {
+			var request = YandexJsonCodec.read(exchange.getRequestBody(), CompletionRequest.class);
+			count(Endpoint.COMPLETION_ASYNC);
+			if (injectFault(exchange)) {
+				return;
+			}
+			var words = YandexStubResponses.completionWords(request, this.completionTokens);
+			var response = YandexStubResponses.completion(request, words, words.length, finalStatus(request, words));
+			var id = "stub" + this.operationSequence.incrementAndGet();
+			var createdAt = Instant.now().toString();
+			long readyAt = System.nanoTime() + this.operationLatency.nextNanos();
+			boolean failed = this.operationErrorRate > 0
+					&& ThreadLocalRandom.current().nextDouble() < this.operationErrorRate;
+			var error = failed ? new OperationError(13, "Internal error") : null;
+			this.operations.put(id, new PendingOperation(createdAt, readyAt, response, error));
+			sendJson(exchange, 200, YandexJsonCodec.write(toOperation(id, createdAt, false, null, null)));
+		});
+	}
+
+	private void operation(HttpExchange exchange) throws IOException {
+		handle(exchange, "GET", () -> {
+			count(Endpoint.OPERATION);
+			var id = exchange.getRequestURI().getPath().substring(OPERATIONS_PATH.length());
+			var operation = this.operations.get(id);
+			if (operation == null) {
+				sendError(exchange, 404, 5, "Operation " + id + " not found");
+				return;
+			}
+			if (injectFault(exchange)) {
+				return;
+			}
+			boolean done = System.nanoTime() - operation.readyAt() >= 0;
+			if (done) {
+				this.operations.remove(id);
+			}
+			var body = toOperation(id, operation.createdAt(), done, done ? operation.error() : null,
+					(done && operation.error() == null) ? operation.response() : null);
+			sendJson(exchange, 200, YandexJsonCodec.write(body));
+		});
+	}
+
+	private void textEmbedding(HttpExchange exchange) throws IOException {
+		handle(exchange, "POST", () -> {
+			var request = YandexJsonCodec.read(exchange.getRequestBody(), TextEmbeddingRequest.class);
+			count(Endpoint.TEXT_EMBEDDING);
+			if (injectFault(exchange)) {
+				return;
+			}
+			var response = YandexStubResponses.embedding(request, this.embeddingDimensions);
+			pause(this.embeddingLatency);
+			sendJson(exchange, 200, YandexJsonCodec.write(response));
+		});
+	}
+
+	private void tokenize(HttpExchange exchange) throws IOException {
+		handle(exchange, "POST", () -> {
+			var request = YandexJsonCodec.read(exchange.getRequestBody(), TokenizeRequest.class);
+			count(Endpoint.TOKENIZE);
+			if (injectFault(exchange)) {
+				return;
+			}
+			sendJson(exchange, 200, YandexJsonCodec.write(YandexStubResponses.tokenize(request.text())));
+		});
+	}
+
+	private void tokenizeCompletion(HttpExchange exchange) throws IOException {
+		handle(exchange, "POST", () -> {
+			var request = YandexJsonCodec.read(exchange.getRequestBody(), CompletionRequest.class);
+			count(Endpoint.TOKENIZE_COMPLETION);
+			if (injectFault(exchange)) {
+				return;
+			}
+			sendJson(exchange, 200, YandexJsonCodec.write(YandexStubResponses.tokenizeCompletion(request)));
+		});
+	}
+
+	private void iamToken(HttpExchange exchange) throws IOException {
+		handle(exchange, "POST", () -> {
+			var request = YandexJsonCodec.read(exchange.getRequestBody(), CreateTokenRequest.class);
+			count(Endpoint.IAM_TOKEN);
+			if (request.jwt() == null && request.yandexPassportOauthToken() == null) {
+				sendError(exchange, 400, 3, "Either jwt or yandexPassportOauthToken must be set");
+				return;
+			}
+			if (injectFault(exchange)) {
+				return;
+			}
+			pause(this.iamTokenLatency);
+			var lifetime = this.iamTokenLifetime;
+			var token = "stub-iam-" + this.iamTokenSequence.incrementAndGet();
+			this.iamTokens.put(token, System.nanoTime() + lifetime.toNanos());
+			var response = new CreateTokenResponse(token, Instant.now().plus(lifetime).toString());
+			sendJson(exchange, 200, YandexJsonCodec.write(response));
+		});
+	}
+
+	private void handle(HttpExchange exchange, String method, ExchangeHandler handler) throws IOException {
+		int current = this.inFlight.incrementAndGet();
+		this.maxInFlight.accumulateAndGet(current, Math::max);
+		try (exchange) {
+			if (!method.equals(exchange.getRequestMethod())) {
+				sendError(exchange, 405, 12, "Method " + exchange.getRequestMethod() + " not allowed");
+				return;
+			}
+			if (!isAuthorized(exchange)) {
+				this.unauthorizedCount.increment();
+				sendError(exchange, 401, 16, "The token is invalid or has expired");
+				return;
+			}
+			handler.handle();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		catch (IOException | RuntimeException ex) {
+			logger.debug("Stub request to {} failed", exchange.getRequestURI(), ex);
+		}
+		finally {
+			this.inFlight.decrementAndGet();
+		}
+	}
+
+	private boolean isAuthorized(HttpExchange exchange) {
+		if (!this.iamTokenRequired || IAM_TOKEN_PATH.equals(exchange.getRequestURI().getPath())) {
+			return true;
+		}
+		var authorization = exchange.getRequestHeaders().getFirst("Authorization");
+		if (authorization == null || !authorization.startsWith("Bearer ")) {
+			return false;
+		}
+		var expiresAt = this.iamTokens.get(authorization.substring("Bearer ".length()));
+		return expiresAt != null && expiresAt - System.nanoTime() > 0;
+	}
+
+	private boolean injectFault(HttpExchange exchange) throws IOException {
+		var random = ThreadLocalRandom.current();
+		if (this.rateLimitRate > 0 && random.nextDouble() < this.rateLimitRate) {
+			this.rateLimitedCount.increment();
+			var delay = this.retryAfter;
+			if (delay != null) {
+				exchange.getResponseHeaders().set("Retry-After", Long.toString(Math.max(delay.toSeconds(), 1)));
+			}
+			sendError(exchange, 429, 8, "ai.textGenerationCompletionSessionsCount.count gauge quota limit exceed");
+			return true;
+		}
+		if (this.errorRate > 0 && random.nextDouble() < this.errorRate) {
+			this.errorCount.increment();
+			sendError(exchange, 500, 13, "Internal server error");
+			return true;
+		}
+		return false;
+	}
+
+	private void count(Endpoint endpoint) {
+		this.requestCounts.get(endpoint).increment();
+	}
+
+	private static CompletionStatus finalStatus(CompletionRequest request, String[] words) {
+		var options = request.completionOptions();
+		boolean truncated = options != null && options.maxTokens() != null && words.length >= options.maxTokens();
+		return truncated ? CompletionStatus.ALTERNATIVE_STATUS_TRUNCATED_FINAL
+				: CompletionStatus.ALTERNATIVE_STATUS_FINAL;
+	}
+
+	private static Operation toOperation(String id, String createdAt, boolean done, OperationError error,
+			CompletionResponse response) {
+		return new Operation(id, "Async GPT Completion", createdAt, "stub", Instant.now().toString(), done, error,
+				response);
+	}
+
+	private static void sendJson(HttpExchange exchange, int status, byte[] body) throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	private static void sendError(HttpExchange exchange, int httpCode, int grpcCode, String message)
+			throws IOException {
+		drain(exchange.getRequestBody());
+		var body = "{\"error\":{\"grpcCode\":" + grpcCode + ",\"httpCode\":" + httpCode + ",\"message\":\""
+				+ message.replace("\"", "\\\"") + "\"}}";
+		sendJson(exchange, httpCode, body.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void writeLine(OutputStream out, CompletionResult result) throws IOException {
+		out.write(YandexJsonCodec.write(result));
+		out.write('\n');
+		out.flush();
+	}
+
+	private static void drain(InputStream in) throws IOException {
+		in.transferTo(OutputStream.nullOutputStream());
+	}
+
+	private static void pause(LatencyDistribution latency) throws InterruptedException {
+		long nanos = latency.nextNanos();
+		if (nanos > 0) {
+			TimeUnit.NANOSECONDS.sleep(nanos);
+		}
+	}
+
+	/**
+	 * Handles requests on virtual threads where available, so that thousands of
+	 * simulated slow calls do not need as many platform threads.
+	 */
+	private static ExecutorService newExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		}
+		catch (ReflectiveOperationException ex) {
+			return Executors.newCachedThreadPool(runnable -> {
+				var thread = new Thread(runnable, "yandex-stub-server");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+	@FunctionalInterface
+	private interface ExchangeHandler {
+
+		void handle() throws IOException, InterruptedException;
+
+	}
+
+	private record PendingOperation(String createdAt, long readyAt, CompletionResponse response,
+			OperationError error) {
+
+	}
+
+}
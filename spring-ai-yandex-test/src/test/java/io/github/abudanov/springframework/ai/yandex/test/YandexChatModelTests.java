@@ -0,0 +1,95 @@
+package io.github.abudanov.springframework.ai.yandex.test;
+
+import io.github.abudanov.springframework.ai.yandex.YandexChatModel;
+import io.github.abudanov.springframework.ai.yandex.YandexChatOptions;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class YandexChatModelTests {
+
+	private YandexStubServer server;
+
+	private YandexChatModel chatModel;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		this.server = new YandexStubServer();
+		this.chatModel = new YandexChatModel(this.server.createApi(), "folder",
+				YandexChatOptions.builder().withModel(YandexApi.ChatModel.YANDEXGPT_LITE).build());
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.chatModel.close();
+		this.server.close();
+	}
+
+	@Test
+	void runsAsynchronousCallsOnPlatformThreadsByDefault() throws Exception {
+		var thread = this.chatModel.callAsync(new Prompt("Hello"))
+			.thenApply(response -> Thread.currentThread())
+			.get(5, TimeUnit.SECONDS);
+
+		assertThat(thread.getName()).startsWith("yandex-chat-");
+		assertThat(thread.isDaemon()).isTrue();
+	}
+
+	@Test
+	void failsCallsNeedingTheDefaultExecutorOnceClosed() throws Exception {
+		this.chatModel.callAsync(new Prompt("Hello")).get(5, TimeUnit.SECONDS);
+
+		this.chatModel.close();
+
+		assertThatIllegalStateException().isThrownBy(() -> this.chatModel.callAsync(new Prompt("Hello")));
+		assertThatIllegalStateException().isThrownBy(() -> this.chatModel.callDeferred(new Prompt("Hello")));
+	}
+
+	@Test
+	void keepsUsingTheExecutorSetOnTheModelOnceClosed() throws Exception {
+		var executor = Executors.newSingleThreadExecutor();
+		try {
+			this.chatModel.setTaskExecutor(executor);
+
+			this.chatModel.close();
+
+			var response = this.chatModel.callAsync(new Prompt("Hello")).get(5, TimeUnit.SECONDS);
+			assertThat(response.getResult().getOutput().getContent()).isNotEmpty();
+			assertThat(executor.isShutdown()).isFalse();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void completesADeferredCall() throws Exception {
+		var response = this.chatModel.callDeferred(new Prompt("Hello")).get(10, TimeUnit.SECONDS);
+
+		assertThat(response.getResult().getOutput().getContent()).isNotEmpty();
+	}
+
+	@Test
+	void failsPendingDeferredCallsWhenClosed() {
+		this.server.setOperationLatency(LatencyDistribution.fixed(Duration.ofHours(1)));
+		var response = this.chatModel.callDeferred(new Prompt("Hello"));
+
+		this.chatModel.close();
+
+		assertThat(response).failsWithin(Duration.ofSeconds(5))
+			.withThrowableOfType(Exception.class)
+			.havingCause()
+			.isInstanceOf(IllegalStateException.class);
+	}
+
+}
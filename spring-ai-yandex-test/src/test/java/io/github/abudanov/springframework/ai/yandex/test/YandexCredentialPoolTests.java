@@ -0,0 +1,74 @@
+package io.github.abudanov.springframework.ai.yandex.test;
+
+import io.github.abudanov.springframework.ai.yandex.auth.YandexCredential;
+import io.github.abudanov.springframework.ai.yandex.auth.YandexCredentialPool;
+import io.github.abudanov.springframework.ai.yandex.retry.YandexApiException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class YandexCredentialPoolTests {
+
+	private final YandexCredentialPool pool = new YandexCredentialPool(
+			List.of(new YandexCredential("a", "key-a", 3), new YandexCredential("b", "key-b", 1)),
+			Duration.ofMinutes(1));
+
+	@Test
+	void spreadsIdleRequestsByWeight() {
+		List<String> folders = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			var lease = this.pool.acquire();
+			folders.add(lease.credential().folderId());
+			lease.release(null);
+		}
+
+		assertThat(folders).containsExactly("a", "a", "b", "a", "a", "a", "b", "a");
+	}
+
+	@Test
+	void spreadsConcurrentRequestsByWeight() {
+		List<String> folders = new ArrayList<>();
+		for (int i = 0; i < 400; i++) {
+			folders.add(this.pool.acquire().credential().folderId());
+		}
+
+		assertThat(folders).filteredOn("b"::equals).hasSize(100);
+	}
+
+	@Test
+	void skipsAThrottledCredential() {
+		var lease = this.pool.acquire();
+		assertThat(lease.credential().folderId()).isEqualTo("a");
+
+		lease.release(new YandexApiException("Too many requests", HttpStatus.TOO_MANY_REQUESTS, null));
+
+		for (int i = 0; i < 4; i++) {
+			assertThat(this.pool.acquire().credential().folderId()).isEqualTo("b");
+		}
+	}
+
+	@Test
+	void usesTheFirstCredentialBackWhenEveryCredentialIsThrottled() {
+		var throttled = new YandexApiException("Too many requests", HttpStatus.TOO_MANY_REQUESTS, null);
+		var first = this.pool.acquire();
+		first.release(throttled);
+		this.pool.acquire().release(throttled);
+
+		assertThat(this.pool.acquire().credential()).isEqualTo(first.credential());
+	}
+
+	@Test
+	void replacesTheFolderOfAPooledModelUri() {
+		var credential = new YandexCredential("b", "key-b", 1);
+
+		assertThat(this.pool.modelUri("gpt://a/yandexgpt/latest", credential)).isEqualTo("gpt://b/yandexgpt/latest");
+		assertThat(this.pool.modelUri("gpt://other/yandexgpt/latest", credential))
+			.isEqualTo("gpt://other/yandexgpt/latest");
+	}
+
+}
@@ -0,0 +1,99 @@
+package io.github.abudanov.springframework.ai.yandex.test;
+
+import io.github.abudanov.springframework.ai.yandex.YandexEmbeddingModel;
+import io.github.abudanov.springframework.ai.yandex.YandexEmbeddingOptions;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi;
+import io.github.abudanov.springframework.ai.yandex.test.YandexStubServer.Endpoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.embedding.EmbeddingRequest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class YandexEmbeddingModelTests {
+
+	private YandexStubServer server;
+
+	private YandexEmbeddingModel embeddingModel;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		this.server = new YandexStubServer();
+		this.embeddingModel = new YandexEmbeddingModel(this.server.createApi(), "folder",
+				new YandexEmbeddingOptions(YandexApi.EmbeddingModel.TEXT_SEARCH_DOC));
+		this.embeddingModel.setReactiveApi(this.server.createReactiveApi());
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.embeddingModel.close();
+		this.server.close();
+	}
+
+	@Test
+	void sharesOneCallBetweenConcurrentReactiveCallers() throws Exception {
+		this.server.setEmbeddingLatency(LatencyDistribution.fixed(Duration.ofMillis(300)));
+		var request = new EmbeddingRequest(List.of("Hello"), null);
+		var first = this.embeddingModel.callReactive(request).toFuture();
+		await(() -> this.server.getRequestCount(Endpoint.TEXT_EMBEDDING) == 1);
+
+		var second = this.embeddingModel.callReactive(request).toFuture();
+
+		var firstEmbedding = first.get(5, TimeUnit.SECONDS).getResult().getOutput();
+		var secondEmbedding = second.get(5, TimeUnit.SECONDS).getResult().getOutput();
+		assertThat(secondEmbedding).containsExactly(firstEmbedding).isNotSameAs(firstEmbedding);
+		assertThat(this.server.getRequestCount(Endpoint.TEXT_EMBEDDING)).isOne();
+	}
+
+	@Test
+	void keepsTheSharedCallWhenTheFirstCallerCancels() throws Exception {
+		this.server.setEmbeddingLatency(LatencyDistribution.fixed(Duration.ofMillis(300)));
+		var request = new EmbeddingRequest(List.of("Hello"), null);
+		var first = this.embeddingModel.callReactive(request).subscribe();
+		await(() -> this.server.getRequestCount(Endpoint.TEXT_EMBEDDING) == 1);
+		var second = this.embeddingModel.callReactive(request).toFuture();
+
+		first.dispose();
+
+		var response = second.get(5, TimeUnit.SECONDS);
+		assertThat(response.getResult().getOutput()).hasSize(YandexStubServer.DEFAULT_EMBEDDING_DIMENSIONS);
+		assertThat(this.server.getRequestCount(Endpoint.TEXT_EMBEDDING)).isOne();
+	}
+
+	@Test
+	void sendsANewCallOnceTheSharedCallIsDone() throws Exception {
+		var request = new EmbeddingRequest(List.of("Hello"), null);
+		this.embeddingModel.callReactive(request).toFuture().get(5, TimeUnit.SECONDS);
+
+		this.embeddingModel.callReactive(request).toFuture().get(5, TimeUnit.SECONDS);
+
+		assertThat(this.server.getRequestCount(Endpoint.TEXT_EMBEDDING)).isEqualTo(2);
+	}
+
+	@Test
+	void failsCallsNeedingTheDefaultExecutorOnceClosed() throws Exception {
+		var request = new EmbeddingRequest(List.of("Hello"), null);
+		this.embeddingModel.callAsync(request).get(5, TimeUnit.SECONDS);
+
+		this.embeddingModel.close();
+
+		assertThatIllegalStateException().isThrownBy(() -> this.embeddingModel.callAsync(request));
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime() - deadline).as("time left to meet the condition").isNegative();
+			Thread.sleep(20);
+		}
+	}
+
+}
@@ -0,0 +1,72 @@
+package io.github.abudanov.springframework.ai.yandex.test;
+
+import io.github.abudanov.springframework.ai.yandex.retry.CircuitBreakerRetryListener;
+import io.github.abudanov.springframework.ai.yandex.retry.RetryBudget;
+import io.github.abudanov.springframework.ai.yandex.retry.YandexCircuitBreaker;
+import io.github.abudanov.springframework.ai.yandex.retry.YandexHedgingPolicy;
+import io.github.abudanov.springframework.ai.yandex.retry.YandexRetryPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.retry.RetryListener;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class YandexHedgingPolicyTests {
+
+	private ExecutorService executor;
+
+	private YandexCircuitBreaker circuitBreaker;
+
+	private RetryTemplate retryTemplate;
+
+	@BeforeEach
+	void setUp() {
+		this.executor = Executors.newCachedThreadPool();
+		this.circuitBreaker = new YandexCircuitBreaker(0.3, 10, 1, Duration.ofMinutes(1), 1);
+		this.retryTemplate = new RetryTemplate();
+		this.retryTemplate.setRetryPolicy(new YandexRetryPolicy(4, new RetryBudget(1, 100), this.circuitBreaker));
+		this.retryTemplate.setListeners(new RetryListener[] { new CircuitBreakerRetryListener(this.circuitBreaker) });
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	void doesNotRetryNorCountTheCancelledCall() throws Exception {
+		var hedgingPolicy = new YandexHedgingPolicy(0.5, Duration.ZERO, 1, 1, 1);
+		hedgingPolicy.execute(() -> this.retryTemplate.execute(ctx -> "warm-up"), this.executor, null);
+		assertThat(hedgingPolicy.getDelayNanos()).isNotNegative();
+		var calls = new AtomicInteger();
+
+		var result = hedgingPolicy.execute(() -> this.retryTemplate.execute(ctx -> {
+			if (calls.getAndIncrement() == 0) {
+				try {
+					Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+				}
+				catch (InterruptedException ex) {
+					throw new ResourceAccessException("I/O error", new InterruptedIOException());
+				}
+			}
+			return "hedge";
+		}), this.executor, null);
+
+		assertThat(result).isEqualTo("hedge");
+		this.executor.shutdown();
+		assertThat(this.executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(calls).hasValue(2);
+		assertThat(this.circuitBreaker.getState()).isEqualTo(YandexCircuitBreaker.State.CLOSED);
+	}
+
+}
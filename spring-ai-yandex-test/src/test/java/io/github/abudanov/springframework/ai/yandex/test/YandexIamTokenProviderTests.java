@@ -0,0 +1,126 @@
+package io.github.abudanov.springframework.ai.yandex.test;
+
+import io.github.abudanov.springframework.ai.yandex.auth.YandexIamTokenClient;
+import io.github.abudanov.springframework.ai.yandex.auth.YandexIamTokenProvider;
+import io.github.abudanov.springframework.ai.yandex.test.YandexStubServer.Endpoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatRuntimeException;
+
+class YandexIamTokenProviderTests {
+
+	private static final Duration SHORT_REFRESH_INTERVAL = Duration.ofMillis(200);
+
+	private YandexStubServer server;
+
+	private YandexIamTokenClient tokenClient;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		this.server = new YandexStubServer();
+		this.tokenClient = this.server.createIamTokenClient();
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.server.close();
+	}
+
+	@Test
+	void cachesTheTokenUntilItIsRefreshed() {
+		try (var provider = new YandexIamTokenProvider(() -> this.tokenClient.createToken("oauth"))) {
+			assertThat(provider.getCachedToken()).isNull();
+
+			var token = provider.getToken();
+
+			assertThat(token).startsWith("stub-iam-");
+			assertThat(provider.getToken()).isEqualTo(token);
+			assertThat(provider.getCachedToken()).isEqualTo(token);
+			assertThat(this.server.getRequestCount(Endpoint.IAM_TOKEN)).isOne();
+		}
+	}
+
+	@Test
+	void refreshesTheTokenBeforeItExpires() throws Exception {
+		try (var provider = new YandexIamTokenProvider(() -> this.tokenClient.createToken("oauth"),
+				SHORT_REFRESH_INTERVAL, 0)) {
+			var token = provider.getToken();
+
+			await(() -> this.server.getRequestCount(Endpoint.IAM_TOKEN) >= 3);
+
+			assertThat(provider.getCachedToken()).isNotNull().isNotEqualTo(token);
+		}
+	}
+
+	@Test
+	void fetchesOneTokenForConcurrentCallers() throws Exception {
+		this.server.setIamTokenLatency(LatencyDistribution.fixed(Duration.ofMillis(300)));
+		var executor = Executors.newFixedThreadPool(16);
+		try (var provider = new YandexIamTokenProvider(() -> this.tokenClient.createToken("oauth"))) {
+			var start = new CountDownLatch(1);
+			List<Future<String>> tokens = new ArrayList<>();
+			for (int i = 0; i < 16; i++) {
+				tokens.add(executor.submit(() -> {
+					start.await();
+					return provider.getToken();
+				}));
+			}
+
+			start.countDown();
+
+			var first = tokens.get(0).get(5, TimeUnit.SECONDS);
+			for (var token : tokens) {
+				assertThat(token.get(5, TimeUnit.SECONDS)).isEqualTo(first);
+			}
+			assertThat(this.server.getRequestCount(Endpoint.IAM_TOKEN)).isOne();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void keepsTheCachedTokenWhenARefreshFails() throws Exception {
+		try (var provider = new YandexIamTokenProvider(() -> this.tokenClient.createToken("oauth"),
+				SHORT_REFRESH_INTERVAL, 0)) {
+			var token = provider.getToken();
+			this.server.setErrorRate(1);
+
+			await(() -> this.server.getErrorCount() >= 1);
+
+			assertThat(provider.getToken()).isEqualTo(token);
+			assertThat(provider.getCachedToken()).isEqualTo(token);
+		}
+	}
+
+	@Test
+	void failsWithoutACachedTokenWhenTheFetchFails() {
+		this.server.setErrorRate(1);
+		try (var provider = new YandexIamTokenProvider(() -> this.tokenClient.createToken("oauth"))) {
+			assertThatRuntimeException().isThrownBy(provider::getToken);
+			assertThat(provider.getCachedToken()).isNull();
+		}
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime() - deadline).as("time left to meet the condition").isNegative();
+			Thread.sleep(20);
+		}
+	}
+
+}
@@ -0,0 +1,79 @@
+package io.github.abudanov.springframework.ai.yandex.test;
+
+import io.github.abudanov.springframework.ai.autoconfigure.yandex.YandexAutoConfiguration;
+import io.github.abudanov.springframework.ai.yandex.YandexChatModel;
+import io.github.abudanov.springframework.ai.yandex.YandexEmbeddingModel;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Calls the auto-configured models against the stub server. Run with the {@code native}
+ * profile, it checks that the runtime hints cover the JSON mapping of the API in a
+ * native image.
+ */
+@SpringBootTest(classes = YandexNativeSmokeTests.Application.class,
+		properties = { "spring.ai.yandex.folder-id=folder", "spring.ai.yandex.api-key=stub" })
+class YandexNativeSmokeTests {
+
+	private static YandexStubServer server;
+
+	@Autowired
+	private YandexChatModel chatModel;
+
+	@Autowired
+	private YandexEmbeddingModel embeddingModel;
+
+	@DynamicPropertySource
+	static void stubServerProperties(DynamicPropertyRegistry registry) throws IOException {
+		server = new YandexStubServer();
+		registry.add("spring.ai.yandex.base-url", server::getBaseUrl);
+		registry.add("spring.ai.yandex.chat.operation-path", server::getOperationPath);
+	}
+
+	@AfterAll
+	static void stopStubServer() {
+		if (server != null) {
+			server.close();
+		}
+	}
+
+	@Test
+	void callsTheChatModel() {
+		var response = this.chatModel.call(new Prompt("Hello"));
+
+		assertThat(response.getResult().getOutput().getContent()).isNotEmpty();
+	}
+
+	@Test
+	void callsTheChatModelDeferred() throws Exception {
+		var response = this.chatModel.callDeferred(new Prompt("Hello")).get(10, TimeUnit.SECONDS);
+
+		assertThat(response.getResult().getOutput().getContent()).isNotEmpty();
+	}
+
+	@Test
+	void callsTheEmbeddingModel() {
+		var embedding = this.embeddingModel.embed("Hello");
+
+		assertThat(embedding).hasSize(YandexStubServer.DEFAULT_EMBEDDING_DIMENSIONS);
+	}
+
+	@SpringBootConfiguration
+	@ImportAutoConfiguration(YandexAutoConfiguration.class)
+	static class Application {
+
+	}
+
+}
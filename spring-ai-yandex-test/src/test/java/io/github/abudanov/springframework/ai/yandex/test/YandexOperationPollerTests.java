@@ -0,0 +1,165 @@
+package io.github.abudanov.springframework.ai.yandex.test;
+
+import io.github.abudanov.springframework.ai.yandex.YandexOperationPoller;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionMessage;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionOptions;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionRequest;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionResponse;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.Operation;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class YandexOperationPollerTests {
+
+	private static final Duration INITIAL_DELAY = Duration.ofMillis(20);
+
+	private static final Duration MAX_DELAY = Duration.ofMillis(100);
+
+	private YandexStubServer server;
+
+	private YandexApi yandexApi;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		this.server = new YandexStubServer();
+		this.yandexApi = this.server.createApi();
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.server.close();
+	}
+
+	@Test
+	void completesWithTheResponseOfTheOperation() throws Exception {
+		this.server.setOperationLatency(LatencyDistribution.fixed(Duration.ofMillis(200)));
+		try (var poller = newPoller(this.yandexApi, Duration.ofSeconds(10))) {
+			var result = poller.poll(startOperation());
+
+			var response = result.get(5, TimeUnit.SECONDS);
+
+			assertThat(response.alternatives()).hasSize(1);
+			assertThat(response.alternatives().get(0).message().text()).isNotEmpty();
+			assertThat(this.server.getRequestCount(YandexStubServer.Endpoint.OPERATION)).isGreaterThan(1);
+			assertThat(poller.getPendingCount()).isZero();
+		}
+	}
+
+	@Test
+	void failsWhenTheOperationIsDoneWithAnError() throws Exception {
+		this.server.setOperationErrorRate(1);
+		try (var poller = newPoller(this.yandexApi, Duration.ofSeconds(10))) {
+			var result = poller.poll(startOperation());
+
+			assertThat(result).failsWithin(Duration.ofSeconds(5))
+				.withThrowableOfType(Exception.class)
+				.havingCause()
+				.isInstanceOf(NonTransientAiException.class)
+				.withMessageContaining("Internal error");
+		}
+	}
+
+	@Test
+	void failsWhenTheOperationIsNotDoneInTime() throws Exception {
+		this.server.setOperationLatency(LatencyDistribution.fixed(Duration.ofHours(1)));
+		try (var poller = newPoller(this.yandexApi, Duration.ofMillis(300))) {
+			var result = poller.poll(startOperation());
+
+			assertThat(result).failsWithin(Duration.ofSeconds(5))
+				.withThrowableOfType(Exception.class)
+				.havingCause()
+				.isInstanceOf(TimeoutException.class);
+			assertThat(poller.getPendingCount()).isZero();
+		}
+	}
+
+	@Test
+	void closeFailsQueuedOperations() throws Exception {
+		this.server.setOperationLatency(LatencyDistribution.fixed(Duration.ofHours(1)));
+		var poller = newPoller(this.yandexApi, Duration.ofSeconds(10));
+		List<CompletableFuture<CompletionResponse>> results = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			results.add(poller.poll(startOperation()));
+		}
+
+		poller.close();
+
+		for (var result : results) {
+			assertThat(result).failsWithin(Duration.ofSeconds(1))
+				.withThrowableOfType(Exception.class)
+				.havingCause()
+				.isInstanceOf(IllegalStateException.class);
+		}
+		assertThat(poller.getPendingCount()).isZero();
+		assertThatIllegalStateException().isThrownBy(() -> poller.poll("operation"));
+	}
+
+	@Test
+	void closeFailsOperationsBeingPolled() throws Exception {
+		this.server.setOperationLatency(LatencyDistribution.fixed(Duration.ofHours(1)));
+		var polling = new CountDownLatch(1);
+		var blocked = new CountDownLatch(1);
+		var blockingApi = new YandexApi(this.server.getBaseUrl(), "stub", new LinkedMultiValueMap<>(),
+				RestClient.builder(), YandexStubServer.COMPLETION_PATH, YandexStubServer.EMBEDDING_PATH,
+				YandexStubServer.COMPLETION_ASYNC_PATH, this.server.getOperationPath(),
+				new DefaultResponseErrorHandler()) {
+
+			@Override
+			public ResponseEntity<Operation> operation(String operationId) {
+				polling.countDown();
+				try {
+					blocked.await();
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				return super.operation(operationId);
+			}
+
+		};
+		var poller = newPoller(blockingApi, Duration.ofSeconds(10));
+		var result = poller.poll(startOperation());
+		assertThat(polling.await(5, TimeUnit.SECONDS)).isTrue();
+
+		poller.close();
+
+		assertThat(result).failsWithin(Duration.ofSeconds(1))
+			.withThrowableOfType(Exception.class)
+			.havingCause()
+			.isInstanceOf(IllegalStateException.class);
+		blocked.countDown();
+		assertThat(poller.getPendingCount()).isZero();
+	}
+
+	private YandexOperationPoller newPoller(YandexApi yandexApi, Duration timeout) {
+		return new YandexOperationPoller(yandexApi, INITIAL_DELAY, MAX_DELAY, timeout,
+				YandexOperationPoller.DEFAULT_MAX_CONCURRENT_POLLS);
+	}
+
+	private String startOperation() {
+		var request = new CompletionRequest("gpt://folder/yandexgpt/latest", new CompletionOptions(false, 0.3, 100),
+				List.of(new CompletionMessage(Role.USER, "Hello")));
+		return this.yandexApi.completionAsync(request).getBody().id();
+	}
+
+}
@@ -0,0 +1,114 @@
+package io.github.abudanov.springframework.ai.yandex.test;
+
+import io.github.abudanov.springframework.ai.yandex.YandexEmbeddingModel;
+import io.github.abudanov.springframework.ai.yandex.YandexEmbeddingOptions;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi;
+import io.github.abudanov.springframework.ai.yandex.vectorstore.YandexVectorStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class YandexVectorStoreTests {
+
+	@TempDir
+	Path directory;
+
+	private YandexStubServer server;
+
+	private YandexEmbeddingModel embeddingModel;
+
+	private YandexVectorStore vectorStore;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		this.server = new YandexStubServer();
+		this.embeddingModel = new YandexEmbeddingModel(this.server.createApi(), "folder",
+				new YandexEmbeddingOptions(YandexApi.EmbeddingModel.TEXT_SEARCH_DOC));
+		this.vectorStore = new YandexVectorStore(this.embeddingModel);
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.embeddingModel.close();
+		this.server.close();
+	}
+
+	@Test
+	void keepsTheSnapshotBoundedWhenTheDocumentsAreReplaced() throws IOException {
+		var snapshot = this.directory.resolve("store.bin");
+		this.vectorStore.add(documents(100, 0));
+		this.vectorStore.save(snapshot);
+		long initialSize = Files.size(snapshot);
+
+		for (int round = 1; round <= 20; round++) {
+			this.vectorStore.add(documents(100, round));
+		}
+
+		this.vectorStore.save(snapshot);
+		assertThat(this.vectorStore.size()).isEqualTo(100);
+		assertThat(Files.size(snapshot)).isLessThanOrEqualTo(3 * initialSize);
+	}
+
+	@Test
+	void findsOnlyTheRemainingDocumentsOnceCompacted() {
+		this.vectorStore.setCompactionThreshold(1);
+		this.vectorStore.add(documents(100, 0));
+		List<String> deleted = new ArrayList<>();
+		for (int i = 0; i < 100; i += 2) {
+			deleted.add("document-" + i);
+		}
+		assertThat(this.vectorStore.delete(deleted)).contains(true);
+
+		this.vectorStore.compact();
+
+		assertThat(this.vectorStore.size()).isEqualTo(50);
+		assertThat(search()).hasSize(50).doesNotContainAnyElementsOf(deleted);
+	}
+
+	@Test
+	void loadsTheSavedDocuments() throws IOException {
+		var snapshot = this.directory.resolve("store.bin");
+		this.vectorStore.add(documents(100, 0));
+		this.vectorStore.delete(List.of("document-0"));
+		this.vectorStore.save(snapshot);
+
+		var loaded = new YandexVectorStore(this.embeddingModel);
+		loaded.load(snapshot);
+
+		assertThat(loaded.size()).isEqualTo(99);
+		assertThat(searchIn(loaded)).containsExactlyElementsOf(search());
+		assertThat(loaded.delete(List.of("document-1"))).contains(true);
+		assertThat(loaded.delete(List.of("document-0"))).contains(false);
+	}
+
+	private List<String> search() {
+		return searchIn(this.vectorStore);
+	}
+
+	private static List<String> searchIn(YandexVectorStore vectorStore) {
+		var request = SearchRequest.query("document").withTopK(200).withSimilarityThresholdAll();
+		return vectorStore.similaritySearch(request).stream().map(Document::getId).toList();
+	}
+
+	private static List<Document> documents(int count, int round) {
+		List<Document> documents = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			documents.add(new Document("document-" + i, "Document " + i + " of round " + round,
+					Map.of("round", round)));
+		}
+		return documents;
+	}
+
+}
@@ -0,0 +1,147 @@
+package io.github.abudanov.springframework.ai.yandex;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * Keeps the conversation sent to the model within a token budget: the system messages
+ * and the most recent turns that fit are kept, older turns are dropped. The kept turns
+ * never start with an assistant message answering a dropped one.
+ * <p>
+ * The token count of every message is remembered in a {@link WeakHashMap} for as long as
+ * the message itself is referenced, by the chat memory for example, so each turn only
+ * tokenizes the messages added since the previous one.
+ */
+public class ChatHistoryTrimmer {
+
+	private static final Logger logger = LoggerFactory.getLogger(ChatHistoryTrimmer.class);
+
+	/**
+	 * Tokens kept for the completion when the request does not set its maximum number.
+	 */
+	public static final int DEFAULT_COMPLETION_RESERVE = 2_000;
+
+	/**
+	 * Tokens added per message for the special tokens separating the messages.
+	 */
+	public static final int DEFAULT_MESSAGE_OVERHEAD = 4;
+
+	private final int completionReserve;
+
+	private final int messageOverhead;
+
+	private final Map<Message, TokenCount> tokenCounts = Collections.synchronizedMap(new WeakHashMap<>());
+
+	public ChatHistoryTrimmer() {
+		this(DEFAULT_COMPLETION_RESERVE, DEFAULT_MESSAGE_OVERHEAD);
+	}
+
+	/**
+	 * Creates a trimmer.
+	 * @param completionReserve the tokens kept for the completion when the request does
+	 * not set its maximum number
+	 * @param messageOverhead the tokens added per message for the special tokens
+	 * separating the messages
+	 */
+	public ChatHistoryTrimmer(int completionReserve, int messageOverhead) {
+		Assert.isTrue(completionReserve >= 0, "Completion reserve must not be negative");
+		Assert.isTrue(messageOverhead >= 0, "Message overhead must not be negative");
+		this.completionReserve = completionReserve;
+		this.messageOverhead = messageOverhead;
+	}
+
+	/**
+	 * Returns the number of tokens the messages of a request may use.
+	 * @param contextLength the context length of the model
+	 * @param maxTokens the maximum number of completion tokens of the request, or
+	 * {@code null}
+	 * @return the token budget of the messages
+	 */
+	public long budget(int contextLength, Integer maxTokens) {
+		return contextLength - ((maxTokens != null) ? maxTokens : this.completionReserve);
+	}
+
+	/**
+	 * Trims the messages to the budget. The last message is always kept, even when it
+	 * does not fit on its own.
+	 * @param messages the messages of the prompt
+	 * @param budget the token budget of the messages
+	 * @param modelUri the URI of the model whose tokenizer counts the tokens
+	 * @param tokenCounter counts the tokens of a text
+	 * @return the messages themselves if they fit, the kept messages otherwise
+	 */
+	public List<Message> trim(List<Message> messages, long budget, String modelUri,
+			ToLongFunction<String> tokenCounter) {
+		int size = messages.size();
+		if (size == 0) {
+			return messages;
+		}
+		var counts = new long[size];
+		long total = 0;
+		long systemTokens = 0;
+		for (int i = 0; i < size; i++) {
+			var message = messages.get(i);
+			counts[i] = tokenCount(message, modelUri, tokenCounter) + this.messageOverhead;
+			total += counts[i];
+			if (message.getMessageType() == MessageType.SYSTEM) {
+				systemTokens += counts[i];
+			}
+		}
+		if (total <= budget) {
+			return messages;
+		}
+		// the most recent messages that fit next to the system ones
+		long remaining = budget - systemTokens;
+		int first = size;
+		while (first > 0) {
+			var message = messages.get(first - 1);
+			if (message.getMessageType() != MessageType.SYSTEM) {
+				if (counts[first - 1] > remaining && first < size) {
+					break;
+				}
+				remaining -= counts[first - 1];
+			}
+			first--;
+		}
+		while (first < size - 1 && messages.get(first).getMessageType() == MessageType.ASSISTANT) {
+			first++;
+		}
+		var kept = new ArrayList<Message>(size - first + 1);
+		for (int i = 0; i < size; i++) {
+			var message = messages.get(i);
+			if (i >= first || message.getMessageType() == MessageType.SYSTEM) {
+				kept.add(message);
+			}
+		}
+		if (remaining < 0) {
+			logger.warn("The system messages and the last message exceed the budget of {} tokens", budget);
+		}
+		else if (logger.isDebugEnabled()) {
+			logger.debug("Trimmed the conversation from {} to {} messages", size, kept.size());
+		}
+		return kept;
+	}
+
+	private long tokenCount(Message message, String modelUri, ToLongFunction<String> tokenCounter) {
+		var count = this.tokenCounts.get(message);
+		if (count == null || !count.modelUri().equals(modelUri)) {
+			count = new TokenCount(modelUri, tokenCounter.applyAsLong(message.getContent()));
+			this.tokenCounts.put(message, count);
+		}
+		return count.tokens();
+	}
+
+	private record TokenCount(String modelUri, long tokens) {
+	}
+
+}
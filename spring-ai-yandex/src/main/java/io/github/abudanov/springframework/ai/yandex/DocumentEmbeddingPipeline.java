@@ -0,0 +1,122 @@
+package io.github.abudanov.springframework.ai.yandex;
+
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.transformer.splitter.TextSplitter;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Embeds documents of any size as a stream. Each document is split into chunks the
+ * embedding model accepts, by an {@link EmbeddingTextSplitter} by default, the chunks
+ * are embedded in batches with a bounded number of batches in flight, and every chunk
+ * is emitted in order with its embedding set, and with the ID of its document, its index
+ * and the number of chunks of the document in its metadata.
+ * <p>
+ * Documents are requested from upstream only as fast as their chunks are embedded and
+ * consumed, so the memory used stays flat however many documents are ingested. The
+ * embeddings are kept by the {@link io.github.abudanov.springframework.ai.yandex.vectorstore.YandexVectorStore}
+ * the chunks are added to.
+ */
+public class DocumentEmbeddingPipeline {
+
+	public static final String PARENT_DOCUMENT_ID = "parent_document_id";
+
+	public static final String CHUNK_INDEX = "chunk_index";
+
+	public static final String TOTAL_CHUNKS = "total_chunks";
+
+	public static final int DEFAULT_CONCURRENCY = 4;
+
+	public static final int DEFAULT_BATCH_SIZE = 16;
+
+	private final YandexEmbeddingModel embeddingModel;
+
+	private final YandexEmbeddingOptions options;
+
+	private final TextSplitter textSplitter;
+
+	private final int concurrency;
+
+	private final int batchSize;
+
+	public DocumentEmbeddingPipeline(YandexEmbeddingModel embeddingModel) {
+		this(embeddingModel, new YandexEmbeddingOptions(YandexApi.EmbeddingModel.TEXT_SEARCH_DOC),
+				new EmbeddingTextSplitter(embeddingModel), DEFAULT_CONCURRENCY, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * Creates a pipeline.
+	 * @param embeddingModel the embedding model
+	 * @param options the options of the embedding requests
+	 * @param textSplitter splits the documents into chunks the model accepts
+	 * @param concurrency the maximum number of documents split and of batches embedded
+	 * at the same time
+	 * @param batchSize the number of chunks embedded by a request
+	 */
+	public DocumentEmbeddingPipeline(YandexEmbeddingModel embeddingModel, YandexEmbeddingOptions options,
+			TextSplitter textSplitter, int concurrency, int batchSize) {
+		Assert.notNull(embeddingModel, "EmbeddingModel must not be null");
+		Assert.notNull(options, "Options must not be null");
+		Assert.notNull(textSplitter, "TextSplitter must not be null");
+		Assert.isTrue(concurrency > 0, "Concurrency must be positive");
+		Assert.isTrue(batchSize > 0, "Batch size must be positive");
+		this.embeddingModel = embeddingModel;
+		this.options = options;
+		this.textSplitter = textSplitter;
+		this.concurrency = concurrency;
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Splits and embeds the documents when the returned {@link Flux} is subscribed to.
+	 * @param documents the documents
+	 * @return the embedded chunks, in the order of the documents
+	 */
+	public Flux<Document> embed(Flux<Document> documents) {
+		return documents
+			.flatMapSequential(document -> Mono.fromCallable(() -> split(document))
+				.subscribeOn(Schedulers.boundedElastic()), this.concurrency, 1)
+			.concatMapIterable(chunks -> chunks)
+			.buffer(this.batchSize)
+			.flatMapSequential(this::embedBatch, this.concurrency, 1)
+			.concatMapIterable(chunks -> chunks);
+	}
+
+	/**
+	 * Splits the document, which counts its tokens with blocking calls.
+	 */
+	private List<Document> split(Document document) {
+		var chunks = this.textSplitter.apply(List.of(document));
+		for (int i = 0; i < chunks.size(); i++) {
+			var metadata = chunks.get(i).getMetadata();
+			metadata.put(PARENT_DOCUMENT_ID, document.getId());
+			metadata.put(CHUNK_INDEX, i);
+			metadata.put(TOTAL_CHUNKS, chunks.size());
+		}
+		return chunks;
+	}
+
+	private Mono<List<Document>> embedBatch(List<Document> chunks) {
+		var texts = new ArrayList<String>(chunks.size());
+		for (var chunk : chunks) {
+			texts.add(chunk.getContent());
+		}
+		return this.embeddingModel.callNonBlocking(new EmbeddingRequest(texts, this.options)).map(response -> {
+			var results = response.getResults();
+			Assert.state(results.size() == chunks.size(), "Embedding model returned " + results.size()
+					+ " embeddings for " + chunks.size() + " chunks");
+			for (int i = 0; i < chunks.size(); i++) {
+				chunks.get(i).setEmbedding(results.get(i).getOutput());
+			}
+			return chunks;
+		});
+	}
+
+}
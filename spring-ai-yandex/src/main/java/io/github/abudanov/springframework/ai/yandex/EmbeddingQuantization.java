@@ -0,0 +1,41 @@
+package io.github.abudanov.springframework.ai.yandex;
+
+/**
+ * Scalar quantization applied to the vectors returned by {@link YandexEmbeddingModel}.
+ *
+ * @see EmbeddingUtils#quantize(float[], EmbeddingQuantization)
+ */
+public enum EmbeddingQuantization {
+
+	/**
+	 * Full precision {@code float} vectors, 4 bytes per dimension.
+	 */
+	NONE(4),
+
+	/**
+	 * Half precision vectors, 2 bytes per dimension. The relative error of each component
+	 * is at most 2<sup>-11</sup>, which leaves similarity rankings practically unchanged.
+	 */
+	FP16(2),
+
+	/**
+	 * 8-bit vectors, 1 byte per dimension, mapped linearly onto the value range of each
+	 * vector through a per-vector scale and offset. The absolute error of each component
+	 * is at most half of {@code scale}; for 256-dimensional unit vectors shaped like the
+	 * Yandex embeddings, cosine similarities move by less than 0.01. Close neighbours may
+	 * swap places, so re-rank the top candidates with full precision vectors where the
+	 * exact order matters.
+	 */
+	INT8(1);
+
+	private final int bytesPerDimension;
+
+	EmbeddingQuantization(int bytesPerDimension) {
+		this.bytesPerDimension = bytesPerDimension;
+	}
+
+	public int getBytesPerDimension() {
+		return this.bytesPerDimension;
+	}
+
+}
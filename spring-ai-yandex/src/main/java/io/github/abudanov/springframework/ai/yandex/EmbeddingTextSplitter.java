@@ -0,0 +1,100 @@
+package io.github.abudanov.springframework.ai.yandex;
+
+import org.springframework.ai.transformer.splitter.TextSplitter;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Splits texts into chunks that fit the input of a Yandex embedding model. Tokens are
+ * counted by the tokenizer of the model, so no chunk is truncated by the API, and only
+ * the texts over the limit are cut: into even shares, each ending at the last paragraph
+ * break, line or sentence end, or space of its second half, at a fixed position
+ * otherwise. A chunk that still exceeds the limit is split again.
+ */
+public class EmbeddingTextSplitter extends TextSplitter {
+
+	/**
+	 * Share of the token limit a chunk is sized for, so that a chunk ending at a boundary
+	 * after its even share still fits.
+	 */
+	private static final double FILL_RATIO = 0.9;
+
+	private final ToLongFunction<String> tokenCounter;
+
+	private final int maxTokens;
+
+	/**
+	 * Creates a splitter for the default model of the embedding model.
+	 * @param embeddingModel the embedding model counting the tokens
+	 */
+	public EmbeddingTextSplitter(YandexEmbeddingModel embeddingModel) {
+		this(embeddingModel::countTokens, embeddingModel.getMaxInputTokens());
+	}
+
+	/**
+	 * Creates a splitter.
+	 * @param tokenCounter counts the tokens of a text
+	 * @param maxTokens the maximum number of tokens of a chunk
+	 */
+	public EmbeddingTextSplitter(ToLongFunction<String> tokenCounter, int maxTokens) {
+		Assert.notNull(tokenCounter, "Token counter must not be null");
+		Assert.isTrue(maxTokens > 0, "Max tokens must be positive");
+		this.tokenCounter = tokenCounter;
+		this.maxTokens = maxTokens;
+	}
+
+	@Override
+	protected List<String> splitText(String text) {
+		var chunks = new ArrayList<String>();
+		split(text, chunks);
+		return chunks;
+	}
+
+	private void split(String text, List<String> chunks) {
+		if (text.isBlank()) {
+			return;
+		}
+		long tokens = this.tokenCounter.applyAsLong(text);
+		if (tokens <= this.maxTokens) {
+			chunks.add(text);
+			return;
+		}
+		int parts = (int) Math.ceil(tokens / (this.maxTokens * FILL_RATIO));
+		int share = Math.max(1, text.length() / parts);
+		int start = 0;
+		while (start < text.length()) {
+			int end = (text.length() - start <= share) ? text.length() : cut(text, start, start + share);
+			split(text.substring(start, end).strip(), chunks);
+			start = end;
+		}
+	}
+
+	/**
+	 * Returns the end of the chunk starting at {@code start}, at the last boundary
+	 * between the middle of the share and its {@code end}.
+	 */
+	private static int cut(String text, int start, int end) {
+		int min = start + (end - start) / 2;
+		int paragraph = text.lastIndexOf("\n\n", end - 2);
+		if (paragraph >= min) {
+			return paragraph + 2;
+		}
+		for (int i = end - 1; i >= min; i--) {
+			char c = text.charAt(i);
+			if (c == '\n' || ((c == '.' || c == '!' || c == '?') && Character.isWhitespace(text.charAt(i + 1)))) {
+				return i + 1;
+			}
+		}
+		for (int i = end - 1; i >= min; i--) {
+			if (Character.isWhitespace(text.charAt(i))) {
+				return i + 1;
+			}
+		}
+		// never separate the halves of a surrogate pair
+		return (end - 1 > start && Character.isHighSurrogate(text.charAt(end - 1))) ? end - 1 : end;
+	}
+
+}
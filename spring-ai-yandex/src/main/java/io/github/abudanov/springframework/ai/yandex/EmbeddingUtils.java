@@ -1,9 +1,13 @@
 package io.github.abudanov.springframework.ai.yandex;
 
+import org.springframework.util.Assert;
+
 public class EmbeddingUtils extends org.springframework.ai.model.EmbeddingUtils {
 
 	public static final float[] EMPTY_FLOAT_ARRAY = new float[0];
 
+	private static final int INT8_LEVELS = 255;
+
 	public static float[] doubleToFloatPrimitive(double[] doubles) {
 		float[] floats = new float[doubles.length];
 		for (int i = 0; i < doubles.length; i++) {
@@ -12,4 +16,202 @@ public class EmbeddingUtils extends org.springframework.ai.model.EmbeddingUtils
 		return floats;
 	}
 
+	/**
+	 * Quantizes a vector. {@code INT8} maps the range between the smallest and the largest
+	 * component linearly onto 256 levels, {@code FP16} rounds each component to the
+	 * nearest half precision value.
+	 * @param vector the full precision vector
+	 * @param quantization the quantization to apply, either {@code INT8} or {@code FP16}
+	 * @return the quantized vector
+	 * @see EmbeddingQuantization
+	 */
+	public static QuantizedVector quantize(float[] vector, EmbeddingQuantization quantization) {
+		Assert.notNull(vector, "Vector must not be null");
+		Assert.notNull(quantization, "Quantization must not be null");
+		return switch (quantization) {
+			case INT8 -> quantizeInt8(vector);
+			case FP16 -> quantizeFp16(vector);
+			case NONE -> throw new IllegalArgumentException("Quantization must not be NONE");
+		};
+	}
+
+	/**
+	 * Decodes a quantized vector into full precision.
+	 * @param vector the quantized vector
+	 * @return a new array with the decoded components
+	 */
+	public static float[] dequantize(QuantizedVector vector) {
+		Assert.notNull(vector, "Vector must not be null");
+		return vector.toFloatArray();
+	}
+
+	/**
+	 * Computes the dot product of two quantized vectors. Two {@code INT8} vectors are
+	 * multiplied on their integer codes without decoding.
+	 * @param a the first vector
+	 * @param b the second vector
+	 * @return the dot product of the decoded vectors
+	 */
+	public static float dotProduct(QuantizedVector a, QuantizedVector b) {
+		Assert.isTrue(a.getDimensions() == b.getDimensions(), "Vectors must have the same dimensions");
+		int dimensions = a.getDimensions();
+		if (a.getQuantization() == EmbeddingQuantization.INT8 && b.getQuantization() == EmbeddingQuantization.INT8) {
+			long codeProduct = 0;
+			for (int i = 0; i < dimensions; i++) {
+				codeProduct += a.code(i) * b.code(i);
+			}
+			double dot = (double) a.getScale() * b.getScale() * codeProduct
+					+ (double) a.getScale() * b.getOffset() * a.codeSum()
+					+ (double) a.getOffset() * b.getScale() * b.codeSum()
+					+ (double) dimensions * a.getOffset() * b.getOffset();
+			return (float) dot;
+		}
+		double dot = 0;
+		for (int i = 0; i < dimensions; i++) {
+			dot += a.get(i) * b.get(i);
+		}
+		return (float) dot;
+	}
+
+	/**
+	 * Computes the dot product of a full precision query and a quantized vector.
+	 * @param query the full precision vector
+	 * @param vector the quantized vector
+	 * @return the dot product of the query and the decoded vector
+	 */
+	public static float dotProduct(float[] query, QuantizedVector vector) {
+		Assert.isTrue(query.length == vector.getDimensions(), "Vectors must have the same dimensions");
+		double dot = 0;
+		if (vector.getQuantization() == EmbeddingQuantization.INT8) {
+			// scale * sum(q * code) + offset * sum(q)
+			double codeProduct = 0;
+			double querySum = 0;
+			for (int i = 0; i < query.length; i++) {
+				codeProduct += query[i] * vector.code(i);
+				querySum += query[i];
+			}
+			dot = vector.getScale() * codeProduct + vector.getOffset() * querySum;
+		}
+		else {
+			for (int i = 0; i < query.length; i++) {
+				dot += query[i] * halfToFloat(vector.half(i));
+			}
+		}
+		return (float) dot;
+	}
+
+	/**
+	 * Computes the cosine similarity of two quantized vectors.
+	 * @param a the first vector
+	 * @param b the second vector
+	 * @return the cosine similarity of the decoded vectors, 0 if either has zero norm
+	 */
+	public static float cosineSimilarity(QuantizedVector a, QuantizedVector b) {
+		float norms = a.getNorm() * b.getNorm();
+		return (norms == 0) ? 0 : dotProduct(a, b) / norms;
+	}
+
+	/**
+	 * Computes the cosine similarity of a full precision query and a quantized vector,
+	 * which is more accurate than quantizing the query as well.
+	 * @param query the full precision vector
+	 * @param vector the quantized vector
+	 * @return the cosine similarity of the query and the decoded vector, 0 if either has
+	 * zero norm
+	 */
+	public static float cosineSimilarity(float[] query, QuantizedVector vector) {
+		double squares = 0;
+		for (float value : query) {
+			squares += value * value;
+		}
+		double norms = Math.sqrt(squares) * vector.getNorm();
+		return (norms == 0) ? 0 : (float) (dotProduct(query, vector) / norms);
+	}
+
+	private static QuantizedVector quantizeInt8(float[] vector) {
+		float min = Float.POSITIVE_INFINITY;
+		float max = Float.NEGATIVE_INFINITY;
+		for (float value : vector) {
+			Assert.isTrue(Float.isFinite(value), "Vector components must be finite");
+			min = Math.min(min, value);
+			max = Math.max(max, value);
+		}
+		if (vector.length == 0) {
+			return QuantizedVector.wrap(EmbeddingQuantization.INT8, new byte[0], 0, 0);
+		}
+		float scale = (max - min) / INT8_LEVELS;
+		byte[] data = new byte[vector.length];
+		for (int i = 0; i < vector.length; i++) {
+			int code = (scale == 0) ? 0 : Math.round((vector[i] - min) / scale);
+			data[i] = (byte) (Math.min(code, INT8_LEVELS) - 128);
+		}
+		return QuantizedVector.wrap(EmbeddingQuantization.INT8, data, scale, min);
+	}
+
+	private static QuantizedVector quantizeFp16(float[] vector) {
+		byte[] data = new byte[2 * vector.length];
+		for (int i = 0; i < vector.length; i++) {
+			short half = floatToHalf(vector[i]);
+			data[2 * i] = (byte) (half >> 8);
+			data[2 * i + 1] = (byte) half;
+		}
+		return QuantizedVector.wrap(EmbeddingQuantization.FP16, data, 1, 0);
+	}
+
+	/**
+	 * Converts a {@code float} to the IEEE 754 half precision bits, rounding to the
+	 * nearest even value.
+	 */
+	static short floatToHalf(float value) {
+		int bits = Float.floatToRawIntBits(value);
+		int sign = (bits >>> 16) & 0x8000;
+		int exponent = ((bits >>> 23) & 0xff) - 127 + 15;
+		int mantissa = bits & 0x7fffff;
+		if (exponent == 0xff - 127 + 15) {
+			// infinity or NaN
+			return (short) (sign | 0x7c00 | ((mantissa != 0) ? 0x200 : 0));
+		}
+		if (exponent >= 0x1f) {
+			return (short) (sign | 0x7c00);
+		}
+		if (exponent <= 0) {
+			if (exponent < -10) {
+				return (short) sign;
+			}
+			// subnormal half
+			mantissa |= 0x800000;
+			int shift = 14 - exponent;
+			return (short) (sign | roundToEven(mantissa, shift));
+		}
+		return (short) (sign | roundToEven((exponent << 23) | mantissa, 13));
+	}
+
+	/**
+	 * Converts IEEE 754 half precision bits to a {@code float}.
+	 */
+	static float halfToFloat(short half) {
+		int bits = half & 0xffff;
+		int sign = (bits & 0x8000) << 16;
+		int exponent = (bits >>> 10) & 0x1f;
+		int mantissa = bits & 0x3ff;
+		if (exponent == 0x1f) {
+			return Float.intBitsToFloat(sign | 0x7f800000 | (mantissa << 13));
+		}
+		if (exponent == 0) {
+			float value = mantissa * 0x1p-24f;
+			return (sign != 0) ? -value : value;
+		}
+		return Float.intBitsToFloat(sign | ((exponent + 112) << 23) | (mantissa << 13));
+	}
+
+	private static int roundToEven(int value, int shift) {
+		int result = value >>> shift;
+		int remainder = value & ((1 << shift) - 1);
+		int halfway = 1 << (shift - 1);
+		if (remainder > halfway || (remainder == halfway && (result & 1) != 0)) {
+			result++;
+		}
+		return result;
+	}
+
 }
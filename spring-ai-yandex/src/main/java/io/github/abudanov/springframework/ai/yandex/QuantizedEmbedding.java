@@ -0,0 +1,53 @@
+package io.github.abudanov.springframework.ai.yandex;
+
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.util.Assert;
+
+import java.util.Objects;
+
+/**
+ * {@link Embedding} holding a {@link QuantizedVector} instead of a full precision
+ * vector. {@link #getOutput()} decodes the vector on every call; code that keeps
+ * embeddings around should hold on to {@link #getQuantizedOutput()} instead.
+ */
+public class QuantizedEmbedding extends Embedding {
+
+	private final QuantizedVector vector;
+
+	public QuantizedEmbedding(QuantizedVector vector, Integer index) {
+		super(EmbeddingUtils.EMPTY_FLOAT_ARRAY, index);
+		Assert.notNull(vector, "Vector must not be null");
+		this.vector = vector;
+	}
+
+	public QuantizedVector getQuantizedOutput() {
+		return this.vector;
+	}
+
+	@Override
+	public float[] getOutput() {
+		return this.vector.toFloatArray();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof QuantizedEmbedding other)) {
+			return false;
+		}
+		return this.vector.equals(other.vector) && Objects.equals(getIndex(), other.getIndex());
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * this.vector.hashCode() + Objects.hashCode(getIndex());
+	}
+
+	@Override
+	public String toString() {
+		return "QuantizedEmbedding{vector=" + this.vector + ", index=" + getIndex() + '}';
+	}
+
+}
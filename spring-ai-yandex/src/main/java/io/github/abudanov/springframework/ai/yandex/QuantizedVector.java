@@ -0,0 +1,181 @@
+package io.github.abudanov.springframework.ai.yandex;
+
+import org.springframework.util.Assert;
+
+import java.util.Arrays;
+
+/**
+ * Scalar-quantized embedding vector. Component {@code i} decodes to
+ * {@code scale * code(i) + offset}, where {@code code(i)} is the unsigned 8-bit code for
+ * {@link EmbeddingQuantization#INT8} vectors and the half precision value for
+ * {@link EmbeddingQuantization#FP16} ones, whose scale is always 1 and offset 0.
+ * <p>
+ * Instances are immutable and created with
+ * {@link EmbeddingUtils#quantize(float[], EmbeddingQuantization)} or restored from
+ * stored data with {@link #of(EmbeddingQuantization, byte[], float, float)}.
+ */
+public final class QuantizedVector {
+
+	private final EmbeddingQuantization quantization;
+
+	private final byte[] data;
+
+	private final float scale;
+
+	private final float offset;
+
+	private final int dimensions;
+
+	/**
+	 * Sum of the unsigned codes of an {@code INT8} vector, used by the integer dot
+	 * product.
+	 */
+	private final long codeSum;
+
+	/**
+	 * Euclidean norm of the decoded vector.
+	 */
+	private final float norm;
+
+	private QuantizedVector(EmbeddingQuantization quantization, byte[] data, float scale, float offset) {
+		this.quantization = quantization;
+		this.data = data;
+		this.scale = scale;
+		this.offset = offset;
+		this.dimensions = data.length / quantization.getBytesPerDimension();
+		long sum = 0;
+		double squares = 0;
+		for (int i = 0; i < this.dimensions; i++) {
+			if (quantization == EmbeddingQuantization.INT8) {
+				sum += code(i);
+			}
+			double value = get(i);
+			squares += value * value;
+		}
+		this.codeSum = sum;
+		this.norm = (float) Math.sqrt(squares);
+	}
+
+	/**
+	 * Restores a quantized vector from its stored representation.
+	 * @param quantization the quantization of the data, either {@code INT8} or
+	 * {@code FP16}
+	 * @param data the encoded components, as returned by {@link #getData()}
+	 * @param scale the scale of the vector
+	 * @param offset the offset of the vector
+	 * @return the quantized vector
+	 */
+	public static QuantizedVector of(EmbeddingQuantization quantization, byte[] data, float scale, float offset) {
+		Assert.notNull(quantization, "Quantization must not be null");
+		Assert.isTrue(quantization != EmbeddingQuantization.NONE, "Quantization must not be NONE");
+		Assert.notNull(data, "Data must not be null");
+		Assert.isTrue(data.length % quantization.getBytesPerDimension() == 0,
+				"Data length must be a multiple of " + quantization.getBytesPerDimension());
+		return new QuantizedVector(quantization, data.clone(), scale, offset);
+	}
+
+	static QuantizedVector wrap(EmbeddingQuantization quantization, byte[] data, float scale, float offset) {
+		return new QuantizedVector(quantization, data, scale, offset);
+	}
+
+	public EmbeddingQuantization getQuantization() {
+		return this.quantization;
+	}
+
+	public int getDimensions() {
+		return this.dimensions;
+	}
+
+	public float getScale() {
+		return this.scale;
+	}
+
+	public float getOffset() {
+		return this.offset;
+	}
+
+	public float getNorm() {
+		return this.norm;
+	}
+
+	/**
+	 * Returns a copy of the encoded components: one signed byte per dimension for
+	 * {@code INT8} (the unsigned code minus 128), two big-endian bytes per dimension for
+	 * {@code FP16}.
+	 * @return the encoded components
+	 */
+	public byte[] getData() {
+		return this.data.clone();
+	}
+
+	/**
+	 * Returns the memory taken by the encoded components.
+	 * @return the size in bytes
+	 */
+	public int sizeInBytes() {
+		return this.data.length;
+	}
+
+	/**
+	 * Decodes a single component.
+	 * @param index the component index
+	 * @return the decoded value
+	 */
+	public float get(int index) {
+		if (this.quantization == EmbeddingQuantization.INT8) {
+			return this.scale * code(index) + this.offset;
+		}
+		return EmbeddingUtils.halfToFloat(half(index));
+	}
+
+	/**
+	 * Decodes the vector into full precision.
+	 * @return a new array with the decoded components
+	 */
+	public float[] toFloatArray() {
+		float[] vector = new float[this.dimensions];
+		for (int i = 0; i < vector.length; i++) {
+			vector[i] = get(i);
+		}
+		return vector;
+	}
+
+	int code(int index) {
+		return (this.data[index] & 0xff) ^ 0x80;
+	}
+
+	short half(int index) {
+		return (short) ((this.data[2 * index] << 8) | (this.data[2 * index + 1] & 0xff));
+	}
+
+	long codeSum() {
+		return this.codeSum;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof QuantizedVector other)) {
+			return false;
+		}
+		return this.quantization == other.quantization && Float.compare(this.scale, other.scale) == 0
+				&& Float.compare(this.offset, other.offset) == 0 && Arrays.equals(this.data, other.data);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = this.quantization.hashCode();
+		result = 31 * result + Float.hashCode(this.scale);
+		result = 31 * result + Float.hashCode(this.offset);
+		return 31 * result + Arrays.hashCode(this.data);
+	}
+
+	@Override
+	public String toString() {
+		return "QuantizedVector{quantization=" + this.quantization + ", dimensions=" + this.dimensions + ", scale="
+				+ this.scale + ", offset=" + this.offset + '}';
+	}
+
+}
@@ -1,34 +1,60 @@
 package io.github.abudanov.springframework.ai.yandex;
 
+import io.github.abudanov.springframework.ai.yandex.api.ReactiveYandexApi;
 import io.github.abudanov.springframework.ai.yandex.api.YandexApi;
 import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionMessage;
 import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionOptions;
 import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionRequest;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionResponse;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionResult;
+import io.github.abudanov.springframework.ai.yandex.cache.ChatResponseCache;
+import io.github.abudanov.springframework.ai.yandex.cache.TokenCountCache;
+import io.github.abudanov.springframework.ai.yandex.metrics.YandexMetricsRecorder;
+import io.github.abudanov.springframework.ai.yandex.metrics.YandexMetricsRecorder.Operation;
+import io.github.abudanov.springframework.ai.yandex.ratelimit.YandexRateLimiter;
+import io.github.abudanov.springframework.ai.yandex.retry.YandexHedgingPolicy;
+import io.github.abudanov.springframework.ai.yandex.retry.YandexReactiveRetry;
+import io.github.abudanov.springframework.ai.yandex.retry.YandexRetryUtils;
 import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
 import org.springframework.ai.chat.metadata.ChatResponseMetadata;
 import org.springframework.ai.chat.metadata.EmptyUsage;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.model.MessageAggregator;
+import org.springframework.ai.chat.model.StreamingChatModel;
 import org.springframework.ai.chat.observation.ChatModelObservationContext;
 import org.springframework.ai.chat.observation.ChatModelObservationConvention;
 import org.springframework.ai.chat.observation.ChatModelObservationDocumentation;
 import org.springframework.ai.chat.observation.DefaultChatModelObservationConvention;
 import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.model.ModelOptionsUtils;
 import org.springframework.ai.retry.RetryUtils;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
-public class YandexChatModel implements ChatModel {
+public class YandexChatModel implements ChatModel, StreamingChatModel, AutoCloseable {
 
 	private static final Logger logger = LoggerFactory.getLogger(YandexChatModel.class);
 
@@ -44,8 +70,52 @@ public class YandexChatModel implements ChatModel {
 
 	private final ObservationRegistry observationRegistry;
 
+	/**
+	 * The URIs of the models in the folder of the model, bounded by the known models.
+	 * URIs in the folders set per request are built each time.
+	 */
+	private final Map<String, String> modelUris = new ConcurrentHashMap<>();
+
+	/**
+	 * Guards the lazy creation of the operation poller and the task executor without
+	 * pinning the virtual threads calling the model.
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
 	private ChatModelObservationConvention observationConvention;
 
+	private volatile YandexOperationPoller operationPoller;
+
+	/**
+	 * The default operation poller and task executor, created and closed by the model.
+	 * Guarded by the lock.
+	 */
+	private YandexOperationPoller ownedOperationPoller;
+
+	private ExecutorService ownedTaskExecutor;
+
+	/**
+	 * Whether the model is closed, after which no default poller or executor is created.
+	 * Guarded by the lock.
+	 */
+	private boolean closed;
+
+	private volatile Executor taskExecutor;
+
+	private YandexMetricsRecorder metricsRecorder = YandexMetricsRecorder.NOOP;
+
+	private ChatResponseCache responseCache;
+
+	private TokenCountCache tokenCountCache = new TokenCountCache();
+
+	private ChatHistoryTrimmer historyTrimmer;
+
+	private ReactiveYandexApi reactiveApi;
+
+	private YandexReactiveRetry reactiveRetry = YandexRetryUtils.reactiveRetry();
+
+	private YandexHedgingPolicy hedgingPolicy;
+
 	public YandexChatModel(YandexApi yandexApi, String folderId, YandexChatOptions defaultOptions) {
 		this(yandexApi, folderId, defaultOptions, RetryUtils.DEFAULT_RETRY_TEMPLATE);
 	}
@@ -72,60 +142,455 @@ public class YandexChatModel implements ChatModel {
 	@Override
 	public ChatResponse call(Prompt prompt) {
 
+		var requestOptions = buildRequestOptions(prompt.getOptions());
 		var observationContext = ChatModelObservationContext.builder()
 			.prompt(prompt)
 			.provider(YandexApiConstants.PROVIDER_NAME)
-			.requestOptions(buildRequestOptions(prompt.getOptions()))
+			.requestOptions(requestOptions)
 			.build();
 
-		var request = toRequest(prompt);
+		var request = toRequest(prompt, requestOptions, false);
+		var cache = responseCache(request, requestOptions);
 		return ChatModelObservationDocumentation.CHAT_MODEL_OPERATION
 			.observation(this.observationConvention, DEFAULT_OBSERVATION_CONVENTION, () -> observationContext,
 					this.observationRegistry)
 			.observe(() -> {
-				var completionEntity = this.retryTemplate.execute(ctx -> this.yandexApi.completionEntity(request));
-				var response = completionEntity.getBody();
-				if (response == null || response.result() == null) {
-					logger.warn("No completion response returned for prompt: {}", prompt);
+				if (cache != null) {
+					var cached = cache.get(request);
+					if (cached != null) {
+						return toChatResponse(cached);
+					}
+				}
+				var metrics = this.metricsRecorder.start(Operation.CHAT, request.modelUri());
+				try {
+					var response = completion(request);
+					if (response == null || response.result() == null) {
+						logger.warn("No completion response returned for prompt: {}", prompt);
+						metrics.success(null, null, null);
+						return new ChatResponse(List.of());
+					}
+					recordSuccess(metrics, response.result());
+					if (cache != null) {
+						cache.put(request, response.result());
+					}
+					return toChatResponse(response.result());
+				}
+				catch (RuntimeException ex) {
+					metrics.failure(ex);
+					throw ex;
+				}
+			});
+	}
+
+	/**
+	 * Returns the cache to consult for the request: by default only requests at
+	 * temperature {@code 0} use it, which {@link YandexChatOptions#getUseCache()} can
+	 * force or disable.
+	 */
+	private ChatResponseCache responseCache(CompletionRequest request, YandexChatOptions options) {
+		if (this.responseCache == null || Boolean.FALSE.equals(options.getUseCache())) {
+			return null;
+		}
+		boolean useCache = Boolean.TRUE.equals(options.getUseCache()) || ChatResponseCache.isDeterministic(request);
+		return useCache ? this.responseCache : null;
+	}
+
+	/**
+	 * Generates the completion in the deferred mode: the request is answered with an
+	 * operation that is polled by the {@link YandexOperationPoller} until the completion
+	 * is ready. Deferred completions take longer and cost less, which suits
+	 * latency-tolerant batch workloads.
+	 * @param prompt the prompt
+	 * @return the future completed with the response once the operation is done
+	 */
+	public CompletableFuture<ChatResponse> callDeferred(Prompt prompt) {
+
+		var requestOptions = buildRequestOptions(prompt.getOptions());
+		var observationContext = ChatModelObservationContext.builder()
+			.prompt(prompt)
+			.provider(YandexApiConstants.PROVIDER_NAME)
+			.requestOptions(requestOptions)
+			.build();
+
+		var observation = ChatModelObservationDocumentation.CHAT_MODEL_OPERATION.observation(this.observationConvention,
+				DEFAULT_OBSERVATION_CONVENTION, () -> observationContext, this.observationRegistry);
+
+		observation.start();
+		var metrics = YandexMetricsRecorder.Call.NOOP;
+		try {
+			var request = toRequest(prompt, requestOptions, false);
+			metrics = this.metricsRecorder.start(Operation.CHAT_DEFERRED, request.modelUri());
+			var operation = this.retryTemplate.execute(ctx -> {
+				recordRetry(ctx.getRetryCount(), Operation.CHAT_DEFERRED, request.modelUri());
+				return this.yandexApi.completionAsync(request);
+			}).getBody();
+			Assert.state(operation != null && operation.id() != null, "No operation returned for deferred completion");
+			var call = metrics;
+			return getOperationPoller().poll(operation.id()).handle((result, ex) -> {
+				if (ex != null) {
+					call.failure(ex);
+					observation.error(ex);
+					observation.stop();
+					throw (ex instanceof CompletionException completionException) ? completionException
+							: new CompletionException(ex);
+				}
+				recordSuccess(call, result);
+				var chatResponse = toChatResponse(result);
+				observationContext.setResponse(chatResponse);
+				observation.stop();
+				return chatResponse;
+			});
+		}
+		catch (RuntimeException ex) {
+			metrics.failure(ex);
+			observation.error(ex);
+			observation.stop();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Generates the completion on the task executor, see {@link #call(Prompt)}. With a
+	 * virtual-thread-per-task executor on Java 21 and later, every call blocks a virtual
+	 * thread only, so the number of calls in flight is bounded by the rate limiter and the
+	 * HTTP transport rather than by a thread pool.
+	 * @param prompt the prompt
+	 * @return the future completed with the response
+	 * @see #setTaskExecutor(Executor)
+	 */
+	public CompletableFuture<ChatResponse> callAsync(Prompt prompt) {
+		return CompletableFuture.supplyAsync(() -> call(prompt), getTaskExecutor());
+	}
+
+	/**
+	 * Generates the completion without blocking a thread while waiting for it: the call
+	 * is sent through the {@link ReactiveYandexApi} when the returned {@link Mono} is
+	 * subscribed to, and retried by the {@link YandexReactiveRetry}. The response cache,
+	 * the observation and the metrics apply as for {@link #call(Prompt)}.
+	 * @param prompt the prompt
+	 * @return the {@link Mono} of the response
+	 * @see #setReactiveApi(ReactiveYandexApi)
+	 */
+	public Mono<ChatResponse> callReactive(Prompt prompt) {
+		var reactiveApi = this.reactiveApi;
+		Assert.state(reactiveApi != null, "ReactiveYandexApi must be set for reactive calls");
+		return Mono.defer(() -> {
+			var requestOptions = buildRequestOptions(prompt.getOptions());
+			var observationContext = ChatModelObservationContext.builder()
+				.prompt(prompt)
+				.provider(YandexApiConstants.PROVIDER_NAME)
+				.requestOptions(requestOptions)
+				.build();
+
+			var observation = ChatModelObservationDocumentation.CHAT_MODEL_OPERATION.observation(
+					this.observationConvention, DEFAULT_OBSERVATION_CONVENTION, () -> observationContext,
+					this.observationRegistry);
+
+			observation.start();
+			return toRequestReactive(prompt, requestOptions, false)
+				.flatMap(request -> completeReactive(reactiveApi, request, responseCache(request, requestOptions)))
+				.doOnNext(observationContext::setResponse)
+				.doOnError(observation::error)
+				.doFinally(signalType -> observation.stop());
+		});
+	}
+
+	/**
+	 * Builds the request, off the subscribing thread when trimming the history may
+	 * tokenize messages with blocking calls.
+	 */
+	private Mono<CompletionRequest> toRequestReactive(Prompt prompt, YandexChatOptions requestOptions,
+			boolean stream) {
+		var request = Mono.fromCallable(() -> toRequest(prompt, requestOptions, stream));
+		return (this.historyTrimmer != null) ? request.subscribeOn(Schedulers.boundedElastic()) : request;
+	}
+
+	private Mono<ChatResponse> completeReactive(ReactiveYandexApi reactiveApi, CompletionRequest request,
+			ChatResponseCache cache) {
+		if (cache != null) {
+			var cached = cache.get(request);
+			if (cached != null) {
+				return Mono.just(toChatResponse(cached));
+			}
+		}
+		var modelUri = request.modelUri();
+		var metrics = this.metricsRecorder.start(Operation.CHAT, modelUri);
+		return this.reactiveRetry
+			.execute(reactiveApi.completion(request), () -> this.metricsRecorder.recordRetry(Operation.CHAT, modelUri))
+			.defaultIfEmpty(new CompletionResult(null))
+			.map(response -> {
+				if (response.result() == null) {
+					logger.warn("No completion response returned for request: {}", request);
+					metrics.success(null, null, null);
 					return new ChatResponse(List.of());
 				}
+				recordSuccess(metrics, response.result());
+				if (cache != null) {
+					cache.put(request, response.result());
+				}
+				return toChatResponse(response.result());
+			})
+			.doOnError(metrics::failure)
+			.doOnCancel(() -> metrics.failure(new CancellationException("Completion cancelled")));
+	}
+
+	private ChatResponse toChatResponse(CompletionResponse result) {
+		if (result == null || result.alternatives() == null) {
+			return new ChatResponse(List.of());
+		}
+		List<Generation> generations = result.alternatives()
+			.stream()
+			.map(alternative -> toGeneration(alternative, alternative.message().text()))
+			.toList();
+		return new ChatResponse(generations, toResponseMetadata(result));
+	}
+
+	@Override
+	public Flux<ChatResponse> stream(Prompt prompt) {
+		return Flux.defer(() -> {
+			var requestOptions = buildRequestOptions(prompt.getOptions());
+			var observationContext = ChatModelObservationContext.builder()
+				.prompt(prompt)
+				.provider(YandexApiConstants.PROVIDER_NAME)
+				.requestOptions(requestOptions)
+				.build();
+
+			var observation = ChatModelObservationDocumentation.CHAT_MODEL_OPERATION.observation(
+					this.observationConvention, DEFAULT_OBSERVATION_CONVENTION, () -> observationContext,
+					this.observationRegistry);
+
+			observation.start();
+
+			Flux<ChatResponse> chatResponses = toRequestReactive(prompt, requestOptions, true)
+				.flatMapMany(this::completionStream)
+				.doOnError(observation::error)
+				.doFinally(signalType -> observation.stop());
+
+			return new MessageAggregator().aggregate(chatResponses, observationContext::setResponse);
+		});
+	}
+
+	private Flux<ChatResponse> completionStream(CompletionRequest request) {
+		var metrics = this.metricsRecorder.start(Operation.CHAT_STREAM, request.modelUri());
+		var lastResult = new AtomicReference<CompletionResponse>();
+		var partialText = new PartialText();
+		var results = (this.reactiveApi != null) ? this.reactiveApi.completionStream(request)
+				: this.yandexApi.completionStream(request);
+		return results
+			.filter(response -> response.result() != null)
+			.map(response -> {
 				var result = response.result();
-				List<Generation> generations = result.alternatives().stream().map(alternative -> {
-					var assistantMessage = new AssistantMessage(alternative.message().text());
-					var generationMetadata = ChatGenerationMetadata.from(alternative.status().name(), null);
-					return new Generation(assistantMessage, generationMetadata);
-				}).toList();
-				var metadata = ChatResponseMetadata.builder()
-					.withUsage(result.usage() != null ? YandexChatUsage.from(result.usage()) : new EmptyUsage())
-					.withModel(result.modelVersion())
-					.build();
-				return new ChatResponse(generations, metadata);
-			});
+				lastResult.lazySet(result);
+				var alternatives = result.alternatives();
+				var generations = new Generation[alternatives.size()];
+				for (int i = 0; i < generations.length; i++) {
+					var alternative = alternatives.get(i);
+					generations[i] = toGeneration(alternative, partialText.delta(i, alternative.message().text()));
+				}
+				return new ChatResponse(Arrays.asList(generations), toResponseMetadata(result));
+			})
+			.doOnComplete(() -> recordSuccess(metrics, lastResult.get()))
+			.doOnCancel(() -> metrics.failure(new CancellationException("Completion stream cancelled")))
+			.doOnError(metrics::failure);
 	}
 
-	private CompletionRequest toRequest(Prompt prompt) {
-		var options = buildRequestOptions(prompt.getOptions());
-		var completionOptions = new CompletionOptions(false, options.getTemperature(), options.getMaxTokens());
-		var messages = prompt.getInstructions().stream().map(message -> {
+	/**
+	 * Sends a completion request with retries, hedged when a hedging policy is set.
+	 */
+	private CompletionResult completion(CompletionRequest request) {
+		var hedgingPolicy = this.hedgingPolicy;
+		if (hedgingPolicy == null) {
+			return retryCompletion(request);
+		}
+		return hedgingPolicy.execute(() -> retryCompletion(request), getTaskExecutor(),
+				won -> this.metricsRecorder.recordHedge(Operation.CHAT, request.modelUri(), won));
+	}
+
+	private CompletionResult retryCompletion(CompletionRequest request) {
+		return this.retryTemplate.execute(ctx -> {
+			recordRetry(ctx.getRetryCount(), Operation.CHAT, request.modelUri());
+			return this.yandexApi.completionEntity(request);
+		}).getBody();
+	}
+
+	private void recordRetry(int retryCount, Operation operation, String modelUri) {
+		if (retryCount > 0) {
+			this.metricsRecorder.recordRetry(operation, modelUri);
+		}
+	}
+
+	/**
+	 * Records the status of the first alternative and the token usage of a completion.
+	 * The usage of a streamed completion is cumulative, so its last chunk is recorded.
+	 */
+	private static void recordSuccess(YandexMetricsRecorder.Call metrics, CompletionResponse result) {
+		if (result == null) {
+			metrics.success(null, null, null);
+			return;
+		}
+		var alternatives = result.alternatives();
+		var status = (alternatives != null && !alternatives.isEmpty()) ? alternatives.get(0).status() : null;
+		var usage = result.usage();
+		metrics.success(status, (usage != null) ? usage.inputTextTokens() : null,
+				(usage != null) ? usage.completionTokens() : null);
+	}
+
+	private static Generation toGeneration(CompletionResponse.Alternative alternative, String text) {
+		var assistantMessage = new AssistantMessage(text);
+		var generationMetadata = ChatGenerationMetadata.from(alternative.status().name(), null);
+		return new Generation(assistantMessage, generationMetadata);
+	}
+
+	private static ChatResponseMetadata toResponseMetadata(CompletionResponse result) {
+		return ChatResponseMetadata.builder()
+			.withUsage(result.usage() != null ? YandexChatUsage.from(result.usage()) : new EmptyUsage())
+			.withModel(result.modelVersion())
+			.build();
+	}
+
+	CompletionRequest toRequest(Prompt prompt, YandexChatOptions options, boolean stream) {
+		var completionOptions = new CompletionOptions(stream, options.getTemperature(), options.getMaxTokens());
+		var modelUri = modelUri(options);
+		var instructions = trimHistory(prompt.getInstructions(), options, modelUri);
+		var messages = new CompletionMessage[instructions.size()];
+		for (int i = 0; i < messages.length; i++) {
+			var message = instructions.get(i);
 			var role = switch (message.getMessageType()) {
 				case USER -> YandexApi.Role.USER;
 				case ASSISTANT -> YandexApi.Role.ASSISTANT;
 				case SYSTEM -> YandexApi.Role.SYSTEM;
 				case TOOL -> throw new IllegalArgumentException("Yandex does not support tool messages");
 			};
-			return new CompletionMessage(role, message.getContent());
-		}).toList();
+			messages[i] = new CompletionMessage(role, message.getContent());
+		}
+		return new CompletionRequest(modelUri, completionOptions, List.of(messages));
+	}
+
+	private List<Message> trimHistory(List<Message> messages, YandexChatOptions options, String modelUri) {
+		var trimmer = this.historyTrimmer;
+		if (trimmer == null) {
+			return messages;
+		}
+		int contextLength = YandexApi.ChatModel.ofValue(Objects.requireNonNull(options.getModel()))
+			.getContextLength();
+		return trimmer.trim(messages, trimmer.budget(contextLength, options.getMaxTokens()), modelUri,
+				text -> countTokens(modelUri, text));
+	}
+
+	private String modelUri(YandexChatOptions options) {
 		String model = Objects.requireNonNull(options.getModel());
-		String modelUri = YandexApi.ChatModel.ofValue(model).getModelUri(folderId);
-		return new CompletionRequest(modelUri, completionOptions, messages);
+		String folderId = options.getFolderId();
+		if (folderId != null && !folderId.equals(this.folderId)) {
+			return YandexApi.ChatModel.ofValue(model).getModelUri(folderId);
+		}
+		return this.modelUris.computeIfAbsent(model,
+				name -> YandexApi.ChatModel.ofValue(name).getModelUri(this.folderId));
+	}
+
+	/**
+	 * Counts the tokens of a text with the tokenizer of the default model.
+	 * @param text the text
+	 * @return the number of tokens
+	 * @see #setTokenCountCache(TokenCountCache)
+	 */
+	public long countTokens(String text) {
+		return countTokens(modelUri(getDefaultOptions()), text);
+	}
+
+	/**
+	 * Counts the tokens of the messages of a prompt with the tokenizer of its model. Each
+	 * message is tokenized on its own, so that a cached system prompt or document is not
+	 * sent again. The few special tokens separating the messages are not counted.
+	 * @param prompt the prompt
+	 * @return the number of tokens of the messages
+	 */
+	public long countTokens(Prompt prompt) {
+		return countTokens(prompt, buildRequestOptions(prompt.getOptions()));
+	}
+
+	private long countTokens(Prompt prompt, YandexChatOptions options) {
+		var modelUri = modelUri(options);
+		long tokenCount = 0;
+		for (var message : prompt.getInstructions()) {
+			tokenCount += countTokens(modelUri, message.getContent());
+		}
+		return tokenCount;
+	}
+
+	/**
+	 * Returns whether a prompt and the completion it asks for fit in the context of its
+	 * model, so that an oversized prompt can be rejected or trimmed before it is sent.
+	 * @param prompt the prompt
+	 * @return {@code true} if the prompt tokens and the maximum number of completion
+	 * tokens do not exceed the context length
+	 */
+	public boolean fitsContextLength(Prompt prompt) {
+		var options = buildRequestOptions(prompt.getOptions());
+		long maxTokens = (options.getMaxTokens() != null) ? options.getMaxTokens() : 0;
+		int contextLength = YandexApi.ChatModel.ofValue(Objects.requireNonNull(options.getModel()))
+			.getContextLength();
+		return countTokens(prompt, options) + maxTokens <= contextLength;
+	}
+
+	/**
+	 * Returns the context length of the model of the options, or of the default model.
+	 * @param options the options of a prompt, can be {@code null}
+	 * @return the maximum number of tokens of the prompt and the completion together
+	 */
+	public int getContextLength(ChatOptions options) {
+		var model = Objects.requireNonNull(buildRequestOptions(options).getModel());
+		return YandexApi.ChatModel.ofValue(model).getContextLength();
+	}
+
+	private long countTokens(String modelUri, String text) {
+		if (text == null || text.isEmpty()) {
+			return 0;
+		}
+		var cache = this.tokenCountCache;
+		if (cache != null) {
+			var cached = cache.get(modelUri, text);
+			if (cached != null) {
+				return cached;
+			}
+		}
+		var request = new YandexApi.TokenizeRequest(modelUri, text);
+		var response = this.retryTemplate.execute(ctx -> this.yandexApi.tokenize(request)).getBody();
+		Assert.state(response != null, "No tokens returned for text");
+		long tokenCount = response.tokenCount();
+		if (cache != null) {
+			cache.put(modelUri, text, tokenCount);
+		}
+		return tokenCount;
 	}
 
-	private YandexChatOptions buildRequestOptions(ChatOptions options) {
-		var defaultOptions = this.getDefaultOptions();
-		if (options != null) {
-			ModelOptionsUtils.merge(options, defaultOptions, YandexChatOptions.class);
+	/**
+	 * Resolves the options of a request once: the default options overridden by the
+	 * options of the prompt that are set. The options are copied field by field, without
+	 * the reflection and JSON conversions of {@code ModelOptionsUtils.merge}.
+	 */
+	YandexChatOptions buildRequestOptions(ChatOptions options) {
+		var requestOptions = this.defaultOptions.copy();
+		if (options == null) {
+			return requestOptions;
+		}
+		if (options.getModel() != null) {
+			requestOptions.setModel(options.getModel());
+		}
+		if (options.getMaxTokens() != null) {
+			requestOptions.setMaxTokens(options.getMaxTokens());
+		}
+		if (options.getTemperature() != null) {
+			requestOptions.setTemperature(options.getTemperature());
+		}
+		if (options instanceof YandexChatOptions yandexOptions) {
+			if (yandexOptions.getUseCache() != null) {
+				requestOptions.setUseCache(yandexOptions.getUseCache());
+			}
+			if (yandexOptions.getFolderId() != null) {
+				requestOptions.setFolderId(yandexOptions.getFolderId());
+			}
 		}
-		return defaultOptions;
+		return requestOptions;
 	}
 
 	@Override
@@ -137,4 +602,205 @@ public class YandexChatModel implements ChatModel {
 		this.observationConvention = observationConvention;
 	}
 
+	/**
+	 * Sets the poller tracking the operations of deferred completions. Defaults to a
+	 * poller with the default settings created on the first deferred call.
+	 * @param operationPoller the operation poller
+	 */
+	public void setOperationPoller(YandexOperationPoller operationPoller) {
+		Assert.notNull(operationPoller, "OperationPoller must not be null");
+		this.operationPoller = operationPoller;
+	}
+
+	/**
+	 * Sets the executor running the calls of {@link #callAsync(Prompt)} and the hedged
+	 * calls. Defaults to a cached pool of daemon platform threads created on the first
+	 * call and closed with the model.
+	 * @param taskExecutor the executor to use
+	 */
+	public void setTaskExecutor(Executor taskExecutor) {
+		Assert.notNull(taskExecutor, "TaskExecutor must not be null");
+		this.taskExecutor = taskExecutor;
+	}
+
+	/**
+	 * Sets the policy hedging the slow calls of {@link #call(Prompt)}: a duplicate request
+	 * is sent when the first one is slower than most recent ones, and the first response
+	 * is used. The requests run on the {@link #setTaskExecutor(Executor) task executor}.
+	 * Streamed and deferred completions are not hedged.
+	 * @param hedgingPolicy the hedging policy, {@code null} not to hedge calls
+	 */
+	public void setHedgingPolicy(YandexHedgingPolicy hedgingPolicy) {
+		this.hedgingPolicy = hedgingPolicy;
+	}
+
+	/**
+	 * Sets the cache of completions consulted by {@link #call(Prompt)}. Streamed and
+	 * deferred completions do not use it.
+	 * @param responseCache the cache to use, {@code null} to disable caching
+	 */
+	public void setResponseCache(ChatResponseCache responseCache) {
+		this.responseCache = responseCache;
+	}
+
+	public ChatResponseCache getResponseCache() {
+		return this.responseCache;
+	}
+
+	/**
+	 * Sets the cache of the token counts of texts. Defaults to a
+	 * {@link TokenCountCache} with the default settings.
+	 * @param tokenCountCache the cache to use, {@code null} to disable caching
+	 */
+	public void setTokenCountCache(TokenCountCache tokenCountCache) {
+		this.tokenCountCache = tokenCountCache;
+	}
+
+	public TokenCountCache getTokenCountCache() {
+		return this.tokenCountCache;
+	}
+
+	/**
+	 * Returns the rate limiter of the API client.
+	 * @return the rate limiter, or {@code null} if requests are not limited
+	 */
+	public YandexRateLimiter getRateLimiter() {
+		return this.yandexApi.getRateLimiter();
+	}
+
+	/**
+	 * Sets the trimmer keeping the messages sent within the context of the model, minus
+	 * the tokens of the completion. Defaults to none: every message of the prompt is
+	 * sent.
+	 * @param historyTrimmer the trimmer to use, {@code null} to send every message
+	 */
+	public void setHistoryTrimmer(ChatHistoryTrimmer historyTrimmer) {
+		this.historyTrimmer = historyTrimmer;
+	}
+
+	/**
+	 * Sets the non-blocking API client used by {@link #callReactive(Prompt)} and, instead
+	 * of the blocking one, by {@link #stream(Prompt)}. Defaults to none: reactive calls
+	 * are rejected and streams read the response on a bounded elastic thread.
+	 * @param reactiveApi the reactive API client
+	 */
+	public void setReactiveApi(ReactiveYandexApi reactiveApi) {
+		this.reactiveApi = reactiveApi;
+	}
+
+	/**
+	 * Sets the retry of the reactive calls. Defaults to
+	 * {@link YandexRetryUtils#reactiveRetry()}.
+	 * @param reactiveRetry the reactive retry
+	 */
+	public void setReactiveRetry(YandexReactiveRetry reactiveRetry) {
+		Assert.notNull(reactiveRetry, "ReactiveRetry must not be null");
+		this.reactiveRetry = reactiveRetry;
+	}
+
+	/**
+	 * Sets the recorder of the Yandex-specific metrics: latency, calls in flight, token
+	 * usage, retries and hedges. Defaults to {@link YandexMetricsRecorder#NOOP}.
+	 * @param metricsRecorder the metrics recorder
+	 */
+	public void setMetricsRecorder(YandexMetricsRecorder metricsRecorder) {
+		Assert.notNull(metricsRecorder, "MetricsRecorder must not be null");
+		this.metricsRecorder = metricsRecorder;
+	}
+
+	/**
+	 * Closes the default operation poller and task executor, if they were created.
+	 * Pending deferred completions fail, and so do later calls needing them. A poller or
+	 * executor set on the model is left to its owner.
+	 */
+	@Override
+	public void close() {
+		YandexOperationPoller operationPoller;
+		ExecutorService taskExecutor;
+		this.lock.lock();
+		try {
+			this.closed = true;
+			operationPoller = this.ownedOperationPoller;
+			taskExecutor = this.ownedTaskExecutor;
+			if (operationPoller != null && this.operationPoller == operationPoller) {
+				this.operationPoller = null;
+			}
+			if (taskExecutor != null && this.taskExecutor == taskExecutor) {
+				this.taskExecutor = null;
+			}
+			this.ownedOperationPoller = null;
+			this.ownedTaskExecutor = null;
+		}
+		finally {
+			this.lock.unlock();
+		}
+		if (operationPoller != null) {
+			operationPoller.close();
+		}
+		if (taskExecutor != null) {
+			taskExecutor.shutdown();
+		}
+	}
+
+	private YandexOperationPoller getOperationPoller() {
+		var operationPoller = this.operationPoller;
+		if (operationPoller != null) {
+			return operationPoller;
+		}
+		this.lock.lock();
+		try {
+			if (this.operationPoller == null) {
+				Assert.state(!this.closed, "Chat model is closed");
+				this.ownedOperationPoller = new YandexOperationPoller(this.yandexApi);
+				this.operationPoller = this.ownedOperationPoller;
+			}
+			return this.operationPoller;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private Executor getTaskExecutor() {
+		var taskExecutor = this.taskExecutor;
+		if (taskExecutor != null) {
+			return taskExecutor;
+		}
+		this.lock.lock();
+		try {
+			if (this.taskExecutor == null) {
+				Assert.state(!this.closed, "Chat model is closed");
+				this.ownedTaskExecutor = YandexExecutors.newTaskExecutor("yandex-chat-");
+				this.taskExecutor = this.ownedTaskExecutor;
+			}
+			return this.taskExecutor;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Turns the cumulative text of streamed alternatives into per-chunk deltas. Only the
+	 * length of the text already emitted is kept for each alternative, so every chunk
+	 * costs a copy of its new characters rather than of the whole text.
+	 */
+	private static final class PartialText {
+
+		private int[] emitted = new int[1];
+
+		String delta(int index, String text) {
+			if (index >= this.emitted.length) {
+				this.emitted = Arrays.copyOf(this.emitted, index + 1);
+			}
+			if (text == null) {
+				return "";
+			}
+			int offset = this.emitted[index];
+			this.emitted[index] = text.length();
+			return (offset < text.length()) ? text.substring(offset) : "";
+		}
+
+	}
+
 }
@@ -18,6 +18,13 @@ public class YandexChatOptions implements ChatOptions {
 
 	private @JsonProperty("temperature") Double temperature;
 
+	/**
+	 * Whether to reuse cached completions: {@code null} to use the cache for requests at
+	 * temperature {@code 0} only, {@code true} to use it whatever the temperature, and
+	 * {@code false} to bypass it.
+	 */
+	private @JsonProperty("useCache") Boolean useCache;
+
 	private @JsonIgnore String folderId;
 
 	public static YandexChatOptions.Builder builder() {
@@ -51,6 +58,14 @@ public class YandexChatOptions implements ChatOptions {
 		this.temperature = temperature;
 	}
 
+	public Boolean getUseCache() {
+		return this.useCache;
+	}
+
+	public void setUseCache(Boolean useCache) {
+		this.useCache = useCache;
+	}
+
 	public String getFolderId() {
 		return folderId;
 	}
@@ -92,6 +107,8 @@ public class YandexChatOptions implements ChatOptions {
 		copy.setModel(this.getModel());
 		copy.setMaxTokens(this.getMaxTokens());
 		copy.setTemperature(this.getTemperature());
+		copy.setUseCache(this.getUseCache());
+		copy.setFolderId(this.getFolderId());
 		return copy;
 	}
 
@@ -103,6 +120,8 @@ public class YandexChatOptions implements ChatOptions {
 
 		private Double temperature;
 
+		private Boolean useCache;
+
 		private Builder() {
 		}
 
@@ -126,11 +145,17 @@ public class YandexChatOptions implements ChatOptions {
 			return this;
 		}
 
+		public Builder withUseCache(Boolean useCache) {
+			this.useCache = useCache;
+			return this;
+		}
+
 		public YandexChatOptions build() {
 			var options = new YandexChatOptions();
 			options.setModel(this.model);
 			options.setMaxTokens(this.maxTokens);
 			options.setTemperature(this.temperature);
+			options.setUseCache(this.useCache);
 			return options;
 		}
 
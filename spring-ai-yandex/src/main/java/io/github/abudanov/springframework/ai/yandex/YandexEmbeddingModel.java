@@ -1,6 +1,14 @@
 package io.github.abudanov.springframework.ai.yandex;
 
+import io.github.abudanov.springframework.ai.yandex.api.ReactiveYandexApi;
 import io.github.abudanov.springframework.ai.yandex.api.YandexApi;
+import io.github.abudanov.springframework.ai.yandex.cache.EmbeddingCache;
+import io.github.abudanov.springframework.ai.yandex.cache.TokenCountCache;
+import io.github.abudanov.springframework.ai.yandex.metrics.YandexMetricsRecorder;
+import io.github.abudanov.springframework.ai.yandex.metrics.YandexMetricsRecorder.Operation;
+import io.github.abudanov.springframework.ai.yandex.ratelimit.YandexRateLimiter;
+import io.github.abudanov.springframework.ai.yandex.retry.YandexReactiveRetry;
+import io.github.abudanov.springframework.ai.yandex.retry.YandexRetryUtils;
 import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,16 +22,29 @@ import org.springframework.ai.embedding.observation.DefaultEmbeddingModelObserva
 import org.springframework.ai.embedding.observation.EmbeddingModelObservationContext;
 import org.springframework.ai.embedding.observation.EmbeddingModelObservationConvention;
 import org.springframework.ai.embedding.observation.EmbeddingModelObservationDocumentation;
-import org.springframework.ai.model.ModelOptionsUtils;
 import org.springframework.ai.retry.RetryUtils;
 import org.springframework.lang.NonNull;
 import org.springframework.retry.support.RetryTemplate;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
-public class YandexEmbeddingModel implements EmbeddingModel {
+public class YandexEmbeddingModel implements EmbeddingModel, AutoCloseable {
 
 	private static final Logger logger = LoggerFactory.getLogger(YandexEmbeddingModel.class);
 
@@ -39,8 +60,42 @@ public class YandexEmbeddingModel implements EmbeddingModel {
 
 	private final ObservationRegistry observationRegistry;
 
+	private final Map<String, String> modelUris = new ConcurrentHashMap<>();
+
+	/**
+	 * The {@code textEmbedding} calls in flight, shared by the blocking and reactive
+	 * callers embedding the same text with the same model at the same time.
+	 */
+	private final Map<YandexApi.TextEmbeddingRequest, CompletableFuture<float[]>> inFlight = new ConcurrentHashMap<>();
+
+	/**
+	 * Guards the lazy creation of the task executor without pinning the virtual threads
+	 * calling the model.
+	 */
+	private final ReentrantLock taskExecutorLock = new ReentrantLock();
+
 	private EmbeddingModelObservationConvention observationConvention;
 
+	private volatile Executor taskExecutor;
+
+	/**
+	 * The default task executor, created and closed by the model. Guarded by the task
+	 * executor lock, as is the closed flag.
+	 */
+	private ExecutorService ownedTaskExecutor;
+
+	private boolean closed;
+
+	private EmbeddingCache embeddingCache;
+
+	private YandexMetricsRecorder metricsRecorder = YandexMetricsRecorder.NOOP;
+
+	private TokenCountCache tokenCountCache = new TokenCountCache();
+
+	private ReactiveYandexApi reactiveApi;
+
+	private YandexReactiveRetry reactiveRetry = YandexRetryUtils.reactiveRetry();
+
 	public YandexEmbeddingModel(YandexApi yandexApi, String folderId, YandexEmbeddingOptions defaultOptions) {
 		this(yandexApi, folderId, defaultOptions, RetryUtils.DEFAULT_RETRY_TEMPLATE);
 	}
@@ -66,53 +121,416 @@ public class YandexEmbeddingModel implements EmbeddingModel {
 
 	@Override
 	public EmbeddingResponse call(EmbeddingRequest embeddingRequest) {
-		var textEmbeddingRequests = toRequest(embeddingRequest);
+		var requestOptions = buildRequestOptions(embeddingRequest.getOptions());
+		var textEmbeddingRequests = toRequest(embeddingRequest, requestOptions);
 		return EmbeddingModelObservationDocumentation.EMBEDDING_MODEL_OPERATION
 			.observation(this.observationConvention, DEFAULT_OBSERVATION_CONVENTION,
 					() -> EmbeddingModelObservationContext.builder()
 						.embeddingRequest(embeddingRequest)
 						.provider(YandexApiConstants.PROVIDER_NAME)
-						.requestOptions(buildRequestOptions(embeddingRequest.getOptions()))
+						.requestOptions(requestOptions)
 						.build(),
 					this.observationRegistry)
 			.observe(() -> {
-				var embeddings = new ArrayList<Embedding>(textEmbeddingRequests.size());
-				for (int i = 0; i < textEmbeddingRequests.size(); i++) {
-					var textEmbeddingRequest = textEmbeddingRequests.get(i);
-					var responseEntity = this.retryTemplate
-						.execute(ctx -> this.yandexApi.textEmbedding(textEmbeddingRequest));
-					var response = responseEntity.getBody();
-
-					float[] embedding;
-					if (response == null) {
-						logger.warn("No embeddings returned for request: {}", embeddingRequest);
-						embedding = EmbeddingUtils.EMPTY_FLOAT_ARRAY;
-					}
-					else {
-						embedding = EmbeddingUtils.doubleToFloatPrimitive(response.embedding());
-					}
-					embeddings.add(new Embedding(embedding, i));
+				var concurrency = requestOptions.getConcurrency();
+				var cache = Boolean.FALSE.equals(requestOptions.getUseCache()) ? null : this.embeddingCache;
+				// texts repeated in the request are embedded once
+				var indexes = new int[textEmbeddingRequests.size()];
+				var uniqueRequests = distinct(textEmbeddingRequests, indexes);
+				float[][] uniqueVectors;
+				if (concurrency != null && concurrency > 1 && uniqueRequests.size() > 1) {
+					uniqueVectors = embedConcurrently(uniqueRequests, concurrency, cache);
+				}
+				else {
+					uniqueVectors = embedSequentially(uniqueRequests, cache);
+				}
+				return toResponse(uniqueVectors, indexes, requestOptions.getQuantization());
+			});
+	}
+
+	/**
+	 * Embeds the texts on the task executor, see {@link #call(EmbeddingRequest)}. With a
+	 * virtual-thread-per-task executor on Java 21 and later, every call blocks a virtual
+	 * thread only.
+	 * @param embeddingRequest the embedding request
+	 * @return the future completed with the response
+	 * @see #setTaskExecutor(Executor)
+	 */
+	public CompletableFuture<EmbeddingResponse> callAsync(EmbeddingRequest embeddingRequest) {
+		return CompletableFuture.supplyAsync(() -> call(embeddingRequest), getTaskExecutor());
+	}
+
+	/**
+	 * Embeds the texts without blocking a thread while waiting for them: the calls are
+	 * sent through the {@link ReactiveYandexApi} when the returned {@link Mono} is
+	 * subscribed to, at most {@link YandexEmbeddingOptions#getConcurrency()} at a time,
+	 * and each is retried on its own by the {@link YandexReactiveRetry}. Repeated texts
+	 * and the embedding cache are handled as by {@link #call(EmbeddingRequest)}.
+	 * @param embeddingRequest the embedding request
+	 * @return the {@link Mono} of the response
+	 * @see #setReactiveApi(ReactiveYandexApi)
+	 */
+	public Mono<EmbeddingResponse> callReactive(EmbeddingRequest embeddingRequest) {
+		var reactiveApi = this.reactiveApi;
+		Assert.state(reactiveApi != null, "ReactiveYandexApi must be set for reactive calls");
+		return Mono.defer(() -> {
+			var requestOptions = buildRequestOptions(embeddingRequest.getOptions());
+			var observationContext = EmbeddingModelObservationContext.builder()
+				.embeddingRequest(embeddingRequest)
+				.provider(YandexApiConstants.PROVIDER_NAME)
+				.requestOptions(requestOptions)
+				.build();
+
+			var observation = EmbeddingModelObservationDocumentation.EMBEDDING_MODEL_OPERATION.observation(
+					this.observationConvention, DEFAULT_OBSERVATION_CONVENTION, () -> observationContext,
+					this.observationRegistry);
+
+			observation.start();
+			var textEmbeddingRequests = toRequest(embeddingRequest, requestOptions);
+			var concurrency = (requestOptions.getConcurrency() != null) ? Math.max(requestOptions.getConcurrency(), 1)
+					: 1;
+			var cache = Boolean.FALSE.equals(requestOptions.getUseCache()) ? null : this.embeddingCache;
+			var indexes = new int[textEmbeddingRequests.size()];
+			var uniqueRequests = distinct(textEmbeddingRequests, indexes);
+			return Flux.fromIterable(uniqueRequests)
+				.flatMapSequential(request -> embedTextReactive(reactiveApi, request, cache), concurrency)
+				.collectList()
+				.map(vectors -> toResponse(vectors.toArray(float[][]::new), indexes,
+						requestOptions.getQuantization()))
+				.doOnNext(observationContext::setResponse)
+				.doOnError(observation::error)
+				.doFinally(signalType -> observation.stop());
+		});
+	}
+
+	/**
+	 * Embeds the texts through {@link #callReactive(EmbeddingRequest)} when a reactive
+	 * API is set, through {@link #call(EmbeddingRequest)} on a bounded elastic thread
+	 * otherwise.
+	 */
+	Mono<EmbeddingResponse> callNonBlocking(EmbeddingRequest embeddingRequest) {
+		if (this.reactiveApi != null) {
+			return callReactive(embeddingRequest);
+		}
+		return Mono.fromCallable(() -> call(embeddingRequest)).subscribeOn(Schedulers.boundedElastic());
+	}
+
+	/**
+	 * Builds the response from the vectors of the distinct texts.
+	 * @param uniqueVectors the vectors of the distinct texts
+	 * @param indexes the index of each text among the distinct ones
+	 * @param quantization the quantization of the embeddings, can be {@code null}
+	 */
+	private static EmbeddingResponse toResponse(float[][] uniqueVectors, int[] indexes,
+			EmbeddingQuantization quantization) {
+		var vectors = new float[indexes.length][];
+		var handedOut = new boolean[uniqueVectors.length];
+		for (int i = 0; i < vectors.length; i++) {
+			// repetitions get a copy, so the embeddings never share an array
+			var vector = uniqueVectors[indexes[i]];
+			vectors[i] = handedOut[indexes[i]] ? vector.clone() : vector;
+			handedOut[indexes[i]] = true;
+		}
+		var embeddings = new ArrayList<Embedding>(vectors.length);
+		for (int i = 0; i < vectors.length; i++) {
+			if (quantization == null || quantization == EmbeddingQuantization.NONE) {
+				embeddings.add(new Embedding(vectors[i], i));
+			}
+			else {
+				embeddings.add(new QuantizedEmbedding(EmbeddingUtils.quantize(vectors[i], quantization), i));
+			}
+		}
+		return new EmbeddingResponse(embeddings);
+	}
+
+	/**
+	 * Returns the distinct requests in the order of their first occurrence.
+	 * @param requests the requests
+	 * @param indexes receives the index of each request among the distinct ones
+	 */
+	private static List<YandexApi.TextEmbeddingRequest> distinct(List<YandexApi.TextEmbeddingRequest> requests,
+			int[] indexes) {
+		var positions = new HashMap<YandexApi.TextEmbeddingRequest, Integer>();
+		var distinct = new ArrayList<YandexApi.TextEmbeddingRequest>(requests.size());
+		for (int i = 0; i < indexes.length; i++) {
+			var request = requests.get(i);
+			var position = positions.putIfAbsent(request, distinct.size());
+			if (position == null) {
+				indexes[i] = distinct.size();
+				distinct.add(request);
+			}
+			else {
+				indexes[i] = position;
+			}
+		}
+		return (distinct.size() == requests.size()) ? requests : distinct;
+	}
+
+	private float[][] embedSequentially(List<YandexApi.TextEmbeddingRequest> textEmbeddingRequests,
+			EmbeddingCache cache) {
+		var vectors = new float[textEmbeddingRequests.size()][];
+		for (int i = 0; i < vectors.length; i++) {
+			vectors[i] = embedText(textEmbeddingRequests.get(i), cache);
+		}
+		return vectors;
+	}
+
+	/**
+	 * Embeds the texts on the task executor keeping at most {@code concurrency} calls in
+	 * flight. Each text is retried on its own, and no new calls are started once one of
+	 * them has failed.
+	 */
+	private float[][] embedConcurrently(List<YandexApi.TextEmbeddingRequest> textEmbeddingRequests,
+			int concurrency, EmbeddingCache cache) {
+		var vectors = new float[textEmbeddingRequests.size()][];
+		var permits = new Semaphore(concurrency);
+		var failure = new AtomicReference<Throwable>();
+		var executor = getTaskExecutor();
+		try {
+			for (int i = 0; i < vectors.length && failure.get() == null; i++) {
+				permits.acquire();
+				int index = i;
+				try {
+					executor.execute(() -> {
+						try {
+							if (failure.get() == null) {
+								vectors[index] = embedText(textEmbeddingRequests.get(index), cache);
+							}
+						}
+						catch (Throwable ex) {
+							failure.compareAndSet(null, ex);
+						}
+						finally {
+							permits.release();
+						}
+					});
+				}
+				catch (RuntimeException ex) {
+					permits.release();
+					failure.compareAndSet(null, ex);
+				}
+			}
+			// wait for the calls still in flight
+			permits.acquire(concurrency);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for embeddings", ex);
+		}
+		var ex = failure.get();
+		if (ex instanceof RuntimeException runtimeException) {
+			throw runtimeException;
+		}
+		if (ex instanceof Error error) {
+			throw error;
+		}
+		if (ex != null) {
+			throw new IllegalStateException(ex);
+		}
+		return vectors;
+	}
+
+	private float[] embedText(YandexApi.TextEmbeddingRequest textEmbeddingRequest, EmbeddingCache cache) {
+		if (cache != null) {
+			var cached = cache.get(textEmbeddingRequest.modelUri(), textEmbeddingRequest.text());
+			if (cached != null) {
+				return cached;
+			}
+		}
+		var call = new CompletableFuture<float[]>();
+		var existing = this.inFlight.putIfAbsent(textEmbeddingRequest, call);
+		if (existing != null) {
+			return await(existing).clone();
+		}
+		try {
+			var embedding = fetchEmbedding(textEmbeddingRequest);
+			if (cache != null && embedding.length > 0) {
+				cache.put(textEmbeddingRequest.modelUri(), textEmbeddingRequest.text(), embedding);
+			}
+			call.complete(embedding);
+			// the shared array stays untouched for the threads still waiting for it
+			return embedding.clone();
+		}
+		catch (Throwable ex) {
+			call.completeExceptionally(ex);
+			throw ex;
+		}
+		finally {
+			this.inFlight.remove(textEmbeddingRequest, call);
+		}
+	}
+
+	private static float[] await(CompletableFuture<float[]> call) {
+		try {
+			return call.join();
+		}
+		catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (ex.getCause() instanceof Error error) {
+				throw error;
+			}
+			throw ex;
+		}
+	}
+
+	private float[] fetchEmbedding(YandexApi.TextEmbeddingRequest textEmbeddingRequest) {
+		var modelUri = textEmbeddingRequest.modelUri();
+		var metrics = this.metricsRecorder.start(Operation.EMBEDDING, modelUri);
+		YandexApi.TextEmbeddingResponse response;
+		try {
+			var responseEntity = this.retryTemplate.execute(ctx -> {
+				if (ctx.getRetryCount() > 0) {
+					this.metricsRecorder.recordRetry(Operation.EMBEDDING, modelUri);
 				}
-				return new EmbeddingResponse(embeddings);
+				return this.yandexApi.textEmbedding(textEmbeddingRequest);
 			});
+			response = responseEntity.getBody();
+		}
+		catch (RuntimeException ex) {
+			metrics.failure(ex);
+			throw ex;
+		}
+		if (response == null) {
+			metrics.success(null, null, null);
+			logger.warn("No embeddings returned for request: {}", textEmbeddingRequest);
+			return EmbeddingUtils.EMPTY_FLOAT_ARRAY;
+		}
+		metrics.success(null, response.numTokens(), null);
+		return response.embedding();
 	}
 
-	private EmbeddingOptions buildRequestOptions(EmbeddingOptions options) {
-		var yandexEmbeddingOptions = ModelOptionsUtils.copyToTarget(options, EmbeddingOptions.class,
-				YandexEmbeddingOptions.class);
-		return ModelOptionsUtils.merge(yandexEmbeddingOptions, defaultOptions, YandexEmbeddingOptions.class);
+	private Mono<float[]> embedTextReactive(ReactiveYandexApi reactiveApi,
+			YandexApi.TextEmbeddingRequest textEmbeddingRequest, EmbeddingCache cache) {
+		if (cache != null) {
+			var cached = cache.get(textEmbeddingRequest.modelUri(), textEmbeddingRequest.text());
+			if (cached != null) {
+				return Mono.just(cached);
+			}
+		}
+		return Mono.defer(() -> {
+			var call = new CompletableFuture<float[]>();
+			var shared = this.inFlight.putIfAbsent(textEmbeddingRequest, call);
+			if (shared == null) {
+				shared = call;
+				// the call runs to completion on its own, whoever of its callers cancels
+				fetchEmbeddingReactive(reactiveApi, textEmbeddingRequest, cache).subscribe(embedding -> {
+					this.inFlight.remove(textEmbeddingRequest, call);
+					call.complete(embedding);
+				}, ex -> {
+					this.inFlight.remove(textEmbeddingRequest, call);
+					call.completeExceptionally(ex);
+				});
+			}
+			// the shared array stays untouched for the callers still waiting for it
+			return Mono.fromFuture(shared, true).map(float[]::clone);
+		});
+	}
+
+	private Mono<float[]> fetchEmbeddingReactive(ReactiveYandexApi reactiveApi,
+			YandexApi.TextEmbeddingRequest textEmbeddingRequest, EmbeddingCache cache) {
+		var modelUri = textEmbeddingRequest.modelUri();
+		var metrics = this.metricsRecorder.start(Operation.EMBEDDING, modelUri);
+		return this.reactiveRetry
+			.execute(reactiveApi.textEmbedding(textEmbeddingRequest),
+					() -> this.metricsRecorder.recordRetry(Operation.EMBEDDING, modelUri))
+			.map(response -> {
+				metrics.success(null, response.numTokens(), null);
+				var embedding = response.embedding();
+				if (cache != null && embedding.length > 0) {
+					cache.put(modelUri, textEmbeddingRequest.text(), embedding);
+				}
+				return embedding;
+			})
+			.switchIfEmpty(Mono.fromSupplier(() -> {
+				metrics.success(null, null, null);
+				logger.warn("No embeddings returned for request: {}", textEmbeddingRequest);
+				return EmbeddingUtils.EMPTY_FLOAT_ARRAY;
+			}))
+			.doOnError(metrics::failure);
 	}
 
-	private @NonNull List<YandexApi.TextEmbeddingRequest> toRequest(EmbeddingRequest request) {
-		var embeddingOptions = buildRequestOptions(request.getOptions());
-		String model = Objects.requireNonNull(embeddingOptions.getModel());
-		var modelUri = YandexApi.EmbeddingModel.ofValue(model).getModelUri(folderId);
+	/**
+	 * Resolves the options of a request once: the default options overridden by the
+	 * options of the request that are set. The options are copied field by field,
+	 * without the reflection and JSON conversions of {@code ModelOptionsUtils}.
+	 */
+	YandexEmbeddingOptions buildRequestOptions(EmbeddingOptions options) {
+		var requestOptions = this.defaultOptions.copy();
+		if (options == null) {
+			return requestOptions;
+		}
+		if (options.getModel() != null) {
+			requestOptions.setModel(options.getModel());
+		}
+		if (options instanceof YandexEmbeddingOptions yandexOptions) {
+			if (yandexOptions.getConcurrency() != null) {
+				requestOptions.setConcurrency(yandexOptions.getConcurrency());
+			}
+			if (yandexOptions.getUseCache() != null) {
+				requestOptions.setUseCache(yandexOptions.getUseCache());
+			}
+			if (yandexOptions.getQuantization() != null) {
+				requestOptions.setQuantization(yandexOptions.getQuantization());
+			}
+		}
+		return requestOptions;
+	}
+
+	@NonNull List<YandexApi.TextEmbeddingRequest> toRequest(EmbeddingRequest request,
+			YandexEmbeddingOptions embeddingOptions) {
+		var modelUri = modelUri(embeddingOptions);
 		return request.getInstructions()
 			.stream()
 			.map(input -> new YandexApi.TextEmbeddingRequest(modelUri, input))
 			.toList();
 	}
 
+	private String modelUri(YandexEmbeddingOptions options) {
+		String model = Objects.requireNonNull(options.getModel());
+		return this.modelUris.computeIfAbsent(model,
+				name -> YandexApi.EmbeddingModel.ofValue(name).getModelUri(this.folderId));
+	}
+
+	/**
+	 * Counts the tokens of a text with the tokenizer of the default model, so that texts
+	 * longer than {@link #getMaxInputTokens()} can be split before they are embedded.
+	 * @param text the text
+	 * @return the number of tokens
+	 * @see #setTokenCountCache(TokenCountCache)
+	 */
+	public long countTokens(String text) {
+		if (text == null || text.isEmpty()) {
+			return 0;
+		}
+		var modelUri = modelUri(this.defaultOptions);
+		var cache = this.tokenCountCache;
+		if (cache != null) {
+			var cached = cache.get(modelUri, text);
+			if (cached != null) {
+				return cached;
+			}
+		}
+		var request = new YandexApi.TokenizeRequest(modelUri, text);
+		var response = this.retryTemplate.execute(ctx -> this.yandexApi.tokenize(request)).getBody();
+		Assert.state(response != null, "No tokens returned for text");
+		long tokenCount = response.tokenCount();
+		if (cache != null) {
+			cache.put(modelUri, text, tokenCount);
+		}
+		return tokenCount;
+	}
+
+	/**
+	 * Returns the maximum number of tokens of a text the default model embeds.
+	 * @return the maximum number of input tokens
+	 */
+	public int getMaxInputTokens() {
+		var model = Objects.requireNonNull(this.defaultOptions.getModel());
+		return YandexApi.EmbeddingModel.ofValue(model).getMaxInputTokens();
+	}
+
 	@Override
 	public float[] embed(Document document) {
 		return this.embed(document.getFormattedContent());
@@ -122,6 +540,124 @@ public class YandexEmbeddingModel implements EmbeddingModel {
 		this.observationConvention = observationConvention;
 	}
 
+	/**
+	 * Sets the executor running the concurrent embedding calls and the calls of
+	 * {@link #callAsync(EmbeddingRequest)}. Defaults to a cached pool of daemon platform
+	 * threads created on the first call and closed with the model.
+	 * @param taskExecutor the executor to use
+	 */
+	public void setTaskExecutor(Executor taskExecutor) {
+		Assert.notNull(taskExecutor, "TaskExecutor must not be null");
+		this.taskExecutor = taskExecutor;
+	}
+
+	/**
+	 * Sets the cache consulted before each {@code textEmbedding} call. Requests can
+	 * bypass it with {@link YandexEmbeddingOptions#setUseCache(Boolean)}.
+	 * @param embeddingCache the cache to use, {@code null} to disable caching
+	 */
+	public void setEmbeddingCache(EmbeddingCache embeddingCache) {
+		this.embeddingCache = embeddingCache;
+	}
+
+	public EmbeddingCache getEmbeddingCache() {
+		return this.embeddingCache;
+	}
+
+	/**
+	 * Sets the cache of the token counts of texts. Defaults to a
+	 * {@link TokenCountCache} with the default settings.
+	 * @param tokenCountCache the cache to use, {@code null} to disable caching
+	 */
+	public void setTokenCountCache(TokenCountCache tokenCountCache) {
+		this.tokenCountCache = tokenCountCache;
+	}
+
+	public TokenCountCache getTokenCountCache() {
+		return this.tokenCountCache;
+	}
+
+	/**
+	 * Returns the rate limiter of the API client.
+	 * @return the rate limiter, or {@code null} if requests are not limited
+	 */
+	public YandexRateLimiter getRateLimiter() {
+		return this.yandexApi.getRateLimiter();
+	}
+
+	/**
+	 * Sets the non-blocking API client used by {@link #callReactive(EmbeddingRequest)}.
+	 * Defaults to none: reactive calls are rejected.
+	 * @param reactiveApi the reactive API client
+	 */
+	public void setReactiveApi(ReactiveYandexApi reactiveApi) {
+		this.reactiveApi = reactiveApi;
+	}
+
+	/**
+	 * Sets the retry of the reactive calls. Defaults to
+	 * {@link YandexRetryUtils#reactiveRetry()}.
+	 * @param reactiveRetry the reactive retry
+	 */
+	public void setReactiveRetry(YandexReactiveRetry reactiveRetry) {
+		Assert.notNull(reactiveRetry, "ReactiveRetry must not be null");
+		this.reactiveRetry = reactiveRetry;
+	}
+
+	/**
+	 * Sets the recorder of the Yandex-specific metrics: latency, calls in flight, token
+	 * usage and retries. Cache hits are not recorded. Defaults to
+	 * {@link YandexMetricsRecorder#NOOP}.
+	 * @param metricsRecorder the metrics recorder
+	 */
+	public void setMetricsRecorder(YandexMetricsRecorder metricsRecorder) {
+		Assert.notNull(metricsRecorder, "MetricsRecorder must not be null");
+		this.metricsRecorder = metricsRecorder;
+	}
+
+	/**
+	 * Shuts the default task executor down, if it was created, after which the calls
+	 * needing it fail. An executor set on the model is left to its owner.
+	 */
+	@Override
+	public void close() {
+		ExecutorService taskExecutor;
+		this.taskExecutorLock.lock();
+		try {
+			this.closed = true;
+			taskExecutor = this.ownedTaskExecutor;
+			if (taskExecutor != null && this.taskExecutor == taskExecutor) {
+				this.taskExecutor = null;
+			}
+			this.ownedTaskExecutor = null;
+		}
+		finally {
+			this.taskExecutorLock.unlock();
+		}
+		if (taskExecutor != null) {
+			taskExecutor.shutdown();
+		}
+	}
+
+	private Executor getTaskExecutor() {
+		var taskExecutor = this.taskExecutor;
+		if (taskExecutor != null) {
+			return taskExecutor;
+		}
+		this.taskExecutorLock.lock();
+		try {
+			if (this.taskExecutor == null) {
+				Assert.state(!this.closed, "Embedding model is closed");
+				this.ownedTaskExecutor = YandexExecutors.newTaskExecutor("yandex-embedding-");
+				this.taskExecutor = this.ownedTaskExecutor;
+			}
+			return this.taskExecutor;
+		}
+		finally {
+			this.taskExecutorLock.unlock();
+		}
+	}
+
 	@Override
 	public int dimensions() {
 		return 256;
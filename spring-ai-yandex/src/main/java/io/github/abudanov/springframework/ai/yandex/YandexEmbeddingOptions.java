@@ -10,6 +10,21 @@ public class YandexEmbeddingOptions implements EmbeddingOptions {
 
 	private @JsonProperty("dimensions") Integer dimensions;
 
+	/**
+	 * Maximum number of texts of a single request embedded in parallel.
+	 */
+	private @JsonProperty("concurrency") Integer concurrency;
+
+	/**
+	 * Whether the embedding cache of the model, if it has one, is used.
+	 */
+	private @JsonProperty("useCache") Boolean useCache;
+
+	/**
+	 * Scalar quantization of the returned vectors, {@code NONE} by default.
+	 */
+	private @JsonProperty("quantization") EmbeddingQuantization quantization;
+
 	public YandexEmbeddingOptions(YandexApi.EmbeddingModel embeddingModel) {
 		this(embeddingModel.getName());
 	}
@@ -33,4 +48,37 @@ public class YandexEmbeddingOptions implements EmbeddingOptions {
 		return this.dimensions;
 	}
 
+	public Integer getConcurrency() {
+		return this.concurrency;
+	}
+
+	public void setConcurrency(Integer concurrency) {
+		this.concurrency = concurrency;
+	}
+
+	public Boolean getUseCache() {
+		return this.useCache;
+	}
+
+	public void setUseCache(Boolean useCache) {
+		this.useCache = useCache;
+	}
+
+	public EmbeddingQuantization getQuantization() {
+		return this.quantization;
+	}
+
+	public void setQuantization(EmbeddingQuantization quantization) {
+		this.quantization = quantization;
+	}
+
+	public YandexEmbeddingOptions copy() {
+		var copy = new YandexEmbeddingOptions(this.model);
+		copy.dimensions = this.dimensions;
+		copy.setConcurrency(this.concurrency);
+		copy.setUseCache(this.useCache);
+		copy.setQuantization(this.quantization);
+		return copy;
+	}
+
 }
@@ -0,0 +1,70 @@
+package io.github.abudanov.springframework.ai.yandex;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Executors for the blocking Yandex API calls: a cached pool of daemon platform threads,
+ * or a virtual-thread-per-task executor when asked for and supported by the runtime. The
+ * build targets Java 17, so virtual threads are looked up reflectively.
+ */
+public final class YandexExecutors {
+
+	private YandexExecutors() {
+	}
+
+	/**
+	 * Creates an executor running every task on a cached daemon platform thread.
+	 * @param threadNamePrefix the prefix of the thread names
+	 * @return the executor
+	 */
+	public static ExecutorService newTaskExecutor(String threadNamePrefix) {
+		return newTaskExecutor(threadNamePrefix, false);
+	}
+
+	/**
+	 * Creates an executor running every task on a new virtual thread if asked for, or on
+	 * a cached daemon platform thread otherwise or when the runtime does not support
+	 * virtual threads.
+	 * @param threadNamePrefix the prefix of the thread names
+	 * @param virtualThreads whether to run the tasks on virtual threads
+	 * @return the executor
+	 */
+	public static ExecutorService newTaskExecutor(String threadNamePrefix, boolean virtualThreads) {
+		ThreadFactory virtualThreadFactory = virtualThreads ? virtualThreadFactory(threadNamePrefix) : null;
+		if (virtualThreadFactory != null) {
+			try {
+				Method newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor",
+						ThreadFactory.class);
+				return (ExecutorService) newThreadPerTaskExecutor.invoke(null, virtualThreadFactory);
+			}
+			catch (ReflectiveOperationException ex) {
+				// fall through to platform threads
+			}
+		}
+		var threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+		threadFactory.setDaemon(true);
+		return Executors.newCachedThreadPool(threadFactory);
+	}
+
+	public static boolean isVirtualThreadSupported() {
+		return virtualThreadFactory("") != null;
+	}
+
+	private static ThreadFactory virtualThreadFactory(String threadNamePrefix) {
+		try {
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix, 0L);
+			return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+		}
+		catch (ReflectiveOperationException | LinkageError ex) {
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,318 @@
+package io.github.abudanov.springframework.ai.yandex;
+
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionResponse;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.Operation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Polls deferred completion operations until they are done. A single loop thread tracks
+ * all pending operations in a {@link DelayQueue} ordered by their next poll time, takes
+ * every operation that is due in one batch and hands the polls to a task executor, with
+ * at most {@code maxConcurrentPolls} of them in flight. The delay between two polls of
+ * the same operation grows exponentially with a random jitter up to the maximum delay.
+ * <p>
+ * Closing the poller fails every operation that is not done yet, whether it is waiting
+ * for its next poll or being polled.
+ */
+public class YandexOperationPoller implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(YandexOperationPoller.class);
+
+	public static final Duration DEFAULT_INITIAL_DELAY = Duration.ofSeconds(1);
+
+	public static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(30);
+
+	public static final Duration DEFAULT_TIMEOUT = Duration.ofHours(1);
+
+	public static final int DEFAULT_MAX_CONCURRENT_POLLS = 64;
+
+	private static final double BACKOFF_MULTIPLIER = 2.0;
+
+	private static final double JITTER = 0.2;
+
+	private static final int MAX_CONSECUTIVE_FAILURES = 5;
+
+	private final YandexApi yandexApi;
+
+	private final long initialDelayNanos;
+
+	private final long maxDelayNanos;
+
+	private final long timeoutNanos;
+
+	private final Semaphore pollPermits;
+
+	private final ExecutorService pollExecutor;
+
+	private final DelayQueue<PendingOperation> pendingOperations = new DelayQueue<>();
+
+	/**
+	 * Every operation not done yet, queued, due or being polled.
+	 */
+	private final Set<PendingOperation> liveOperations = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Guards the start of the loop and the registration of operations against closing.
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private Thread loop;
+
+	private volatile boolean closed;
+
+	public YandexOperationPoller(YandexApi yandexApi) {
+		this(yandexApi, DEFAULT_INITIAL_DELAY, DEFAULT_MAX_DELAY, DEFAULT_TIMEOUT, DEFAULT_MAX_CONCURRENT_POLLS);
+	}
+
+	public YandexOperationPoller(YandexApi yandexApi, Duration initialDelay, Duration maxDelay, Duration timeout,
+			int maxConcurrentPolls) {
+		Assert.notNull(yandexApi, "YandexApi must not be null");
+		Assert.isTrue(initialDelay != null && !initialDelay.isNegative(), "Initial delay must not be negative");
+		Assert.isTrue(maxDelay != null && maxDelay.compareTo(initialDelay) >= 0,
+				"Max delay must not be less than the initial delay");
+		Assert.isTrue(timeout != null && !timeout.isNegative(), "Timeout must not be negative");
+		Assert.isTrue(maxConcurrentPolls > 0, "Max concurrent polls must be positive");
+		this.yandexApi = yandexApi;
+		this.initialDelayNanos = initialDelay.toNanos();
+		this.maxDelayNanos = maxDelay.toNanos();
+		this.timeoutNanos = timeout.toNanos();
+		this.pollPermits = new Semaphore(maxConcurrentPolls);
+		this.pollExecutor = YandexExecutors.newTaskExecutor("yandex-operation-poll-");
+	}
+
+	/**
+	 * Tracks the operation until it is done.
+	 * @param operationId the ID of the operation
+	 * @return the future completed with the completion response of the operation
+	 */
+	public CompletableFuture<CompletionResponse> poll(String operationId) {
+		Assert.hasText(operationId, "Operation ID must not be empty");
+		long now = System.nanoTime();
+		var pendingOperation = new PendingOperation(operationId, now + this.timeoutNanos);
+		pendingOperation.schedule(now, this.initialDelayNanos);
+		this.lock.lock();
+		try {
+			Assert.state(!this.closed, "Operation poller is closed");
+			startLoop();
+			this.liveOperations.add(pendingOperation);
+			pendingOperation.result.whenComplete((response, ex) -> this.liveOperations.remove(pendingOperation));
+			this.pendingOperations.add(pendingOperation);
+		}
+		finally {
+			this.lock.unlock();
+		}
+		return pendingOperation.result;
+	}
+
+	/**
+	 * Returns the number of operations that are not done yet.
+	 * @return the number of pending operations
+	 */
+	public int getPendingCount() {
+		return this.liveOperations.size();
+	}
+
+	@Override
+	public void close() {
+		this.lock.lock();
+		try {
+			if (this.closed) {
+				return;
+			}
+			this.closed = true;
+			if (this.loop != null) {
+				this.loop.interrupt();
+			}
+		}
+		finally {
+			this.lock.unlock();
+		}
+		this.pollExecutor.shutdownNow();
+		this.pendingOperations.clear();
+		// no operation is registered once closed is set under the lock
+		for (var pendingOperation : List.copyOf(this.liveOperations)) {
+			failClosed(pendingOperation);
+		}
+	}
+
+	/**
+	 * Starts the loop thread. Must be called with the lock held.
+	 */
+	private void startLoop() {
+		if (this.loop == null) {
+			this.loop = new Thread(this::run, "yandex-operation-poller");
+			this.loop.setDaemon(true);
+			this.loop.start();
+		}
+	}
+
+	private void run() {
+		List<PendingOperation> due = new ArrayList<>();
+		while (!this.closed) {
+			try {
+				due.add(this.pendingOperations.take());
+				this.pendingOperations.drainTo(due);
+				for (var pendingOperation : due) {
+					if (pendingOperation.result.isDone()) {
+						continue;
+					}
+					this.pollPermits.acquire();
+					try {
+						this.pollExecutor.execute(() -> {
+							try {
+								poll(pendingOperation);
+							}
+							finally {
+								this.pollPermits.release();
+							}
+						});
+					}
+					catch (RejectedExecutionException ex) {
+						this.pollPermits.release();
+						failOrRequeue(pendingOperation, ex);
+					}
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				due.forEach(this::failClosed);
+				return;
+			}
+			catch (RuntimeException ex) {
+				if (!this.closed) {
+					logger.error("Unexpected error while polling operations", ex);
+				}
+			}
+			finally {
+				due.clear();
+			}
+		}
+	}
+
+	private void poll(PendingOperation pendingOperation) {
+		try {
+			Operation operation = this.yandexApi.operation(pendingOperation.id).getBody();
+			pendingOperation.failures = 0;
+			if (operation != null && operation.done()) {
+				if (operation.error() != null) {
+					pendingOperation.result.completeExceptionally(new NonTransientAiException("Operation "
+							+ pendingOperation.id + " failed: " + operation.error().code() + " "
+							+ operation.error().message()));
+				}
+				else {
+					pendingOperation.result.complete(operation.response());
+				}
+				return;
+			}
+		}
+		catch (RuntimeException ex) {
+			if (++pendingOperation.failures >= MAX_CONSECUTIVE_FAILURES) {
+				pendingOperation.result.completeExceptionally(ex);
+				return;
+			}
+			logger.debug("Failed to poll operation {}, will retry", pendingOperation.id, ex);
+		}
+		long now = System.nanoTime();
+		if (pendingOperation.deadline - now <= 0) {
+			pendingOperation.result.completeExceptionally(
+					new TimeoutException("Operation " + pendingOperation.id + " is not done in time"));
+			return;
+		}
+		long delay = Math.min((long) (pendingOperation.delay * BACKOFF_MULTIPLIER), this.maxDelayNanos);
+		pendingOperation.schedule(now, Math.min(delay, pendingOperation.deadline - now));
+		requeue(pendingOperation);
+	}
+
+	/**
+	 * Queues the operation for its next poll, or fails it if the poller is closed. The
+	 * closed flag is checked after adding, so an operation added while {@link #close()}
+	 * clears the queue is failed rather than left in it.
+	 */
+	private void requeue(PendingOperation pendingOperation) {
+		if (pendingOperation.result.isDone()) {
+			return;
+		}
+		if (!this.closed) {
+			this.pendingOperations.add(pendingOperation);
+		}
+		if (this.closed) {
+			this.pendingOperations.remove(pendingOperation);
+			failClosed(pendingOperation);
+		}
+	}
+
+	private void failOrRequeue(PendingOperation pendingOperation, RejectedExecutionException ex) {
+		if (this.closed) {
+			failClosed(pendingOperation);
+			return;
+		}
+		logger.warn("Poll of operation {} rejected, will retry", pendingOperation.id, ex);
+		pendingOperation.schedule(System.nanoTime(), pendingOperation.delay);
+		requeue(pendingOperation);
+	}
+
+	private void failClosed(PendingOperation pendingOperation) {
+		pendingOperation.result.completeExceptionally(new IllegalStateException("Operation poller is closed"));
+	}
+
+	private static final class PendingOperation implements Delayed {
+
+		private final String id;
+
+		private final long deadline;
+
+		private final CompletableFuture<CompletionResponse> result = new CompletableFuture<>();
+
+		private long delay;
+
+		private long pollAt;
+
+		private int failures;
+
+		private PendingOperation(String id, long deadline) {
+			this.id = id;
+			this.deadline = deadline;
+		}
+
+		void schedule(long now, long delay) {
+			this.delay = Math.max(delay, 1);
+			long jitter = (long) (this.delay * JITTER * ThreadLocalRandom.current().nextDouble(-1.0, 1.0));
+			this.pollAt = now + this.delay + jitter;
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(this.pollAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			if (other instanceof PendingOperation pendingOperation) {
+				return Long.compare(this.pollAt - pendingOperation.pollAt, 0);
+			}
+			return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+		}
+
+	}
+
+}
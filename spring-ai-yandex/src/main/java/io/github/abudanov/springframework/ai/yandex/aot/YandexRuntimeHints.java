@@ -0,0 +1,64 @@
+package io.github.abudanov.springframework.ai.yandex.aot;
+
+import io.github.abudanov.springframework.ai.yandex.EmbeddingQuantization;
+import io.github.abudanov.springframework.ai.yandex.YandexChatOptions;
+import io.github.abudanov.springframework.ai.yandex.YandexEmbeddingOptions;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi;
+import io.github.abudanov.springframework.ai.yandex.auth.YandexIamTokenClient;
+import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import static org.springframework.ai.aot.AiRuntimeHints.findJsonAnnotatedClassesInPackage;
+
+/**
+ * Native image hints of the Yandex clients: the Jackson-mapped {@link YandexApi} records
+ * and enums, the IAM token and service account key records, the custom embedding
+ * deserializer, the options of the models, and the virtual thread API looked up
+ * reflectively by the default task executors.
+ */
+public class YandexRuntimeHints implements RuntimeHintsRegistrar {
+
+	@Override
+	public void registerHints(@NonNull RuntimeHints hints, @Nullable ClassLoader classLoader) {
+		var mcs = MemberCategory.values();
+		for (var tr : findJsonAnnotatedClassesInPackage(YandexApi.class)) {
+			hints.reflection().registerType(tr, mcs);
+		}
+		for (var tr : findJsonAnnotatedClassesInPackage(YandexIamTokenClient.class)) {
+			hints.reflection().registerType(tr, mcs);
+		}
+		// package-private, instantiated by Jackson from @JsonDeserialize
+		var deserializer = YandexApi.class.getPackageName() + ".TextEmbeddingResponseDeserializer";
+		hints.reflection().registerType(TypeReference.of(deserializer), mcs);
+		hints.reflection().registerType(YandexChatOptions.class, mcs);
+		hints.reflection().registerType(YandexEmbeddingOptions.class, mcs);
+		hints.reflection().registerType(EmbeddingQuantization.class, mcs);
+		registerVirtualThreadHints(hints);
+	}
+
+	/**
+	 * The build targets Java 17, so the virtual thread factory and executor are reached
+	 * through reflection on Java 21 and later.
+	 */
+	private static void registerVirtualThreadHints(RuntimeHints hints) {
+		hints.reflection()
+			.registerType(Thread.class, type -> type.withMethod("ofVirtual", List.of(), ExecutableMode.INVOKE))
+			.registerType(TypeReference.of("java.lang.Thread$Builder"),
+					type -> type
+						.withMethod("name", List.of(TypeReference.of(String.class), TypeReference.of(long.class)),
+								ExecutableMode.INVOKE)
+						.withMethod("factory", List.of(), ExecutableMode.INVOKE))
+			.registerType(Executors.class, type -> type.withMethod("newThreadPerTaskExecutor",
+					List.of(TypeReference.of(ThreadFactory.class)), ExecutableMode.INVOKE));
+	}
+
+}
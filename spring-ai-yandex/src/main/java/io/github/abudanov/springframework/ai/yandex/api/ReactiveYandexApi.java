@@ -0,0 +1,303 @@
+package io.github.abudanov.springframework.ai.yandex.api;
+
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionRequest;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionResult;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.Operation;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.TextEmbeddingRequest;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.TextEmbeddingResponse;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.TokenizeRequest;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.TokenizeResponse;
+import io.github.abudanov.springframework.ai.yandex.auth.YandexCredentialPool;
+import io.github.abudanov.springframework.ai.yandex.auth.YandexIamTokenProvider;
+import io.github.abudanov.springframework.ai.yandex.ratelimit.YandexRateLimiter;
+import io.github.abudanov.springframework.ai.yandex.retry.YandexApiException;
+import io.github.abudanov.springframework.ai.yandex.retry.YandexResponseErrorHandler;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Non-blocking client of the Yandex Foundation Models API built on {@link WebClient}, the
+ * reactive counterpart of {@link YandexApi}. Calls are sent when subscribed to and every
+ * subscription sends the call again, so they can be retried with
+ * {@link io.github.abudanov.springframework.ai.yandex.retry.YandexReactiveRetry}.
+ * <p>
+ * Errors are reported as by the
+ * {@link io.github.abudanov.springframework.ai.yandex.retry.YandexResponseErrorHandler}:
+ * overload and server errors as a {@link YandexApiException}, other client errors as a
+ * {@link NonTransientAiException}, and I/O errors and timeouts as a
+ * {@link ResourceAccessException}.
+ */
+public class ReactiveYandexApi {
+
+	private final WebClient webClient;
+
+	private final String completionPath;
+
+	private final String embeddingPath;
+
+	private final String completionAsyncPath;
+
+	private final String operationPath;
+
+	private String tokenizePath = YandexApi.DEFAULT_TOKENIZE_PATH;
+
+	private Duration timeout;
+
+	private YandexRateLimiter rateLimiter;
+
+	private YandexCredentialPool credentialPool;
+
+	private volatile YandexIamTokenProvider iamTokenProvider;
+
+	/**
+	 * Creates the API client.
+	 * @param baseUrl The base URL of the Foundation Models API.
+	 * @param apiKey The API key, or {@code null} to authorize the requests with the
+	 * {@link #setIamTokenProvider(YandexIamTokenProvider) IAM token}.
+	 * @param headers Headers added to every request.
+	 * @param webClientBuilder The builder of the underlying {@link WebClient}.
+	 * @param completionPath The path of the completion endpoint.
+	 * @param embeddingPath The path of the text embedding endpoint.
+	 * @param completionAsyncPath The path of the deferred completion endpoint.
+	 * @param operationPath The path, or absolute URL, of the operation endpoint with an
+	 * {@code {operationId}} placeholder.
+	 */
+	public ReactiveYandexApi(String baseUrl, String apiKey, MultiValueMap<String, String> headers,
+			WebClient.Builder webClientBuilder, String completionPath, String embeddingPath,
+			String completionAsyncPath, String operationPath) {
+		Assert.hasText(completionPath, "Completion path must not be empty");
+		Assert.hasText(embeddingPath, "Embedding path must not be empty");
+		Assert.hasText(completionAsyncPath, "Completion async path must not be empty");
+		Assert.hasText(operationPath, "Operation path must not be empty");
+		Assert.notNull(headers, "Headers must not be null");
+		this.completionPath = completionPath;
+		this.embeddingPath = embeddingPath;
+		this.completionAsyncPath = completionAsyncPath;
+		this.operationPath = operationPath;
+		var objectMapper = YandexJsonCodec.objectMapper();
+		boolean hasApiKey = StringUtils.hasText(apiKey);
+		this.webClient = webClientBuilder.baseUrl(baseUrl).defaultHeaders(h -> {
+			if (hasApiKey) {
+				h.set(HttpHeaders.AUTHORIZATION, "Api-Key " + apiKey);
+			}
+			h.setContentType(MediaType.APPLICATION_JSON);
+			h.addAll(headers);
+		}).filter((request, next) -> {
+			var iamTokenProvider = this.iamTokenProvider;
+			if (hasApiKey || iamTokenProvider == null || request.headers().containsKey(HttpHeaders.AUTHORIZATION)) {
+				return next.exchange(request);
+			}
+			return iamToken(iamTokenProvider).flatMap(token -> next
+				.exchange(ClientRequest.from(request).headers(h -> h.setBearerAuth(token)).build()));
+		}).codecs(codecs -> {
+			var defaultCodecs = codecs.defaultCodecs();
+			defaultCodecs.jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+			defaultCodecs.jackson2JsonDecoder(
+					new Jackson2JsonDecoder(objectMapper, MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON));
+		}).build();
+	}
+
+	public Mono<CompletionResult> completion(CompletionRequest request) {
+		Assert.notNull(request, "The request body must not be null.");
+		Assert.isTrue(!request.completionOptions().stream(), "Request must set the stream property to false.");
+		return post(request.modelUri(), true, this.completionPath, request::withModelUri, CompletionResult.class);
+	}
+
+	/**
+	 * Creates a streaming completion, see {@link YandexApi#completionStream}. The timeout
+	 * applies to the wait for every result.
+	 * @param request The request body, must set the stream property to true.
+	 * @return The {@link Flux} of cumulative completion results.
+	 */
+	public Flux<CompletionResult> completionStream(CompletionRequest request) {
+		Assert.notNull(request, "The request body must not be null.");
+		Assert.isTrue(request.completionOptions().stream(), "Request must set the stream property to true.");
+		return Flux.defer(() -> {
+			var pool = this.credentialPool;
+			var lease = (pool != null) ? pool.acquire() : null;
+			var modelUri = (lease != null) ? pool.modelUri(request.modelUri(), lease.credential())
+					: request.modelUri();
+			var results = withTimeout(permit(modelUri).thenMany(this.webClient.post()
+				.uri(this.completionPath)
+				.headers(headers -> authorize(headers, lease))
+				.bodyValue(request.withModelUri(modelUri))
+				.retrieve()
+				.onStatus(status -> status.isError(), ReactiveYandexApi::toException)
+				.bodyToFlux(CompletionResult.class)));
+			if (lease == null) {
+				return results;
+			}
+			return results.doOnComplete(() -> lease.release(null))
+				.doOnError(lease::release)
+				.doOnCancel(() -> lease.release(null));
+		});
+	}
+
+	public Mono<Operation> completionAsync(CompletionRequest request) {
+		Assert.notNull(request, "The request body must not be null.");
+		Assert.isTrue(!request.completionOptions().stream(), "Request must set the stream property to false.");
+		return post(request.modelUri(), false, this.completionAsyncPath, modelUri -> request, Operation.class);
+	}
+
+	public Mono<Operation> operation(String operationId) {
+		Assert.hasText(operationId, "Operation ID must not be empty");
+		return withTimeout(this.webClient.get()
+			.uri(this.operationPath, operationId)
+			.retrieve()
+			.onStatus(status -> status.isError(), ReactiveYandexApi::toException)
+			.bodyToMono(Operation.class));
+	}
+
+	public Mono<TextEmbeddingResponse> textEmbedding(TextEmbeddingRequest request) {
+		Assert.notNull(request, "TextEmbeddingRequest must not be null");
+		return post(request.modelUri(), true, this.embeddingPath, request::withModelUri,
+				TextEmbeddingResponse.class);
+	}
+
+	public Mono<TokenizeResponse> tokenize(TokenizeRequest request) {
+		Assert.notNull(request, "TokenizeRequest must not be null");
+		return post(null, false, this.tokenizePath, modelUri -> request, TokenizeResponse.class);
+	}
+
+	public void setTokenizePath(String tokenizePath) {
+		Assert.hasText(tokenizePath, "Tokenize path must not be empty");
+		this.tokenizePath = tokenizePath;
+	}
+
+	/**
+	 * Sets the maximum time to wait for a response, or for the next result of a stream.
+	 * @param timeout the timeout, {@code null} to wait as long as the connector does
+	 */
+	public void setTimeout(Duration timeout) {
+		Assert.isTrue(timeout == null || timeout.toMillis() > 0, "Timeout must be positive");
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Sets the rate limiter every completion and embedding request takes a permit from
+	 * before it is sent. Requests are delayed rather than blocked while waiting.
+	 * @param rateLimiter the rate limiter, {@code null} not to limit requests
+	 */
+	public void setRateLimiter(YandexRateLimiter rateLimiter) {
+		this.rateLimiter = rateLimiter;
+	}
+
+	/**
+	 * Sets the pool of credentials the completion and embedding requests are spread
+	 * over, see {@link YandexApi#setCredentialPool(YandexCredentialPool)}.
+	 * @param credentialPool the credential pool, {@code null} to send every request with
+	 * the credential the client was created with
+	 */
+	public void setCredentialPool(YandexCredentialPool credentialPool) {
+		this.credentialPool = credentialPool;
+	}
+
+	/**
+	 * Sets the provider of the IAM token the requests are authorized with when the client
+	 * was created without an API key. A token that must be fetched is waited for on a
+	 * bounded elastic thread.
+	 * @param iamTokenProvider the IAM token provider
+	 */
+	public void setIamTokenProvider(YandexIamTokenProvider iamTokenProvider) {
+		this.iamTokenProvider = iamTokenProvider;
+	}
+
+	/**
+	 * Posts a request. Requests to a model are rate limited and, when balanced and a
+	 * credential pool is set, sent with a leased credential, the body being created for
+	 * the model URI in its folder.
+	 */
+	private <T> Mono<T> post(@Nullable String modelUri, boolean balanced, String path, Function<String, Object> body,
+			Class<T> type) {
+		return Mono.defer(() -> {
+			var pool = balanced ? this.credentialPool : null;
+			var lease = (pool != null) ? pool.acquire() : null;
+			var leasedModelUri = (lease != null) ? pool.modelUri(modelUri, lease.credential()) : modelUri;
+			var call = this.webClient.post()
+				.uri(path)
+				.headers(headers -> authorize(headers, lease))
+				.bodyValue(body.apply(leasedModelUri))
+				.retrieve()
+				.onStatus(status -> status.isError(), ReactiveYandexApi::toException)
+				.bodyToMono(type);
+			var result = withTimeout((modelUri != null) ? permit(leasedModelUri).then(call) : call);
+			if (lease == null) {
+				return result;
+			}
+			return result.doOnSuccess(response -> lease.release(null))
+				.doOnError(lease::release)
+				.doOnCancel(() -> lease.release(null));
+		});
+	}
+
+	private static void authorize(HttpHeaders headers, @Nullable YandexCredentialPool.Lease lease) {
+		if (lease != null) {
+			lease.authorize(headers);
+		}
+	}
+
+	private Mono<Void> permit(String modelUri) {
+		return Mono.defer(() -> {
+			var rateLimiter = this.rateLimiter;
+			if (rateLimiter == null) {
+				return Mono.empty();
+			}
+			var delay = rateLimiter.reserve(modelUri);
+			return delay.isZero() ? Mono.empty() : Mono.delay(delay).then();
+		});
+	}
+
+	private <T> Mono<T> withTimeout(Mono<T> call) {
+		var mono = (this.timeout != null) ? call.timeout(this.timeout) : call;
+		return mono.onErrorMap(ReactiveYandexApi::isIoError, ReactiveYandexApi::toResourceAccessException);
+	}
+
+	private <T> Flux<T> withTimeout(Flux<T> call) {
+		var flux = (this.timeout != null) ? call.timeout(this.timeout) : call;
+		return flux.onErrorMap(ReactiveYandexApi::isIoError, ReactiveYandexApi::toResourceAccessException);
+	}
+
+	private static Mono<String> iamToken(YandexIamTokenProvider iamTokenProvider) {
+		var cached = iamTokenProvider.getCachedToken();
+		return (cached != null) ? Mono.just(cached)
+				: Mono.fromCallable(iamTokenProvider::getToken).subscribeOn(Schedulers.boundedElastic());
+	}
+
+	private static boolean isIoError(Throwable ex) {
+		return ex instanceof WebClientRequestException || ex instanceof TimeoutException;
+	}
+
+	private static Throwable toResourceAccessException(Throwable ex) {
+		var cause = (ex.getCause() instanceof IOException io) ? io : new IOException(ex.getMessage(), ex);
+		return new ResourceAccessException("I/O error on the Yandex API: " + ex.getMessage(), cause);
+	}
+
+	private static Mono<? extends Throwable> toException(ClientResponse response) {
+		var statusCode = response.statusCode();
+		var headers = response.headers().asHttpHeaders();
+		return response.bodyToMono(String.class)
+			.defaultIfEmpty("")
+			.map(body -> YandexResponseErrorHandler.toException(statusCode, headers, body));
+	}
+
+}
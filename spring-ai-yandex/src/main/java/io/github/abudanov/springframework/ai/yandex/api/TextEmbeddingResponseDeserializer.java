@@ -0,0 +1,75 @@
+package io.github.abudanov.springframework.ai.yandex.api;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.TextEmbeddingResponse;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Streams the {@code embedding} array of a {@link TextEmbeddingResponse} straight into a
+ * {@code float[]} sized for the Yandex embedding dimensions, so that a regular response
+ * allocates the vector exactly once instead of going through a {@code double[]} and
+ * intermediate growth buffers.
+ */
+class TextEmbeddingResponseDeserializer extends StdDeserializer<TextEmbeddingResponse> {
+
+	private static final int EXPECTED_DIMENSIONS = 256;
+
+	TextEmbeddingResponseDeserializer() {
+		super(TextEmbeddingResponse.class);
+	}
+
+	@Override
+	public TextEmbeddingResponse deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+		JsonToken token = parser.currentToken();
+		if (token == JsonToken.START_OBJECT) {
+			token = parser.nextToken();
+		}
+		float[] embedding = null;
+		long numTokens = 0;
+		String modelVersion = null;
+		for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+			String name = parser.currentName();
+			token = parser.nextToken();
+			switch (name) {
+				case "embedding" -> embedding = readEmbedding(parser, context);
+				case "numTokens" -> numTokens = parser.getValueAsLong();
+				case "modelVersion" -> modelVersion = parser.getValueAsString();
+				default -> parser.skipChildren();
+			}
+		}
+		if (token != JsonToken.END_OBJECT) {
+			return (TextEmbeddingResponse) context.handleUnexpectedToken(TextEmbeddingResponse.class, parser);
+		}
+		return new TextEmbeddingResponse(embedding, numTokens, modelVersion);
+	}
+
+	private static float[] readEmbedding(JsonParser parser, DeserializationContext context) throws IOException {
+		if (parser.currentToken() == JsonToken.VALUE_NULL) {
+			return null;
+		}
+		if (parser.currentToken() != JsonToken.START_ARRAY) {
+			return (float[]) context.handleUnexpectedToken(float[].class, parser);
+		}
+		float[] values = new float[EXPECTED_DIMENSIONS];
+		int size = 0;
+		JsonToken token;
+		while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, values.length * 2);
+			}
+			values[size++] = switch (token) {
+				case VALUE_NUMBER_FLOAT, VALUE_NUMBER_INT -> parser.getFloatValue();
+				// grpc-gateway may quote special values such as "NaN"
+				case VALUE_STRING -> Float.parseFloat(parser.getText());
+				default -> (Float) context.handleUnexpectedToken(float.class, parser);
+			};
+		}
+		return (size == values.length) ? values : Arrays.copyOf(values, size);
+	}
+
+}
@@ -2,41 +2,120 @@ package io.github.abudanov.springframework.ai.yandex.api;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.github.abudanov.springframework.ai.yandex.auth.YandexCredentialPool;
+import io.github.abudanov.springframework.ai.yandex.auth.YandexIamTokenProvider;
+import io.github.abudanov.springframework.ai.yandex.ratelimit.YandexRateLimiter;
 import org.springframework.ai.model.ChatModelDescription;
 import org.springframework.ai.model.EmbeddingModelDescription;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
 import org.springframework.web.client.ResponseErrorHandler;
 import org.springframework.web.client.RestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.BiFunction;
 
 public class YandexApi {
 
+	public static final String DEFAULT_COMPLETION_ASYNC_PATH = "/v1/completionAsync";
+
+	public static final String DEFAULT_OPERATION_PATH = "https://operation.api.cloud.yandex.net/operations/{operationId}";
+
+	public static final String DEFAULT_TOKENIZE_PATH = "/v1/tokenize";
+
+	public static final String DEFAULT_TOKENIZE_COMPLETION_PATH = "/v1/tokenizeCompletion";
+
+	private static final ObjectReader COMPLETION_RESULT_READER = YandexJsonCodec.reader(CompletionResult.class);
+
 	private final RestClient restClient;
 
+	private final ResponseErrorHandler responseErrorHandler;
+
 	private final String completionPath;
 
 	private final String embeddingPath;
 
+	private final String completionAsyncPath;
+
+	private final String operationPath;
+
+	private String tokenizePath = DEFAULT_TOKENIZE_PATH;
+
+	private String tokenizeCompletionPath = DEFAULT_TOKENIZE_COMPLETION_PATH;
+
+	private YandexRateLimiter rateLimiter;
+
+	private YandexCredentialPool credentialPool;
+
+	private volatile YandexIamTokenProvider iamTokenProvider;
+
 	public YandexApi(String baseUrl, String apiKey, MultiValueMap<String, String> headers,
 			RestClient.Builder restClientBuilder, String completionPath, String embeddingPath,
 			ResponseErrorHandler responseErrorHandler) {
+		this(baseUrl, apiKey, headers, restClientBuilder, completionPath, embeddingPath, DEFAULT_COMPLETION_ASYNC_PATH,
+				DEFAULT_OPERATION_PATH, responseErrorHandler);
+	}
+
+	/**
+	 * Creates the API client.
+	 * @param baseUrl The base URL of the Foundation Models API.
+	 * @param apiKey The API key, or {@code null} to authorize the requests with the
+	 * {@link #setIamTokenProvider(YandexIamTokenProvider) IAM token}.
+	 * @param headers Headers added to every request.
+	 * @param restClientBuilder The builder of the underlying {@link RestClient}.
+	 * @param completionPath The path of the completion endpoint.
+	 * @param embeddingPath The path of the text embedding endpoint.
+	 * @param completionAsyncPath The path of the deferred completion endpoint.
+	 * @param operationPath The path, or absolute URL, of the operation endpoint with an
+	 * {@code {operationId}} placeholder.
+	 * @param responseErrorHandler The handler of error responses.
+	 */
+	public YandexApi(String baseUrl, String apiKey, MultiValueMap<String, String> headers,
+			RestClient.Builder restClientBuilder, String completionPath, String embeddingPath,
+			String completionAsyncPath, String operationPath, ResponseErrorHandler responseErrorHandler) {
 		Assert.hasText(completionPath, "Completion path must not be empty");
 		Assert.hasText(embeddingPath, "Embedding path must not be empty");
+		Assert.hasText(completionAsyncPath, "Completion async path must not be empty");
+		Assert.hasText(operationPath, "Operation path must not be empty");
 		Assert.notNull(headers, "Headers must not be null");
+		Assert.notNull(responseErrorHandler, "ResponseErrorHandler must not be null");
 		this.completionPath = completionPath;
 		this.embeddingPath = embeddingPath;
+		this.completionAsyncPath = completionAsyncPath;
+		this.operationPath = operationPath;
+		this.responseErrorHandler = responseErrorHandler;
+		boolean hasApiKey = StringUtils.hasText(apiKey);
 		this.restClient = restClientBuilder.baseUrl(baseUrl).defaultHeaders(h -> {
-			h.set(HttpHeaders.AUTHORIZATION, "Api-Key " + apiKey);
+			if (hasApiKey) {
+				h.set(HttpHeaders.AUTHORIZATION, "Api-Key " + apiKey);
+			}
 			h.setContentType(MediaType.APPLICATION_JSON);
 			h.addAll(headers);
-		}).defaultStatusHandler(responseErrorHandler).build();
+		})
+			.defaultRequest(request -> request.headers(h -> {
+				var iamTokenProvider = this.iamTokenProvider;
+				if (!hasApiKey && iamTokenProvider != null) {
+					h.setBearerAuth(iamTokenProvider.getToken());
+				}
+			}))
+			.messageConverters(converters -> converters.add(0, YandexJsonCodec.messageConverter()))
+			.defaultStatusHandler(responseErrorHandler)
+			.build();
 	}
 
 	interface YandexModelDescription {
@@ -57,11 +136,11 @@ public class YandexApi {
 
 	public enum ChatModel implements ChatModelDescription, YandexModelDescription {
 
-		YANDEXGPT_PRO("yandexgpt", ModelVersion.LATEST, "3"),
-		YANDEXGPT_LITE("yandexgpt-lite", ModelVersion.LATEST, "3"),
-		YANDEXGPT_PRO_RC("yandexgpt", ModelVersion.RELEASE_CANDIDATE, "4"),
-		YANDEXGPT_LITE_RC("yandexgpt-lite", ModelVersion.RELEASE_CANDIDATE, "4"),
-		YANDEXGPT_32K_RC("yandexgpt-32k", ModelVersion.RELEASE_CANDIDATE, "4");
+		YANDEXGPT_PRO("yandexgpt", ModelVersion.LATEST, "3", 8_192),
+		YANDEXGPT_LITE("yandexgpt-lite", ModelVersion.LATEST, "3", 8_192),
+		YANDEXGPT_PRO_RC("yandexgpt", ModelVersion.RELEASE_CANDIDATE, "4", 32_768),
+		YANDEXGPT_LITE_RC("yandexgpt-lite", ModelVersion.RELEASE_CANDIDATE, "4", 32_768),
+		YANDEXGPT_32K_RC("yandexgpt-32k", ModelVersion.RELEASE_CANDIDATE, "4", 32_768);
 
 		private final String value;
 
@@ -69,10 +148,13 @@ public class YandexApi {
 
 		private final String generation;
 
-		ChatModel(String value, ModelVersion version, String generation) {
+		private final int contextLength;
+
+		ChatModel(String value, ModelVersion version, String generation, int contextLength) {
 			this.value = value;
 			this.version = version;
 			this.generation = generation;
+			this.contextLength = contextLength;
 		}
 
 		@Override
@@ -94,6 +176,14 @@ public class YandexApi {
 			return generation;
 		}
 
+		/**
+		 * Returns the maximum number of tokens of the prompt and the completion together.
+		 * @return the context length in tokens
+		 */
+		public int getContextLength() {
+			return this.contextLength;
+		}
+
 		public static ChatModel ofValue(String value) {
 			return switch (value) {
 				case "yandexgpt" -> YANDEXGPT_PRO;
@@ -195,6 +285,11 @@ public class YandexApi {
 			@JsonProperty("completionOptions") CompletionOptions completionOptions,
 			@JsonProperty("messages") List<CompletionMessage> messages) {
 
+		public CompletionRequest withModelUri(String modelUri) {
+			return modelUri.equals(this.modelUri) ? this
+					: new CompletionRequest(modelUri, this.completionOptions, this.messages);
+		}
+
 	}
 
 	/**
@@ -285,13 +380,138 @@ public class YandexApi {
 		Assert.isTrue(!request.completionOptions().stream(), "Request must set the stream property to false.");
 		Assert.notNull(additionalHttpHeaders, "The additional HTTP headers must not be null.");
 
-		return this.restClient.post()
+		return withCredential(request.modelUri(), (modelUri, lease) -> this.restClient.post()
 			.uri(this.completionPath)
-			.headers(headers -> headers.addAll(additionalHttpHeaders))
+			.headers(headers -> {
+				headers.addAll(additionalHttpHeaders);
+				authorize(headers, lease);
+			})
+			.body(request.withModelUri(modelUri))
+			.retrieve()
+			.toEntity(CompletionResult.class));
+
+	}
+
+	/**
+	 * A long-running operation started by a deferred request.
+	 *
+	 * @param id The ID of the operation.
+	 * @param description The description of the operation.
+	 * @param createdAt The creation timestamp.
+	 * @param createdBy The ID of the user or service account who initiated the operation.
+	 * @param modifiedAt The timestamp when the operation was last modified.
+	 * @param done Whether the operation is completed.
+	 * @param error The error result of a failed operation.
+	 * @param response The completion response of a successful operation.
+	 */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	public record Operation(@JsonProperty("id") String id, @JsonProperty("description") String description,
+			@JsonProperty("createdAt") String createdAt, @JsonProperty("createdBy") String createdBy,
+			@JsonProperty("modifiedAt") String modifiedAt, @JsonProperty("done") boolean done,
+			@JsonProperty("error") @Nullable OperationError error,
+			@JsonProperty("response") @Nullable CompletionResponse response) {
+
+	}
+
+	/**
+	 * The error result of a failed operation.
+	 *
+	 * @param code The error code.
+	 * @param message The error message.
+	 */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	public record OperationError(@JsonProperty("code") Integer code, @JsonProperty("message") String message) {
+
+	}
+
+	/**
+	 * Starts a deferred completion. The result is obtained by polling the returned
+	 * {@link Operation} with {@link #operation(String)}.
+	 * @param request The request body, must set the stream property to false.
+	 * @return The started operation.
+	 */
+	public ResponseEntity<Operation> completionAsync(CompletionRequest request) {
+
+		Assert.notNull(request, "The request body must not be null.");
+		Assert.isTrue(!request.completionOptions().stream(), "Request must set the stream property to false.");
+
+		acquirePermit(request.modelUri());
+		return this.restClient.post()
+			.uri(this.completionAsyncPath)
 			.body(request)
 			.retrieve()
-			.toEntity(CompletionResult.class);
+			.toEntity(Operation.class);
+
+	}
+
+	public ResponseEntity<Operation> operation(String operationId) {
+		Assert.hasText(operationId, "Operation ID must not be empty");
+		return this.restClient.get().uri(this.operationPath, operationId).retrieve().toEntity(Operation.class);
+	}
 
+	public Flux<CompletionResult> completionStream(CompletionRequest request) {
+		return completionStream(request, new LinkedMultiValueMap<>());
+	}
+
+	/**
+	 * Creates a streaming completion. Yandex answers a streaming request with a sequence
+	 * of newline-delimited {@link CompletionResult} objects, each carrying the whole text
+	 * generated so far with the {@link CompletionStatus#ALTERNATIVE_STATUS_PARTIAL}
+	 * status, followed by a final one. The results are emitted as soon as they are read
+	 * from the response body.
+	 * @param request The request body, must set the stream property to true.
+	 * @param additionalHttpHeaders Additional HTTP headers.
+	 * @return The {@link Flux} of cumulative completion results.
+	 */
+	public Flux<CompletionResult> completionStream(CompletionRequest request,
+			MultiValueMap<String, String> additionalHttpHeaders) {
+
+		Assert.notNull(request, "The request body must not be null.");
+		Assert.isTrue(request.completionOptions().stream(), "Request must set the stream property to true.");
+		Assert.notNull(additionalHttpHeaders, "The additional HTTP headers must not be null.");
+
+		return Flux
+			.using(() -> openCompletionStream(request, additionalHttpHeaders), Flux::fromIterable,
+					CompletionResultStream::close)
+			.subscribeOn(Schedulers.boundedElastic());
+	}
+
+	private CompletionResultStream openCompletionStream(CompletionRequest request,
+			MultiValueMap<String, String> additionalHttpHeaders) {
+		var pool = this.credentialPool;
+		var lease = (pool != null) ? pool.acquire() : null;
+		try {
+			var modelUri = (lease != null) ? pool.modelUri(request.modelUri(), lease.credential())
+					: request.modelUri();
+			acquirePermit(modelUri);
+			return this.restClient.post()
+				.uri(this.completionPath)
+				.headers(headers -> {
+					headers.addAll(additionalHttpHeaders);
+					authorize(headers, lease);
+				})
+				.body(request.withModelUri(modelUri))
+				.exchange((clientRequest, clientResponse) -> {
+					try {
+						if (this.responseErrorHandler.hasError(clientResponse)) {
+							this.responseErrorHandler.handleError(clientRequest.getURI(), clientRequest.getMethod(),
+									clientResponse);
+						}
+						return new CompletionResultStream(clientResponse,
+								COMPLETION_RESULT_READER.readValues(clientResponse.getBody()), lease);
+					}
+					catch (IOException | RuntimeException ex) {
+						clientResponse.close();
+						throw ex;
+					}
+				}, false);
+		}
+		catch (RuntimeException ex) {
+			if (lease != null) {
+				lease.release(ex);
+			}
+			throw ex;
+		}
 	}
 
 	/**
@@ -306,22 +526,26 @@ public class YandexApi {
 		/**
 		 * Vectorization of large source texts, e.g., documentation articles
 		 */
-		TEXT_SEARCH_DOC("text-search-doc", 256, "Vectorization of large source texts, e.g., documentation articles"),
+		TEXT_SEARCH_DOC("text-search-doc", 256, 2_048,
+				"Vectorization of large source texts, e.g., documentation articles"),
 		/**
 		 * Vectorization of short texts, such as search queries, requests, etc.
 		 */
-		TEXT_SEARCH_QUERY("text-search-query", 256,
+		TEXT_SEARCH_QUERY("text-search-query", 256, 2_048,
 				"Vectorization of short texts, such as search queries, requests, etc.");
 
 		private final String value;
 
 		private final int vectorSize;
 
+		private final int maxInputTokens;
+
 		private final String description;
 
-		EmbeddingModel(String value, int vectorSize, String description) {
+		EmbeddingModel(String value, int vectorSize, int maxInputTokens, String description) {
 			this.value = value;
 			this.vectorSize = vectorSize;
+			this.maxInputTokens = maxInputTokens;
 			this.description = description;
 		}
 
@@ -350,6 +574,14 @@ public class YandexApi {
 			return this.vectorSize;
 		}
 
+		/**
+		 * Returns the maximum number of tokens of a text to embed.
+		 * @return the maximum number of input tokens
+		 */
+		public int getMaxInputTokens() {
+			return this.maxInputTokens;
+		}
+
 		public static EmbeddingModel ofValue(String value) {
 			return switch (value) {
 				case "text-search-doc" -> TEXT_SEARCH_DOC;
@@ -371,27 +603,215 @@ public class YandexApi {
 	@JsonInclude(JsonInclude.Include.NON_NULL)
 	public record TextEmbeddingRequest(@JsonProperty("modelUri") String modelUri, @JsonProperty("text") String text) {
 
+		public TextEmbeddingRequest withModelUri(String modelUri) {
+			return modelUri.equals(this.modelUri) ? this : new TextEmbeddingRequest(modelUri, this.text);
+		}
+
 	}
 
 	/**
 	 * Response containing generated text embedding.
 	 *
-	 * @param embedding A repeated list of double values representing the embedding.
+	 * @param embedding A repeated list of values representing the embedding, read as
+	 * {@code float} values directly.
 	 * @param numTokens The number of tokens in the input text.
 	 * @param modelVersion The model version changes with each new releases.
 	 */
-	public record TextEmbeddingResponse(@JsonProperty("embedding") double[] embedding,
+	@JsonDeserialize(using = TextEmbeddingResponseDeserializer.class)
+	public record TextEmbeddingResponse(@JsonProperty("embedding") float[] embedding,
 			@JsonProperty("numTokens") long numTokens, @JsonProperty("modelVersion") String modelVersion) {
 
 	}
 
 	public ResponseEntity<TextEmbeddingResponse> textEmbedding(TextEmbeddingRequest request) {
 		Assert.notNull(request, "TextEmbeddingRequest must not be null");
-		return this.restClient.post()
+		return withCredential(request.modelUri(), (modelUri, lease) -> this.restClient.post()
 			.uri(this.embeddingPath)
+			.headers(headers -> authorize(headers, lease))
+			.body(request.withModelUri(modelUri))
+			.retrieve()
+			.toEntity(TextEmbeddingResponse.class));
+	}
+
+	/**
+	 * Request to split a text into the tokens of a model.
+	 *
+	 * @param modelUri The
+	 * <a href="https://yandex.cloud/docs/foundation-models/concepts/yandexgpt/models">ID
+	 * of the model</a> whose tokenizer to use.
+	 * @param text The text to tokenize.
+	 */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	public record TokenizeRequest(@JsonProperty("modelUri") String modelUri, @JsonProperty("text") String text) {
+
+	}
+
+	/**
+	 * Tokens of a text or of a completion request.
+	 *
+	 * @param tokens The tokens, in the order of the text.
+	 * @param modelVersion The model version changes with each new releases.
+	 */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	public record TokenizeResponse(@JsonProperty("tokens") List<Token> tokens,
+			@JsonProperty("modelVersion") String modelVersion) {
+
+		public int tokenCount() {
+			return (this.tokens != null) ? this.tokens.size() : 0;
+		}
+
+		/**
+		 * A token of the model vocabulary.
+		 *
+		 * @param id The ID of the token.
+		 * @param text The text of the token.
+		 * @param special Whether the token is a special one, such as a message separator.
+		 */
+		@JsonInclude(JsonInclude.Include.NON_NULL)
+		public record Token(@JsonProperty("id") long id, @JsonProperty("text") String text,
+				@JsonProperty("special") boolean special) {
+
+		}
+	}
+
+	/**
+	 * Splits a text into the tokens of a model. Tokenization is not rate limited, since it
+	 * does not count against the generation quotas.
+	 * @param request The request body.
+	 * @return The tokens of the text.
+	 */
+	public ResponseEntity<TokenizeResponse> tokenize(TokenizeRequest request) {
+		Assert.notNull(request, "TokenizeRequest must not be null");
+		return this.restClient.post()
+			.uri(this.tokenizePath)
 			.body(request)
 			.retrieve()
-			.toEntity(TextEmbeddingResponse.class);
+			.toEntity(TokenizeResponse.class);
+	}
+
+	/**
+	 * Splits a completion request into the tokens the model receives, including the
+	 * special tokens separating the messages.
+	 * @param request The completion request.
+	 * @return The tokens of the request.
+	 */
+	public ResponseEntity<TokenizeResponse> tokenizeCompletion(CompletionRequest request) {
+		Assert.notNull(request, "The request body must not be null.");
+		return this.restClient.post()
+			.uri(this.tokenizeCompletionPath)
+			.body(request)
+			.retrieve()
+			.toEntity(TokenizeResponse.class);
+	}
+
+	public void setTokenizePath(String tokenizePath) {
+		Assert.hasText(tokenizePath, "Tokenize path must not be empty");
+		this.tokenizePath = tokenizePath;
+	}
+
+	public void setTokenizeCompletionPath(String tokenizeCompletionPath) {
+		Assert.hasText(tokenizeCompletionPath, "Tokenize completion path must not be empty");
+		this.tokenizeCompletionPath = tokenizeCompletionPath;
+	}
+
+	/**
+	 * Sets the rate limiter every completion and embedding request takes a permit from
+	 * before it is sent.
+	 * @param rateLimiter the rate limiter, {@code null} not to limit requests
+	 */
+	public void setRateLimiter(YandexRateLimiter rateLimiter) {
+		this.rateLimiter = rateLimiter;
+	}
+
+	@Nullable
+	public YandexRateLimiter getRateLimiter() {
+		return this.rateLimiter;
+	}
+
+	/**
+	 * Sets the pool of credentials the completion and embedding requests are spread
+	 * over. Deferred completions and tokenization use the credential the client was
+	 * created with, since operations can only be polled with the credential that started
+	 * them.
+	 * @param credentialPool the credential pool, {@code null} to send every request with
+	 * the credential the client was created with
+	 */
+	public void setCredentialPool(YandexCredentialPool credentialPool) {
+		this.credentialPool = credentialPool;
+	}
+
+	/**
+	 * Sets the provider of the IAM token the requests are authorized with when the client
+	 * was created without an API key.
+	 * @param iamTokenProvider the IAM token provider
+	 */
+	public void setIamTokenProvider(YandexIamTokenProvider iamTokenProvider) {
+		this.iamTokenProvider = iamTokenProvider;
+	}
+
+	/**
+	 * Sends a rate limited request with a credential leased from the pool, if any.
+	 */
+	private <T> T withCredential(String modelUri, BiFunction<String, YandexCredentialPool.Lease, T> request) {
+		var pool = this.credentialPool;
+		if (pool == null) {
+			acquirePermit(modelUri);
+			return request.apply(modelUri, null);
+		}
+		var lease = pool.acquire();
+		try {
+			var leasedModelUri = pool.modelUri(modelUri, lease.credential());
+			acquirePermit(leasedModelUri);
+			var result = request.apply(leasedModelUri, lease);
+			lease.release(null);
+			return result;
+		}
+		catch (RuntimeException ex) {
+			lease.release(ex);
+			throw ex;
+		}
+	}
+
+	private static void authorize(HttpHeaders headers, @Nullable YandexCredentialPool.Lease lease) {
+		if (lease != null) {
+			lease.authorize(headers);
+		}
+	}
+
+	private void acquirePermit(String modelUri) {
+		var rateLimiter = this.rateLimiter;
+		if (rateLimiter != null) {
+			rateLimiter.acquire(modelUri);
+		}
+	}
+
+	/**
+	 * Newline-delimited {@link CompletionResult} objects read lazily from an open
+	 * response body.
+	 */
+	private record CompletionResultStream(ClientHttpResponse response, MappingIterator<CompletionResult> results,
+			@Nullable YandexCredentialPool.Lease lease) implements Iterable<CompletionResult> {
+
+		@Override
+		public Iterator<CompletionResult> iterator() {
+			return this.results;
+		}
+
+		void close() {
+			try {
+				this.results.close();
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+			finally {
+				this.response.close();
+				if (this.lease != null) {
+					this.lease.release(null);
+				}
+			}
+		}
+
 	}
 
 }
@@ -0,0 +1,273 @@
+package io.github.abudanov.springframework.ai.yandex.api;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP transport shared by the Yandex API clients: a single JDK {@link HttpClient} that
+ * multiplexes requests over HTTP/2 connections and keeps HTTP/1.1 connections alive,
+ * with connect and read timeouts. The number of requests in flight, each of which holds
+ * a connection or an HTTP/2 stream until its response is closed, is bounded by
+ * {@code maxConnections}; further requests wait for a slot up to the acquire timeout.
+ * <p>
+ * The JDK client reads its idle connection timeout, 30 seconds by default, from the
+ * {@code jdk.httpclient.keepalive.timeout} system property once for the whole JVM. Set it
+ * on the command line, {@code -Djdk.httpclient.keepalive.timeout=300} for example, to
+ * keep idle connections open longer.
+ * <p>
+ * Closing the transport shuts down the executor it was given.
+ */
+public class YandexHttpTransport implements AutoCloseable {
+
+	public static final int DEFAULT_MAX_CONNECTIONS = 64;
+
+	public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+	public static final Duration DEFAULT_READ_TIMEOUT = Duration.ofMinutes(2);
+
+	public static final Duration DEFAULT_ACQUIRE_TIMEOUT = Duration.ofSeconds(30);
+
+	private final HttpClient httpClient;
+
+	private final Executor executor;
+
+	private final JdkClientHttpRequestFactory requestFactory;
+
+	private final int maxConnections;
+
+	private final long acquireTimeoutNanos;
+
+	private final Semaphore connections;
+
+	private final LongAdder pendingRequests = new LongAdder();
+
+	private final LongAdder requestCount = new LongAdder();
+
+	private final LongAdder acquireTimeoutCount = new LongAdder();
+
+	public YandexHttpTransport() {
+		this(DEFAULT_MAX_CONNECTIONS, DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT, DEFAULT_ACQUIRE_TIMEOUT,
+				HttpClient.Version.HTTP_2);
+	}
+
+	/**
+	 * Creates the transport.
+	 * @param maxConnections the maximum number of requests in flight
+	 * @param connectTimeout the timeout of establishing a connection
+	 * @param readTimeout the timeout of receiving the response
+	 * @param acquireTimeout the maximum wait for a slot when all of them are in use
+	 * @param version the preferred HTTP version
+	 */
+	public YandexHttpTransport(int maxConnections, Duration connectTimeout, Duration readTimeout,
+			Duration acquireTimeout, HttpClient.Version version) {
+		this(maxConnections, connectTimeout, readTimeout, acquireTimeout, version, null);
+	}
+
+	/**
+	 * Creates the transport.
+	 * @param maxConnections the maximum number of requests in flight
+	 * @param connectTimeout the timeout of establishing a connection
+	 * @param readTimeout the timeout of receiving the response
+	 * @param acquireTimeout the maximum wait for a slot when all of them are in use
+	 * @param version the preferred HTTP version
+	 * @param executor the executor of the asynchronous tasks of the HTTP client, a
+	 * virtual-thread-per-task executor for example, or {@code null} for the default one;
+	 * an {@link ExecutorService} is shut down when the transport is closed
+	 */
+	public YandexHttpTransport(int maxConnections, Duration connectTimeout, Duration readTimeout,
+			Duration acquireTimeout, HttpClient.Version version, @Nullable Executor executor) {
+		Assert.isTrue(maxConnections > 0, "Max connections must be positive");
+		Assert.notNull(connectTimeout, "Connect timeout must not be null");
+		Assert.notNull(readTimeout, "Read timeout must not be null");
+		Assert.isTrue(acquireTimeout != null && !acquireTimeout.isNegative(), "Acquire timeout must not be negative");
+		Assert.notNull(version, "Version must not be null");
+		var httpClientBuilder = HttpClient.newBuilder()
+			.version(version)
+			.connectTimeout(connectTimeout)
+			.followRedirects(HttpClient.Redirect.NORMAL);
+		if (executor != null) {
+			httpClientBuilder.executor(executor);
+		}
+		this.httpClient = httpClientBuilder.build();
+		this.executor = executor;
+		this.requestFactory = new JdkClientHttpRequestFactory(this.httpClient);
+		this.requestFactory.setReadTimeout(readTimeout);
+		this.maxConnections = maxConnections;
+		this.acquireTimeoutNanos = acquireTimeout.toNanos();
+		this.connections = new Semaphore(maxConnections, true);
+	}
+
+	/**
+	 * Makes the builder send its requests through this transport.
+	 * @param restClientBuilder the builder to customize
+	 * @return the builder
+	 */
+	public RestClient.Builder apply(RestClient.Builder restClientBuilder) {
+		return restClientBuilder.requestFactory(this.requestFactory).requestInterceptor(this::intercept);
+	}
+
+	public HttpClient getHttpClient() {
+		return this.httpClient;
+	}
+
+	/**
+	 * Returns the executor given to the HTTP client, which the clients sharing the
+	 * transport can use for their own blocking calls.
+	 * @return the executor, or {@code null} if the HTTP client uses its default one
+	 */
+	@Nullable
+	public Executor getExecutor() {
+		return this.executor;
+	}
+
+	public ClientHttpRequestFactory getRequestFactory() {
+		return this.requestFactory;
+	}
+
+	public int getMaxConnections() {
+		return this.maxConnections;
+	}
+
+	/**
+	 * Returns the number of requests in flight.
+	 * @return the number of slots in use
+	 */
+	public int getActiveConnections() {
+		return this.maxConnections - this.connections.availablePermits();
+	}
+
+	/**
+	 * Returns the number of requests waiting for a slot.
+	 * @return the number of pending requests
+	 */
+	public long getPendingRequests() {
+		return this.pendingRequests.sum();
+	}
+
+	public long getRequestCount() {
+		return this.requestCount.sum();
+	}
+
+	/**
+	 * Returns the number of requests that gave up waiting for a slot.
+	 * @return the number of acquire timeouts
+	 */
+	public long getAcquireTimeoutCount() {
+		return this.acquireTimeoutCount.sum();
+	}
+
+	/**
+	 * Shuts down the executor given to the transport, if it is an
+	 * {@link ExecutorService}. The requests in flight are let finish.
+	 */
+	@Override
+	public void close() {
+		if (this.executor instanceof ExecutorService executorService) {
+			executorService.shutdown();
+		}
+	}
+
+	private ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+			throws IOException {
+		acquire(request);
+		try {
+			this.requestCount.increment();
+			return new ReleasingResponse(execution.execute(request, body), this.connections);
+		}
+		catch (IOException | RuntimeException | Error ex) {
+			this.connections.release();
+			throw ex;
+		}
+	}
+
+	private void acquire(HttpRequest request) throws IOException {
+		this.pendingRequests.increment();
+		try {
+			if (!this.connections.tryAcquire(this.acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+				this.acquireTimeoutCount.increment();
+				throw new IOException("No connection available for " + request.getURI() + " within "
+						+ Duration.ofNanos(this.acquireTimeoutNanos));
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for a connection");
+		}
+		finally {
+			this.pendingRequests.decrement();
+		}
+	}
+
+	/**
+	 * Gives the slot back once the response body is closed, which for a streamed
+	 * response happens long after the interceptor has returned.
+	 */
+	private static final class ReleasingResponse implements ClientHttpResponse {
+
+		private final ClientHttpResponse delegate;
+
+		private final Semaphore connections;
+
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		private ReleasingResponse(ClientHttpResponse delegate, Semaphore connections) {
+			this.delegate = delegate;
+			this.connections = connections;
+		}
+
+		@Override
+		public HttpStatusCode getStatusCode() throws IOException {
+			return this.delegate.getStatusCode();
+		}
+
+		@Override
+		public String getStatusText() throws IOException {
+			return this.delegate.getStatusText();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return this.delegate.getHeaders();
+		}
+
+		@Override
+		public InputStream getBody() throws IOException {
+			return this.delegate.getBody();
+		}
+
+		@Override
+		public void close() {
+			try {
+				this.delegate.close();
+			}
+			finally {
+				if (this.released.compareAndSet(false, true)) {
+					this.connections.release();
+				}
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,140 @@
+package io.github.abudanov.springframework.ai.yandex.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionRequest;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionResult;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.Operation;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.TextEmbeddingRequest;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.TextEmbeddingResponse;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.TokenizeRequest;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.TokenizeResponse;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * JSON codec of the {@link YandexApi} records. The readers and writers are built once,
+ * so a call does not resolve Jackson serializers, and embeddings are read straight into
+ * {@code float[]} by the {@link TextEmbeddingResponseDeserializer}.
+ */
+public final class YandexJsonCodec {
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+		.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+		.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+		.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+	private static final Map<Class<?>, ObjectReader> READERS = Map.of(CompletionResult.class,
+			OBJECT_MAPPER.readerFor(CompletionResult.class), TextEmbeddingResponse.class,
+			OBJECT_MAPPER.readerFor(TextEmbeddingResponse.class), Operation.class,
+			OBJECT_MAPPER.readerFor(Operation.class), TokenizeResponse.class,
+			OBJECT_MAPPER.readerFor(TokenizeResponse.class));
+
+	private static final Map<Class<?>, ObjectWriter> WRITERS = Map.of(CompletionRequest.class,
+			OBJECT_MAPPER.writerFor(CompletionRequest.class), TextEmbeddingRequest.class,
+			OBJECT_MAPPER.writerFor(TextEmbeddingRequest.class), TokenizeRequest.class,
+			OBJECT_MAPPER.writerFor(TokenizeRequest.class));
+
+	private static final HttpMessageConverter<Object> MESSAGE_CONVERTER = new MessageConverter();
+
+	private YandexJsonCodec() {
+	}
+
+	/**
+	 * Returns the message converter reading and writing the {@link YandexApi} records, to
+	 * be registered ahead of the generic Jackson converter.
+	 * @return the message converter
+	 */
+	public static HttpMessageConverter<Object> messageConverter() {
+		return MESSAGE_CONVERTER;
+	}
+
+	/**
+	 * Returns the object mapper the readers and writers are built from, for the codecs
+	 * of the {@link ReactiveYandexApi}.
+	 */
+	static ObjectMapper objectMapper() {
+		return OBJECT_MAPPER;
+	}
+
+	/**
+	 * Returns the prebuilt reader of the given type, or a new one for other types.
+	 * @param type the type to read
+	 * @return the object reader
+	 */
+	public static ObjectReader reader(Class<?> type) {
+		var reader = READERS.get(type);
+		return (reader != null) ? reader : OBJECT_MAPPER.readerFor(type);
+	}
+
+	/**
+	 * Returns the prebuilt writer of the given type, or a new one for other types.
+	 * @param type the type to write
+	 * @return the object writer
+	 */
+	public static ObjectWriter writer(Class<?> type) {
+		var writer = WRITERS.get(type);
+		return (writer != null) ? writer : OBJECT_MAPPER.writerFor(type);
+	}
+
+	public static <T> T read(InputStream inputStream, Class<T> type) throws IOException {
+		return reader(type).readValue(inputStream);
+	}
+
+	public static byte[] write(Object value) throws IOException {
+		return writer(value.getClass()).writeValueAsBytes(value);
+	}
+
+	private static final class MessageConverter extends AbstractHttpMessageConverter<Object> {
+
+		private MessageConverter() {
+			super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+		}
+
+		@Override
+		protected boolean supports(Class<?> clazz) {
+			return READERS.containsKey(clazz) || WRITERS.containsKey(clazz);
+		}
+
+		@Override
+		public boolean canRead(Class<?> clazz, MediaType mediaType) {
+			return READERS.containsKey(clazz) && canRead(mediaType);
+		}
+
+		@Override
+		public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+			return WRITERS.containsKey(clazz) && canWrite(mediaType);
+		}
+
+		@Override
+		protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+			try {
+				return READERS.get(clazz).readValue(inputMessage.getBody());
+			}
+			catch (JsonProcessingException ex) {
+				throw new HttpMessageNotReadableException("JSON parse error: " + ex.getOriginalMessage(), ex,
+						inputMessage);
+			}
+		}
+
+		@Override
+		protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+			WRITERS.get(value.getClass()).writeValue(outputMessage.getBody(), value);
+		}
+
+	}
+
+}
@@ -0,0 +1,35 @@
+package io.github.abudanov.springframework.ai.yandex.auth;
+
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * A short-lived IAM token of a Yandex Cloud account.
+ *
+ * @param token the token, sent as a {@code Bearer} token
+ * @param expiresAt the time the token expires at
+ */
+public record IamToken(String token, Instant expiresAt) {
+
+	public IamToken {
+		Assert.hasText(token, "Token must not be empty");
+		Assert.notNull(expiresAt, "Expiration time must not be null");
+	}
+
+	/**
+	 * Whether the token is still valid for at least the given time.
+	 * @param margin the minimum remaining validity
+	 * @return {@code true} if the token does not expire within the margin
+	 */
+	public boolean isValidFor(Duration margin) {
+		return Instant.now().plus(margin).isBefore(this.expiresAt);
+	}
+
+	@Override
+	public String toString() {
+		return "IamToken[expiresAt=" + this.expiresAt + "]";
+	}
+
+}
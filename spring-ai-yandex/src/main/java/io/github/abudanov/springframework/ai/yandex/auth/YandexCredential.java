@@ -0,0 +1,41 @@
+package io.github.abudanov.springframework.ai.yandex.auth;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * The API key of a service account and the folder its requests are billed and limited
+ * to. Without an API key, requests are authorized with the IAM token of the client.
+ *
+ * @param folderId the ID of the folder
+ * @param apiKey the API key, or {@code null} to use the IAM token of the client
+ * @param weight the share of the requests sent with this credential relative to the
+ * other credentials of a {@link YandexCredentialPool}
+ */
+public record YandexCredential(String folderId, @Nullable String apiKey, int weight) {
+
+	public YandexCredential {
+		Assert.hasText(folderId, "Folder ID must not be empty");
+		Assert.isTrue(weight > 0, "Weight must be positive");
+	}
+
+	public YandexCredential(String folderId, @Nullable String apiKey) {
+		this(folderId, apiKey, 1);
+	}
+
+	/**
+	 * Returns the value of the {@code Authorization} header.
+	 * @return the header value, or {@code null} without an API key
+	 */
+	@Nullable
+	public String authorization() {
+		return StringUtils.hasText(this.apiKey) ? "Api-Key " + this.apiKey : null;
+	}
+
+	@Override
+	public String toString() {
+		return "YandexCredential[folderId=" + this.folderId + ", weight=" + this.weight + "]";
+	}
+
+}
@@ -0,0 +1,224 @@
+package io.github.abudanov.springframework.ai.yandex.auth;
+
+import io.github.abudanov.springframework.ai.yandex.retry.YandexApiException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Spreads the requests over the credentials of several folders, so that the throughput
+ * is bounded by the sum of their quotas rather than by the quota of one folder.
+ * <p>
+ * The credentials are leased in smooth weighted round-robin, as in nginx: each credential
+ * gets a share of the requests proportional to its weight, interleaved with the others
+ * rather than in bursts, ties being broken by the number of requests in flight. A
+ * credential answered with {@code 429 Too Many Requests} is ejected for the
+ * {@code Retry-After} delay, or the ejection duration if longer, and only used again when
+ * every credential is ejected.
+ * <p>
+ * The folder of a model URI is replaced by the folder of the leased credential when it
+ * is one of the folders of the pool, so the same model is requested in every folder.
+ * Deferred completions are not balanced, their operations being only readable with the
+ * credential that started them.
+ */
+public class YandexCredentialPool {
+
+	private static final Logger logger = LoggerFactory.getLogger(YandexCredentialPool.class);
+
+	public static final String FOLDER_ID_HEADER = "x-folder-id";
+
+	public static final Duration DEFAULT_EJECTION_DURATION = Duration.ofSeconds(10);
+
+	private final Member[] members;
+
+	private final long ejectionNanos;
+
+	/**
+	 * Guards the current weights of the members.
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	public YandexCredentialPool(List<YandexCredential> credentials) {
+		this(credentials, DEFAULT_EJECTION_DURATION);
+	}
+
+	/**
+	 * Creates a pool.
+	 * @param credentials the credentials, the first one being the primary one
+	 * @param ejectionDuration the minimum time a throttled credential is not used for
+	 */
+	public YandexCredentialPool(List<YandexCredential> credentials, Duration ejectionDuration) {
+		Assert.notEmpty(credentials, "Credentials must not be empty");
+		Assert.noNullElements(credentials, "Credentials must not contain null elements");
+		Assert.isTrue(ejectionDuration != null && !ejectionDuration.isNegative(),
+				"Ejection duration must not be negative");
+		this.members = credentials.stream().map(Member::new).toArray(Member[]::new);
+		this.ejectionNanos = ejectionDuration.toNanos();
+	}
+
+	/**
+	 * Returns the first credential, used for the requests that are not balanced.
+	 * @return the primary credential
+	 */
+	public YandexCredential primary() {
+		return this.members[0].credential;
+	}
+
+	/**
+	 * Leases the next credential that is not ejected. The lease must be released once
+	 * the response is received.
+	 * @return the lease
+	 */
+	public Lease acquire() {
+		long now = System.nanoTime();
+		Member selected = null;
+		Member leastEjected = null;
+		this.lock.lock();
+		try {
+			long totalWeight = 0;
+			for (var member : this.members) {
+				if (member.ejectedUntil - now > 0) {
+					if (leastEjected == null || member.ejectedUntil - leastEjected.ejectedUntil < 0) {
+						leastEjected = member;
+					}
+					continue;
+				}
+				member.currentWeight += member.credential.weight();
+				totalWeight += member.credential.weight();
+				if (selected == null || member.currentWeight > selected.currentWeight
+						|| (member.currentWeight == selected.currentWeight
+								&& member.inFlight.get() < selected.inFlight.get())) {
+					selected = member;
+				}
+			}
+			if (selected != null) {
+				selected.currentWeight -= totalWeight;
+			}
+		}
+		finally {
+			this.lock.unlock();
+		}
+		if (selected == null) {
+			selected = leastEjected;
+		}
+		selected.inFlight.incrementAndGet();
+		return new Lease(selected);
+	}
+
+	/**
+	 * Returns the model URI to request with a credential.
+	 * @param modelUri the model URI, such as {@code gpt://<folder>/yandexgpt/latest}
+	 * @param credential the leased credential
+	 * @return the model URI in the folder of the credential if its folder is one of the
+	 * pool, the model URI itself otherwise
+	 */
+	public String modelUri(String modelUri, YandexCredential credential) {
+		if (modelUri == null) {
+			return null;
+		}
+		int start = modelUri.indexOf("://");
+		if (start < 0) {
+			return modelUri;
+		}
+		start += 3;
+		int end = modelUri.indexOf('/', start);
+		if (end < 0) {
+			return modelUri;
+		}
+		var folderId = modelUri.substring(start, end);
+		if (folderId.equals(credential.folderId()) || !contains(folderId)) {
+			return modelUri;
+		}
+		return modelUri.substring(0, start) + credential.folderId() + modelUri.substring(end);
+	}
+
+	private boolean contains(String folderId) {
+		for (var member : this.members) {
+			if (member.credential.folderId().equals(folderId)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static final class Member {
+
+		private final YandexCredential credential;
+
+		private final AtomicInteger inFlight = new AtomicInteger();
+
+		private volatile long ejectedUntil;
+
+		/**
+		 * The current weight of the smooth weighted round-robin, guarded by the lock of
+		 * the pool.
+		 */
+		private long currentWeight;
+
+		Member(YandexCredential credential) {
+			this.credential = credential;
+			this.ejectedUntil = System.nanoTime();
+		}
+
+	}
+
+	/**
+	 * A credential leased for one request. Only the first release counts.
+	 */
+	public final class Lease {
+
+		private final Member member;
+
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		Lease(Member member) {
+			this.member = member;
+		}
+
+		public YandexCredential credential() {
+			return this.member.credential;
+		}
+
+		/**
+		 * Sets the authorization and folder headers of the request. The authorization
+		 * header is left to the client for a credential without an API key.
+		 * @param headers the headers of the request
+		 */
+		public void authorize(HttpHeaders headers) {
+			var authorization = this.member.credential.authorization();
+			if (authorization != null) {
+				headers.set(HttpHeaders.AUTHORIZATION, authorization);
+			}
+			headers.set(FOLDER_ID_HEADER, this.member.credential.folderId());
+		}
+
+		/**
+		 * Releases the credential, ejecting it if the request was throttled.
+		 * @param error the error the request failed with, {@code null} if it succeeded
+		 */
+		public void release(@Nullable Throwable error) {
+			if (!this.released.compareAndSet(false, true)) {
+				return;
+			}
+			this.member.inFlight.decrementAndGet();
+			if (error instanceof YandexApiException apiException && apiException.getStatusCode().value() == 429) {
+				var retryAfter = apiException.getRetryAfter();
+				long ejection = Math.max(YandexCredentialPool.this.ejectionNanos,
+						(retryAfter != null) ? retryAfter.toNanos() : 0);
+				this.member.ejectedUntil = System.nanoTime() + ejection;
+				logger.warn("Ejected the credential of folder {} for {} ms after it was throttled",
+						this.member.credential.folderId(), Duration.ofNanos(ejection).toMillis());
+			}
+		}
+
+	}
+
+}
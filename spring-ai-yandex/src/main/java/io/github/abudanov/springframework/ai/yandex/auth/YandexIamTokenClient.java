@@ -0,0 +1,100 @@
+package io.github.abudanov.springframework.ai.yandex.auth;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.github.abudanov.springframework.ai.yandex.retry.YandexResponseErrorHandler;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.web.client.RestClient;
+
+import java.time.Instant;
+
+/**
+ * Client of the Yandex Cloud IAM token endpoint, exchanging a service account key or an
+ * OAuth token for an {@link IamToken}. Error responses are reported as by the
+ * {@link YandexResponseErrorHandler}.
+ */
+public class YandexIamTokenClient {
+
+	public static final String DEFAULT_TOKEN_URL = "https://iam.api.cloud.yandex.net/iam/v1/tokens";
+
+	private final RestClient restClient;
+
+	private final String tokenUrl;
+
+	public YandexIamTokenClient(RestClient.Builder restClientBuilder) {
+		this(DEFAULT_TOKEN_URL, restClientBuilder);
+	}
+
+	/**
+	 * Creates the client.
+	 * @param tokenUrl the URL of the IAM token endpoint
+	 * @param restClientBuilder the builder of the underlying {@link RestClient}
+	 */
+	public YandexIamTokenClient(String tokenUrl, RestClient.Builder restClientBuilder) {
+		Assert.hasText(tokenUrl, "Token URL must not be empty");
+		this.tokenUrl = tokenUrl;
+		this.restClient = restClientBuilder.defaultStatusHandler(new YandexResponseErrorHandler()).build();
+	}
+
+	/**
+	 * Exchanges a JWT signed with a service account key for an IAM token. The JWT is
+	 * addressed to {@link #DEFAULT_TOKEN_URL}, the audience Yandex Cloud expects.
+	 * @param key the authorized key of the service account
+	 * @return the IAM token
+	 */
+	public IamToken createToken(YandexServiceAccountKey key) {
+		Assert.notNull(key, "Service account key must not be null");
+		return createToken(new CreateTokenRequest(null, key.createJwt(DEFAULT_TOKEN_URL, Instant.now())));
+	}
+
+	/**
+	 * Exchanges the OAuth token of a Yandex account for an IAM token.
+	 * @param oauthToken the OAuth token
+	 * @return the IAM token
+	 */
+	public IamToken createToken(String oauthToken) {
+		Assert.hasText(oauthToken, "OAuth token must not be empty");
+		return createToken(new CreateTokenRequest(oauthToken, null));
+	}
+
+	private IamToken createToken(CreateTokenRequest request) {
+		var response = this.restClient.post()
+			.uri(this.tokenUrl)
+			.contentType(MediaType.APPLICATION_JSON)
+			.body(request)
+			.retrieve()
+			.body(CreateTokenResponse.class);
+		if (response == null || response.iamToken() == null || response.expiresAt() == null) {
+			throw new IllegalStateException("No IAM token returned by " + this.tokenUrl);
+		}
+		return new IamToken(response.iamToken(), Instant.parse(response.expiresAt()));
+	}
+
+	/**
+	 * Request of an IAM token, with exactly one of the credentials set.
+	 *
+	 * @param yandexPassportOauthToken The OAuth token of a Yandex account.
+	 * @param jwt The JWT signed with a service account key.
+	 */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	public record CreateTokenRequest(
+			@JsonProperty("yandexPassportOauthToken") @Nullable String yandexPassportOauthToken,
+			@JsonProperty("jwt") @Nullable String jwt) {
+
+	}
+
+	/**
+	 * An issued IAM token.
+	 *
+	 * @param iamToken The IAM token.
+	 * @param expiresAt The expiration time of the token, in RFC 3339 format.
+	 */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	public record CreateTokenResponse(@JsonProperty("iamToken") String iamToken,
+			@JsonProperty("expiresAt") String expiresAt) {
+
+	}
+
+}
@@ -0,0 +1,243 @@
+package io.github.abudanov.springframework.ai.yandex.auth;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Caches the IAM token shared by the Yandex clients and refreshes it in the background,
+ * so that calls never wait for a token once the first one is fetched.
+ * <p>
+ * A refresh is scheduled after the refresh interval, or half the remaining lifetime of
+ * the token if shorter, shortened by a random share of up to the jitter so that the
+ * instances of an application do not refresh at the same time. A failed refresh is
+ * retried with an exponential backoff while the current token is still valid. Only one
+ * refresh runs at a time: callers finding no valid token wait for the refresh in
+ * progress instead of starting their own.
+ */
+public class YandexIamTokenProvider implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(YandexIamTokenProvider.class);
+
+	/**
+	 * Yandex Cloud recommends refreshing IAM tokens every hour, although they are valid
+	 * for up to 12 hours.
+	 */
+	public static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofHours(1);
+
+	public static final double DEFAULT_JITTER = 0.1;
+
+	/**
+	 * The remaining validity under which a cached token is no longer used.
+	 */
+	private static final Duration EXPIRY_MARGIN = Duration.ofMinutes(1);
+
+	private static final long MIN_RETRY_DELAY_MILLIS = 1_000;
+
+	private static final long MAX_RETRY_DELAY_MILLIS = 60_000;
+
+	private final Supplier<IamToken> tokenSource;
+
+	private final long refreshIntervalMillis;
+
+	private final double jitter;
+
+	private final ScheduledExecutorService scheduler;
+
+	/**
+	 * Guards the refresh in progress, the scheduled refresh and the failure count.
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private volatile IamToken token;
+
+	private CompletableFuture<IamToken> refresh;
+
+	private ScheduledFuture<?> scheduledRefresh;
+
+	private int failures;
+
+	private boolean closed;
+
+	public YandexIamTokenProvider(Supplier<IamToken> tokenSource) {
+		this(tokenSource, DEFAULT_REFRESH_INTERVAL, DEFAULT_JITTER);
+	}
+
+	/**
+	 * Creates a token provider. No token is fetched until the first one is requested.
+	 * @param tokenSource fetches a new token, such as
+	 * {@link YandexIamTokenClient#createToken(YandexServiceAccountKey)}
+	 * @param refreshInterval the maximum age of the token before it is refreshed
+	 * @param jitter the maximum share the refresh delays are randomly shortened by,
+	 * between 0 and 1
+	 */
+	public YandexIamTokenProvider(Supplier<IamToken> tokenSource, Duration refreshInterval, double jitter) {
+		Assert.notNull(tokenSource, "Token source must not be null");
+		Assert.isTrue(refreshInterval != null && refreshInterval.toMillis() > 0, "Refresh interval must be positive");
+		Assert.isTrue(jitter >= 0 && jitter < 1, "Jitter must be in [0, 1)");
+		this.tokenSource = tokenSource;
+		this.refreshIntervalMillis = refreshInterval.toMillis();
+		this.jitter = jitter;
+		var threadFactory = new CustomizableThreadFactory("yandex-iam-token-");
+		threadFactory.setDaemon(true);
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+	}
+
+	/**
+	 * Returns a valid token, fetching one if none is cached.
+	 * @return the IAM token
+	 */
+	public String getToken() {
+		var cached = getCachedToken();
+		return (cached != null) ? cached : refresh().token();
+	}
+
+	/**
+	 * Returns the cached token if it is still valid, without blocking.
+	 * @return the IAM token, or {@code null} if a token must be fetched
+	 */
+	@Nullable
+	public String getCachedToken() {
+		var token = this.token;
+		return (token != null && token.isValidFor(EXPIRY_MARGIN)) ? token.token() : null;
+	}
+
+	@Override
+	public void close() {
+		this.lock.lock();
+		try {
+			this.closed = true;
+		}
+		finally {
+			this.lock.unlock();
+		}
+		this.scheduler.shutdownNow();
+	}
+
+	/**
+	 * Fetches a token, or waits for the fetch in progress, and schedules the next
+	 * refresh.
+	 */
+	private IamToken refresh() {
+		CompletableFuture<IamToken> refresh;
+		boolean owner = false;
+		this.lock.lock();
+		try {
+			refresh = this.refresh;
+			if (refresh == null) {
+				refresh = new CompletableFuture<>();
+				this.refresh = refresh;
+				owner = true;
+			}
+		}
+		finally {
+			this.lock.unlock();
+		}
+		if (!owner) {
+			return await(refresh);
+		}
+		try {
+			var token = this.tokenSource.get();
+			this.token = token;
+			refresh.complete(token);
+			onRefreshed(token);
+			return token;
+		}
+		catch (RuntimeException ex) {
+			refresh.completeExceptionally(ex);
+			onFailed(ex);
+			throw ex;
+		}
+		finally {
+			this.lock.lock();
+			try {
+				this.refresh = null;
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+	}
+
+	private void onRefreshed(IamToken token) {
+		long lifetime = Duration.between(Instant.now(), token.expiresAt()).toMillis();
+		long delay = Math.min(this.refreshIntervalMillis, Math.max(lifetime / 2, MIN_RETRY_DELAY_MILLIS));
+		if (logger.isDebugEnabled()) {
+			logger.debug("Fetched an IAM token expiring at {}", token.expiresAt());
+		}
+		this.lock.lock();
+		try {
+			this.failures = 0;
+			schedule(delay);
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void onFailed(RuntimeException ex) {
+		this.lock.lock();
+		try {
+			long delay = Math.min(MIN_RETRY_DELAY_MILLIS << Math.min(this.failures, 16), MAX_RETRY_DELAY_MILLIS);
+			this.failures++;
+			// retried in the background only while callers can still use the current token
+			if (getCachedToken() != null) {
+				logger.warn("Failed to refresh the IAM token, retrying in {} ms", delay, ex);
+				schedule(delay);
+			}
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Replaces the scheduled refresh. Must be called with the lock held.
+	 */
+	private void schedule(long delayMillis) {
+		if (this.closed) {
+			return;
+		}
+		if (this.scheduledRefresh != null) {
+			this.scheduledRefresh.cancel(false);
+		}
+		long jittered = (long) (delayMillis * (1 - this.jitter * ThreadLocalRandom.current().nextDouble()));
+		this.scheduledRefresh = this.scheduler.schedule(this::refreshInBackground, jittered, TimeUnit.MILLISECONDS);
+	}
+
+	private void refreshInBackground() {
+		try {
+			refresh();
+		}
+		catch (RuntimeException ex) {
+			// logged and rescheduled by onFailed
+		}
+	}
+
+	private static IamToken await(CompletableFuture<IamToken> refresh) {
+		try {
+			return refresh.join();
+		}
+		catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw ex;
+		}
+	}
+
+}
@@ -0,0 +1,24 @@
+package io.github.abudanov.springframework.ai.yandex.cache;
+
+/**
+ * A snapshot of the {@link WeightedCache} statistics.
+ *
+ * @param hitCount The number of lookups that returned a cached value.
+ * @param missCount The number of lookups that found no live value.
+ * @param evictionCount The number of entries removed because the cache was full or
+ * their time to live has passed.
+ * @param size The number of entries currently held.
+ * @param weight The total weight of the entries currently held.
+ */
+public record CacheStats(long hitCount, long missCount, long evictionCount, long size, long weight) {
+
+	public long requestCount() {
+		return this.hitCount + this.missCount;
+	}
+
+	public double hitRatio() {
+		long requestCount = requestCount();
+		return (requestCount == 0) ? 1.0 : (double) this.hitCount / requestCount;
+	}
+
+}
@@ -0,0 +1,152 @@
+package io.github.abudanov.springframework.ai.yandex.cache;
+
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionMessage;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionRequest;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionResponse;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionStatus;
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+
+/**
+ * Caches completions by a SHA-256 hash of the canonical form of their request: the model
+ * URI, the temperature, the maximum number of tokens and the role and text of every
+ * message. Whether the request is streamed is not part of the key. Only final
+ * completions are cached, and the weight of an entry is an estimate of its size in bytes.
+ * <p>
+ * A completion is only reproducible at temperature {@code 0}, so callers should consult
+ * the cache for other requests only when explicitly asked to, see
+ * {@link #isDeterministic(CompletionRequest)}.
+ */
+public class ChatResponseCache {
+
+	public static final long DEFAULT_MAXIMUM_WEIGHT = 16L * 1024 * 1024;
+
+	public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofHours(1);
+
+	/**
+	 * Rough size of the objects holding a completion besides its text.
+	 */
+	private static final long ENTRY_OVERHEAD = 256;
+
+	private final WeightedCache<ContentHash, CompletionResponse> cache;
+
+	public ChatResponseCache() {
+		this(DEFAULT_MAXIMUM_WEIGHT, DEFAULT_TIME_TO_LIVE, EvictionPolicy.LRU);
+	}
+
+	public ChatResponseCache(long maximumWeight, Duration timeToLive, EvictionPolicy evictionPolicy) {
+		this.cache = new WeightedCache<>(maximumWeight, timeToLive, evictionPolicy, ChatResponseCache::weigh);
+	}
+
+	/**
+	 * Returns whether the request asks for a reproducible completion, that is whether
+	 * its temperature is {@code 0}. The API applies a non-zero default temperature when
+	 * none is set.
+	 * @param request the completion request
+	 * @return {@code true} if the completion of the request can be reused
+	 */
+	public static boolean isDeterministic(CompletionRequest request) {
+		var options = request.completionOptions();
+		return options != null && options.temperature() != null && options.temperature() == 0;
+	}
+
+	/**
+	 * Returns the cached completion of the request.
+	 * @param request the completion request
+	 * @return the cached completion or {@code null} if there is none
+	 */
+	public CompletionResponse get(CompletionRequest request) {
+		return this.cache.get(key(request));
+	}
+
+	/**
+	 * Caches the completion of the request unless one of its alternatives is not final.
+	 * @param request the completion request
+	 * @param response the completion
+	 */
+	public void put(CompletionRequest request, CompletionResponse response) {
+		Assert.notNull(response, "Response must not be null");
+		if (isFinal(response)) {
+			this.cache.put(key(request), response);
+		}
+	}
+
+	public void invalidateAll() {
+		this.cache.invalidateAll();
+	}
+
+	public CacheStats stats() {
+		return this.cache.stats();
+	}
+
+	private static boolean isFinal(CompletionResponse response) {
+		if (response.alternatives() == null || response.alternatives().isEmpty()) {
+			return false;
+		}
+		for (var alternative : response.alternatives()) {
+			if (alternative.message() == null || (alternative.status() != CompletionStatus.ALTERNATIVE_STATUS_FINAL
+					&& alternative.status() != CompletionStatus.ALTERNATIVE_STATUS_TRUNCATED_FINAL)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static long weigh(CompletionResponse response) {
+		long weight = ENTRY_OVERHEAD;
+		for (var alternative : response.alternatives()) {
+			var text = alternative.message().text();
+			weight += ENTRY_OVERHEAD + ((text != null) ? 2L * text.length() : 0);
+		}
+		return weight;
+	}
+
+	/**
+	 * Hashes the canonical form of the request.
+	 */
+	private static ContentHash key(CompletionRequest request) {
+		Assert.notNull(request, "Request must not be null");
+		Assert.notNull(request.modelUri(), "Model URI must not be null");
+		var digest = ContentHash.sha256();
+		update(digest, request.modelUri());
+		var options = request.completionOptions();
+		update(digest, (options != null && options.temperature() != null) ? Double.toString(options.temperature())
+				: null);
+		update(digest, (options != null && options.maxTokens() != null) ? Integer.toString(options.maxTokens())
+				: null);
+		var messages = request.messages();
+		update(digest, (messages != null) ? messages.size() : -1);
+		if (messages != null) {
+			for (CompletionMessage message : messages) {
+				update(digest, (message.role() != null) ? message.role().name() : null);
+				update(digest, message.text());
+			}
+		}
+		return ContentHash.of(digest);
+	}
+
+	/**
+	 * Hashes the length of the value before the value itself, so that different
+	 * sequences of values never share their canonical form.
+	 */
+	private static void update(MessageDigest digest, String value) {
+		if (value == null) {
+			update(digest, -1);
+			return;
+		}
+		var bytes = value.getBytes(StandardCharsets.UTF_8);
+		update(digest, bytes.length);
+		digest.update(bytes);
+	}
+
+	private static void update(MessageDigest digest, int value) {
+		digest.update((byte) (value >>> 24));
+		digest.update((byte) (value >>> 16));
+		digest.update((byte) (value >>> 8));
+		digest.update((byte) value);
+	}
+
+}
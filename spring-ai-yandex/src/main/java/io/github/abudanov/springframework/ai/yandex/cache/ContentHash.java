@@ -0,0 +1,36 @@
+package io.github.abudanov.springframework.ai.yandex.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The first 128 bits of the SHA-256 hash of a cached content, held by the cache keys
+ * instead of the content itself.
+ */
+record ContentHash(long high, long low) {
+
+	static ContentHash of(String text) {
+		return of(sha256().digest(text.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	static ContentHash of(MessageDigest digest) {
+		return of(digest.digest());
+	}
+
+	private static ContentHash of(byte[] hash) {
+		var buffer = ByteBuffer.wrap(hash);
+		return new ContentHash(buffer.getLong(), buffer.getLong());
+	}
+
+	static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
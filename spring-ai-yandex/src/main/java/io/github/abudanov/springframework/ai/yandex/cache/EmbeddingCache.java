@@ -0,0 +1,53 @@
+package io.github.abudanov.springframework.ai.yandex.cache;
+
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+
+/**
+ * Caches text embeddings by model URI and a SHA-256 hash of the text, so repeated texts
+ * do not pay for another {@code textEmbedding} call. The weight of an entry is the size
+ * of its vector in bytes.
+ */
+public class EmbeddingCache {
+
+	public static final long DEFAULT_MAXIMUM_WEIGHT = 64L * 1024 * 1024;
+
+	public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofHours(24);
+
+	private final WeightedCache<TextKey, float[]> cache;
+
+	public EmbeddingCache() {
+		this(DEFAULT_MAXIMUM_WEIGHT, DEFAULT_TIME_TO_LIVE, EvictionPolicy.LRU);
+	}
+
+	public EmbeddingCache(long maximumWeight, Duration timeToLive, EvictionPolicy evictionPolicy) {
+		this.cache = new WeightedCache<>(maximumWeight, timeToLive, evictionPolicy,
+				embedding -> (long) embedding.length * Float.BYTES);
+	}
+
+	/**
+	 * Returns the cached embedding of the text.
+	 * @param modelUri the URI of the embedding model
+	 * @param text the embedded text
+	 * @return a copy of the cached embedding or {@code null} if there is none
+	 */
+	public float[] get(String modelUri, String text) {
+		var embedding = this.cache.get(TextKey.of(modelUri, text));
+		return (embedding != null) ? embedding.clone() : null;
+	}
+
+	public void put(String modelUri, String text, float[] embedding) {
+		Assert.notNull(embedding, "Embedding must not be null");
+		this.cache.put(TextKey.of(modelUri, text), embedding.clone());
+	}
+
+	public void invalidateAll() {
+		this.cache.invalidateAll();
+	}
+
+	public CacheStats stats() {
+		return this.cache.stats();
+	}
+
+}
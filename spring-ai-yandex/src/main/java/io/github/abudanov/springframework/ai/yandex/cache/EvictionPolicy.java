@@ -0,0 +1,19 @@
+package io.github.abudanov.springframework.ai.yandex.cache;
+
+/**
+ * Order in which {@link WeightedCache} entries are evicted once the cache is full.
+ */
+public enum EvictionPolicy {
+
+	/**
+	 * Evict the least recently used entry.
+	 */
+	LRU,
+
+	/**
+	 * Evict the least frequently used entry, the least recently used one among entries
+	 * with the same frequency.
+	 */
+	LFU
+
+}
@@ -0,0 +1,16 @@
+package io.github.abudanov.springframework.ai.yandex.cache;
+
+import org.springframework.util.Assert;
+
+/**
+ * Cache key of a text processed by a model: the model URI and the hash of the text.
+ */
+record TextKey(String modelUri, ContentHash hash) {
+
+	static TextKey of(String modelUri, String text) {
+		Assert.notNull(modelUri, "Model URI must not be null");
+		Assert.notNull(text, "Text must not be null");
+		return new TextKey(modelUri, ContentHash.of(text));
+	}
+
+}
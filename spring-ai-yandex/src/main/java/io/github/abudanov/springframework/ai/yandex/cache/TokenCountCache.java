@@ -0,0 +1,51 @@
+package io.github.abudanov.springframework.ai.yandex.cache;
+
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+
+/**
+ * Caches the number of tokens of texts by model URI and a SHA-256 hash of the text, so
+ * system prompts and documents seen before are not tokenized again. Every entry weighs
+ * the same, the maximum weight is the maximum number of entries.
+ */
+public class TokenCountCache {
+
+	public static final long DEFAULT_MAXIMUM_SIZE = 100_000;
+
+	public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofHours(24);
+
+	private final WeightedCache<TextKey, Long> cache;
+
+	public TokenCountCache() {
+		this(DEFAULT_MAXIMUM_SIZE, DEFAULT_TIME_TO_LIVE, EvictionPolicy.LRU);
+	}
+
+	public TokenCountCache(long maximumSize, Duration timeToLive, EvictionPolicy evictionPolicy) {
+		this.cache = new WeightedCache<>(maximumSize, timeToLive, evictionPolicy, count -> 1);
+	}
+
+	/**
+	 * Returns the cached number of tokens of the text.
+	 * @param modelUri the URI of the model the text was tokenized for
+	 * @param text the tokenized text
+	 * @return the number of tokens or {@code null} if it is not cached
+	 */
+	public Long get(String modelUri, String text) {
+		return this.cache.get(TextKey.of(modelUri, text));
+	}
+
+	public void put(String modelUri, String text, long tokenCount) {
+		Assert.isTrue(tokenCount >= 0, "Token count must not be negative");
+		this.cache.put(TextKey.of(modelUri, text), tokenCount);
+	}
+
+	public void invalidateAll() {
+		this.cache.invalidateAll();
+	}
+
+	public CacheStats stats() {
+		return this.cache.stats();
+	}
+
+}
@@ -0,0 +1,308 @@
+package io.github.abudanov.springframework.ai.yandex.cache;
+
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * A bounded in-memory cache. The total weight of the entries never exceeds the maximum
+ * weight: entries are evicted according to the {@link EvictionPolicy} as new ones are
+ * added, and expire once their time to live since the last write has passed. The entry
+ * being added is never the one evicted, even when the others are used more often.
+ * <p>
+ * A {@link ReentrantLock} rather than {@code synchronized} guards the entries, so virtual
+ * threads are not pinned while waiting for it.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of cached values
+ */
+public class WeightedCache<K, V> {
+
+	private final long maximumWeight;
+
+	private final long timeToLiveNanos;
+
+	private final EvictionPolicy evictionPolicy;
+
+	private final ToLongFunction<V> weigher;
+
+	private final LongSupplier nanoClock;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Map<K, Node<K, V>> entries = new HashMap<>();
+
+	/**
+	 * Entries in eviction order, grouped by access frequency for {@link EvictionPolicy#LFU}
+	 * and kept in a single group for {@link EvictionPolicy#LRU}.
+	 */
+	private final TreeMap<Long, NodeList<K, V>> groups = new TreeMap<>();
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+	private long weight;
+
+	/**
+	 * Creates a cache.
+	 * @param maximumWeight the maximum total weight of the entries
+	 * @param timeToLive the time an entry is kept after it was written, {@code null} or
+	 * zero to keep entries until they are evicted
+	 * @param evictionPolicy the eviction policy
+	 * @param weigher computes the weight of a value
+	 */
+	public WeightedCache(long maximumWeight, Duration timeToLive, EvictionPolicy evictionPolicy,
+			ToLongFunction<V> weigher) {
+		this(maximumWeight, timeToLive, evictionPolicy, weigher, System::nanoTime);
+	}
+
+	/**
+	 * Creates a cache reading the time from the given clock.
+	 * @param nanoClock the source of {@link System#nanoTime()}-like time
+	 */
+	WeightedCache(long maximumWeight, Duration timeToLive, EvictionPolicy evictionPolicy, ToLongFunction<V> weigher,
+			LongSupplier nanoClock) {
+		Assert.isTrue(maximumWeight > 0, "Maximum weight must be positive");
+		Assert.isTrue(timeToLive == null || !timeToLive.isNegative(), "Time to live must not be negative");
+		Assert.notNull(evictionPolicy, "EvictionPolicy must not be null");
+		Assert.notNull(weigher, "Weigher must not be null");
+		Assert.notNull(nanoClock, "Nano clock must not be null");
+		this.maximumWeight = maximumWeight;
+		this.timeToLiveNanos = (timeToLive != null) ? timeToLive.toNanos() : 0;
+		this.evictionPolicy = evictionPolicy;
+		this.weigher = weigher;
+		this.nanoClock = nanoClock;
+	}
+
+	/**
+	 * Returns the live value cached for the key.
+	 * @param key the key
+	 * @return the value or {@code null} if there is none or it has expired
+	 */
+	public V get(K key) {
+		Assert.notNull(key, "Key must not be null");
+		this.lock.lock();
+		try {
+			var node = this.entries.get(key);
+			if (node != null && isExpired(node, this.nanoClock.getAsLong())) {
+				remove(node);
+				this.evictionCount.increment();
+				node = null;
+			}
+			if (node == null) {
+				this.missCount.increment();
+				return null;
+			}
+			touch(node);
+			this.hitCount.increment();
+			return node.value;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Caches the value for the key, evicting other entries when the cache gets too heavy.
+	 * A value heavier than the maximum weight is not cached.
+	 * @param key the key
+	 * @param value the value
+	 */
+	public void put(K key, V value) {
+		Assert.notNull(key, "Key must not be null");
+		Assert.notNull(value, "Value must not be null");
+		long valueWeight = this.weigher.applyAsLong(value);
+		Assert.isTrue(valueWeight >= 0, "Weight must not be negative");
+		this.lock.lock();
+		try {
+			var existing = this.entries.get(key);
+			if (existing != null) {
+				remove(existing);
+			}
+			if (valueWeight > this.maximumWeight) {
+				return;
+			}
+			long now = this.nanoClock.getAsLong();
+			var node = new Node<>(key, value, valueWeight,
+					(this.timeToLiveNanos > 0) ? now + this.timeToLiveNanos : Long.MAX_VALUE);
+			this.entries.put(key, node);
+			group(node.frequency).addLast(node);
+			this.weight += valueWeight;
+			evict(node, now);
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	public void invalidate(K key) {
+		this.lock.lock();
+		try {
+			var node = this.entries.get(key);
+			if (node != null) {
+				remove(node);
+			}
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	public void invalidateAll() {
+		this.lock.lock();
+		try {
+			this.entries.clear();
+			this.groups.clear();
+			this.weight = 0;
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	public CacheStats stats() {
+		this.lock.lock();
+		try {
+			return new CacheStats(this.hitCount.sum(), this.missCount.sum(), this.evictionCount.sum(),
+					this.entries.size(), this.weight);
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void evict(Node<K, V> added, long now) {
+		while (this.weight > this.maximumWeight) {
+			var groups = this.groups.values().iterator();
+			var eldest = groups.next().first();
+			if (eldest == added) {
+				// alone in the least frequently used group, a new entry would evict itself
+				eldest = groups.next().first();
+			}
+			remove(eldest);
+			this.evictionCount.increment();
+		}
+		// expired entries at the head of the eviction order go as well
+		var first = this.groups.firstEntry();
+		while (first != null && isExpired(first.getValue().first(), now)) {
+			remove(first.getValue().first());
+			this.evictionCount.increment();
+			first = this.groups.firstEntry();
+		}
+	}
+
+	private boolean isExpired(Node<K, V> node, long now) {
+		return node.expiresAt - now <= 0;
+	}
+
+	private void touch(Node<K, V> node) {
+		var group = this.groups.get(groupKey(node.frequency));
+		group.remove(node);
+		if (this.evictionPolicy == EvictionPolicy.LFU && group.isEmpty()) {
+			this.groups.remove(groupKey(node.frequency));
+		}
+		if (node.frequency < Long.MAX_VALUE) {
+			node.frequency++;
+		}
+		group(node.frequency).addLast(node);
+	}
+
+	private void remove(Node<K, V> node) {
+		this.entries.remove(node.key);
+		var group = this.groups.get(groupKey(node.frequency));
+		group.remove(node);
+		if (group.isEmpty()) {
+			this.groups.remove(groupKey(node.frequency));
+		}
+		this.weight -= node.weight;
+	}
+
+	private NodeList<K, V> group(long frequency) {
+		return this.groups.computeIfAbsent(groupKey(frequency), key -> new NodeList<>());
+	}
+
+	private long groupKey(long frequency) {
+		return (this.evictionPolicy == EvictionPolicy.LFU) ? frequency : 0;
+	}
+
+	private static final class Node<K, V> {
+
+		private final K key;
+
+		private final V value;
+
+		private final long weight;
+
+		private final long expiresAt;
+
+		private long frequency = 1;
+
+		private Node<K, V> previous;
+
+		private Node<K, V> next;
+
+		private Node(K key, V value, long weight, long expiresAt) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+			this.expiresAt = expiresAt;
+		}
+
+	}
+
+	private static final class NodeList<K, V> {
+
+		private Node<K, V> first;
+
+		private Node<K, V> last;
+
+		Node<K, V> first() {
+			return this.first;
+		}
+
+		boolean isEmpty() {
+			return this.first == null;
+		}
+
+		void addLast(Node<K, V> node) {
+			node.previous = this.last;
+			node.next = null;
+			if (this.last == null) {
+				this.first = node;
+			}
+			else {
+				this.last.next = node;
+			}
+			this.last = node;
+		}
+
+		void remove(Node<K, V> node) {
+			if (node.previous == null) {
+				this.first = node.next;
+			}
+			else {
+				node.previous.next = node.next;
+			}
+			if (node.next == null) {
+				this.last = node.previous;
+			}
+			else {
+				node.next.previous = node.previous;
+			}
+			node.previous = null;
+			node.next = null;
+		}
+
+	}
+
+}
@@ -0,0 +1,228 @@
+package io.github.abudanov.springframework.ai.yandex.metrics;
+
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link YandexMetricsRecorder} publishing to a Micrometer {@link MeterRegistry}:
+ * <ul>
+ * <li>{@code yandex.ai.requests}: a timer of the calls, with a percentile histogram and
+ * service level objective buckets, tagged with the completion status and the exception
+ * <li>{@code yandex.ai.requests.active}: the number of calls in flight
+ * <li>{@code yandex.ai.tokens}: a counter of the tokens consumed, tagged with the
+ * {@code input} or {@code output} type
+ * <li>{@code yandex.ai.retries}: a counter of the retries
+ * <li>{@code yandex.ai.hedges}: a counter of the hedged calls, tagged with the
+ * {@code won} or {@code lost} outcome of the hedge
+ * </ul>
+ * All meters are tagged with the operation, the model URI and the folder. The latency of
+ * a call includes its retries and, for streams and deferred completions, lasts until the
+ * last chunk or the operation result is received.
+ */
+public class MicrometerYandexMetricsRecorder implements YandexMetricsRecorder {
+
+	public static final String REQUESTS_METRIC = "yandex.ai.requests";
+
+	public static final String ACTIVE_REQUESTS_METRIC = "yandex.ai.requests.active";
+
+	public static final String TOKENS_METRIC = "yandex.ai.tokens";
+
+	public static final String RETRIES_METRIC = "yandex.ai.retries";
+
+	public static final String HEDGES_METRIC = "yandex.ai.hedges";
+
+	public static final Duration[] DEFAULT_SERVICE_LEVEL_OBJECTIVES = { Duration.ofMillis(100),
+			Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofMillis(2500),
+			Duration.ofSeconds(5), Duration.ofSeconds(10), Duration.ofSeconds(30), Duration.ofSeconds(60) };
+
+	private static final String NONE = "none";
+
+	private final MeterRegistry registry;
+
+	private final Duration[] serviceLevelObjectives;
+
+	private final Map<ModelKey, ModelMeters> modelMeters = new ConcurrentHashMap<>();
+
+	private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+	private final Map<HedgeKey, Counter> hedges = new ConcurrentHashMap<>();
+
+	public MicrometerYandexMetricsRecorder(MeterRegistry registry) {
+		this(registry, DEFAULT_SERVICE_LEVEL_OBJECTIVES);
+	}
+
+	/**
+	 * Creates a recorder.
+	 * @param registry the registry to publish to
+	 * @param serviceLevelObjectives the latency buckets to publish for alerting
+	 */
+	public MicrometerYandexMetricsRecorder(MeterRegistry registry, Duration... serviceLevelObjectives) {
+		Assert.notNull(registry, "MeterRegistry must not be null");
+		Assert.noNullElements(serviceLevelObjectives, "Service level objectives must not contain null elements");
+		this.registry = registry;
+		this.serviceLevelObjectives = serviceLevelObjectives.clone();
+	}
+
+	@Override
+	public Call start(Operation operation, String modelUri) {
+		var meters = meters(operation, modelUri);
+		meters.active().incrementAndGet();
+		return new MicrometerCall(meters, monotonicTime());
+	}
+
+	@Override
+	public void recordRetry(Operation operation, String modelUri) {
+		meters(operation, modelUri).retries().increment();
+	}
+
+	@Override
+	public void recordHedge(Operation operation, String modelUri, boolean won) {
+		var modelKey = new ModelKey(operation, modelUri);
+		var outcome = won ? "won" : "lost";
+		this.hedges
+			.computeIfAbsent(new HedgeKey(modelKey, outcome),
+					key -> Counter.builder(HEDGES_METRIC)
+						.description("Number of hedged Yandex Foundation Models calls")
+						.tags(modelKey.tags())
+						.tag("outcome", outcome)
+						.register(this.registry))
+			.increment();
+	}
+
+	private ModelMeters meters(Operation operation, String modelUri) {
+		return this.modelMeters.computeIfAbsent(new ModelKey(operation, modelUri), this::createMeters);
+	}
+
+	private ModelMeters createMeters(ModelKey key) {
+		var tags = key.tags();
+		var active = new AtomicInteger();
+		Gauge.builder(ACTIVE_REQUESTS_METRIC, active, AtomicInteger::get)
+			.description("Number of Yandex Foundation Models calls in flight")
+			.tags(tags)
+			.strongReference(true)
+			.register(this.registry);
+		var inputTokens = Counter.builder(TOKENS_METRIC)
+			.description("Number of tokens consumed by Yandex Foundation Models calls")
+			.baseUnit("tokens")
+			.tags(tags)
+			.tag("type", "input")
+			.register(this.registry);
+		var outputTokens = Counter.builder(TOKENS_METRIC)
+			.description("Number of tokens consumed by Yandex Foundation Models calls")
+			.baseUnit("tokens")
+			.tags(tags)
+			.tag("type", "output")
+			.register(this.registry);
+		var retries = Counter.builder(RETRIES_METRIC)
+			.description("Number of retried Yandex Foundation Models calls")
+			.tags(tags)
+			.register(this.registry);
+		return new ModelMeters(key, active, inputTokens, outputTokens, retries);
+	}
+
+	private Timer timer(ModelKey modelKey, String status, String exception) {
+		return this.timers.computeIfAbsent(new TimerKey(modelKey, status, exception),
+				key -> Timer.builder(REQUESTS_METRIC)
+					.description("Latency of Yandex Foundation Models calls")
+					.tags(modelKey.tags())
+					.tag("status", status)
+					.tag("exception", exception)
+					.publishPercentileHistogram()
+					.serviceLevelObjectives(this.serviceLevelObjectives)
+					.register(this.registry));
+	}
+
+	private long monotonicTime() {
+		return this.registry.config().clock().monotonicTime();
+	}
+
+	/**
+	 * Extracts the folder from a model URI such as {@code gpt://<folder>/yandexgpt/latest}.
+	 */
+	static String folder(String modelUri) {
+		if (modelUri == null) {
+			return NONE;
+		}
+		int start = modelUri.indexOf("://");
+		if (start < 0) {
+			return NONE;
+		}
+		start += 3;
+		int end = modelUri.indexOf('/', start);
+		return (end > start) ? modelUri.substring(start, end) : NONE;
+	}
+
+	private record ModelKey(Operation operation, String modelUri) {
+
+		Tags tags() {
+			return Tags.of("operation", this.operation.getValue(), "model.uri",
+					(this.modelUri != null) ? this.modelUri : NONE, "folder", folder(this.modelUri));
+		}
+	}
+
+	private record TimerKey(ModelKey modelKey, String status, String exception) {
+	}
+
+	private record HedgeKey(ModelKey modelKey, String outcome) {
+	}
+
+	private record ModelMeters(ModelKey key, AtomicInteger active, Counter inputTokens, Counter outputTokens,
+			Counter retries) {
+	}
+
+	private final class MicrometerCall implements Call {
+
+		private final ModelMeters meters;
+
+		private final long startTime;
+
+		private final AtomicBoolean done = new AtomicBoolean();
+
+		MicrometerCall(ModelMeters meters, long startTime) {
+			this.meters = meters;
+			this.startTime = startTime;
+		}
+
+		@Override
+		public void success(CompletionStatus status, Long inputTokens, Long outputTokens) {
+			if (!stop((status != null) ? status.name() : NONE, NONE)) {
+				return;
+			}
+			if (inputTokens != null && inputTokens > 0) {
+				this.meters.inputTokens().increment(inputTokens);
+			}
+			if (outputTokens != null && outputTokens > 0) {
+				this.meters.outputTokens().increment(outputTokens);
+			}
+		}
+
+		@Override
+		public void failure(Throwable error) {
+			stop("ERROR", (error != null) ? error.getClass().getSimpleName() : NONE);
+		}
+
+		private boolean stop(String status, String exception) {
+			if (!this.done.compareAndSet(false, true)) {
+				return false;
+			}
+			this.meters.active().decrementAndGet();
+			long duration = monotonicTime() - this.startTime;
+			timer(this.meters.key(), status, exception).record(duration, TimeUnit.NANOSECONDS);
+			return true;
+		}
+
+	}
+
+}
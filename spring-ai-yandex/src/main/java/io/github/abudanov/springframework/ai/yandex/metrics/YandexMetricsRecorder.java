@@ -0,0 +1,111 @@
+package io.github.abudanov.springframework.ai.yandex.metrics;
+
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi.CompletionStatus;
+import org.springframework.lang.Nullable;
+
+/**
+ * Records the Yandex-specific metrics of the chat and embedding models: the latency and
+ * outcome of each call, the calls in flight, the tokens consumed, the retries made and
+ * the hedged calls.
+ * The models report to {@link #NOOP} unless a recorder is set.
+ */
+public interface YandexMetricsRecorder {
+
+	/**
+	 * A recorder that records nothing.
+	 */
+	YandexMetricsRecorder NOOP = new YandexMetricsRecorder() {
+
+		@Override
+		public Call start(Operation operation, String modelUri) {
+			return Call.NOOP;
+		}
+
+		@Override
+		public void recordRetry(Operation operation, String modelUri) {
+		}
+
+	};
+
+	/**
+	 * Records the start of a call. The call is in flight until one of the methods of the
+	 * returned handle is invoked.
+	 * @param operation the kind of call
+	 * @param modelUri the URI of the model called
+	 * @return the handle to record the outcome of the call with
+	 */
+	Call start(Operation operation, String modelUri);
+
+	/**
+	 * Records a retry of a call.
+	 * @param operation the kind of call
+	 * @param modelUri the URI of the model called
+	 */
+	void recordRetry(Operation operation, String modelUri);
+
+	/**
+	 * Records a hedged call, see
+	 * {@link io.github.abudanov.springframework.ai.yandex.retry.YandexHedgingPolicy}.
+	 * @param operation the kind of call
+	 * @param modelUri the URI of the model called
+	 * @param won whether the result of the hedge was used
+	 */
+	default void recordHedge(Operation operation, String modelUri, boolean won) {
+	}
+
+	/**
+	 * The kinds of calls made to the Yandex Foundation Models API.
+	 */
+	enum Operation {
+
+		CHAT("chat"), CHAT_STREAM("chat_stream"), CHAT_DEFERRED("chat_deferred"), EMBEDDING("embedding");
+
+		private final String value;
+
+		Operation(String value) {
+			this.value = value;
+		}
+
+		public String getValue() {
+			return this.value;
+		}
+
+	}
+
+	/**
+	 * A call in flight. Only the first outcome recorded counts.
+	 */
+	interface Call {
+
+		/**
+		 * A call that records nothing.
+		 */
+		Call NOOP = new Call() {
+
+			@Override
+			public void success(CompletionStatus status, Long inputTokens, Long outputTokens) {
+			}
+
+			@Override
+			public void failure(Throwable error) {
+			}
+
+		};
+
+		/**
+		 * Records the successful end of the call.
+		 * @param status the status of the completion, {@code null} for embeddings
+		 * @param inputTokens the number of input tokens, if reported
+		 * @param outputTokens the number of generated tokens, if reported
+		 */
+		void success(@Nullable CompletionStatus status, @Nullable Long inputTokens, @Nullable Long outputTokens);
+
+		/**
+		 * Records the failure of the call.
+		 * @param error the error the call failed with
+		 */
+		void failure(Throwable error);
+
+	}
+
+}
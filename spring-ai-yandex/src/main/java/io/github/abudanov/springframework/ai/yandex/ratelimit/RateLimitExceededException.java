@@ -0,0 +1,19 @@
+package io.github.abudanov.springframework.ai.yandex.ratelimit;
+
+import org.springframework.ai.retry.NonTransientAiException;
+
+/**
+ * Thrown when a {@link YandexRateLimiter} permit is not available in time. It is not
+ * retried by the retry template: the caller asked not to wait longer.
+ */
+public class RateLimitExceededException extends NonTransientAiException {
+
+	public RateLimitExceededException(String message) {
+		super(message);
+	}
+
+	public RateLimitExceededException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
+}
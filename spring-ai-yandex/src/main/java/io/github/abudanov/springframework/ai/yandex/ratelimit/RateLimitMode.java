@@ -0,0 +1,23 @@
+package io.github.abudanov.springframework.ai.yandex.ratelimit;
+
+/**
+ * How a request waits for a permit of the {@link YandexRateLimiter}.
+ */
+public enum RateLimitMode {
+
+	/**
+	 * Wait as long as it takes to get a permit.
+	 */
+	BLOCKING,
+
+	/**
+	 * Wait up to the configured timeout, fail if the permit is not available by then.
+	 */
+	TIMED,
+
+	/**
+	 * Fail at once when no permit is available.
+	 */
+	FAIL_FAST
+
+}
@@ -0,0 +1,194 @@
+package io.github.abudanov.springframework.ai.yandex.ratelimit;
+
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A lock-free token bucket implemented as a generic cell rate algorithm: the only state
+ * is the theoretical arrival time of the next request, updated with a compare-and-set.
+ * A permit is reserved up front, so a waiting request holds its place in line without
+ * holding a lock.
+ */
+public class TokenBucket {
+
+	private final String key;
+
+	private final long intervalNanos;
+
+	private final long toleranceNanos;
+
+	private final int burst;
+
+	private final LongSupplier nanoClock;
+
+	private final AtomicLong theoreticalArrivalTime;
+
+	private final LongAdder acquiredCount = new LongAdder();
+
+	private final LongAdder rejectedCount = new LongAdder();
+
+	private final LongAdder waitCount = new LongAdder();
+
+	private final LongAdder totalWaitNanos = new LongAdder();
+
+	/**
+	 * Creates a full bucket.
+	 * @param key the key of the bucket
+	 * @param permitsPerSecond the sustained rate of permits
+	 * @param burst the number of permits that can be taken at once
+	 */
+	public TokenBucket(String key, double permitsPerSecond, int burst) {
+		this(key, permitsPerSecond, burst, System::nanoTime);
+	}
+
+	/**
+	 * Creates a full bucket reading the time from the given clock.
+	 * @param key the key of the bucket
+	 * @param permitsPerSecond the sustained rate of permits
+	 * @param burst the number of permits that can be taken at once
+	 * @param nanoClock the source of {@link System#nanoTime()}-like time
+	 */
+	TokenBucket(String key, double permitsPerSecond, int burst, LongSupplier nanoClock) {
+		Assert.isTrue(permitsPerSecond > 0, "Permits per second must be positive");
+		Assert.isTrue(burst > 0, "Burst must be positive");
+		Assert.notNull(nanoClock, "Nano clock must not be null");
+		this.key = key;
+		this.intervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+		this.toleranceNanos = this.intervalNanos * (burst - 1);
+		this.burst = burst;
+		this.nanoClock = nanoClock;
+		this.theoreticalArrivalTime = new AtomicLong(nanoClock.getAsLong());
+	}
+
+	/**
+	 * Takes a permit if one is available right now.
+	 * @return whether the permit was acquired
+	 */
+	public boolean tryAcquire() {
+		if (reserve(0) < 0) {
+			this.rejectedCount.increment();
+			return false;
+		}
+		this.acquiredCount.increment();
+		return true;
+	}
+
+	/**
+	 * Reserves a permit if it becomes available within the maximum wait and waits for it.
+	 * @param maxWaitNanos the maximum time to wait, {@code Long.MAX_VALUE} to wait as long
+	 * as it takes, {@code 0} not to wait at all
+	 * @return whether the permit was acquired
+	 * @throws InterruptedException if interrupted while waiting, the reserved permit
+	 * being given back
+	 */
+	public boolean tryAcquire(long maxWaitNanos) throws InterruptedException {
+		long waitNanos = tryReserve(maxWaitNanos);
+		if (waitNanos < 0) {
+			return false;
+		}
+		if (waitNanos > 0) {
+			try {
+				Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+			}
+			catch (InterruptedException ex) {
+				cancel(waitNanos);
+				throw ex;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Reserves a permit if it becomes available within the maximum wait, without
+	 * waiting for it. The caller must not use the permit before the returned time has
+	 * passed, which suits callers that cannot block, such as reactive pipelines.
+	 * @param maxWaitNanos the maximum time to wait, {@code Long.MAX_VALUE} to wait as long
+	 * as it takes, {@code 0} not to wait at all
+	 * @return the time to wait before using the permit, or {@code -1} if it was not
+	 * reserved
+	 */
+	public long tryReserve(long maxWaitNanos) {
+		long waitNanos = reserve(maxWaitNanos);
+		if (waitNanos < 0) {
+			this.rejectedCount.increment();
+			return -1;
+		}
+		if (waitNanos > 0) {
+			this.waitCount.increment();
+			this.totalWaitNanos.add(waitNanos);
+		}
+		this.acquiredCount.increment();
+		return waitNanos;
+	}
+
+	/**
+	 * Reserves a permit.
+	 * @return the time to wait before using the permit, or {@code -1} if the permit is
+	 * not available within the maximum wait and was not reserved
+	 */
+	private long reserve(long maxWaitNanos) {
+		while (true) {
+			long now = this.nanoClock.getAsLong();
+			long tat = this.theoreticalArrivalTime.get();
+			long waitNanos = Math.max(0, tat - this.toleranceNanos - now);
+			if (waitNanos > maxWaitNanos) {
+				return -1;
+			}
+			long next = Math.max(tat, now) + this.intervalNanos;
+			if (this.theoreticalArrivalTime.compareAndSet(tat, next)) {
+				return waitNanos;
+			}
+		}
+	}
+
+	/**
+	 * Gives back a permit reserved by {@link #tryReserve(long)} that will not be used,
+	 * moving the theoretical arrival time back by one interval.
+	 */
+	private void cancel(long waitNanos) {
+		this.theoreticalArrivalTime.addAndGet(-this.intervalNanos);
+		this.acquiredCount.decrement();
+		this.waitCount.decrement();
+		this.totalWaitNanos.add(-waitNanos);
+	}
+
+	public String getKey() {
+		return this.key;
+	}
+
+	/**
+	 * Returns the number of permits that can be taken right now without waiting.
+	 * @return the number of available permits
+	 */
+	public int getAvailablePermits() {
+		long now = this.nanoClock.getAsLong();
+		long tat = Math.max(this.theoreticalArrivalTime.get(), now);
+		long available = (now + this.toleranceNanos + this.intervalNanos - tat) / this.intervalNanos;
+		return (int) Math.max(0, Math.min(available, this.burst));
+	}
+
+	public long getAcquiredCount() {
+		return this.acquiredCount.sum();
+	}
+
+	public long getRejectedCount() {
+		return this.rejectedCount.sum();
+	}
+
+	/**
+	 * Returns the number of acquired permits that had to wait.
+	 * @return the number of waits
+	 */
+	public long getWaitCount() {
+		return this.waitCount.sum();
+	}
+
+	public Duration getTotalWaitTime() {
+		return Duration.ofNanos(this.totalWaitNanos.sum());
+	}
+
+}
@@ -0,0 +1,139 @@
+package io.github.abudanov.springframework.ai.yandex.ratelimit;
+
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Client-side rate limiter keeping requests within the Yandex quotas. Each model URI,
+ * which names both the folder and the model, gets its own {@link TokenBucket}, so
+ * bursts are smoothed out before they turn into {@code 429 Too Many Requests}
+ * responses.
+ */
+public class YandexRateLimiter {
+
+	public static final double DEFAULT_REQUESTS_PER_SECOND = 10;
+
+	public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+
+	private final double requestsPerSecond;
+
+	private final int burst;
+
+	private final RateLimitMode mode;
+
+	private final long timeoutNanos;
+
+	private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+	private final List<Consumer<TokenBucket>> bucketListeners = new CopyOnWriteArrayList<>();
+
+	public YandexRateLimiter(double requestsPerSecond) {
+		this(requestsPerSecond, (int) Math.max(1, Math.ceil(requestsPerSecond)), RateLimitMode.BLOCKING,
+				DEFAULT_TIMEOUT);
+	}
+
+	/**
+	 * Creates the rate limiter.
+	 * @param requestsPerSecond the sustained number of requests per second per key
+	 * @param burst the number of requests per key that can be sent at once
+	 * @param mode how a request waits for a permit
+	 * @param timeout the maximum wait in the {@link RateLimitMode#TIMED} mode
+	 */
+	public YandexRateLimiter(double requestsPerSecond, int burst, RateLimitMode mode, Duration timeout) {
+		Assert.isTrue(requestsPerSecond > 0, "Requests per second must be positive");
+		Assert.isTrue(burst > 0, "Burst must be positive");
+		Assert.notNull(mode, "RateLimitMode must not be null");
+		Assert.isTrue(timeout != null && !timeout.isNegative(), "Timeout must not be negative");
+		this.requestsPerSecond = requestsPerSecond;
+		this.burst = burst;
+		this.mode = mode;
+		this.timeoutNanos = timeout.toNanos();
+	}
+
+	/**
+	 * Takes a permit for the key, waiting according to the {@link RateLimitMode}.
+	 * @param key the key, the URI of the requested model
+	 * @throws RateLimitExceededException if the permit is not available in time
+	 */
+	public void acquire(String key) {
+		var bucket = bucket(key);
+		try {
+			if (!bucket.tryAcquire(maxWaitNanos())) {
+				throw new RateLimitExceededException("Rate limit exceeded for " + key);
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new RateLimitExceededException("Interrupted while waiting for a permit for " + key, ex);
+		}
+	}
+
+	/**
+	 * Reserves a permit for the key without waiting for it, for callers that cannot
+	 * block: the request must be delayed by the returned time.
+	 * @param key the key, the URI of the requested model
+	 * @return the time to wait before sending the request
+	 * @throws RateLimitExceededException if the permit is not available in time
+	 */
+	public Duration reserve(String key) {
+		long waitNanos = bucket(key).tryReserve(maxWaitNanos());
+		if (waitNanos < 0) {
+			throw new RateLimitExceededException("Rate limit exceeded for " + key);
+		}
+		return Duration.ofNanos(waitNanos);
+	}
+
+	private TokenBucket bucket(String key) {
+		Assert.notNull(key, "Key must not be null");
+		var bucket = this.buckets.get(key);
+		if (bucket != null) {
+			return bucket;
+		}
+		var created = new TokenBucket(key, this.requestsPerSecond, this.burst);
+		bucket = this.buckets.putIfAbsent(key, created);
+		if (bucket != null) {
+			return bucket;
+		}
+		for (var listener : this.bucketListeners) {
+			listener.accept(created);
+		}
+		return created;
+	}
+
+	private long maxWaitNanos() {
+		return switch (this.mode) {
+			case BLOCKING -> Long.MAX_VALUE;
+			case TIMED -> this.timeoutNanos;
+			case FAIL_FAST -> 0;
+		};
+	}
+
+	public RateLimitMode getMode() {
+		return this.mode;
+	}
+
+	public Collection<TokenBucket> getBuckets() {
+		return Collections.unmodifiableCollection(this.buckets.values());
+	}
+
+	/**
+	 * Adds a listener told about every bucket, the existing ones right away and the
+	 * others as they are created, such as a binder of bucket metrics. A bucket created
+	 * while the listener is added may be reported twice.
+	 * @param listener the listener
+	 */
+	public void addBucketListener(Consumer<TokenBucket> listener) {
+		Assert.notNull(listener, "Listener must not be null");
+		this.bucketListeners.add(listener);
+		this.buckets.values().forEach(listener);
+	}
+
+}
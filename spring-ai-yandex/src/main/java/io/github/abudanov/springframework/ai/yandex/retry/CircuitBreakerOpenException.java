@@ -0,0 +1,14 @@
+package io.github.abudanov.springframework.ai.yandex.retry;
+
+import org.springframework.ai.retry.NonTransientAiException;
+
+/**
+ * Thrown instead of sending a request while the {@link YandexCircuitBreaker} is open.
+ */
+public class CircuitBreakerOpenException extends NonTransientAiException {
+
+	public CircuitBreakerOpenException(String message) {
+		super(message);
+	}
+
+}
@@ -0,0 +1,48 @@
+package io.github.abudanov.springframework.ai.yandex.retry;
+
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.util.Assert;
+
+/**
+ * Feeds the outcome of every attempt to a {@link YandexCircuitBreaker} and fails fast
+ * with a {@link CircuitBreakerOpenException} while it is open. Only transient failures
+ * count against the API health: a rejected request still is an answer, and a call
+ * cancelled by the {@link YandexHedgingPolicy} is no answer at all.
+ */
+public class CircuitBreakerRetryListener implements RetryListener {
+
+	private final YandexCircuitBreaker circuitBreaker;
+
+	public CircuitBreakerRetryListener(YandexCircuitBreaker circuitBreaker) {
+		Assert.notNull(circuitBreaker, "CircuitBreaker must not be null");
+		this.circuitBreaker = circuitBreaker;
+	}
+
+	@Override
+	public <T, E extends Throwable> boolean open(RetryContext context, RetryCallback<T, E> callback) {
+		this.circuitBreaker.acquirePermission();
+		return true;
+	}
+
+	@Override
+	public <T, E extends Throwable> void onSuccess(RetryContext context, RetryCallback<T, E> callback, T result) {
+		this.circuitBreaker.onSuccess();
+	}
+
+	@Override
+	public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback,
+			Throwable throwable) {
+		if (YandexHedgingPolicy.isCancelled()) {
+			return;
+		}
+		if (YandexRetryPolicy.isRetryable(throwable)) {
+			this.circuitBreaker.onFailure();
+		}
+		else if (!(throwable instanceof CircuitBreakerOpenException)) {
+			this.circuitBreaker.onSuccess();
+		}
+	}
+
+}
@@ -0,0 +1,81 @@
+package io.github.abudanov.springframework.ai.yandex.retry;
+
+import io.github.abudanov.springframework.ai.yandex.ratelimit.TokenBucket;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps retries to a share of the requests, so a struggling API does not receive a
+ * multiple of the regular load. Every request deposits {@code ratio} of a token and every
+ * retry withdraws a whole one. A small number of retries per second is allowed on top of
+ * the ratio, so that a client with little traffic can still retry.
+ */
+public class RetryBudget {
+
+	private static final long SCALE = 1000;
+
+	private final long deposit;
+
+	private final long maximum;
+
+	private final AtomicLong balance = new AtomicLong();
+
+	private final TokenBucket reserve;
+
+	private final LongAdder exhaustedCount = new LongAdder();
+
+	/**
+	 * Creates a budget.
+	 * @param ratio the share of requests that may be retried, for example {@code 0.1}
+	 * @param minRetriesPerSecond the number of retries per second allowed regardless of
+	 * the ratio
+	 */
+	public RetryBudget(double ratio, double minRetriesPerSecond) {
+		Assert.isTrue(ratio >= 0, "Ratio must not be negative");
+		Assert.isTrue(minRetriesPerSecond >= 0, "Minimum retries per second must not be negative");
+		this.deposit = (long) (ratio * SCALE);
+		// do not let a quiet period accumulate an unbounded number of retries
+		this.maximum = Math.max(SCALE, this.deposit * 100);
+		this.reserve = (minRetriesPerSecond > 0) ? new TokenBucket("retry-budget", minRetriesPerSecond,
+				(int) Math.max(1, Math.ceil(minRetriesPerSecond))) : null;
+	}
+
+	/**
+	 * Records a request.
+	 */
+	public void onRequest() {
+		this.balance.updateAndGet(balance -> Math.min(this.maximum, balance + this.deposit));
+	}
+
+	/**
+	 * Withdraws a retry from the budget.
+	 * @return whether the retry is allowed
+	 */
+	public boolean tryRetry() {
+		while (true) {
+			long balance = this.balance.get();
+			if (balance < SCALE) {
+				break;
+			}
+			if (this.balance.compareAndSet(balance, balance - SCALE)) {
+				return true;
+			}
+		}
+		if (this.reserve != null && this.reserve.tryAcquire()) {
+			return true;
+		}
+		this.exhaustedCount.increment();
+		return false;
+	}
+
+	/**
+	 * Returns the number of retries refused because the budget was exhausted.
+	 * @return the number of refused retries
+	 */
+	public long getExhaustedCount() {
+		return this.exhaustedCount.sum();
+	}
+
+}
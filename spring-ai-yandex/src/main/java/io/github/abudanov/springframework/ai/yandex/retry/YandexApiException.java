@@ -0,0 +1,46 @@
+package io.github.abudanov.springframework.ai.yandex.retry;
+
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+
+/**
+ * Thrown when the Yandex API answers with a server error or reports that it is
+ * overloaded, that is {@code 429 Too Many Requests} or {@code 503 Service Unavailable}.
+ */
+public class YandexApiException extends TransientAiException {
+
+	private final HttpStatusCode statusCode;
+
+	private final Duration retryAfter;
+
+	public YandexApiException(String message, HttpStatusCode statusCode, @Nullable Duration retryAfter) {
+		super(message);
+		this.statusCode = statusCode;
+		this.retryAfter = retryAfter;
+	}
+
+	public HttpStatusCode getStatusCode() {
+		return this.statusCode;
+	}
+
+	/**
+	 * Returns the delay requested by the {@code Retry-After} header.
+	 * @return the delay or {@code null} if the response had no such header
+	 */
+	@Nullable
+	public Duration getRetryAfter() {
+		return this.retryAfter;
+	}
+
+	/**
+	 * Whether the API reported that it is overloaded rather than failed.
+	 * @return {@code true} for {@code 429} and {@code 503} responses
+	 */
+	public boolean isOverload() {
+		return this.statusCode.value() == 429 || this.statusCode.value() == 503;
+	}
+
+}
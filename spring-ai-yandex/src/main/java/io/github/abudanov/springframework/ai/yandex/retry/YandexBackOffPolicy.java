@@ -0,0 +1,102 @@
+package io.github.abudanov.springframework.ai.yandex.retry;
+
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.backoff.BackOffContext;
+import org.springframework.retry.backoff.BackOffInterruptedException;
+import org.springframework.retry.backoff.BackOffPolicy;
+import org.springframework.retry.backoff.Sleeper;
+import org.springframework.retry.backoff.ThreadWaitSleeper;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Backs off with decorrelated jitter: each delay is picked at random between the initial
+ * interval and three times the previous delay, capped by the maximum interval, which
+ * spreads the retries of many clients instead of synchronising them. A longer delay
+ * asked for by the {@code Retry-After} header of a {@link YandexApiException} is
+ * honoured up to {@code maxRetryAfter}.
+ */
+public class YandexBackOffPolicy implements BackOffPolicy {
+
+	private final long initialIntervalMillis;
+
+	private final long maxIntervalMillis;
+
+	private final long maxRetryAfterMillis;
+
+	private final Sleeper sleeper;
+
+	public YandexBackOffPolicy(Duration initialInterval, Duration maxInterval, Duration maxRetryAfter) {
+		this(initialInterval, maxInterval, maxRetryAfter, new ThreadWaitSleeper());
+	}
+
+	public YandexBackOffPolicy(Duration initialInterval, Duration maxInterval, Duration maxRetryAfter,
+			Sleeper sleeper) {
+		Assert.isTrue(initialInterval != null && initialInterval.toMillis() > 0, "Initial interval must be positive");
+		Assert.isTrue(maxInterval != null && maxInterval.compareTo(initialInterval) >= 0,
+				"Max interval must not be less than the initial interval");
+		Assert.isTrue(maxRetryAfter != null && !maxRetryAfter.isNegative(), "Max Retry-After must not be negative");
+		Assert.notNull(sleeper, "Sleeper must not be null");
+		this.initialIntervalMillis = initialInterval.toMillis();
+		this.maxIntervalMillis = maxInterval.toMillis();
+		this.maxRetryAfterMillis = maxRetryAfter.toMillis();
+		this.sleeper = sleeper;
+	}
+
+	@Override
+	public BackOffContext start(RetryContext context) {
+		return new JitterBackOffContext(context);
+	}
+
+	@Override
+	public void backOff(BackOffContext backOffContext) throws BackOffInterruptedException {
+		var context = (JitterBackOffContext) backOffContext;
+		long delay = nextDelay(context.previousMillis, this.initialIntervalMillis, this.maxIntervalMillis);
+		context.previousMillis = delay;
+		delay = honourRetryAfter(delay, context.retryContext.getLastThrowable(), this.maxRetryAfterMillis);
+		try {
+			this.sleeper.sleep(delay);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new BackOffInterruptedException("Thread interrupted while sleeping", ex);
+		}
+	}
+
+	/**
+	 * Picks the next decorrelated jitter delay.
+	 * @param previousMillis the previous delay, {@code 0} before the first retry
+	 */
+	static long nextDelay(long previousMillis, long initialIntervalMillis, long maxIntervalMillis) {
+		long previous = Math.max(previousMillis, initialIntervalMillis);
+		long upper = Math.min(maxIntervalMillis, previous * 3);
+		return (upper > initialIntervalMillis) ? ThreadLocalRandom.current().nextLong(initialIntervalMillis, upper + 1)
+				: initialIntervalMillis;
+	}
+
+	/**
+	 * Lengthens the delay to the one asked for by the {@code Retry-After} header of the
+	 * failure, if any, up to {@code maxRetryAfterMillis}.
+	 */
+	static long honourRetryAfter(long delayMillis, Throwable failure, long maxRetryAfterMillis) {
+		if (failure instanceof YandexApiException ex && ex.getRetryAfter() != null) {
+			return Math.max(delayMillis, Math.min(ex.getRetryAfter().toMillis(), maxRetryAfterMillis));
+		}
+		return delayMillis;
+	}
+
+	private static final class JitterBackOffContext implements BackOffContext {
+
+		private final RetryContext retryContext;
+
+		private long previousMillis;
+
+		private JitterBackOffContext(RetryContext retryContext) {
+			this.retryContext = retryContext;
+		}
+
+	}
+
+}
@@ -0,0 +1,186 @@
+package io.github.abudanov.springframework.ai.yandex.retry;
+
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * A count-based circuit breaker. It opens when the failure rate of the last
+ * {@code slidingWindowSize} calls reaches the threshold, rejects calls while open, and
+ * after {@code openDuration} lets {@code halfOpenCalls} trial calls through: the breaker
+ * closes if they all succeed and opens again otherwise.
+ */
+public class YandexCircuitBreaker {
+
+	public enum State {
+
+		CLOSED, OPEN, HALF_OPEN
+
+	}
+
+	private final double failureRateThreshold;
+
+	private final int minimumCalls;
+
+	private final long openDurationNanos;
+
+	private final int halfOpenCalls;
+
+	private final boolean[] outcomes;
+
+	private final LongSupplier nanoClock;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private volatile State state = State.CLOSED;
+
+	private int recordedCalls;
+
+	private int failedCalls;
+
+	private int nextOutcome;
+
+	private long openedAt;
+
+	private int halfOpenPermits;
+
+	private int halfOpenSuccesses;
+
+	/**
+	 * Creates a closed circuit breaker.
+	 * @param failureRateThreshold the failure rate, between 0 and 1, that opens the
+	 * breaker
+	 * @param slidingWindowSize the number of recent calls the failure rate is computed on
+	 * @param minimumCalls the number of calls recorded before the failure rate is taken
+	 * into account
+	 * @param openDuration the time the breaker stays open
+	 * @param halfOpenCalls the number of trial calls let through after that time
+	 */
+	public YandexCircuitBreaker(double failureRateThreshold, int slidingWindowSize, int minimumCalls,
+			Duration openDuration, int halfOpenCalls) {
+		this(failureRateThreshold, slidingWindowSize, minimumCalls, openDuration, halfOpenCalls, System::nanoTime);
+	}
+
+	/**
+	 * Creates a closed circuit breaker reading the time from the given clock.
+	 * @param nanoClock the source of {@link System#nanoTime()}-like time
+	 */
+	YandexCircuitBreaker(double failureRateThreshold, int slidingWindowSize, int minimumCalls,
+			Duration openDuration, int halfOpenCalls, LongSupplier nanoClock) {
+		Assert.isTrue(failureRateThreshold > 0 && failureRateThreshold <= 1,
+				"Failure rate threshold must be in (0, 1]");
+		Assert.isTrue(slidingWindowSize > 0, "Sliding window size must be positive");
+		Assert.isTrue(minimumCalls > 0 && minimumCalls <= slidingWindowSize,
+				"Minimum calls must be positive and not greater than the sliding window size");
+		Assert.isTrue(openDuration != null && !openDuration.isNegative(), "Open duration must not be negative");
+		Assert.isTrue(halfOpenCalls > 0, "Half-open calls must be positive");
+		Assert.notNull(nanoClock, "Nano clock must not be null");
+		this.failureRateThreshold = failureRateThreshold;
+		this.minimumCalls = minimumCalls;
+		this.openDurationNanos = openDuration.toNanos();
+		this.halfOpenCalls = halfOpenCalls;
+		this.outcomes = new boolean[slidingWindowSize];
+		this.nanoClock = nanoClock;
+	}
+
+	/**
+	 * Asks for permission to send a call.
+	 * @throws CircuitBreakerOpenException if the breaker is open
+	 */
+	public void acquirePermission() {
+		if (this.state == State.CLOSED) {
+			return;
+		}
+		this.lock.lock();
+		try {
+			// a half-open breaker whose trial calls never reported back gets new ones
+			if (this.state != State.CLOSED && this.halfOpenPermits == 0
+					&& this.nanoClock.getAsLong() - this.openedAt >= this.openDurationNanos) {
+				this.state = State.HALF_OPEN;
+				this.openedAt = this.nanoClock.getAsLong();
+				this.halfOpenPermits = this.halfOpenCalls;
+				this.halfOpenSuccesses = 0;
+			}
+			if (this.state == State.HALF_OPEN && this.halfOpenPermits > 0) {
+				this.halfOpenPermits--;
+				return;
+			}
+			if (this.state == State.CLOSED) {
+				return;
+			}
+		}
+		finally {
+			this.lock.unlock();
+		}
+		throw new CircuitBreakerOpenException("Circuit breaker is open, the Yandex API is unhealthy");
+	}
+
+	public void onSuccess() {
+		record(false);
+	}
+
+	public void onFailure() {
+		record(true);
+	}
+
+	public State getState() {
+		return this.state;
+	}
+
+	private void record(boolean failure) {
+		this.lock.lock();
+		try {
+			switch (this.state) {
+				case HALF_OPEN -> {
+					if (failure) {
+						open();
+					}
+					else if (++this.halfOpenSuccesses >= this.halfOpenCalls) {
+						close();
+					}
+				}
+				case CLOSED -> {
+					if (this.recordedCalls == this.outcomes.length) {
+						if (this.outcomes[this.nextOutcome]) {
+							this.failedCalls--;
+						}
+					}
+					else {
+						this.recordedCalls++;
+					}
+					this.outcomes[this.nextOutcome] = failure;
+					this.nextOutcome = (this.nextOutcome + 1) % this.outcomes.length;
+					if (failure) {
+						this.failedCalls++;
+					}
+					if (this.recordedCalls >= this.minimumCalls
+							&& this.failedCalls >= this.failureRateThreshold * this.recordedCalls) {
+						open();
+					}
+				}
+				case OPEN -> {
+					// outcome of a call started before the breaker opened
+				}
+			}
+		}
+		finally {
+			this.lock.unlock();
+		}
+	}
+
+	private void open() {
+		this.state = State.OPEN;
+		this.openedAt = this.nanoClock.getAsLong();
+		this.halfOpenPermits = 0;
+	}
+
+	private void close() {
+		this.state = State.CLOSED;
+		this.recordedCalls = 0;
+		this.failedCalls = 0;
+		this.nextOutcome = 0;
+	}
+
+}
@@ -0,0 +1,240 @@
+package io.github.abudanov.springframework.ai.yandex.retry;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Hedges slow calls: when a call has not returned after the configured percentile of the
+ * recently observed latencies, a duplicate is sent, the first result wins and the other
+ * call is cancelled by interrupting its thread. A failed call waits for its duplicate,
+ * if one was sent, before failing. The failure of a cancelled call is neither retried
+ * nor counted against the API health by the {@link YandexRetryPolicy} and the
+ * {@link CircuitBreakerRetryListener}.
+ * <p>
+ * Hedges are withdrawn from a {@link RetryBudget}, so they never exceed the configured
+ * share of the calls, and no call is hedged until enough latencies have been observed.
+ */
+public class YandexHedgingPolicy {
+
+	public static final double DEFAULT_PERCENTILE = 0.95;
+
+	public static final Duration DEFAULT_MIN_DELAY = Duration.ofMillis(100);
+
+	public static final double DEFAULT_BUDGET_RATIO = 0.05;
+
+	public static final int DEFAULT_WINDOW_SIZE = 1024;
+
+	public static final int DEFAULT_MIN_SAMPLES = 100;
+
+	/**
+	 * The cancellation flag of the hedged call running on the current thread.
+	 */
+	private static final ThreadLocal<AtomicBoolean> cancelledCall = new ThreadLocal<>();
+
+	private final double percentile;
+
+	private final long minDelayNanos;
+
+	private final int minSamples;
+
+	private final RetryBudget budget;
+
+	private final long[] latencies;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * The number of latencies recorded between two computations of the percentile.
+	 */
+	private final int refreshInterval;
+
+	private int nextLatency;
+
+	private int recordedLatencies;
+
+	private int sinceRefresh;
+
+	private volatile long delayNanos = -1;
+
+	public YandexHedgingPolicy() {
+		this(DEFAULT_PERCENTILE, DEFAULT_MIN_DELAY, DEFAULT_BUDGET_RATIO, DEFAULT_WINDOW_SIZE, DEFAULT_MIN_SAMPLES);
+	}
+
+	/**
+	 * Creates a hedging policy.
+	 * @param percentile the percentile of the recent latencies after which a call is
+	 * hedged, between 0 and 1
+	 * @param minDelay the minimum time to wait before hedging a call
+	 * @param budgetRatio the maximum share of the calls that may be hedged
+	 * @param windowSize the number of recent latencies the percentile is computed on
+	 * @param minSamples the number of latencies recorded before any call is hedged
+	 */
+	public YandexHedgingPolicy(double percentile, Duration minDelay, double budgetRatio, int windowSize,
+			int minSamples) {
+		Assert.isTrue(percentile > 0 && percentile < 1, "Percentile must be in (0, 1)");
+		Assert.isTrue(minDelay != null && !minDelay.isNegative(), "Min delay must not be negative");
+		Assert.isTrue(budgetRatio > 0 && budgetRatio <= 1, "Budget ratio must be in (0, 1]");
+		Assert.isTrue(windowSize > 0, "Window size must be positive");
+		Assert.isTrue(minSamples > 0 && minSamples <= windowSize,
+				"Min samples must be positive and not greater than the window size");
+		this.percentile = percentile;
+		this.minDelayNanos = minDelay.toNanos();
+		this.minSamples = minSamples;
+		this.budget = new RetryBudget(budgetRatio, 0);
+		this.latencies = new long[windowSize];
+		this.refreshInterval = Math.max(1, windowSize / 16);
+	}
+
+	/**
+	 * Runs the call on the executor, hedging it if it is slow.
+	 * @param call the call, run once or twice
+	 * @param executor the executor running the calls
+	 * @param hedgeOutcome told whether the hedge won, when a call is hedged, can be
+	 * {@code null}
+	 * @param <T> the type of the result
+	 * @return the first result
+	 */
+	public <T> T execute(Supplier<T> call, Executor executor, @Nullable Consumer<Boolean> hedgeOutcome) {
+		this.budget.onRequest();
+		long delay = getDelayNanos();
+		var completion = new ExecutorCompletionService<T>(executor);
+		long start = System.nanoTime();
+		var primaryCancelled = new AtomicBoolean();
+		var primary = completion.submit(() -> run(call, primaryCancelled));
+		var hedgeCancelled = new AtomicBoolean();
+		Future<T> hedge = null;
+		try {
+			var done = (delay >= 0) ? completion.poll(delay, TimeUnit.NANOSECONDS) : completion.take();
+			if (done == null) {
+				if (this.budget.tryRetry()) {
+					hedge = completion.submit(() -> run(call, hedgeCancelled));
+				}
+				done = completion.take();
+			}
+			T result;
+			try {
+				result = done.get();
+			}
+			catch (ExecutionException ex) {
+				if (hedge == null) {
+					throw ex;
+				}
+				// the other call may still succeed
+				done = completion.take();
+				result = done.get();
+			}
+			recordLatency(System.nanoTime() - start);
+			if (hedge != null && hedgeOutcome != null) {
+				hedgeOutcome.accept(done == hedge);
+			}
+			return result;
+		}
+		catch (ExecutionException ex) {
+			if (hedge != null && hedgeOutcome != null) {
+				hedgeOutcome.accept(false);
+			}
+			if (ex.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (ex.getCause() instanceof Error error) {
+				throw error;
+			}
+			throw new IllegalStateException(ex.getCause());
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for a hedged call", ex);
+		}
+		finally {
+			cancel(primary, primaryCancelled);
+			if (hedge != null) {
+				cancel(hedge, hedgeCancelled);
+			}
+		}
+	}
+
+	/**
+	 * Tells whether the hedged call running on the current thread has been cancelled,
+	 * its failure then only is the interruption of its thread.
+	 * @return whether the current call is cancelled
+	 */
+	static boolean isCancelled() {
+		var cancelled = cancelledCall.get();
+		return cancelled != null && cancelled.get();
+	}
+
+	private static <T> T run(Supplier<T> call, AtomicBoolean cancelled) {
+		cancelledCall.set(cancelled);
+		try {
+			return call.get();
+		}
+		finally {
+			cancelledCall.remove();
+		}
+	}
+
+	private static void cancel(Future<?> future, AtomicBoolean cancelled) {
+		if (!future.isDone()) {
+			// flagged before the interruption the call fails with
+			cancelled.set(true);
+			future.cancel(true);
+		}
+	}
+
+	/**
+	 * Returns the time after which a call is hedged.
+	 * @return the delay in nanoseconds, or {@code -1} while too few latencies have been
+	 * recorded
+	 */
+	public long getDelayNanos() {
+		return this.delayNanos;
+	}
+
+	/**
+	 * Returns the number of hedges refused because the budget was exhausted.
+	 * @return the number of refused hedges
+	 */
+	public long getExhaustedCount() {
+		return this.budget.getExhaustedCount();
+	}
+
+	/**
+	 * Records the latency of a call as seen by its caller. When the hedge wins, the
+	 * latency of the slow call is unknown and this lower bound is recorded instead.
+	 */
+	private void recordLatency(long latencyNanos) {
+		long[] window = null;
+		this.lock.lock();
+		try {
+			this.latencies[this.nextLatency] = latencyNanos;
+			this.nextLatency = (this.nextLatency + 1) % this.latencies.length;
+			this.recordedLatencies = Math.min(this.recordedLatencies + 1, this.latencies.length);
+			if (++this.sinceRefresh >= this.refreshInterval && this.recordedLatencies >= this.minSamples) {
+				this.sinceRefresh = 0;
+				window = Arrays.copyOf(this.latencies, this.recordedLatencies);
+			}
+		}
+		finally {
+			this.lock.unlock();
+		}
+		if (window != null) {
+			// sorted outside of the lock, concurrent refreshes only race to the same value
+			Arrays.sort(window);
+			int index = (int) Math.ceil(this.percentile * window.length) - 1;
+			this.delayNanos = Math.max(this.minDelayNanos, window[Math.max(0, index)]);
+		}
+	}
+
+}
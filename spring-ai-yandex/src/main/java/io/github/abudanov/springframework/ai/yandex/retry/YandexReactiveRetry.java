@@ -0,0 +1,138 @@
+package io.github.abudanov.springframework.ai.yandex.retry;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The non-blocking counterpart of the retry template built by {@link YandexRetryUtils}:
+ * the same {@link YandexRetryPolicy retry decisions}, {@link RetryBudget} and
+ * {@link YandexCircuitBreaker}, with the {@link YandexBackOffPolicy decorrelated jitter}
+ * delays scheduled on a timer instead of sleeping.
+ */
+public class YandexReactiveRetry {
+
+	private final int maxAttempts;
+
+	private final long initialIntervalMillis;
+
+	private final long maxIntervalMillis;
+
+	private final long maxRetryAfterMillis;
+
+	private final RetryBudget retryBudget;
+
+	private final YandexCircuitBreaker circuitBreaker;
+
+	/**
+	 * Creates a reactive retry.
+	 * @param maxAttempts the maximum number of attempts, the first one included
+	 * @param initialInterval the minimum delay between two attempts
+	 * @param maxInterval the maximum jittered delay between two attempts
+	 * @param maxRetryAfter the maximum delay honoured from a {@code Retry-After} header
+	 * @param retryBudget the budget retries are withdrawn from
+	 * @param circuitBreaker the circuit breaker guarding the API, or {@code null}
+	 */
+	public YandexReactiveRetry(int maxAttempts, Duration initialInterval, Duration maxInterval,
+			Duration maxRetryAfter, RetryBudget retryBudget, @Nullable YandexCircuitBreaker circuitBreaker) {
+		Assert.isTrue(maxAttempts > 0, "Max attempts must be positive");
+		Assert.isTrue(initialInterval != null && initialInterval.toMillis() > 0, "Initial interval must be positive");
+		Assert.isTrue(maxInterval != null && maxInterval.compareTo(initialInterval) >= 0,
+				"Max interval must not be less than the initial interval");
+		Assert.isTrue(maxRetryAfter != null && !maxRetryAfter.isNegative(), "Max Retry-After must not be negative");
+		Assert.notNull(retryBudget, "RetryBudget must not be null");
+		this.maxAttempts = maxAttempts;
+		this.initialIntervalMillis = initialInterval.toMillis();
+		this.maxIntervalMillis = maxInterval.toMillis();
+		this.maxRetryAfterMillis = maxRetryAfter.toMillis();
+		this.retryBudget = retryBudget;
+		this.circuitBreaker = circuitBreaker;
+	}
+
+	/**
+	 * Subscribes to the call, and again after a delay for every retryable failure.
+	 * @param call the call, subscribed to once per attempt
+	 * @param <T> the type of the result
+	 * @return the result of the first successful attempt
+	 */
+	public <T> Mono<T> execute(Mono<T> call) {
+		return execute(call, null);
+	}
+
+	/**
+	 * Subscribes to the call, and again after a delay for every retryable failure.
+	 * @param call the call, subscribed to once per attempt
+	 * @param onRetry run before every retry, can be {@code null}
+	 * @param <T> the type of the result
+	 * @return the result of the first successful attempt
+	 */
+	public <T> Mono<T> execute(Mono<T> call, @Nullable Runnable onRetry) {
+		return Mono.defer(() -> {
+			this.retryBudget.onRequest();
+			if (this.circuitBreaker != null) {
+				this.circuitBreaker.acquirePermission();
+			}
+			var attempt = (this.circuitBreaker != null) ? call.doOnSuccess(result -> this.circuitBreaker.onSuccess())
+					: call;
+			return attempt.retryWhen(retry(onRetry));
+		});
+	}
+
+	private Retry retry(@Nullable Runnable onRetry) {
+		return Retry.from(signals -> {
+			var previousDelay = new AtomicLong();
+			return signals.concatMap(signal -> {
+				var failure = signal.failure();
+				recordOutcome(failure);
+				boolean retry = YandexRetryPolicy.isRetryable(failure) && signal.totalRetries() + 1 < this.maxAttempts
+						&& this.retryBudget.tryRetry() && isCircuitClosed();
+				if (!retry) {
+					return Flux.error(failure);
+				}
+				long delay = YandexBackOffPolicy.nextDelay(previousDelay.get(), this.initialIntervalMillis,
+						this.maxIntervalMillis);
+				previousDelay.set(delay);
+				delay = YandexBackOffPolicy.honourRetryAfter(delay, failure, this.maxRetryAfterMillis);
+				if (onRetry != null) {
+					onRetry.run();
+				}
+				return Mono.delay(Duration.ofMillis(delay));
+			});
+		});
+	}
+
+	/**
+	 * Feeds the outcome of a failed attempt to the circuit breaker, see
+	 * {@link CircuitBreakerRetryListener}.
+	 */
+	private void recordOutcome(Throwable failure) {
+		if (this.circuitBreaker == null) {
+			return;
+		}
+		if (YandexRetryPolicy.isRetryable(failure)) {
+			this.circuitBreaker.onFailure();
+		}
+		else if (!(failure instanceof CircuitBreakerOpenException)) {
+			this.circuitBreaker.onSuccess();
+		}
+	}
+
+	private boolean isCircuitClosed() {
+		if (this.circuitBreaker == null) {
+			return true;
+		}
+		try {
+			this.circuitBreaker.acquirePermission();
+			return true;
+		}
+		catch (CircuitBreakerOpenException ex) {
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,76 @@
+package io.github.abudanov.springframework.ai.yandex.retry;
+
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.ResponseErrorHandler;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Turns Yandex API error responses into exceptions the {@link YandexRetryPolicy}
+ * understands: {@code 429}, {@code 408} and server errors become a retryable
+ * {@link YandexApiException} carrying the {@code Retry-After} delay, other client errors
+ * a {@link NonTransientAiException}.
+ */
+public class YandexResponseErrorHandler implements ResponseErrorHandler {
+
+	@Override
+	public boolean hasError(ClientHttpResponse response) throws IOException {
+		return response.getStatusCode().isError();
+	}
+
+	@Override
+	public void handleError(ClientHttpResponse response) throws IOException {
+		var body = StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8);
+		throw toException(response.getStatusCode(), response.getHeaders(), body);
+	}
+
+	/**
+	 * Returns the exception reporting an error response, shared with the reactive API.
+	 * @param statusCode the status of the response
+	 * @param headers the headers of the response
+	 * @param body the body of the response
+	 * @return a {@link YandexApiException} for retryable errors, a
+	 * {@link NonTransientAiException} otherwise
+	 */
+	public static RuntimeException toException(HttpStatusCode statusCode, HttpHeaders headers, String body) {
+		var message = String.format("%s - %s", statusCode.value(), body);
+		if (statusCode.is5xxServerError() || statusCode.value() == HttpStatus.TOO_MANY_REQUESTS.value()
+				|| statusCode.value() == HttpStatus.REQUEST_TIMEOUT.value()) {
+			return new YandexApiException(message, statusCode, retryAfter(headers));
+		}
+		return new NonTransientAiException(message);
+	}
+
+	static Duration retryAfter(HttpHeaders headers) {
+		var value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+		if (value == null || value.isBlank()) {
+			return null;
+		}
+		try {
+			return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+		}
+		catch (NumberFormatException ex) {
+			// not delay-seconds, try an HTTP-date
+		}
+		try {
+			var date = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+			var delay = Duration.between(Instant.now(), date);
+			return delay.isNegative() ? Duration.ZERO : delay;
+		}
+		catch (DateTimeParseException ex) {
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,82 @@
+package io.github.abudanov.springframework.ai.yandex.retry;
+
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.lang.Nullable;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryPolicy;
+import org.springframework.retry.context.RetryContextSupport;
+import org.springframework.util.Assert;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Retries transient failures, that is {@link TransientAiException}s and I/O errors, up
+ * to the maximum number of attempts as long as the {@link RetryBudget} allows it and the
+ * {@link YandexCircuitBreaker} is not open. A call cancelled by the
+ * {@link YandexHedgingPolicy} is not retried.
+ */
+public class YandexRetryPolicy implements RetryPolicy {
+
+	private static final String RETRY_ALLOWED = "yandex.retry.allowed";
+
+	private final int maxAttempts;
+
+	private final RetryBudget retryBudget;
+
+	private final YandexCircuitBreaker circuitBreaker;
+
+	public YandexRetryPolicy(int maxAttempts, RetryBudget retryBudget, @Nullable YandexCircuitBreaker circuitBreaker) {
+		Assert.isTrue(maxAttempts > 0, "Max attempts must be positive");
+		Assert.notNull(retryBudget, "RetryBudget must not be null");
+		this.maxAttempts = maxAttempts;
+		this.retryBudget = retryBudget;
+		this.circuitBreaker = circuitBreaker;
+	}
+
+	@Override
+	public RetryContext open(RetryContext parent) {
+		this.retryBudget.onRequest();
+		return new RetryContextSupport(parent);
+	}
+
+	@Override
+	public boolean canRetry(RetryContext context) {
+		// canRetry is asked more than once per attempt, the decision is taken once
+		return context.getLastThrowable() == null || Boolean.TRUE.equals(context.getAttribute(RETRY_ALLOWED));
+	}
+
+	@Override
+	public void registerThrowable(RetryContext context, Throwable throwable) {
+		((RetryContextSupport) context).registerThrowable(throwable);
+		context.setAttribute(RETRY_ALLOWED,
+				isRetryable(throwable) && !YandexHedgingPolicy.isCancelled()
+						&& context.getRetryCount() < this.maxAttempts && this.retryBudget.tryRetry()
+						&& isCircuitClosed());
+	}
+
+	@Override
+	public void close(RetryContext context) {
+	}
+
+	@Override
+	public int getMaxAttempts() {
+		return this.maxAttempts;
+	}
+
+	static boolean isRetryable(Throwable throwable) {
+		return throwable instanceof TransientAiException || throwable instanceof ResourceAccessException;
+	}
+
+	private boolean isCircuitClosed() {
+		if (this.circuitBreaker == null) {
+			return true;
+		}
+		try {
+			this.circuitBreaker.acquirePermission();
+			return true;
+		}
+		catch (CircuitBreakerOpenException ex) {
+			return false;
+		}
+	}
+
+}
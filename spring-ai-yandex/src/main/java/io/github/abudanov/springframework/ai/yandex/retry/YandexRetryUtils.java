@@ -0,0 +1,75 @@
+package io.github.abudanov.springframework.ai.yandex.retry;
+
+import org.springframework.lang.Nullable;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.time.Duration;
+
+/**
+ * Factory of retry templates that take the Yandex overload semantics into account, the
+ * counterpart of {@link org.springframework.ai.retry.RetryUtils}. The returned template
+ * expects errors to be reported by a {@link YandexResponseErrorHandler}.
+ */
+public abstract class YandexRetryUtils {
+
+	public static final int DEFAULT_MAX_ATTEMPTS = 4;
+
+	public static final Duration DEFAULT_INITIAL_INTERVAL = Duration.ofMillis(500);
+
+	public static final Duration DEFAULT_MAX_INTERVAL = Duration.ofSeconds(20);
+
+	public static final Duration DEFAULT_MAX_RETRY_AFTER = Duration.ofSeconds(60);
+
+	public static final double DEFAULT_RETRY_BUDGET_RATIO = 0.1;
+
+	public static final double DEFAULT_MIN_RETRIES_PER_SECOND = 1;
+
+	/**
+	 * Creates a retry template.
+	 * @param maxAttempts the maximum number of attempts, the first one included
+	 * @param initialInterval the minimum delay between two attempts
+	 * @param maxInterval the maximum jittered delay between two attempts
+	 * @param maxRetryAfter the maximum delay honoured from a {@code Retry-After} header
+	 * @param retryBudget the budget retries are withdrawn from
+	 * @param circuitBreaker the circuit breaker guarding the API, or {@code null}
+	 * @return the retry template
+	 */
+	public static RetryTemplate retryTemplate(int maxAttempts, Duration initialInterval, Duration maxInterval,
+			Duration maxRetryAfter, RetryBudget retryBudget, @Nullable YandexCircuitBreaker circuitBreaker) {
+		var retryTemplate = new RetryTemplate();
+		retryTemplate.setRetryPolicy(new YandexRetryPolicy(maxAttempts, retryBudget, circuitBreaker));
+		retryTemplate.setBackOffPolicy(new YandexBackOffPolicy(initialInterval, maxInterval, maxRetryAfter));
+		if (circuitBreaker != null) {
+			retryTemplate.registerListener(new CircuitBreakerRetryListener(circuitBreaker));
+		}
+		return retryTemplate;
+	}
+
+	/**
+	 * Creates the non-blocking counterpart of {@link #retryTemplate}, for the reactive
+	 * API.
+	 * @param maxAttempts the maximum number of attempts, the first one included
+	 * @param initialInterval the minimum delay between two attempts
+	 * @param maxInterval the maximum jittered delay between two attempts
+	 * @param maxRetryAfter the maximum delay honoured from a {@code Retry-After} header
+	 * @param retryBudget the budget retries are withdrawn from
+	 * @param circuitBreaker the circuit breaker guarding the API, or {@code null}
+	 * @return the reactive retry
+	 */
+	public static YandexReactiveRetry reactiveRetry(int maxAttempts, Duration initialInterval, Duration maxInterval,
+			Duration maxRetryAfter, RetryBudget retryBudget, @Nullable YandexCircuitBreaker circuitBreaker) {
+		return new YandexReactiveRetry(maxAttempts, initialInterval, maxInterval, maxRetryAfter, retryBudget,
+				circuitBreaker);
+	}
+
+	/**
+	 * Creates a reactive retry with the default settings and its own retry budget.
+	 * @return the reactive retry
+	 */
+	public static YandexReactiveRetry reactiveRetry() {
+		return reactiveRetry(DEFAULT_MAX_ATTEMPTS, DEFAULT_INITIAL_INTERVAL, DEFAULT_MAX_INTERVAL,
+				DEFAULT_MAX_RETRY_AFTER, new RetryBudget(DEFAULT_RETRY_BUDGET_RATIO, DEFAULT_MIN_RETRIES_PER_SECOND),
+				null);
+	}
+
+}
@@ -0,0 +1,128 @@
+package io.github.abudanov.springframework.ai.yandex.vectorstore;
+
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Evaluates a portable {@link Filter.Expression} against the metadata of a document.
+ * Numbers compare by value whatever their type. A key missing from the metadata matches
+ * only {@code NE} and {@code NIN}.
+ */
+final class FilterExpressionEvaluator {
+
+	/**
+	 * Result of {@link #compare} for a missing key or values of different kinds.
+	 */
+	private static final int INCOMPARABLE = Integer.MIN_VALUE;
+
+	private FilterExpressionEvaluator() {
+	}
+
+	static boolean matches(Filter.Expression expression, Map<String, Object> metadata) {
+		return switch (expression.type()) {
+			case AND -> matches(expression.left(), metadata) && matches(expression.right(), metadata);
+			case OR -> matches(expression.left(), metadata) || matches(expression.right(), metadata);
+			case NOT -> !matches(expression.left(), metadata);
+			case EQ -> compare(expression, metadata) == 0;
+			case NE -> compare(expression, metadata) != 0;
+			case GT -> compare(expression, metadata) > 0;
+			case GTE -> {
+				int comparison = compare(expression, metadata);
+				yield comparison >= 0 && comparison != INCOMPARABLE;
+			}
+			case LT -> {
+				int comparison = compare(expression, metadata);
+				yield comparison < 0 && comparison != INCOMPARABLE;
+			}
+			case LTE -> {
+				int comparison = compare(expression, metadata);
+				yield comparison <= 0 && comparison != INCOMPARABLE;
+			}
+			case IN -> contains(expression, metadata);
+			case NIN -> !contains(expression, metadata);
+		};
+	}
+
+	private static boolean matches(Filter.Operand operand, Map<String, Object> metadata) {
+		if (operand instanceof Filter.Expression expression) {
+			return matches(expression, metadata);
+		}
+		if (operand instanceof Filter.Group group) {
+			return matches(group.content(), metadata);
+		}
+		throw new IllegalArgumentException("Expected a filter expression but got " + operand);
+	}
+
+	private static int compare(Filter.Expression expression, Map<String, Object> metadata) {
+		Object actual = metadata.get(key(expression.left()));
+		Object expected = value(expression.right());
+		if (actual == null || expected == null) {
+			return INCOMPARABLE;
+		}
+		if (actual instanceof Number a && expected instanceof Number b) {
+			return compareNumbers(a, b);
+		}
+		if (actual instanceof Boolean a && expected instanceof Boolean b) {
+			return a.equals(b) ? 0 : INCOMPARABLE;
+		}
+		if (actual instanceof CharSequence && expected instanceof CharSequence) {
+			return Integer.signum(actual.toString().compareTo(expected.toString()));
+		}
+		return Objects.equals(actual, expected) ? 0 : INCOMPARABLE;
+	}
+
+	private static boolean contains(Filter.Expression expression, Map<String, Object> metadata) {
+		Object actual = metadata.get(key(expression.left()));
+		Object expected = value(expression.right());
+		if (actual == null) {
+			return false;
+		}
+		if (!(expected instanceof Collection<?> values)) {
+			throw new IllegalArgumentException(expression.type() + " requires a list of values but got " + expected);
+		}
+		for (Object value : values) {
+			boolean equal = (actual instanceof Number a && value instanceof Number b) ? compareNumbers(a, b) == 0
+					: Objects.equals(actual.toString(), String.valueOf(value));
+			if (equal) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int compareNumbers(Number a, Number b) {
+		if (isIntegral(a) && isIntegral(b)) {
+			return Long.compare(a.longValue(), b.longValue());
+		}
+		return Double.compare(a.doubleValue(), b.doubleValue());
+	}
+
+	private static boolean isIntegral(Number number) {
+		return number instanceof Long || number instanceof Integer || number instanceof Short
+				|| number instanceof Byte;
+	}
+
+	private static String key(Filter.Operand operand) {
+		if (!(operand instanceof Filter.Key key)) {
+			throw new IllegalArgumentException("Expected a filter key but got " + operand);
+		}
+		String name = key.key();
+		// keys with special characters are quoted in the filter text syntax
+		if (name.length() > 1 && (name.startsWith("\"") && name.endsWith("\"")
+				|| name.startsWith("'") && name.endsWith("'"))) {
+			return name.substring(1, name.length() - 1);
+		}
+		return name;
+	}
+
+	private static Object value(Filter.Operand operand) {
+		if (!(operand instanceof Filter.Value value)) {
+			throw new IllegalArgumentException("Expected a filter value but got " + operand);
+		}
+		return value.value();
+	}
+
+}
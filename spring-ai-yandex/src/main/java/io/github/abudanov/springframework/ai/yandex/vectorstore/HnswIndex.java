@@ -0,0 +1,681 @@
+package io.github.abudanov.springframework.ai.yandex.vectorstore;
+
+import org.springframework.util.Assert;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntPredicate;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Hierarchical navigable small world graph over cosine similarity.
+ * <p>
+ * Vectors are normalized on insert and kept in pages of contiguous {@code float[]}
+ * storage that never move, so readers do not need a lock to score a node. Adjacency
+ * lists are immutable {@code int[]} arrays replaced under striped locks and published
+ * with release semantics, which lets several threads insert while others search without
+ * locking. Removal only clears the value of a node: the node keeps
+ * routing searches but is never returned, until {@link #compact(ObjIntConsumer)} rebuilds
+ * the graph without it.
+ *
+ * @param <T> the type of the values attached to the nodes
+ */
+final class HnswIndex<T> {
+
+	private static final int PAGE_SHIFT = 10;
+
+	private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+
+	private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+	private static final int LOCK_STRIPES = 256;
+
+	private static final int MAX_LEVEL = 16;
+
+	private static final int[] NO_NEIGHBORS = new int[0];
+
+	private static final VarHandle LINKS = MethodHandles.arrayElementVarHandle(int[][].class);
+
+	private final int dimensions;
+
+	private final int maxConnections;
+
+	private final int efConstruction;
+
+	private final double levelMultiplier;
+
+	private final ReentrantLock[] stripes = new ReentrantLock[LOCK_STRIPES];
+
+	private final ReentrantLock growLock = new ReentrantLock();
+
+	private final AtomicInteger size = new AtomicInteger();
+
+	private final AtomicInteger liveCount = new AtomicInteger();
+
+	private volatile Page<T>[] pages;
+
+	private volatile EntryPoint entryPoint;
+
+	@SuppressWarnings("unchecked")
+	HnswIndex(int dimensions, int maxConnections, int efConstruction) {
+		Assert.isTrue(dimensions > 0, "Dimensions must be positive");
+		Assert.isTrue(maxConnections > 1, "Max connections must be greater than 1");
+		Assert.isTrue(efConstruction > 0, "EF construction must be positive");
+		this.dimensions = dimensions;
+		this.maxConnections = maxConnections;
+		this.efConstruction = efConstruction;
+		this.levelMultiplier = 1 / Math.log(maxConnections);
+		for (int i = 0; i < LOCK_STRIPES; i++) {
+			this.stripes[i] = new ReentrantLock();
+		}
+		this.pages = (Page<T>[]) new Page<?>[0];
+	}
+
+	int getDimensions() {
+		return this.dimensions;
+	}
+
+	int getMaxConnections() {
+		return this.maxConnections;
+	}
+
+	int getEfConstruction() {
+		return this.efConstruction;
+	}
+
+	/**
+	 * Returns the number of nodes holding a value.
+	 */
+	int size() {
+		return this.liveCount.get();
+	}
+
+	/**
+	 * Adds a vector to the graph.
+	 * @param vector the vector, normalized into the index storage
+	 * @param value the value returned by searches reaching the node
+	 * @return the node of the vector
+	 */
+	int add(float[] vector, T value) {
+		Assert.isTrue(vector.length == this.dimensions, "Vector must have " + this.dimensions + " dimensions");
+		Assert.notNull(value, "Value must not be null");
+		int level = randomLevel();
+		int node = allocate();
+		Page<T> page = page(node);
+		int slot = node & PAGE_MASK;
+		normalize(vector, page.vectors, slot * this.dimensions);
+		int[][] links = new int[level + 1][];
+		Arrays.fill(links, NO_NEIGHBORS);
+		page.links[slot] = links;
+		page.values.set(slot, value);
+		this.liveCount.incrementAndGet();
+		connect(node, level);
+		return node;
+	}
+
+	/**
+	 * Clears the value of a node so that searches no longer return it.
+	 * @param node the node
+	 * @return whether the node held a value
+	 */
+	boolean remove(int node) {
+		boolean removed = page(node).values.getAndSet(node & PAGE_MASK, null) != null;
+		if (removed) {
+			this.liveCount.decrementAndGet();
+		}
+		return removed;
+	}
+
+	T get(int node) {
+		return page(node).values.get(node & PAGE_MASK);
+	}
+
+	/**
+	 * Returns the upper bound, exclusive, of the nodes allocated so far.
+	 */
+	int nodeCount() {
+		return this.size.get();
+	}
+
+	/**
+	 * Builds a graph of the nodes holding a value, leaving the removed ones out. The
+	 * caller must make sure that no node is added or removed while compacting.
+	 * @param relocated told the node of every value in the new graph
+	 * @return the new graph
+	 */
+	HnswIndex<T> compact(ObjIntConsumer<T> relocated) {
+		var compacted = new HnswIndex<T>(this.dimensions, this.maxConnections, this.efConstruction);
+		for (int node = 0, nodes = nodeCount(); node < nodes; node++) {
+			T value = get(node);
+			if (value != null) {
+				relocated.accept(value, compacted.add(vector(node), value));
+			}
+		}
+		return compacted;
+	}
+
+	/**
+	 * Finds the nodes most similar to the query among the accepted ones.
+	 * @param query the query vector
+	 * @param k the number of results
+	 * @param ef the size of the dynamic candidate list, at least {@code k}
+	 * @param accepted the accepted nodes, or {@code null} to accept all nodes holding a
+	 * value
+	 * @return the results, the most similar first
+	 */
+	List<Result<T>> search(float[] query, int k, int ef, BitSet accepted) {
+		Assert.isTrue(query.length == this.dimensions, "Query must have " + this.dimensions + " dimensions");
+		var entry = this.entryPoint;
+		if (entry == null || k <= 0) {
+			return List.of();
+		}
+		float[] normalized = new float[this.dimensions];
+		normalize(query, normalized, 0);
+		IntPredicate accept = (accepted != null) ? node -> accepted.get(node) && get(node) != null
+				: node -> get(node) != null;
+		int current = entry.node();
+		float currentScore = similarity(normalized, current);
+		for (int level = entry.level(); level > 0; level--) {
+			int next = greedySearch(normalized, current, currentScore, level);
+			if (next != current) {
+				current = next;
+				currentScore = similarity(normalized, current);
+			}
+		}
+		var found = searchLayer(normalized, current, Math.max(ef, k), 0, accept, -1);
+		return toResults(found, k);
+	}
+
+	/**
+	 * Scores every accepted node, for filters selective enough that walking the graph
+	 * would visit most of it anyway.
+	 */
+	List<Result<T>> exactSearch(float[] query, int k, BitSet accepted) {
+		float[] normalized = new float[this.dimensions];
+		normalize(query, normalized, 0);
+		var found = new NeighborQueue(k + 1, false);
+		for (int node = accepted.nextSetBit(0); node >= 0; node = accepted.nextSetBit(node + 1)) {
+			if (get(node) == null) {
+				continue;
+			}
+			float score = similarity(normalized, node);
+			if (found.size() < k || score > found.topScore()) {
+				found.push(node, score);
+				if (found.size() > k) {
+					found.pop();
+				}
+			}
+		}
+		return toResults(found, k);
+	}
+
+	private List<Result<T>> toResults(NeighborQueue found, int k) {
+		while (found.size() > k) {
+			found.pop();
+		}
+		var results = new ArrayList<Result<T>>(found.size());
+		while (!found.isEmpty()) {
+			float score = found.topScore();
+			int node = found.pop();
+			T value = get(node);
+			if (value != null) {
+				results.add(new Result<>(value, score));
+			}
+		}
+		// the queue pops the least similar first
+		Collections.reverse(results);
+		return results;
+	}
+
+	private void connect(int node, int level) {
+		var entry = this.entryPoint;
+		if (entry == null) {
+			this.growLock.lock();
+			try {
+				if (this.entryPoint == null) {
+					this.entryPoint = new EntryPoint(node, level);
+					return;
+				}
+				entry = this.entryPoint;
+			}
+			finally {
+				this.growLock.unlock();
+			}
+		}
+		float[] vector = vector(node);
+		int current = entry.node();
+		float currentScore = similarity(vector, current);
+		for (int l = entry.level(); l > level; l--) {
+			int next = greedySearch(vector, current, currentScore, l);
+			if (next != current) {
+				current = next;
+				currentScore = similarity(vector, current);
+			}
+		}
+		for (int l = Math.min(level, entry.level()); l >= 0; l--) {
+			var candidates = searchLayer(vector, current, this.efConstruction, l, n -> true, node);
+			int[] selected = selectNeighbors(candidates, maxConnections(l));
+			setNeighbors(node, l, selected);
+			for (int neighbor : selected) {
+				addNeighbor(neighbor, node, l);
+			}
+			if (selected.length > 0) {
+				current = selected[0];
+			}
+		}
+		if (level > entry.level()) {
+			this.growLock.lock();
+			try {
+				if (level > this.entryPoint.level()) {
+					this.entryPoint = new EntryPoint(node, level);
+				}
+			}
+			finally {
+				this.growLock.unlock();
+			}
+		}
+	}
+
+	private int greedySearch(float[] query, int node, float score, int level) {
+		int current = node;
+		float currentScore = score;
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (int neighbor : neighbors(current, level)) {
+				float neighborScore = similarity(query, neighbor);
+				if (neighborScore > currentScore) {
+					current = neighbor;
+					currentScore = neighborScore;
+					changed = true;
+				}
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * Best-first search of a single layer. Nodes that are not accepted still route the
+	 * search but are left out of the results.
+	 * @return a min-heap of at most {@code ef} results
+	 */
+	private NeighborQueue searchLayer(float[] query, int entry, int ef, int level, IntPredicate accept,
+			int excluded) {
+		var visited = new BitSet();
+		var candidates = new NeighborQueue(ef, true);
+		var results = new NeighborQueue(ef + 1, false);
+		visited.set(entry);
+		if (excluded >= 0) {
+			visited.set(excluded);
+		}
+		float entryScore = similarity(query, entry);
+		candidates.push(entry, entryScore);
+		if (entry != excluded && accept.test(entry)) {
+			results.push(entry, entryScore);
+		}
+		while (!candidates.isEmpty()) {
+			if (results.size() >= ef && candidates.topScore() < results.topScore()) {
+				break;
+			}
+			int candidate = candidates.pop();
+			for (int neighbor : neighbors(candidate, level)) {
+				if (visited.get(neighbor)) {
+					continue;
+				}
+				visited.set(neighbor);
+				float score = similarity(query, neighbor);
+				if (results.size() < ef || score > results.topScore()) {
+					candidates.push(neighbor, score);
+					if (accept.test(neighbor)) {
+						results.push(neighbor, score);
+						if (results.size() > ef) {
+							results.pop();
+						}
+					}
+				}
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Neighbor selection heuristic of the HNSW paper: a candidate is kept only if it is
+	 * closer to the base vector than to any neighbor kept so far, which keeps links
+	 * pointing in diverse directions.
+	 */
+	private int[] selectNeighbors(NeighborQueue candidates, int max) {
+		int count = candidates.size();
+		int[] nodes = new int[count];
+		float[] scores = new float[count];
+		// the min-heap pops the least similar first
+		for (int i = count - 1; i >= 0; i--) {
+			scores[i] = candidates.topScore();
+			nodes[i] = candidates.pop();
+		}
+		return selectNeighbors(nodes, scores, count, max);
+	}
+
+	private int[] selectNeighbors(int[] nodes, float[] scores, int count, int max) {
+		int[] selected = new int[Math.min(count, max)];
+		int selectedCount = 0;
+		for (int i = 0; i < count && selectedCount < selected.length; i++) {
+			boolean diverse = true;
+			for (int j = 0; j < selectedCount && diverse; j++) {
+				diverse = similarity(nodes[i], selected[j]) < scores[i];
+			}
+			if (diverse) {
+				selected[selectedCount++] = nodes[i];
+			}
+		}
+		return (selectedCount == selected.length) ? selected : Arrays.copyOf(selected, selectedCount);
+	}
+
+	private void setNeighbors(int node, int level, int[] neighbors) {
+		int[] previous;
+		lock(node);
+		try {
+			int[][] nodeLinks = page(node).links[node & PAGE_MASK];
+			previous = (int[]) LINKS.getAcquire(nodeLinks, level);
+			LINKS.setRelease(nodeLinks, level, neighbors);
+		}
+		finally {
+			unlock(node);
+		}
+		// keep links added by concurrent inserts that reached the node already
+		for (int neighbor : previous) {
+			addNeighbor(node, neighbor, level);
+		}
+	}
+
+	private void addNeighbor(int node, int neighbor, int level) {
+		lock(node);
+		try {
+			int[][] nodeLinks = page(node).links[node & PAGE_MASK];
+			if (nodeLinks.length <= level) {
+				return;
+			}
+			int[] links = (int[]) LINKS.getAcquire(nodeLinks, level);
+			for (int link : links) {
+				if (link == neighbor) {
+					return;
+				}
+			}
+			int max = maxConnections(level);
+			if (links.length < max) {
+				int[] grown = Arrays.copyOf(links, links.length + 1);
+				grown[links.length] = neighbor;
+				LINKS.setRelease(nodeLinks, level, grown);
+				return;
+			}
+			// full: keep the most diverse subset of the current neighbors and the new one
+			int count = links.length + 1;
+			int[] nodes = new int[count];
+			float[] scores = new float[count];
+			for (int i = 0; i < count; i++) {
+				int candidate = (i < links.length) ? links[i] : neighbor;
+				float score = similarity(node, candidate);
+				// insertion sort, the most similar first
+				int j = i;
+				for (; j > 0 && scores[j - 1] < score; j--) {
+					nodes[j] = nodes[j - 1];
+					scores[j] = scores[j - 1];
+				}
+				nodes[j] = candidate;
+				scores[j] = score;
+			}
+			LINKS.setRelease(nodeLinks, level, selectNeighbors(nodes, scores, count, max));
+		}
+		finally {
+			unlock(node);
+		}
+	}
+
+	/**
+	 * Returns the neighbors of a node. The array is never modified once published, so
+	 * readers use it without locking.
+	 */
+	private int[] neighbors(int node, int level) {
+		int[][] nodeLinks = page(node).links[node & PAGE_MASK];
+		return (nodeLinks.length > level) ? (int[]) LINKS.getAcquire(nodeLinks, level) : NO_NEIGHBORS;
+	}
+
+	private float similarity(float[] query, int node) {
+		return dotProduct(query, 0, page(node).vectors, (node & PAGE_MASK) * this.dimensions, this.dimensions);
+	}
+
+	private float similarity(int a, int b) {
+		return dotProduct(page(a).vectors, (a & PAGE_MASK) * this.dimensions, page(b).vectors,
+				(b & PAGE_MASK) * this.dimensions, this.dimensions);
+	}
+
+	/**
+	 * Dot product with four independent accumulators, which lets the CPU overlap the
+	 * multiply-adds that a single accumulator would serialize.
+	 */
+	private static float dotProduct(float[] a, int offsetA, float[] b, int offsetB, int length) {
+		float dot0 = 0;
+		float dot1 = 0;
+		float dot2 = 0;
+		float dot3 = 0;
+		int i = 0;
+		for (int bound = length & ~3; i < bound; i += 4) {
+			dot0 += a[offsetA + i] * b[offsetB + i];
+			dot1 += a[offsetA + i + 1] * b[offsetB + i + 1];
+			dot2 += a[offsetA + i + 2] * b[offsetB + i + 2];
+			dot3 += a[offsetA + i + 3] * b[offsetB + i + 3];
+		}
+		for (; i < length; i++) {
+			dot0 += a[offsetA + i] * b[offsetB + i];
+		}
+		return (dot0 + dot1) + (dot2 + dot3);
+	}
+
+	private float[] vector(int node) {
+		int offset = (node & PAGE_MASK) * this.dimensions;
+		return Arrays.copyOfRange(page(node).vectors, offset, offset + this.dimensions);
+	}
+
+	private int maxConnections(int level) {
+		return (level == 0) ? 2 * this.maxConnections : this.maxConnections;
+	}
+
+	private int randomLevel() {
+		double random = 1 - ThreadLocalRandom.current().nextDouble();
+		return Math.min((int) (-Math.log(random) * this.levelMultiplier), MAX_LEVEL);
+	}
+
+	/**
+	 * Reserves the next node. The size is only raised once the page of the node exists,
+	 * so readers iterating up to {@link #nodeCount()} never reach a missing page.
+	 */
+	private int allocate() {
+		while (true) {
+			int node = this.size.get();
+			int pageIndex = node >>> PAGE_SHIFT;
+			if (pageIndex >= this.pages.length) {
+				grow(pageIndex);
+			}
+			if (this.size.compareAndSet(node, node + 1)) {
+				return node;
+			}
+		}
+	}
+
+	private void grow(int pageIndex) {
+		this.growLock.lock();
+		try {
+			var current = this.pages;
+			if (pageIndex >= current.length) {
+				var grown = Arrays.copyOf(current, pageIndex + 1);
+				for (int i = current.length; i < grown.length; i++) {
+					grown[i] = new Page<>(this.dimensions);
+				}
+				this.pages = grown;
+			}
+		}
+		finally {
+			this.growLock.unlock();
+		}
+	}
+
+	private Page<T> page(int node) {
+		return this.pages[node >>> PAGE_SHIFT];
+	}
+
+	private void lock(int node) {
+		this.stripes[node & (LOCK_STRIPES - 1)].lock();
+	}
+
+	private void unlock(int node) {
+		this.stripes[node & (LOCK_STRIPES - 1)].unlock();
+	}
+
+	private static void normalize(float[] vector, float[] target, int offset) {
+		double squares = 0;
+		for (float value : vector) {
+			squares += value * value;
+		}
+		float norm = (squares == 0) ? 1 : (float) Math.sqrt(squares);
+		for (int i = 0; i < vector.length; i++) {
+			target[offset + i] = vector[i] / norm;
+		}
+	}
+
+	/**
+	 * Writes the graph. The caller must make sure that no node is added while writing.
+	 */
+	void write(DataOutput out, ValueCodec<T> codec) throws IOException {
+		int nodes = this.size.get();
+		var entry = this.entryPoint;
+		out.writeInt(this.dimensions);
+		out.writeInt(this.maxConnections);
+		out.writeInt(this.efConstruction);
+		out.writeInt(nodes);
+		out.writeInt((entry != null) ? entry.node() : -1);
+		out.writeInt((entry != null) ? entry.level() : -1);
+		for (int node = 0; node < nodes; node++) {
+			var page = page(node);
+			int slot = node & PAGE_MASK;
+			T value = page.values.get(slot);
+			out.writeBoolean(value != null);
+			if (value != null) {
+				codec.write(out, value);
+			}
+			int offset = slot * this.dimensions;
+			for (int i = 0; i < this.dimensions; i++) {
+				out.writeFloat(page.vectors[offset + i]);
+			}
+			int[][] links = page.links[slot];
+			out.writeInt(links.length);
+			for (int[] level : links) {
+				out.writeInt(level.length);
+				for (int neighbor : level) {
+					out.writeInt(neighbor);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads a graph written by {@link #write(DataOutput, ValueCodec)}.
+	 * @throws IOException if the input is truncated or is not a valid graph
+	 */
+	static <T> HnswIndex<T> read(DataInput in, ValueCodec<T> codec) throws IOException {
+		int dimensions = in.readInt();
+		int maxConnections = in.readInt();
+		int efConstruction = in.readInt();
+		check(dimensions > 0 && dimensions <= Integer.MAX_VALUE / PAGE_SIZE && maxConnections > 1 && efConstruction > 0,
+				"invalid parameters");
+		var index = new HnswIndex<T>(dimensions, maxConnections, efConstruction);
+		int nodes = in.readInt();
+		int entryNode = in.readInt();
+		int entryLevel = in.readInt();
+		check(nodes >= 0, "negative node count");
+		check((entryNode == -1 && nodes == 0) || (entryNode >= 0 && entryNode < nodes), "invalid entry point");
+		check(entryNode < 0 || (entryLevel >= 0 && entryLevel <= MAX_LEVEL), "invalid entry level");
+		for (int node = 0; node < nodes; node++) {
+			index.allocate();
+			var page = index.page(node);
+			int slot = node & PAGE_MASK;
+			if (in.readBoolean()) {
+				page.values.set(slot, codec.read(in));
+				index.liveCount.incrementAndGet();
+			}
+			int offset = slot * index.dimensions;
+			for (int i = 0; i < index.dimensions; i++) {
+				page.vectors[offset + i] = in.readFloat();
+			}
+			int levels = in.readInt();
+			check(levels > 0 && levels <= MAX_LEVEL + 1, "invalid number of levels");
+			int[][] links = new int[levels][];
+			for (int level = 0; level < links.length; level++) {
+				int count = in.readInt();
+				check(count >= 0 && count <= index.maxConnections(level), "invalid number of neighbors");
+				links[level] = new int[count];
+				for (int i = 0; i < count; i++) {
+					int neighbor = in.readInt();
+					check(neighbor >= 0 && neighbor < nodes, "invalid neighbor");
+					links[level][i] = neighbor;
+				}
+			}
+			page.links[slot] = links;
+		}
+		if (entryNode >= 0) {
+			check(entryLevel < index.page(entryNode).links[entryNode & PAGE_MASK].length, "invalid entry level");
+			index.entryPoint = new EntryPoint(entryNode, entryLevel);
+		}
+		return index;
+	}
+
+	private static void check(boolean valid, String problem) throws IOException {
+		if (!valid) {
+			throw new IOException("Corrupted snapshot: " + problem);
+		}
+	}
+
+	/**
+	 * Serializes the values attached to the nodes.
+	 */
+	interface ValueCodec<T> {
+
+		void write(DataOutput out, T value) throws IOException;
+
+		T read(DataInput in) throws IOException;
+
+	}
+
+	record Result<T>(T value, float score) {
+
+	}
+
+	private record EntryPoint(int node, int level) {
+
+	}
+
+	private static final class Page<T> {
+
+		private final float[] vectors;
+
+		private final int[][][] links = new int[PAGE_SIZE][][];
+
+		private final AtomicReferenceArray<T> values = new AtomicReferenceArray<>(PAGE_SIZE);
+
+		private Page(int dimensions) {
+			this.vectors = new float[PAGE_SIZE * dimensions];
+		}
+
+	}
+
+}
@@ -0,0 +1,97 @@
+package io.github.abudanov.springframework.ai.yandex.vectorstore;
+
+import java.util.Arrays;
+
+/**
+ * Binary heap of {@code (node, score)} pairs packed into {@code long} values, so that
+ * the graph search does not box or allocate per visited node. The score occupies the
+ * high 32 bits in an order-preserving encoding, which makes plain {@code long}
+ * comparison order the pairs by score.
+ */
+final class NeighborQueue {
+
+	private final boolean maxHeap;
+
+	private long[] heap;
+
+	private int size;
+
+	NeighborQueue(int initialCapacity, boolean maxHeap) {
+		this.heap = new long[Math.max(initialCapacity, 1)];
+		this.maxHeap = maxHeap;
+	}
+
+	void push(int node, float score) {
+		if (this.size == this.heap.length) {
+			this.heap = Arrays.copyOf(this.heap, this.size * 2);
+		}
+		long value = encode(node, score);
+		int index = this.size++;
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (!before(value, this.heap[parent])) {
+				break;
+			}
+			this.heap[index] = this.heap[parent];
+			index = parent;
+		}
+		this.heap[index] = value;
+	}
+
+	int pop() {
+		long top = this.heap[0];
+		long last = this.heap[--this.size];
+		int index = 0;
+		int half = this.size >>> 1;
+		while (index < half) {
+			int child = 2 * index + 1;
+			int right = child + 1;
+			if (right < this.size && before(this.heap[right], this.heap[child])) {
+				child = right;
+			}
+			if (!before(this.heap[child], last)) {
+				break;
+			}
+			this.heap[index] = this.heap[child];
+			index = child;
+		}
+		this.heap[index] = last;
+		return node(top);
+	}
+
+	int topNode() {
+		return node(this.heap[0]);
+	}
+
+	float topScore() {
+		return score(this.heap[0]);
+	}
+
+	int size() {
+		return this.size;
+	}
+
+	boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	private boolean before(long a, long b) {
+		return this.maxHeap ? a > b : a < b;
+	}
+
+	private static long encode(int node, float score) {
+		int bits = Float.floatToIntBits(score);
+		int sortable = bits ^ ((bits >> 31) & 0x7fffffff);
+		return ((long) sortable << 32) | (node & 0xffffffffL);
+	}
+
+	private static int node(long value) {
+		return (int) value;
+	}
+
+	private static float score(long value) {
+		int sortable = (int) (value >>> 32);
+		return Float.intBitsToFloat(sortable ^ ((sortable >> 31) & 0x7fffffff));
+	}
+
+}
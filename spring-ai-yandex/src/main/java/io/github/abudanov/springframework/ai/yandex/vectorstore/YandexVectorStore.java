@@ -0,0 +1,432 @@
+package io.github.abudanov.springframework.ai.yandex.vectorstore;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.abudanov.springframework.ai.yandex.YandexEmbeddingModel;
+import io.github.abudanov.springframework.ai.yandex.YandexEmbeddingOptions;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.util.Assert;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process {@link VectorStore} embedding documents with {@link YandexEmbeddingModel}
+ * and searching them with an HNSW graph.
+ * <p>
+ * Documents are embedded with the {@code text-search-doc} model and queries with
+ * {@code text-search-query}, as Yandex recommends for search. Additions, deletions and
+ * searches may run concurrently. Filtered searches walk the graph skipping rejected
+ * documents, or score the accepted documents directly when the filter keeps fewer of
+ * them than the search would visit anyway. {@link #save(Path)} and {@link #load(Path)}
+ * persist the documents together with the graph, so a restart does not re-embed them.
+ * <p>
+ * Deleted and replaced documents stay in the graph, routing searches, until it is
+ * {@link #compact() compacted}, which happens by itself once they exceed the compaction
+ * threshold.
+ */
+public class YandexVectorStore implements VectorStore {
+
+	public static final int DEFAULT_MAX_CONNECTIONS = 16;
+
+	public static final int DEFAULT_EF_CONSTRUCTION = 200;
+
+	public static final int DEFAULT_EF_SEARCH = 64;
+
+	public static final double DEFAULT_COMPACTION_THRESHOLD = 0.5;
+
+	/**
+	 * Metadata key of the cosine distance to the query set on search results.
+	 */
+	public static final String DISTANCE_METADATA_KEY = "distance";
+
+	private static final int SNAPSHOT_MAGIC = 0x59484e53;
+
+	private static final int SNAPSHOT_VERSION = 1;
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<>() {
+	};
+
+	private final YandexEmbeddingModel embeddingModel;
+
+	private final YandexEmbeddingOptions documentOptions;
+
+	private final YandexEmbeddingOptions queryOptions;
+
+	private final int dimensions;
+
+	private final Map<String, Integer> nodes = new ConcurrentHashMap<>();
+
+	/**
+	 * Shared by the writers, exclusive for snapshots.
+	 */
+	private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+
+	private volatile HnswIndex<StoredDocument> index;
+
+	private int efSearch = DEFAULT_EF_SEARCH;
+
+	private volatile double compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+
+	public YandexVectorStore(YandexEmbeddingModel embeddingModel) {
+		this(embeddingModel, YandexApi.EmbeddingModel.TEXT_SEARCH_DOC, YandexApi.EmbeddingModel.TEXT_SEARCH_QUERY);
+	}
+
+	public YandexVectorStore(YandexEmbeddingModel embeddingModel, YandexApi.EmbeddingModel documentModel,
+			YandexApi.EmbeddingModel queryModel) {
+		this(embeddingModel, documentModel, queryModel, DEFAULT_MAX_CONNECTIONS, DEFAULT_EF_CONSTRUCTION);
+	}
+
+	/**
+	 * Creates a vector store.
+	 * @param embeddingModel the model embedding documents and queries
+	 * @param documentModel the Yandex model embedding documents
+	 * @param queryModel the Yandex model embedding queries
+	 * @param maxConnections the number of links of a node per graph layer, twice as many
+	 * on the bottom layer
+	 * @param efConstruction the size of the candidate list when inserting
+	 */
+	public YandexVectorStore(YandexEmbeddingModel embeddingModel, YandexApi.EmbeddingModel documentModel,
+			YandexApi.EmbeddingModel queryModel, int maxConnections, int efConstruction) {
+		Assert.notNull(embeddingModel, "Embedding model must not be null");
+		Assert.notNull(documentModel, "Document model must not be null");
+		Assert.notNull(queryModel, "Query model must not be null");
+		Assert.isTrue(documentModel.getDimensions() == queryModel.getDimensions(),
+				"Document and query models must have the same dimensions");
+		this.embeddingModel = embeddingModel;
+		this.documentOptions = new YandexEmbeddingOptions(documentModel);
+		this.queryOptions = new YandexEmbeddingOptions(queryModel);
+		this.dimensions = documentModel.getDimensions();
+		this.index = new HnswIndex<>(this.dimensions, maxConnections, efConstruction);
+	}
+
+	/**
+	 * Sets the size of the candidate list when searching, trading speed for recall.
+	 * @param efSearch the size of the candidate list, raised to {@code topK} when lower
+	 */
+	public void setEfSearch(int efSearch) {
+		Assert.isTrue(efSearch > 0, "EF search must be positive");
+		this.efSearch = efSearch;
+	}
+
+	/**
+	 * Sets the share of deleted and replaced documents among the nodes of the graph
+	 * beyond which the store compacts it after an addition or a deletion.
+	 * @param compactionThreshold the share, between 0 and 1, where 1 never compacts
+	 */
+	public void setCompactionThreshold(double compactionThreshold) {
+		Assert.isTrue(compactionThreshold > 0 && compactionThreshold <= 1, "Compaction threshold must be in (0, 1]");
+		this.compactionThreshold = compactionThreshold;
+	}
+
+	public int getDimensions() {
+		return this.dimensions;
+	}
+
+	/**
+	 * Returns the number of documents in the store.
+	 * @return the number of documents
+	 */
+	public int size() {
+		return this.index.size();
+	}
+
+	@Override
+	public void add(List<Document> documents) {
+		Assert.notNull(documents, "Documents must not be null");
+		if (documents.isEmpty()) {
+			return;
+		}
+		var vectors = embedDocuments(documents);
+		this.snapshotLock.readLock().lock();
+		try {
+			var index = this.index;
+			for (int i = 0; i < documents.size(); i++) {
+				var document = documents.get(i);
+				var stored = new StoredDocument(document.getId(), document.getContent(),
+						new HashMap<>(document.getMetadata()));
+				int node = index.add(vectors.get(i), stored);
+				Integer previous = this.nodes.put(document.getId(), node);
+				if (previous != null) {
+					index.remove(previous);
+				}
+			}
+		}
+		finally {
+			this.snapshotLock.readLock().unlock();
+		}
+		compactIfNeeded();
+	}
+
+	@Override
+	public Optional<Boolean> delete(List<String> idList) {
+		Assert.notNull(idList, "Id list must not be null");
+		Optional<Boolean> result;
+		this.snapshotLock.readLock().lock();
+		try {
+			var index = this.index;
+			boolean deleted = true;
+			for (String id : idList) {
+				Integer node = this.nodes.remove(id);
+				deleted &= node != null && index.remove(node);
+			}
+			result = Optional.of(deleted);
+		}
+		finally {
+			this.snapshotLock.readLock().unlock();
+		}
+		compactIfNeeded();
+		return result;
+	}
+
+	@Override
+	public List<Document> similaritySearch(SearchRequest request) {
+		Assert.notNull(request, "Search request must not be null");
+		var index = this.index;
+		int topK = request.getTopK();
+		var query = embed(List.of(request.getQuery()), this.queryOptions).get(0);
+		List<HnswIndex.Result<StoredDocument>> results;
+		var filter = request.getFilterExpression();
+		if (filter == null) {
+			results = index.search(query, topK, this.efSearch, null);
+		}
+		else {
+			int ef = Math.max(this.efSearch, topK);
+			var accepted = new BitSet();
+			int acceptedCount = 0;
+			for (int node = 0, nodes = index.nodeCount(); node < nodes; node++) {
+				var stored = index.get(node);
+				if (stored != null && FilterExpressionEvaluator.matches(filter, stored.metadata())) {
+					accepted.set(node);
+					acceptedCount++;
+				}
+			}
+			results = (acceptedCount <= ef) ? index.exactSearch(query, topK, accepted)
+					: index.search(query, topK, ef, accepted);
+		}
+		var documents = new ArrayList<Document>(results.size());
+		for (var result : results) {
+			if (result.score() < request.getSimilarityThreshold()) {
+				continue;
+			}
+			var stored = result.value();
+			var metadata = new HashMap<>(stored.metadata());
+			metadata.put(DISTANCE_METADATA_KEY, 1 - result.score());
+			documents.add(new Document(stored.id(), stored.content(), metadata));
+		}
+		return documents;
+	}
+
+	/**
+	 * Rebuilds the graph without the deleted and replaced documents. Searches use the
+	 * previous graph until the new one is built; additions and deletions wait.
+	 */
+	public void compact() {
+		this.snapshotLock.writeLock().lock();
+		try {
+			rebuild();
+		}
+		finally {
+			this.snapshotLock.writeLock().unlock();
+		}
+	}
+
+	private void compactIfNeeded() {
+		if (!needsCompaction(this.index)) {
+			return;
+		}
+		this.snapshotLock.writeLock().lock();
+		try {
+			// another writer may have compacted it meanwhile
+			if (needsCompaction(this.index)) {
+				rebuild();
+			}
+		}
+		finally {
+			this.snapshotLock.writeLock().unlock();
+		}
+	}
+
+	private boolean needsCompaction(HnswIndex<StoredDocument> index) {
+		int nodes = index.nodeCount();
+		return nodes - index.size() > this.compactionThreshold * nodes;
+	}
+
+	private void rebuild() {
+		var compactedNodes = new HashMap<String, Integer>();
+		var compacted = this.index.compact((stored, node) -> compactedNodes.put(stored.id(), node));
+		this.nodes.clear();
+		this.nodes.putAll(compactedNodes);
+		this.index = compacted;
+	}
+
+	/**
+	 * Writes the documents and the graph to a file, replacing it atomically. Additions
+	 * and deletions wait until the snapshot is written; searches do not.
+	 * @param path the snapshot file
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	public void save(Path path) throws IOException {
+		Assert.notNull(path, "Path must not be null");
+		var parent = path.toAbsolutePath().getParent();
+		var temporary = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+		this.snapshotLock.writeLock().lock();
+		try {
+			try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+				out.writeInt(SNAPSHOT_MAGIC);
+				out.writeInt(SNAPSHOT_VERSION);
+				this.index.write(out, StoredDocumentCodec.INSTANCE);
+			}
+			Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		finally {
+			this.snapshotLock.writeLock().unlock();
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	/**
+	 * Replaces the content of the store with a snapshot written by {@link #save(Path)}.
+	 * @param path the snapshot file
+	 * @throws IOException if the snapshot cannot be read
+	 */
+	public void load(Path path) throws IOException {
+		Assert.notNull(path, "Path must not be null");
+		HnswIndex<StoredDocument> loaded;
+		try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+			if (in.readInt() != SNAPSHOT_MAGIC) {
+				throw new IOException("Not a vector store snapshot: " + path);
+			}
+			int version = in.readInt();
+			if (version != SNAPSHOT_VERSION) {
+				throw new IOException("Unsupported vector store snapshot version " + version + ": " + path);
+			}
+			loaded = HnswIndex.read(in, StoredDocumentCodec.INSTANCE);
+		}
+		if (loaded.getDimensions() != this.dimensions) {
+			throw new IOException("Snapshot has " + loaded.getDimensions() + " dimensions but the store expects "
+					+ this.dimensions + ": " + path);
+		}
+		this.snapshotLock.writeLock().lock();
+		try {
+			this.nodes.clear();
+			for (int node = 0, nodes = loaded.nodeCount(); node < nodes; node++) {
+				var stored = loaded.get(node);
+				if (stored != null) {
+					this.nodes.put(stored.id(), node);
+				}
+			}
+			this.index = loaded;
+		}
+		finally {
+			this.snapshotLock.writeLock().unlock();
+		}
+	}
+
+	private List<float[]> embedDocuments(List<Document> documents) {
+		var vectors = new ArrayList<float[]>(documents.size());
+		var texts = new ArrayList<String>();
+		for (var document : documents) {
+			var embedding = document.getEmbedding();
+			// keep embeddings computed upstream, e.g. by a document pipeline
+			vectors.add((embedding != null && embedding.length == this.dimensions) ? embedding : null);
+			if (vectors.get(vectors.size() - 1) == null) {
+				texts.add(document.getContent());
+			}
+		}
+		if (!texts.isEmpty()) {
+			var embedded = embed(texts, this.documentOptions).iterator();
+			for (int i = 0; i < vectors.size(); i++) {
+				if (vectors.get(i) == null) {
+					vectors.set(i, embedded.next());
+				}
+			}
+		}
+		return vectors;
+	}
+
+	private List<float[]> embed(List<String> texts, YandexEmbeddingOptions options) {
+		var response = this.embeddingModel.call(new EmbeddingRequest(texts, options));
+		var results = response.getResults();
+		Assert.state(results.size() == texts.size(), "Embedding model returned " + results.size()
+				+ " embeddings for " + texts.size() + " texts");
+		var vectors = new ArrayList<float[]>(results.size());
+		for (Embedding embedding : results) {
+			vectors.add(embedding.getOutput());
+		}
+		return vectors;
+	}
+
+	private record StoredDocument(String id, String content, Map<String, Object> metadata) {
+
+	}
+
+	private enum StoredDocumentCodec implements HnswIndex.ValueCodec<StoredDocument> {
+
+		INSTANCE;
+
+		@Override
+		public void write(DataOutput out, StoredDocument value) throws IOException {
+			writeBytes(out, value.id().getBytes(StandardCharsets.UTF_8));
+			writeBytes(out, (value.content() != null) ? value.content().getBytes(StandardCharsets.UTF_8) : null);
+			writeBytes(out, OBJECT_MAPPER.writeValueAsBytes(value.metadata()));
+		}
+
+		@Override
+		public StoredDocument read(DataInput in) throws IOException {
+			var id = readBytes(in);
+			var content = readBytes(in);
+			var metadataBytes = readBytes(in);
+			if (id == null || metadataBytes == null) {
+				throw new IOException("Corrupted snapshot: missing document ID or metadata");
+			}
+			Map<String, Object> metadata = OBJECT_MAPPER.readValue(metadataBytes, METADATA_TYPE);
+			return new StoredDocument(new String(id, StandardCharsets.UTF_8),
+					(content != null) ? new String(content, StandardCharsets.UTF_8) : null, metadata);
+		}
+
+		private static void writeBytes(DataOutput out, byte[] bytes) throws IOException {
+			out.writeInt((bytes != null) ? bytes.length : -1);
+			if (bytes != null) {
+				out.write(bytes);
+			}
+		}
+
+		private static byte[] readBytes(DataInput in) throws IOException {
+			int length = in.readInt();
+			if (length < 0) {
+				return null;
+			}
+			var bytes = new byte[length];
+			in.readFully(bytes);
+			return bytes;
+		}
+
+	}
+
+}
@@ -0,0 +1,176 @@
+package io.github.abudanov.springframework.ai.yandex;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class EmbeddingUtilsTests {
+
+	private static final int DIMENSIONS = 256;
+
+	private final SplittableRandom random = new SplittableRandom(42);
+
+	@Test
+	void readsBackEveryHalfPrecisionValue() {
+		for (int bits = 0; bits <= 0xffff; bits++) {
+			float value = EmbeddingUtils.halfToFloat((short) bits);
+
+			if (Float.isNaN(value)) {
+				assertThat(isNaN(EmbeddingUtils.floatToHalf(value))).as("0x%04x", bits).isTrue();
+			}
+			else {
+				assertThat(EmbeddingUtils.floatToHalf(value)).as("0x%04x", bits).isEqualTo((short) bits);
+			}
+		}
+	}
+
+	@Test
+	void convertsInfinitiesAndNaN() {
+		assertThat(EmbeddingUtils.floatToHalf(Float.POSITIVE_INFINITY)).isEqualTo((short) 0x7c00);
+		assertThat(EmbeddingUtils.floatToHalf(Float.NEGATIVE_INFINITY)).isEqualTo((short) 0xfc00);
+		assertThat(EmbeddingUtils.halfToFloat((short) 0x7c00)).isEqualTo(Float.POSITIVE_INFINITY);
+		assertThat(EmbeddingUtils.halfToFloat((short) 0xfc00)).isEqualTo(Float.NEGATIVE_INFINITY);
+		assertThat(isNaN(EmbeddingUtils.floatToHalf(Float.NaN))).isTrue();
+		assertThat(EmbeddingUtils.floatToHalf(-0f)).isEqualTo((short) 0x8000);
+	}
+
+	@Test
+	void overflowsToInfinity() {
+		assertThat(EmbeddingUtils.floatToHalf(65504f)).isEqualTo((short) 0x7bff);
+		assertThat(EmbeddingUtils.floatToHalf(65519.996f)).isEqualTo((short) 0x7bff);
+		assertThat(EmbeddingUtils.floatToHalf(65520f)).isEqualTo((short) 0x7c00);
+		assertThat(EmbeddingUtils.floatToHalf(-Float.MAX_VALUE)).isEqualTo((short) 0xfc00);
+	}
+
+	@Test
+	void convertsSubnormals() {
+		assertThat(EmbeddingUtils.floatToHalf(0x1p-24f)).isEqualTo((short) 0x0001);
+		assertThat(EmbeddingUtils.floatToHalf(0x1.8p-25f)).isEqualTo((short) 0x0001);
+		assertThat(EmbeddingUtils.floatToHalf(0x1p-25f)).as("halfway to zero").isEqualTo((short) 0);
+		assertThat(EmbeddingUtils.floatToHalf(0x1.8p-24f)).as("halfway to 2").isEqualTo((short) 0x0002);
+		assertThat(EmbeddingUtils.floatToHalf(0x1p-30f)).isEqualTo((short) 0);
+		assertThat(EmbeddingUtils.floatToHalf(-Float.MIN_VALUE)).isEqualTo((short) 0x8000);
+		assertThat(EmbeddingUtils.floatToHalf(1023 * 0x1p-24f)).isEqualTo((short) 0x03ff);
+		assertThat(EmbeddingUtils.floatToHalf(1023.5f * 0x1p-24f)).as("rounded up to the smallest normal")
+			.isEqualTo((short) 0x0400);
+		assertThat(EmbeddingUtils.halfToFloat((short) 0x8001)).isEqualTo(-0x1p-24f);
+	}
+
+	@Test
+	void roundsToTheNearestEvenValue() {
+		assertThat(EmbeddingUtils.floatToHalf(1 + 0x1p-11f)).isEqualTo((short) 0x3c00);
+		assertThat(EmbeddingUtils.floatToHalf(1 + 0x3p-11f)).isEqualTo((short) 0x3c02);
+		assertThat(EmbeddingUtils.floatToHalf(1 + 0x1p-11f + 0x1p-20f)).isEqualTo((short) 0x3c01);
+		assertThat(EmbeddingUtils.floatToHalf(1 - 0x1p-12f)).as("carried into the exponent")
+			.isEqualTo((short) 0x3c00);
+	}
+
+	@Test
+	void keepsTheRelativeErrorOfHalfPrecisionWithinTheBound() {
+		var vector = randomVector();
+
+		var decoded = EmbeddingUtils.dequantize(EmbeddingUtils.quantize(vector, EmbeddingQuantization.FP16));
+
+		for (int i = 0; i < DIMENSIONS; i++) {
+			// subnormal halves have an absolute error of at most 2^-25 instead
+			float tolerance = Math.max(Math.abs(vector[i]) * 0x1p-11f, 0x1p-25f);
+			assertThat(decoded[i]).isCloseTo(vector[i], within(tolerance));
+		}
+	}
+
+	@Test
+	void keepsTheErrorOfInt8WithinHalfAStep() {
+		var vector = randomVector();
+
+		var quantized = EmbeddingUtils.quantize(vector, EmbeddingQuantization.INT8);
+		var decoded = EmbeddingUtils.dequantize(quantized);
+
+		float tolerance = quantized.getScale() / 2 + Math.ulp(1f);
+		for (int i = 0; i < DIMENSIONS; i++) {
+			assertThat(decoded[i]).isCloseTo(vector[i], within(tolerance));
+		}
+	}
+
+	@Test
+	void quantizesAConstantVector() {
+		var quantized = EmbeddingUtils.quantize(new float[] { 0.5f, 0.5f, 0.5f }, EmbeddingQuantization.INT8);
+
+		assertThat(quantized.getScale()).isZero();
+		assertThat(EmbeddingUtils.dequantize(quantized)).containsExactly(0.5f, 0.5f, 0.5f);
+	}
+
+	@Test
+	void multipliesInt8CodesAsTheDecodedVectors() {
+		for (int i = 0; i < 100; i++) {
+			var a = EmbeddingUtils.quantize(randomVector(), EmbeddingQuantization.INT8);
+			var b = EmbeddingUtils.quantize(randomVector(), EmbeddingQuantization.INT8);
+
+			assertThat(EmbeddingUtils.dotProduct(a, b))
+				.isCloseTo((float) dot(a.toFloatArray(), b.toFloatArray()), within(1e-5f));
+		}
+	}
+
+	@Test
+	void multipliesAQueryWithInt8CodesAsWithTheDecodedVector() {
+		for (int i = 0; i < 100; i++) {
+			var query = randomVector();
+			var vector = EmbeddingUtils.quantize(randomVector(), EmbeddingQuantization.INT8);
+
+			assertThat(EmbeddingUtils.dotProduct(query, vector))
+				.isCloseTo((float) dot(query, vector.toFloatArray()), within(1e-5f));
+		}
+	}
+
+	/**
+	 * The bound stated by {@link EmbeddingQuantization#INT8}.
+	 */
+	@Test
+	void movesInt8CosineSimilaritiesByLessThanOneHundredth() {
+		for (int i = 0; i < 1_000; i++) {
+			var a = randomVector();
+			var b = randomVector();
+			double expected = dot(a, b) / Math.sqrt(dot(a, a) * dot(b, b));
+			var quantizedA = EmbeddingUtils.quantize(a, EmbeddingQuantization.INT8);
+			var quantizedB = EmbeddingUtils.quantize(b, EmbeddingQuantization.INT8);
+
+			assertThat((double) EmbeddingUtils.cosineSimilarity(quantizedA, quantizedB)).isCloseTo(expected,
+					within(0.01));
+			assertThat((double) EmbeddingUtils.cosineSimilarity(a, quantizedB)).isCloseTo(expected, within(0.01));
+		}
+	}
+
+	private static boolean isNaN(short half) {
+		return (half & 0x7c00) == 0x7c00 && (half & 0x3ff) != 0;
+	}
+
+	private static double dot(float[] a, float[] b) {
+		double dot = 0;
+		for (int i = 0; i < a.length; i++) {
+			dot += (double) a[i] * b[i];
+		}
+		return dot;
+	}
+
+	/**
+	 * Returns a random unit vector, shaped like an embedding with normally distributed
+	 * components.
+	 */
+	private float[] randomVector() {
+		var vector = new float[DIMENSIONS];
+		double squares = 0;
+		for (int i = 0; i < DIMENSIONS; i++) {
+			double value = this.random.nextDouble() + this.random.nextDouble() + this.random.nextDouble() - 1.5;
+			vector[i] = (float) value;
+			squares += value * value;
+		}
+		float norm = (float) Math.sqrt(squares);
+		for (int i = 0; i < DIMENSIONS; i++) {
+			vector[i] /= norm;
+		}
+		return vector;
+	}
+
+}
@@ -0,0 +1,95 @@
+package io.github.abudanov.springframework.ai.yandex.aot;
+
+import io.github.abudanov.springframework.ai.yandex.EmbeddingQuantization;
+import io.github.abudanov.springframework.ai.yandex.YandexChatOptions;
+import io.github.abudanov.springframework.ai.yandex.YandexEmbeddingOptions;
+import io.github.abudanov.springframework.ai.yandex.api.YandexApi;
+import io.github.abudanov.springframework.ai.yandex.auth.YandexIamTokenClient;
+import io.github.abudanov.springframework.ai.yandex.auth.YandexServiceAccountKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.ExecutableHint;
+import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.core.io.support.SpringFactoriesLoader;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class YandexRuntimeHintsTests {
+
+	private final RuntimeHints hints = new RuntimeHints();
+
+	@BeforeEach
+	void setUp() {
+		new YandexRuntimeHints().registerHints(this.hints, getClass().getClassLoader());
+	}
+
+	@Test
+	void isRegisteredThroughAotFactories() {
+		var registrars = SpringFactoriesLoader.forResourceLocation("META-INF/spring/aot.factories")
+			.load(RuntimeHintsRegistrar.class);
+
+		assertThat(registrars).hasAtLeastOneElementOfType(YandexRuntimeHints.class);
+	}
+
+	@Test
+	void registersTheJsonMappedTypes() {
+		for (var type : new Class<?>[] { YandexApi.CompletionRequest.class, YandexApi.CompletionResult.class,
+				YandexApi.CompletionResponse.Alternative.class, YandexApi.Operation.class, YandexApi.Role.class,
+				YandexApi.CompletionStatus.class, YandexApi.TextEmbeddingResponse.class,
+				YandexApi.TokenizeResponse.Token.class, YandexIamTokenClient.CreateTokenRequest.class,
+				YandexIamTokenClient.CreateTokenResponse.class, YandexServiceAccountKey.class }) {
+			assertThat(RuntimeHintsPredicates.reflection()
+				.onType(type)
+				.withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+						MemberCategory.INVOKE_PUBLIC_METHODS))
+				.as(type.getName())
+				.accepts(this.hints);
+		}
+	}
+
+	@Test
+	void registersTheEmbeddingDeserializer() {
+		var deserializer = TypeReference.of(YandexApi.class.getPackageName() + ".TextEmbeddingResponseDeserializer");
+
+		assertThat(RuntimeHintsPredicates.reflection()
+			.onType(deserializer)
+			.withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(this.hints);
+	}
+
+	@Test
+	void registersTheOptions() {
+		assertThat(RuntimeHintsPredicates.reflection().onType(YandexChatOptions.class)).accepts(this.hints);
+		assertThat(RuntimeHintsPredicates.reflection().onType(YandexEmbeddingOptions.class)).accepts(this.hints);
+		assertThat(RuntimeHintsPredicates.reflection().onType(EmbeddingQuantization.class)).accepts(this.hints);
+	}
+
+	/**
+	 * Checks the registered method names rather than resolving the methods, which do not
+	 * exist on Java 17.
+	 */
+	@Test
+	void registersTheVirtualThreadApi() {
+		assertThat(invokedMethods(TypeReference.of(Thread.class))).containsExactly("ofVirtual");
+		assertThat(invokedMethods(TypeReference.of("java.lang.Thread$Builder"))).containsExactlyInAnyOrder("name",
+				"factory");
+		assertThat(invokedMethods(TypeReference.of(Executors.class))).containsExactly("newThreadPerTaskExecutor");
+	}
+
+	private List<String> invokedMethods(TypeReference type) {
+		var typeHint = this.hints.reflection().getTypeHint(type);
+		assertThat(typeHint).as(type.getName()).isNotNull();
+		return typeHint.methods()
+			.filter(method -> method.getMode() == ExecutableMode.INVOKE)
+			.map(ExecutableHint::getName)
+			.toList();
+	}
+
+}
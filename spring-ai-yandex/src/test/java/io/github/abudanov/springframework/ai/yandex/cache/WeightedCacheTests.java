@@ -0,0 +1,203 @@
+package io.github.abudanov.springframework.ai.yandex.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WeightedCacheTests {
+
+	private static final Duration TIME_TO_LIVE = Duration.ofMinutes(1);
+
+	private final AtomicLong now = new AtomicLong();
+
+	@Test
+	void keepsTheTotalWeightUnderTheMaximum() {
+		var cache = newCache(EvictionPolicy.LRU);
+
+		cache.put("a", "aaaa");
+		cache.put("b", "bbbb");
+		cache.put("c", "cccc");
+
+		assertThat(cache.get("a")).isNull();
+		assertThat(cache.stats()).isEqualTo(new CacheStats(0, 1, 1, 2, 8));
+	}
+
+	@Test
+	void doesNotCacheAValueHeavierThanTheMaximum() {
+		var cache = newCache(EvictionPolicy.LRU);
+		cache.put("a", "aaaa");
+
+		cache.put("a", "aaaaaaaaaaa");
+
+		assertThat(cache.get("a")).isNull();
+		assertThat(cache.stats().weight()).isZero();
+	}
+
+	@Test
+	void replacesTheValueOfAKey() {
+		var cache = newCache(EvictionPolicy.LRU);
+		cache.put("a", "aaaa");
+
+		cache.put("a", "aa");
+
+		assertThat(cache.get("a")).isEqualTo("aa");
+		assertThat(cache.stats().weight()).isEqualTo(2);
+		assertThat(cache.stats().evictionCount()).isZero();
+	}
+
+	@Test
+	void evictsTheLeastRecentlyUsedEntry() {
+		var cache = newCache(EvictionPolicy.LRU);
+		cache.put("a", "aaa");
+		cache.put("b", "bbb");
+		cache.put("c", "ccc");
+		cache.get("a");
+
+		cache.put("d", "ddd");
+
+		assertThat(cache.get("b")).isNull();
+		assertThat(cache.get("a")).isNotNull();
+		assertThat(cache.get("c")).isNotNull();
+		assertThat(cache.get("d")).isNotNull();
+	}
+
+	@Test
+	void evictsTheLeastFrequentlyUsedEntry() {
+		var cache = newCache(EvictionPolicy.LFU);
+		cache.put("a", "aaa");
+		cache.put("b", "bbb");
+		cache.put("c", "ccc");
+		cache.get("b");
+		cache.get("b");
+		cache.get("a");
+
+		cache.put("d", "ddd");
+
+		assertThat(cache.get("c")).isNull();
+		assertThat(cache.get("a")).isNotNull();
+		assertThat(cache.get("b")).isNotNull();
+		assertThat(cache.get("d")).isNotNull();
+	}
+
+	@Test
+	void evictsTheLeastRecentlyUsedAmongEquallyFrequentEntries() {
+		var cache = newCache(EvictionPolicy.LFU);
+		cache.put("a", "aaa");
+		cache.put("b", "bbb");
+		cache.put("c", "ccc");
+		cache.get("b");
+		cache.get("a");
+		cache.get("c");
+
+		cache.put("d", "ddd");
+
+		assertThat(cache.get("b")).isNull();
+	}
+
+	@Test
+	void keepsANewEntryWhenTheOthersAreUsedMoreOften() {
+		var cache = newCache(EvictionPolicy.LFU);
+		cache.put("a", "aaa");
+		cache.put("b", "bbb");
+		cache.put("c", "ccc");
+		cache.get("b");
+		cache.get("a");
+		cache.get("c");
+
+		cache.put("d", "ddddd");
+
+		assertThat(cache.get("d")).isEqualTo("ddddd");
+		assertThat(cache.get("b")).isNull();
+		assertThat(cache.get("a")).isNull();
+		assertThat(cache.get("c")).isNotNull();
+		assertThat(cache.stats().evictionCount()).isEqualTo(2);
+	}
+
+	@Test
+	void expiresEntriesAfterTheTimeToLiveSinceTheLastWrite() {
+		var cache = newCache(EvictionPolicy.LRU);
+		cache.put("a", "aaa");
+		this.now.addAndGet(TIME_TO_LIVE.toNanos() - 1);
+		assertThat(cache.get("a")).isEqualTo("aaa");
+
+		this.now.incrementAndGet();
+
+		assertThat(cache.get("a")).isNull();
+		assertThat(cache.stats()).isEqualTo(new CacheStats(1, 1, 1, 0, 0));
+	}
+
+	@Test
+	void restartsTheTimeToLiveWhenAnEntryIsWrittenAgain() {
+		var cache = newCache(EvictionPolicy.LRU);
+		cache.put("a", "aaa");
+		this.now.addAndGet(TIME_TO_LIVE.toNanos() - 1);
+
+		cache.put("a", "aaa");
+		this.now.addAndGet(TIME_TO_LIVE.toNanos() - 1);
+
+		assertThat(cache.get("a")).isEqualTo("aaa");
+	}
+
+	@Test
+	void removesExpiredEntriesWhenAddingOthers() {
+		var cache = newCache(EvictionPolicy.LRU);
+		cache.put("a", "aaa");
+		cache.put("b", "bbb");
+		this.now.addAndGet(TIME_TO_LIVE.toNanos());
+
+		cache.put("c", "ccc");
+
+		assertThat(cache.stats()).isEqualTo(new CacheStats(0, 0, 2, 1, 3));
+	}
+
+	@Test
+	void keepsEntriesWithoutATimeToLive() {
+		var cache = new WeightedCache<String, String>(10, null, EvictionPolicy.LRU, String::length, this.now::get);
+		cache.put("a", "aaa");
+
+		this.now.addAndGet(Duration.ofDays(365).toNanos());
+
+		assertThat(cache.get("a")).isEqualTo("aaa");
+	}
+
+	@Test
+	void countsHitsAndMisses() {
+		var cache = newCache(EvictionPolicy.LRU);
+		cache.put("a", "aaa");
+
+		cache.get("a");
+		cache.get("a");
+		cache.get("a");
+		cache.get("b");
+
+		var stats = cache.stats();
+		assertThat(stats.hitCount()).isEqualTo(3);
+		assertThat(stats.missCount()).isOne();
+		assertThat(stats.requestCount()).isEqualTo(4);
+		assertThat(stats.hitRatio()).isEqualTo(0.75);
+	}
+
+	@Test
+	void invalidatesEntries() {
+		var cache = newCache(EvictionPolicy.LFU);
+		cache.put("a", "aaa");
+		cache.put("b", "bbb");
+
+		cache.invalidate("a");
+		assertThat(cache.stats().weight()).isEqualTo(3);
+		cache.invalidateAll();
+
+		assertThat(cache.get("b")).isNull();
+		assertThat(cache.stats().size()).isZero();
+		assertThat(cache.stats().weight()).isZero();
+		assertThat(cache.stats().evictionCount()).isZero();
+	}
+
+	private WeightedCache<String, String> newCache(EvictionPolicy evictionPolicy) {
+		return new WeightedCache<>(10, TIME_TO_LIVE, evictionPolicy, String::length, this.now::get);
+	}
+
+}
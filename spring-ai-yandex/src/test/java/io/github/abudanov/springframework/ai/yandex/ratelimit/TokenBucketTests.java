@@ -0,0 +1,177 @@
+package io.github.abudanov.springframework.ai.yandex.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class TokenBucketTests {
+
+	private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+	private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+	private final TokenBucket bucket = new TokenBucket("test", 10, 3, this.now::get);
+
+	@Test
+	void takesTheBurstAtOnce() {
+		assertThat(this.bucket.getAvailablePermits()).isEqualTo(3);
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(this.bucket.tryAcquire()).isTrue();
+		}
+
+		assertThat(this.bucket.tryAcquire()).isFalse();
+		assertThat(this.bucket.getAvailablePermits()).isZero();
+		assertThat(this.bucket.getAcquiredCount()).isEqualTo(3);
+		assertThat(this.bucket.getRejectedCount()).isOne();
+		assertThat(this.bucket.getWaitCount()).isZero();
+	}
+
+	@Test
+	void refillsAtTheSustainedRate() {
+		drain();
+
+		this.now.addAndGet(INTERVAL - 1);
+		assertThat(this.bucket.tryAcquire()).isFalse();
+		this.now.incrementAndGet();
+		assertThat(this.bucket.tryAcquire()).isTrue();
+		assertThat(this.bucket.tryAcquire()).isFalse();
+	}
+
+	@Test
+	void refillsUpToTheBurstOnly() {
+		drain();
+
+		this.now.addAndGet(10 * INTERVAL);
+
+		assertThat(this.bucket.getAvailablePermits()).isEqualTo(3);
+		for (int i = 0; i < 3; i++) {
+			assertThat(this.bucket.tryAcquire()).isTrue();
+		}
+		assertThat(this.bucket.tryAcquire()).isFalse();
+	}
+
+	@Test
+	void reservesAPermitAvailableWithinTheMaximumWait() {
+		drain();
+
+		assertThat(this.bucket.tryReserve(INTERVAL + INTERVAL / 2)).isEqualTo(INTERVAL);
+		assertThat(this.bucket.tryReserve(INTERVAL + INTERVAL / 2)).isEqualTo(-1);
+		assertThat(this.bucket.tryReserve(Long.MAX_VALUE)).isEqualTo(2 * INTERVAL);
+
+		assertThat(this.bucket.getAcquiredCount()).isEqualTo(5);
+		assertThat(this.bucket.getRejectedCount()).isOne();
+		assertThat(this.bucket.getWaitCount()).isEqualTo(2);
+		assertThat(this.bucket.getTotalWaitTime()).isEqualTo(Duration.ofNanos(3 * INTERVAL));
+	}
+
+	@Test
+	void failsFastWithoutAMaximumWait() {
+		drain();
+
+		assertThat(this.bucket.tryReserve(0)).isEqualTo(-1);
+		assertThat(this.bucket.getRejectedCount()).isOne();
+	}
+
+	@Test
+	void waitsForAReservedPermit() throws InterruptedException {
+		drain();
+		long start = System.nanoTime();
+
+		assertThat(this.bucket.tryAcquire(INTERVAL)).isTrue();
+
+		assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(INTERVAL);
+		assertThat(this.bucket.tryAcquire(INTERVAL)).isFalse();
+		assertThat(this.bucket.getWaitCount()).isOne();
+	}
+
+	@Test
+	void givesThePermitBackWhenInterruptedWhileWaiting() {
+		drain();
+
+		Thread.currentThread().interrupt();
+		assertThatExceptionOfType(InterruptedException.class)
+			.isThrownBy(() -> this.bucket.tryAcquire(Long.MAX_VALUE));
+
+		assertThat(this.bucket.getAcquiredCount()).isEqualTo(3);
+		assertThat(this.bucket.getWaitCount()).isZero();
+		assertThat(this.bucket.getTotalWaitTime()).isZero();
+		assertThat(this.bucket.tryReserve(Long.MAX_VALUE)).isEqualTo(INTERVAL);
+	}
+
+	@Test
+	void grantsEveryPermitOnceUnderContention() throws Exception {
+		var bucket = new TokenBucket("test", 10, 1000, this.now::get);
+
+		var results = race(8, 500, () -> bucket.tryAcquire() ? 1L : 0L);
+
+		assertThat(results.stream().mapToLong(Long::longValue).sum()).isEqualTo(1000);
+		assertThat(bucket.getAcquiredCount()).isEqualTo(1000);
+		assertThat(bucket.getRejectedCount()).isEqualTo(3000);
+	}
+
+	@Test
+	void queuesConcurrentReservationsOneIntervalApart() throws Exception {
+		var bucket = new TokenBucket("test", 10, 1, this.now::get);
+
+		var waits = race(8, 100, () -> bucket.tryReserve(Long.MAX_VALUE));
+
+		assertThat(waits).containsExactlyInAnyOrderElementsOf(
+				LongStream.range(0, 800).map(i -> i * INTERVAL).boxed().toList());
+	}
+
+	private void drain() {
+		for (int i = 0; i < 3; i++) {
+			assertThat(this.bucket.tryAcquire()).isTrue();
+		}
+	}
+
+	/**
+	 * Runs the call the given number of times on each of the threads, all threads
+	 * starting at once, and returns the results.
+	 */
+	private static List<Long> race(int threads, int calls, LongCall call) throws Exception {
+		var executor = Executors.newFixedThreadPool(threads);
+		try {
+			var start = new CountDownLatch(1);
+			List<Long> results = new ArrayList<>();
+			List<Future<List<Long>>> futures = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					List<Long> own = new ArrayList<>(calls);
+					for (int j = 0; j < calls; j++) {
+						own.add(call.call());
+					}
+					return own;
+				}));
+			}
+			start.countDown();
+			for (var future : futures) {
+				results.addAll(future.get(30, TimeUnit.SECONDS));
+			}
+			return results;
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private interface LongCall {
+
+		long call();
+
+	}
+
+}
@@ -0,0 +1,59 @@
+package io.github.abudanov.springframework.ai.yandex.retry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryBudgetTests {
+
+	@Test
+	void allowsARetryPerRatioOfRequests() {
+		var budget = new RetryBudget(0.1, 0);
+		for (int i = 0; i < 9; i++) {
+			budget.onRequest();
+		}
+		assertThat(budget.tryRetry()).isFalse();
+
+		budget.onRequest();
+
+		assertThat(budget.tryRetry()).isTrue();
+		assertThat(budget.tryRetry()).isFalse();
+		assertThat(budget.getExhaustedCount()).isEqualTo(2);
+	}
+
+	@Test
+	void capsTheRetriesSavedDuringAQuietPeriod() {
+		var budget = new RetryBudget(0.1, 0);
+		for (int i = 0; i < 10_000; i++) {
+			budget.onRequest();
+		}
+
+		int retries = 0;
+		while (budget.tryRetry()) {
+			retries++;
+		}
+
+		assertThat(retries).isEqualTo(10);
+		assertThat(budget.getExhaustedCount()).isOne();
+	}
+
+	@Test
+	void allowsTheMinimumRetriesWithoutRequests() {
+		var budget = new RetryBudget(0.1, 0.5);
+
+		assertThat(budget.tryRetry()).isTrue();
+		assertThat(budget.tryRetry()).isFalse();
+		assertThat(budget.getExhaustedCount()).isOne();
+	}
+
+	@Test
+	void refusesEveryRetryWithAnEmptyBudget() {
+		var budget = new RetryBudget(0, 0);
+		for (int i = 0; i < 100; i++) {
+			budget.onRequest();
+		}
+
+		assertThat(budget.tryRetry()).isFalse();
+	}
+
+}
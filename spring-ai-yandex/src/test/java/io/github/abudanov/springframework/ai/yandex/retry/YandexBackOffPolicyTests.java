@@ -0,0 +1,86 @@
+package io.github.abudanov.springframework.ai.yandex.retry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.retry.context.RetryContextSupport;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class YandexBackOffPolicyTests {
+
+	private static final long INITIAL = 100;
+
+	private static final long MAX = 1_000;
+
+	@Test
+	void picksTheDelayBetweenTheInitialIntervalAndThreeTimesThePreviousDelay() {
+		long previous = 0;
+		for (int i = 0; i < 10_000; i++) {
+			long delay = YandexBackOffPolicy.nextDelay(previous, INITIAL, MAX);
+
+			assertThat(delay).isBetween(INITIAL, Math.min(MAX, 3 * Math.max(previous, INITIAL)));
+			previous = delay;
+		}
+	}
+
+	@Test
+	void spreadsTheDelays() {
+		var delays = new ArrayList<Long>();
+		for (int i = 0; i < 1_000; i++) {
+			delays.add(YandexBackOffPolicy.nextDelay(MAX, INITIAL, MAX));
+		}
+
+		assertThat(delays).anyMatch(delay -> delay < 2 * INITIAL).anyMatch(delay -> delay > MAX / 2);
+		assertThat(delays.stream().distinct().count()).isGreaterThan(100);
+	}
+
+	@Test
+	void waitsTheInitialIntervalWhenItIsTheMaximum() {
+		assertThat(YandexBackOffPolicy.nextDelay(0, INITIAL, INITIAL)).isEqualTo(INITIAL);
+		assertThat(YandexBackOffPolicy.nextDelay(INITIAL, INITIAL, INITIAL)).isEqualTo(INITIAL);
+	}
+
+	@Test
+	void waitsAsLongAsTheRetryAfterHeaderAsks() {
+		var delays = backOff(Duration.ofSeconds(3), Duration.ofSeconds(10));
+
+		assertThat(delays).containsExactly(3_000L, 3_000L, 3_000L);
+	}
+
+	@Test
+	void capsTheDelayAskedByTheRetryAfterHeader() {
+		var delays = backOff(Duration.ofMinutes(10), Duration.ofSeconds(10));
+
+		assertThat(delays).containsExactly(10_000L, 10_000L, 10_000L);
+	}
+
+	@Test
+	void keepsTheJitterWhenTheRetryAfterHeaderAsksLess() {
+		var delays = backOff(Duration.ZERO, Duration.ofSeconds(10));
+
+		assertThat(delays).allSatisfy(delay -> assertThat(delay).isBetween(INITIAL, MAX));
+	}
+
+	/**
+	 * Backs off three times after failures carrying the given {@code Retry-After} delay,
+	 * returning the delays slept.
+	 */
+	private static List<Long> backOff(Duration retryAfter, Duration maxRetryAfter) {
+		List<Long> delays = new ArrayList<>();
+		var policy = new YandexBackOffPolicy(Duration.ofMillis(INITIAL), Duration.ofMillis(MAX), maxRetryAfter,
+				delays::add);
+		var retryContext = new RetryContextSupport(null);
+		retryContext.registerThrowable(
+				new YandexApiException("Too many requests", HttpStatus.TOO_MANY_REQUESTS, retryAfter));
+		var backOffContext = policy.start(retryContext);
+		for (int i = 0; i < 3; i++) {
+			policy.backOff(backOffContext);
+		}
+		return delays;
+	}
+
+}
@@ -0,0 +1,125 @@
+package io.github.abudanov.springframework.ai.yandex.retry;
+
+import io.github.abudanov.springframework.ai.yandex.retry.YandexCircuitBreaker.State;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+
+class YandexCircuitBreakerTests {
+
+	private static final Duration OPEN_DURATION = Duration.ofSeconds(10);
+
+	private final AtomicLong now = new AtomicLong();
+
+	private final YandexCircuitBreaker breaker = new YandexCircuitBreaker(0.5, 4, 4, OPEN_DURATION, 2, this.now::get);
+
+	@Test
+	void staysClosedUntilTheMinimumNumberOfCalls() {
+		record(true, true, true);
+		assertThat(this.breaker.getState()).isEqualTo(State.CLOSED);
+		assertThatNoException().isThrownBy(this.breaker::acquirePermission);
+
+		record(true);
+
+		assertThat(this.breaker.getState()).isEqualTo(State.OPEN);
+	}
+
+	@Test
+	void opensWhenTheFailureRateReachesTheThreshold() {
+		record(false, false, false, true);
+		assertThat(this.breaker.getState()).isEqualTo(State.CLOSED);
+
+		record(true);
+
+		assertThat(this.breaker.getState()).isEqualTo(State.OPEN);
+	}
+
+	@Test
+	void forgetsTheCallsOutOfTheSlidingWindow() {
+		record(true, false, false, false);
+
+		record(true);
+		assertThat(this.breaker.getState()).isEqualTo(State.CLOSED);
+		record(true);
+
+		assertThat(this.breaker.getState()).isEqualTo(State.OPEN);
+	}
+
+	@Test
+	void rejectsCallsWhileOpen() {
+		open();
+		this.now.addAndGet(OPEN_DURATION.toNanos() - 1);
+
+		assertThatExceptionOfType(CircuitBreakerOpenException.class).isThrownBy(this.breaker::acquirePermission);
+		record(false, false);
+		assertThat(this.breaker.getState()).isEqualTo(State.OPEN);
+	}
+
+	@Test
+	void closesWhenTheTrialCallsSucceed() {
+		open();
+		this.now.addAndGet(OPEN_DURATION.toNanos());
+
+		this.breaker.acquirePermission();
+		this.breaker.acquirePermission();
+		assertThat(this.breaker.getState()).isEqualTo(State.HALF_OPEN);
+		assertThatExceptionOfType(CircuitBreakerOpenException.class).isThrownBy(this.breaker::acquirePermission);
+		record(false, false);
+
+		assertThat(this.breaker.getState()).isEqualTo(State.CLOSED);
+		record(true, true, true);
+		assertThat(this.breaker.getState()).as("a new window after closing").isEqualTo(State.CLOSED);
+	}
+
+	@Test
+	void opensAgainWhenATrialCallFails() {
+		open();
+		this.now.addAndGet(OPEN_DURATION.toNanos());
+		this.breaker.acquirePermission();
+
+		record(true);
+
+		assertThat(this.breaker.getState()).isEqualTo(State.OPEN);
+		assertThatExceptionOfType(CircuitBreakerOpenException.class).isThrownBy(this.breaker::acquirePermission);
+	}
+
+	@Test
+	void grantsNewTrialCallsWhenTheFormerNeverReportBack() {
+		open();
+		this.now.addAndGet(OPEN_DURATION.toNanos());
+		this.breaker.acquirePermission();
+		this.breaker.acquirePermission();
+
+		this.now.addAndGet(OPEN_DURATION.toNanos() - 1);
+		assertThatExceptionOfType(CircuitBreakerOpenException.class).isThrownBy(this.breaker::acquirePermission);
+		this.now.incrementAndGet();
+
+		this.breaker.acquirePermission();
+		this.breaker.acquirePermission();
+		assertThat(this.breaker.getState()).isEqualTo(State.HALF_OPEN);
+		record(false, false);
+		assertThat(this.breaker.getState()).isEqualTo(State.CLOSED);
+	}
+
+	private void open() {
+		record(true, true, true, true);
+		assertThat(this.breaker.getState()).isEqualTo(State.OPEN);
+	}
+
+	private void record(boolean... failures) {
+		for (boolean failure : failures) {
+			if (failure) {
+				this.breaker.onFailure();
+			}
+			else {
+				this.breaker.onSuccess();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,73 @@
+package io.github.abudanov.springframework.ai.yandex.retry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class YandexResponseErrorHandlerTests {
+
+	@Test
+	void readsTheRetryAfterSeconds() {
+		assertThat(YandexResponseErrorHandler.retryAfter(retryAfter("120"))).isEqualTo(Duration.ofSeconds(120));
+		assertThat(YandexResponseErrorHandler.retryAfter(retryAfter(" 7 "))).isEqualTo(Duration.ofSeconds(7));
+		assertThat(YandexResponseErrorHandler.retryAfter(retryAfter("-5"))).isZero();
+	}
+
+	@Test
+	void readsTheRetryAfterDate() {
+		var date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(60));
+
+		var delay = YandexResponseErrorHandler.retryAfter(retryAfter(date));
+
+		assertThat(delay).isBetween(Duration.ofSeconds(55), Duration.ofSeconds(60));
+	}
+
+	@Test
+	void readsAPastRetryAfterDateAsNoDelay() {
+		var delay = YandexResponseErrorHandler.retryAfter(retryAfter("Wed, 21 Oct 2015 07:28:00 GMT"));
+
+		assertThat(delay).isZero();
+	}
+
+	@Test
+	void ignoresAMissingOrInvalidRetryAfter() {
+		assertThat(YandexResponseErrorHandler.retryAfter(new HttpHeaders())).isNull();
+		assertThat(YandexResponseErrorHandler.retryAfter(retryAfter(" "))).isNull();
+		assertThat(YandexResponseErrorHandler.retryAfter(retryAfter("soon"))).isNull();
+	}
+
+	@Test
+	void reportsRetryableErrorsWithTheirDelay() {
+		for (var status : new HttpStatus[] { HttpStatus.TOO_MANY_REQUESTS, HttpStatus.REQUEST_TIMEOUT,
+				HttpStatus.INTERNAL_SERVER_ERROR, HttpStatus.SERVICE_UNAVAILABLE }) {
+			var exception = YandexResponseErrorHandler.toException(status, retryAfter("3"), "error");
+
+			assertThat(exception).isInstanceOfSatisfying(YandexApiException.class, ex -> {
+				assertThat(ex.getStatusCode()).isEqualTo(status);
+				assertThat(ex.getRetryAfter()).isEqualTo(Duration.ofSeconds(3));
+			});
+		}
+	}
+
+	@Test
+	void reportsOtherClientErrorsAsNonTransient() {
+		var exception = YandexResponseErrorHandler.toException(HttpStatus.BAD_REQUEST, new HttpHeaders(), "invalid");
+
+		assertThat(exception).isInstanceOf(NonTransientAiException.class).hasMessage("400 - invalid");
+	}
+
+	private static HttpHeaders retryAfter(String value) {
+		var headers = new HttpHeaders();
+		headers.set(HttpHeaders.RETRY_AFTER, value);
+		return headers;
+	}
+
+}
@@ -0,0 +1,338 @@
+package io.github.abudanov.springframework.ai.yandex.vectorstore;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+class HnswIndexTests {
+
+	private static final int DIMENSIONS = 32;
+
+	private static final int K = 10;
+
+	private static final HnswIndex.ValueCodec<Integer> CODEC = new HnswIndex.ValueCodec<>() {
+
+		@Override
+		public void write(DataOutput out, Integer value) throws IOException {
+			out.writeInt(value);
+		}
+
+		@Override
+		public Integer read(DataInput in) throws IOException {
+			return in.readInt();
+		}
+
+	};
+
+	private final SplittableRandom random = new SplittableRandom(42);
+
+	@Test
+	void findsTheNeighborsFoundByBruteForce() {
+		var vectors = randomVectors(2_000);
+		var index = newIndex(vectors);
+
+		assertThat(recall(index, vectors, node -> true)).isGreaterThanOrEqualTo(0.9);
+	}
+
+	@Test
+	void neverReturnsRemovedNodes() {
+		var vectors = randomVectors(500);
+		var index = newIndex(vectors);
+
+		for (int node = 0; node < vectors.size(); node += 2) {
+			assertThat(index.remove(node)).isTrue();
+		}
+
+		assertThat(index.remove(0)).isFalse();
+		assertThat(index.get(0)).isNull();
+		assertThat(index.size()).isEqualTo(250);
+		assertThat(index.nodeCount()).isEqualTo(500);
+		for (int i = 0; i < 20; i++) {
+			assertThat(values(index.search(randomVector(), K, 64, null))).allMatch(value -> value % 2 == 1);
+		}
+		assertThat(recall(index, vectors, node -> node % 2 == 1)).isGreaterThanOrEqualTo(0.9);
+	}
+
+	@Test
+	void compactionLeavesTheRemovedNodesOut() {
+		var vectors = randomVectors(500);
+		var index = newIndex(vectors);
+		for (int node = 0; node < vectors.size(); node += 2) {
+			index.remove(node);
+		}
+		Map<Integer, Integer> relocated = new HashMap<>();
+
+		var compacted = index.compact(relocated::put);
+
+		assertThat(compacted.nodeCount()).isEqualTo(250);
+		assertThat(compacted.size()).isEqualTo(250);
+		assertThat(relocated).hasSize(250).allSatisfy((value, node) -> {
+			assertThat(value % 2).isOne();
+			assertThat(compacted.get(node)).isEqualTo(value);
+		});
+		assertThat(recall(compacted, vectors, node -> node % 2 == 1)).isGreaterThanOrEqualTo(0.9);
+	}
+
+	@Test
+	void searchesWhileNodesAreAdded() throws Exception {
+		var vectors = randomVectors(2_000);
+		var index = new HnswIndex<Integer>(DIMENSIONS, 16, 100);
+		var executor = Executors.newFixedThreadPool(6);
+		try {
+			var searching = new AtomicBoolean(true);
+			List<Future<?>> searches = new ArrayList<>();
+			for (int i = 0; i < 2; i++) {
+				searches.add(executor.submit(() -> {
+					while (searching.get()) {
+						var query = randomVector(new SplittableRandom(ThreadLocalRandom.current().nextLong()));
+						assertThat(values(index.search(query, K, 64, null))).hasSizeLessThanOrEqualTo(K)
+							.allMatch(value -> value >= 0 && value < vectors.size());
+					}
+				}));
+			}
+			List<Future<?>> writers = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				int first = i;
+				writers.add(executor.submit(() -> {
+					for (int value = first; value < vectors.size(); value += 4) {
+						index.add(vectors.get(value), value);
+					}
+				}));
+			}
+			for (var writer : writers) {
+				writer.get(30, TimeUnit.SECONDS);
+			}
+			searching.set(false);
+			for (var search : searches) {
+				search.get(30, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(index.size()).isEqualTo(vectors.size());
+		assertThat(index.nodeCount()).isEqualTo(vectors.size());
+		long foundThemselves = IntStream.range(0, vectors.size())
+			.filter(value -> values(index.search(vectors.get(value), 1, 64, null)).equals(List.of(value)))
+			.count();
+		assertThat(foundThemselves).isGreaterThanOrEqualTo(vectors.size() * 95L / 100);
+	}
+
+	@Test
+	void readsTheGraphItWrote() throws IOException {
+		var vectors = randomVectors(300);
+		var index = newIndex(vectors);
+		for (int node = 0; node < 10; node++) {
+			index.remove(node);
+		}
+		var snapshot = write(index);
+
+		var read = read(snapshot);
+
+		assertThat(read.getDimensions()).isEqualTo(DIMENSIONS);
+		assertThat(read.getMaxConnections()).isEqualTo(index.getMaxConnections());
+		assertThat(read.getEfConstruction()).isEqualTo(index.getEfConstruction());
+		assertThat(read.nodeCount()).isEqualTo(300);
+		assertThat(read.size()).isEqualTo(290);
+		for (int i = 0; i < 20; i++) {
+			var query = randomVector();
+			assertThat(values(read.search(query, K, 64, null))).isEqualTo(values(index.search(query, K, 64, null)));
+		}
+		assertThat(write(read)).isEqualTo(snapshot);
+	}
+
+	@Test
+	void readsAnEmptyGraph() throws IOException {
+		var read = read(write(new HnswIndex<>(DIMENSIONS, 16, 100)));
+
+		assertThat(read.nodeCount()).isZero();
+		assertThat(read.search(randomVector(), K, 64, null)).isEmpty();
+	}
+
+	@Test
+	void rejectsATruncatedSnapshot() throws IOException {
+		var snapshot = write(newIndex(randomVectors(50)));
+
+		assertThatIOException().isThrownBy(() -> read(Arrays.copyOf(snapshot, snapshot.length / 2)));
+	}
+
+	@Test
+	void rejectsInvalidParameters() {
+		assertThatIOException().isThrownBy(() -> read(snapshot(out -> header(out, -1, 1, 0, 0))))
+			.withMessageContaining("invalid parameters");
+		assertThatIOException().isThrownBy(() -> read(snapshot(out -> header(out, Integer.MAX_VALUE, 1, 0, 0))))
+			.withMessageContaining("invalid parameters");
+	}
+
+	@Test
+	void rejectsAnEntryPointOutOfTheGraph() {
+		assertThatIOException().isThrownBy(() -> read(snapshot(out -> header(out, 2, 1, 3, 0))))
+			.withMessageContaining("invalid entry point");
+		assertThatIOException().isThrownBy(() -> read(snapshot(out -> header(out, 2, 1, 0, 99))))
+			.withMessageContaining("invalid entry level");
+	}
+
+	@Test
+	void rejectsALinkOutOfTheGraph() {
+		var snapshot = snapshot(out -> {
+			header(out, 2, 1, 0, 0);
+			node(out, 1, 5);
+		});
+
+		assertThatIOException().isThrownBy(() -> read(snapshot)).withMessageContaining("invalid neighbor");
+	}
+
+	@Test
+	void rejectsAnInvalidNumberOfLevels() {
+		var snapshot = snapshot(out -> {
+			header(out, 2, 1, 0, 0);
+			node(out, 100);
+		});
+
+		assertThatIOException().isThrownBy(() -> read(snapshot)).withMessageContaining("invalid number of levels");
+	}
+
+	private HnswIndex<Integer> newIndex(List<float[]> vectors) {
+		var index = new HnswIndex<Integer>(DIMENSIONS, 16, 100);
+		for (int value = 0; value < vectors.size(); value++) {
+			assertThat(index.add(vectors.get(value), value)).isEqualTo(value);
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the share of the exact nearest neighbors of random queries that the graph
+	 * finds, among the accepted vectors.
+	 */
+	private double recall(HnswIndex<Integer> index, List<float[]> vectors, IntPredicate accepted) {
+		int queries = 50;
+		int found = 0;
+		for (int i = 0; i < queries; i++) {
+			var query = randomVector();
+			var expected = IntStream.range(0, vectors.size())
+				.filter(accepted)
+				.boxed()
+				.sorted(Comparator.comparingDouble(value -> -cosine(query, vectors.get(value))))
+				.limit(K)
+				.toList();
+			var actual = values(index.search(query, K, 100, null));
+			found += (int) actual.stream().filter(expected::contains).count();
+		}
+		return found / (double) (queries * K);
+	}
+
+	private static double cosine(float[] a, float[] b) {
+		double dot = 0;
+		double normA = 0;
+		double normB = 0;
+		for (int i = 0; i < a.length; i++) {
+			dot += a[i] * b[i];
+			normA += a[i] * a[i];
+			normB += b[i] * b[i];
+		}
+		return dot / Math.sqrt(normA * normB);
+	}
+
+	private static List<Integer> values(List<HnswIndex.Result<Integer>> results) {
+		return results.stream().map(HnswIndex.Result::value).toList();
+	}
+
+	private List<float[]> randomVectors(int count) {
+		var vectors = new ArrayList<float[]>(count);
+		for (int i = 0; i < count; i++) {
+			vectors.add(randomVector());
+		}
+		return vectors;
+	}
+
+	private float[] randomVector() {
+		return randomVector(this.random);
+	}
+
+	private static float[] randomVector(SplittableRandom random) {
+		var vector = new float[DIMENSIONS];
+		for (int i = 0; i < DIMENSIONS; i++) {
+			vector[i] = (float) (random.nextDouble() * 2 - 1);
+		}
+		return vector;
+	}
+
+	private static byte[] write(HnswIndex<Integer> index) throws IOException {
+		var bytes = new ByteArrayOutputStream();
+		try (var out = new DataOutputStream(bytes)) {
+			index.write(out, CODEC);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static HnswIndex<Integer> read(byte[] snapshot) throws IOException {
+		return HnswIndex.read(new DataInputStream(new ByteArrayInputStream(snapshot)), CODEC);
+	}
+
+	private static byte[] snapshot(SnapshotWriter writer) {
+		var bytes = new ByteArrayOutputStream();
+		try (var out = new DataOutputStream(bytes)) {
+			writer.write(out);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static void header(DataOutput out, int dimensions, int nodes, int entryNode, int entryLevel)
+			throws IOException {
+		out.writeInt(dimensions);
+		out.writeInt(2);
+		out.writeInt(1);
+		out.writeInt(nodes);
+		out.writeInt(entryNode);
+		out.writeInt(entryLevel);
+	}
+
+	/**
+	 * Writes a node of a two-dimensional graph, without a value, linked to the neighbors
+	 * on its bottom level.
+	 */
+	private static void node(DataOutput out, int levels, int... neighbors) throws IOException {
+		out.writeBoolean(false);
+		out.writeFloat(1);
+		out.writeFloat(0);
+		out.writeInt(levels);
+		out.writeInt(neighbors.length);
+		for (int neighbor : neighbors) {
+			out.writeInt(neighbor);
+		}
+	}
+
+	private interface SnapshotWriter {
+
+		void write(DataOutput out) throws IOException;
+
+	}
+
+}